@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.access;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.model.TCSResourceReference;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Statistics about the contention of resources within a recent period of time.
+ */
+public class ResourceContentionStatistics
+    implements Serializable {
+
+  /**
+   * The duration of the period of time the statistics cover (in ms).
+   */
+  private final long windowDuration;
+  /**
+   * The statistics for the individual resources.
+   */
+  private final List<Entry> entries;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param windowDuration The duration of the period of time the statistics cover (in ms).
+   * @param entries The statistics for the individual resources.
+   */
+  public ResourceContentionStatistics(long windowDuration, @Nonnull List<Entry> entries) {
+    checkArgument(windowDuration >= 0, "windowDuration < 0: %s", windowDuration);
+    this.windowDuration = windowDuration;
+    this.entries = Collections.unmodifiableList(new ArrayList<>(requireNonNull(entries,
+                                                                               "entries")));
+  }
+
+  /**
+   * Returns the duration of the period of time the statistics cover (in ms).
+   *
+   * @return The duration of the period of time the statistics cover.
+   */
+  public long getWindowDuration() {
+    return windowDuration;
+  }
+
+  /**
+   * Returns the statistics for the individual resources.
+   * Resources that have neither been allocated nor waited for within the period of time the
+   * statistics cover may be omitted.
+   *
+   * @return The statistics for the individual resources.
+   */
+  @Nonnull
+  public List<Entry> getEntries() {
+    return entries;
+  }
+
+  @Override
+  public String toString() {
+    return "ResourceContentionStatistics{"
+        + "windowDuration=" + windowDuration
+        + ", entries=" + entries
+        + '}';
+  }
+
+  /**
+   * The contention statistics for a single resource.
+   */
+  public static class Entry
+      implements Serializable {
+
+    /**
+     * A reference to the resource.
+     */
+    private final TCSResourceReference<?> resource;
+    /**
+     * The time the resource was allocated (in ms).
+     */
+    private final long occupancyTime;
+    /**
+     * The time allocations of the resource were waited for (in ms).
+     */
+    private final long waitingTime;
+    /**
+     * The number of times an allocation of the resource was deferred.
+     */
+    private final int deferralCount;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param resource A reference to the resource.
+     * @param occupancyTime The time the resource was allocated (in ms).
+     * @param waitingTime The time allocations of the resource were waited for (in ms).
+     * @param deferralCount The number of times an allocation of the resource was deferred.
+     */
+    public Entry(@Nonnull TCSResourceReference<?> resource,
+                 long occupancyTime,
+                 long waitingTime,
+                 int deferralCount) {
+      this.resource = requireNonNull(resource, "resource");
+      this.occupancyTime = occupancyTime;
+      this.waitingTime = waitingTime;
+      this.deferralCount = deferralCount;
+    }
+
+    /**
+     * Returns a reference to the resource.
+     *
+     * @return A reference to the resource.
+     */
+    @Nonnull
+    public TCSResourceReference<?> getResource() {
+      return resource;
+    }
+
+    /**
+     * Returns the time the resource was allocated (in ms).
+     *
+     * @return The time the resource was allocated.
+     */
+    public long getOccupancyTime() {
+      return occupancyTime;
+    }
+
+    /**
+     * Returns the time allocations of the resource were waited for (in ms).
+     * If multiple allocations of the resource were waited for at the same time, their waiting
+     * times add up.
+     *
+     * @return The time allocations of the resource were waited for.
+     */
+    public long getWaitingTime() {
+      return waitingTime;
+    }
+
+    /**
+     * Returns the number of times an allocation of the resource was deferred.
+     *
+     * @return The number of times an allocation of the resource was deferred.
+     */
+    public int getDeferralCount() {
+      return deferralCount;
+    }
+
+    @Override
+    public String toString() {
+      return "Entry{"
+          + "resource=" + resource
+          + ", occupancyTime=" + occupancyTime
+          + ", waitingTime=" + waitingTime
+          + ", deferralCount=" + deferralCount
+          + '}';
+    }
+  }
+}
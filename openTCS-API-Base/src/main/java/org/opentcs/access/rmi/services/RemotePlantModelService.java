@@ -9,13 +9,16 @@ package org.opentcs.access.rmi.services;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 import java.util.Map;
+import org.opentcs.access.ResourceContentionStatistics;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.access.to.model.PlantModelCreationTO;
 import org.opentcs.components.kernel.services.PlantModelService;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Location;
 import org.opentcs.data.model.PlantModel;
+import org.opentcs.util.annotations.ScheduledApiChange;
 
 /**
  * Declares the methods provided by the {@link PlantModelService} via RMI.
@@ -50,5 +53,11 @@ public interface RemotePlantModelService
 
   void updateLocationLock(ClientID clientId, TCSObjectReference<Location> ref, boolean locked)
       throws RemoteException;
+
+  @ScheduledApiChange(when = "6.0", details = "Default implementation will be removed.")
+  default ResourceContentionStatistics fetchResourceContentionStatistics(ClientID clientId)
+      throws RemoteException {
+    return new ResourceContentionStatistics(0, List.of());
+  }
   // CHECKSTYLE:ON
 }
@@ -10,6 +10,7 @@ package org.opentcs.access.rmi.services;
 import java.rmi.RemoteException;
 import java.util.Map;
 import org.opentcs.access.KernelRuntimeException;
+import org.opentcs.access.ResourceContentionStatistics;
 import org.opentcs.access.to.model.PlantModelCreationTO;
 import org.opentcs.components.kernel.services.PlantModelService;
 import org.opentcs.data.ObjectExistsException;
@@ -97,4 +98,17 @@ class RemotePlantModelServiceProxy
       throw findSuitableExceptionFor(ex);
     }
   }
+
+  @Override
+  public ResourceContentionStatistics fetchResourceContentionStatistics()
+      throws KernelRuntimeException {
+    checkServiceAvailability();
+
+    try {
+      return getRemoteService().fetchResourceContentionStatistics(getClientId());
+    }
+    catch (RemoteException ex) {
+      throw findSuitableExceptionFor(ex);
+    }
+  }
 }
@@ -9,10 +9,15 @@ package org.opentcs.access.rmi.services;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.Map;
+import java.util.Set;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.components.kernel.services.RouterService;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.util.annotations.ScheduledApiChange;
 
 /**
  * Declares the methods provided by the {@link RouterService} via RMI.
@@ -37,5 +42,15 @@ public interface RemoteRouterService
 
   public void updateRoutingTopology(ClientID clientId)
       throws RemoteException;
+
+  @ScheduledApiChange(when = "6.0", details = "Default implementation will be removed.")
+  default Map<TCSObjectReference<Point>, Map<TCSObjectReference<Point>, Long>> computeRouteCosts(
+      ClientID clientId,
+      TCSObjectReference<Vehicle> vehicleRef,
+      Set<TCSObjectReference<Point>> sourcePointRefs,
+      Set<TCSObjectReference<Point>> destinationPointRefs)
+      throws RemoteException {
+    return Map.of();
+  }
   // CHECKSTYLE:ON
 }
@@ -8,11 +8,15 @@
 package org.opentcs.access.rmi.services;
 
 import java.rmi.RemoteException;
+import java.util.Map;
+import java.util.Set;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.components.kernel.services.RouterService;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
 
 /**
  * The default implementation of the router service.
@@ -53,4 +57,23 @@ class RemoteRouterServiceProxy
       throw findSuitableExceptionFor(ex);
     }
   }
+
+  @Override
+  public Map<TCSObjectReference<Point>, Map<TCSObjectReference<Point>, Long>> computeRouteCosts(
+      TCSObjectReference<Vehicle> vehicleRef,
+      Set<TCSObjectReference<Point>> sourcePointRefs,
+      Set<TCSObjectReference<Point>> destinationPointRefs)
+      throws ObjectUnknownException, KernelRuntimeException {
+    checkServiceAvailability();
+
+    try {
+      return getRemoteService().computeRouteCosts(getClientId(),
+                                                  vehicleRef,
+                                                  sourcePointRefs,
+                                                  destinationPointRefs);
+    }
+    catch (RemoteException ex) {
+      throw findSuitableExceptionFor(ex);
+    }
+  }
 }
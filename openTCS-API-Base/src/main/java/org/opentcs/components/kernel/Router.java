@@ -7,10 +7,12 @@
  */
 package org.opentcs.components.kernel;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import org.opentcs.components.Lifecycle;
@@ -20,6 +22,7 @@ import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.DriveOrder;
 import org.opentcs.data.order.Route;
 import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.annotations.ScheduledApiChange;
 
 /**
  * This interface declares the methods a router module for the openTCS
@@ -119,6 +122,82 @@ public interface Router
                 @Nonnull Point sourcePoint,
                 @Nonnull Point destinationPoint);
 
+  /**
+   * Returns the costs for travelling routes from each of the given source points to each of the
+   * given destination points with a given vehicle.
+   * <p>
+   * Implementations are expected to compute the costs in one pass per source point (e.g. using a
+   * one-to-many shortest path tree) instead of one search per pair of points.
+   * </p>
+   *
+   * @param vehicle The vehicle for which the routes must be passable.
+   * @param sourcePoints The starting points of the routes.
+   * @param destinationPoints The end points of the routes.
+   * @return A matrix of costs, mapping each source point to a map of each destination point to the
+   * costs of the respective route, or <code>Long.MAX_VALUE</code>, if no such route exists.
+   */
+  @Nonnull
+  @ScheduledApiChange(when = "6.0", details = "Default implementation will be removed.")
+  default Map<Point, Map<Point, Long>> getCosts(@Nonnull Vehicle vehicle,
+                                                @Nonnull Set<Point> sourcePoints,
+                                                @Nonnull Set<Point> destinationPoints) {
+    Map<Point, Map<Point, Long>> result = new HashMap<>();
+    for (Point sourcePoint : sourcePoints) {
+      Map<Point, Long> costsBySource = new HashMap<>();
+      for (Point destinationPoint : destinationPoints) {
+        costsBySource.put(destinationPoint, getCosts(vehicle, sourcePoint, destinationPoint));
+      }
+      result.put(sourcePoint, costsBySource);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the costs for travelling routes from the given source point to those of the given
+   * destination points that can be reached with the lowest costs.
+   * <p>
+   * Implementations are expected to stop searching once the requested number of destination
+   * points has been reached, so callers interested only in the closest destination points do not
+   * have to wait for the costs of all of them to be computed.
+   * </p>
+   *
+   * @param vehicle The vehicle for which the routes must be passable.
+   * @param sourcePoint The starting point of the routes.
+   * @param destinationPoints The end points of the routes.
+   * @param maxCount The maximum number of destination points to return costs for.
+   * @return A map of (at most) the given number of destination points with the lowest costs to
+   * the costs of the respective route. Destination points that cannot be reached are not contained.
+   */
+  @Nonnull
+  @ScheduledApiChange(when = "6.0", details = "Default implementation will be removed.")
+  default Map<Point, Long> getCostsToClosest(@Nonnull Vehicle vehicle,
+                                             @Nonnull Point sourcePoint,
+                                             @Nonnull Set<Point> destinationPoints,
+                                             int maxCount) {
+    return getCosts(vehicle, Set.of(sourcePoint), destinationPoints)
+        .getOrDefault(sourcePoint, Map.of()).entrySet().stream()
+        .filter(entry -> entry.getValue() < Long.MAX_VALUE)
+        .sorted(Map.Entry.comparingByValue())
+        .limit(maxCount)
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  /**
+   * Indicates whether the routes computed by this router depend on the states of vehicles other
+   * than the one being routed or on other runtime states, e.g. the current occupancy of resources
+   * or the routes selected for other vehicles.
+   * <p>
+   * If this router's routes depend only on the plant model and the vehicle being routed, callers
+   * may reuse computed routes as long as neither of these changes.
+   * </p>
+   *
+   * @return <code>true</code> if, and only if, the routes computed by this router depend on such
+   * states.
+   */
+  default boolean routesDependOnVehicleStates() {
+    return false;
+  }
+
   /**
    * Returns the costs for travelling a route from one point to another with a
    * given vehicle.
@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import org.opentcs.access.ResourceContentionStatistics;
 import org.opentcs.components.Lifecycle;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.util.annotations.ScheduledApiChange;
@@ -154,6 +155,34 @@ public interface Scheduler
   void allocate(@Nonnull Client client, @Nonnull Set<TCSResource<?>> resources)
       throws IllegalArgumentException;
 
+  /**
+   * Requests allocation of the given sequence of resource sets.
+   * <p>
+   * This is equivalent to calling
+   * {@link #allocate(org.opentcs.components.kernel.Scheduler.Client, java.util.Set) allocate()}
+   * for each set in the sequence, with the next set being requested as soon as the previous one has
+   * been granted, except that the scheduler may grant multiple sets at once.
+   * The client will be informed via a callback to
+   * {@link Client#allocationSuccessful(java.util.Set)} for each set, in the order of the sequence.
+   * </p>
+   *
+   * @param client The client requesting the resources.
+   * @param resourceSequence The sequence of resource sets to be allocated.
+   * @throws IllegalArgumentException If the sequence is empty or not equal to the <em>next</em>
+   * sets in the sequence of currently claimed resources, or if the client has already requested
+   * resources that have not yet been granted.
+   * @throws UnsupportedOperationException If this scheduler does not support allocating resource
+   * sequences, in which case clients should fall back to requesting one set at a time via
+   * {@link #allocate(org.opentcs.components.kernel.Scheduler.Client, java.util.Set) allocate()}.
+   * @see #allocate(org.opentcs.components.kernel.Scheduler.Client, java.util.Set)
+   */
+  @ScheduledApiChange(when = "6.0", details = "Default implementation will be removed.")
+  default void allocateSequence(@Nonnull Client client,
+                                @Nonnull List<Set<TCSResource<?>>> resourceSequence)
+      throws IllegalArgumentException, UnsupportedOperationException {
+    throw new UnsupportedOperationException("Allocating resource sequences not supported.");
+  }
+
   /**
    * Checks if the resulting system state is safe if the given set of resources
    * would be allocated by the given client <em>immediately</em>.
@@ -232,6 +261,19 @@ public interface Scheduler
   default void reschedule() {
   }
 
+  /**
+   * Informs the scheduler that a module may now permit allocations it refused for the given client
+   * before, so the scheduler tries to allocate the resources the client is waiting for again.
+   *
+   * @param module The module that refused allocations for the client.
+   * @param client The client.
+   * @see Module#mayAllocate(org.opentcs.components.kernel.Scheduler.Client, java.util.Set)
+   */
+  @ScheduledApiChange(when = "6.0", details = "Default implementation will be removed.")
+  default void retryAllocations(@Nonnull Module module, @Nonnull Client client) {
+    reschedule();
+  }
+
   /**
    * Returns all resource allocations as a map of client IDs to resources.
    *
@@ -240,6 +282,18 @@ public interface Scheduler
   @Nonnull
   Map<String, Set<TCSResource<?>>> getAllocations();
 
+  /**
+   * Returns statistics about the contention of resources within a recent period of time, i.e. how
+   * long resources were allocated and how long and how often allocations of them had to wait.
+   *
+   * @return Statistics about the contention of resources.
+   */
+  @Nonnull
+  @ScheduledApiChange(when = "6.0", details = "Default implementation will be removed.")
+  default ResourceContentionStatistics getResourceContentionStatistics() {
+    return new ResourceContentionStatistics(0, List.of());
+  }
+
   /**
    * Informs the scheduler that a set of resources was successfully prepared in order of allocating
    * them to a client.
@@ -330,6 +384,15 @@ public interface Scheduler
     /**
      * Checks if the resulting system state is safe if the given set of resources
      * would be allocated by the given resource user.
+     * <p>
+     * If this module refuses the allocation, the scheduler defers it and tries again only once
+     * resources it is waiting for (i.e. the requested resources or members of blocks containing
+     * them) have been released.
+     * A module refusing allocations for any other reason (e.g. the state of the client or of other
+     * clients) is responsible for calling
+     * {@link Scheduler#retryAllocations(Scheduler.Module, Scheduler.Client) retryAllocations()}
+     * once this reason may no longer apply, as the allocation may otherwise never be retried.
+     * </p>
      *
      * @param client The <code>ResourceUser</code> requesting resources set.
      * @param resources The requested resources.
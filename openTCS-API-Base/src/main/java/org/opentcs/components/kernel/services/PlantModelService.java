@@ -7,14 +7,19 @@
  */
 package org.opentcs.components.kernel.services;
 
+import java.util.List;
 import java.util.Map;
+import javax.annotation.Nonnull;
 import org.opentcs.access.KernelRuntimeException;
+import org.opentcs.access.ResourceContentionStatistics;
 import org.opentcs.access.to.model.PlantModelCreationTO;
+import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.data.ObjectExistsException;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Location;
 import org.opentcs.data.model.PlantModel;
+import org.opentcs.util.annotations.ScheduledApiChange;
 
 /**
  * Provides methods concerning the plant model.
@@ -74,4 +79,19 @@ public interface PlantModelService
    */
   void updateLocationLock(TCSObjectReference<Location> ref, boolean locked)
       throws ObjectUnknownException, KernelRuntimeException;
+
+  /**
+   * Returns statistics about the contention of the plant model's resources within a recent period
+   * of time.
+   *
+   * @return Statistics about the contention of resources.
+   * @throws KernelRuntimeException In case there is an exception executing this method.
+   * @see Scheduler#getResourceContentionStatistics()
+   */
+  @Nonnull
+  @ScheduledApiChange(when = "6.0", details = "Default implementation will be removed.")
+  default ResourceContentionStatistics fetchResourceContentionStatistics()
+      throws KernelRuntimeException {
+    return new ResourceContentionStatistics(0, List.of());
+  }
 }
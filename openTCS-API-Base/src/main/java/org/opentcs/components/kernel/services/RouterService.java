@@ -7,11 +7,17 @@
  */
 package org.opentcs.components.kernel.services;
 
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nonnull;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.components.kernel.Router;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.util.annotations.ScheduledApiChange;
 
 /**
  * Provides methods concerning the {@link Router}.
@@ -38,4 +44,27 @@ public interface RouterService {
    */
   void updateRoutingTopology()
       throws KernelRuntimeException;
+
+  /**
+   * Computes the costs for travelling routes from each of the given source points to each of the
+   * given destination points with the given vehicle.
+   *
+   * @param vehicleRef A reference to the vehicle for which the routes must be passable.
+   * @param sourcePointRefs References to the starting points of the routes.
+   * @param destinationPointRefs References to the end points of the routes.
+   * @return A matrix of costs, mapping each source point to a map of each destination point to the
+   * costs of the respective route, or <code>Long.MAX_VALUE</code>, if no such route exists.
+   * @throws ObjectUnknownException If any of the referenced objects does not exist.
+   * @throws KernelRuntimeException In case there is an exception executing this method.
+   * @see Router#getCosts(Vehicle, Set, Set)
+   */
+  @Nonnull
+  @ScheduledApiChange(when = "6.0", details = "Default implementation will be removed.")
+  default Map<TCSObjectReference<Point>, Map<TCSObjectReference<Point>, Long>> computeRouteCosts(
+      @Nonnull TCSObjectReference<Vehicle> vehicleRef,
+      @Nonnull Set<TCSObjectReference<Point>> sourcePointRefs,
+      @Nonnull Set<TCSObjectReference<Point>> destinationPointRefs)
+      throws ObjectUnknownException, KernelRuntimeException {
+    return Map.of();
+  }
 }
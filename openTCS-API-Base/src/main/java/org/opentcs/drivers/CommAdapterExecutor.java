@@ -0,0 +1,551 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableScheduledFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An executor executing the tasks of a single communication adapter one at a time, in the order
+ * they were submitted, on threads borrowed from a {@link CommAdapterExecutorPool}.
+ * <p>
+ * As long as no task is queued, an instance does not occupy a thread at all.
+ * Tasks may block (e.g. for I/O), which only delays the tasks of the same executor.
+ * </p>
+ * <p>
+ * When an instance is shut down, tasks already queued are still executed, but delayed and periodic
+ * tasks that are not yet due are cancelled.
+ * Exceptions thrown by tasks are logged.
+ * </p>
+ * <p>
+ * Instances are created via {@link CommAdapterExecutorPool#createExecutor(String)}.
+ * </p>
+ */
+public class CommAdapterExecutor
+    extends AbstractExecutorService
+    implements ScheduledExecutorService {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(CommAdapterExecutor.class);
+  /**
+   * The maximum number of tasks executed before the borrowed thread is handed back to the pool,
+   * giving other executors' tasks a chance to run.
+   */
+  private static final int MAX_TASKS_PER_RUN = 32;
+  /**
+   * The name of this executor.
+   */
+  private final String name;
+  /**
+   * The executor providing the threads tasks are executed on.
+   */
+  private final Executor threadPool;
+  /**
+   * The executor used to wait for delayed tasks to become due.
+   */
+  private final ScheduledExecutorService timer;
+  /**
+   * Called when this executor has terminated, with the executor's lock held.
+   */
+  private final Consumer<CommAdapterExecutor> terminationListener;
+  /**
+   * The tasks waiting to be executed.
+   */
+  private final Queue<QueuedTask> queuedTasks = new ArrayDeque<>();
+  /**
+   * The delayed and periodic tasks that are not done, yet.
+   */
+  private final Set<ScheduledTask<?>> scheduledTasks = new HashSet<>();
+  /**
+   * Whether the queued tasks are currently being executed (or about to be).
+   */
+  private boolean running;
+  /**
+   * Whether this executor has been shut down.
+   */
+  private boolean shutdown;
+  /**
+   * Whether this executor has terminated.
+   */
+  private boolean terminated;
+  /**
+   * The number of tasks taken from the queue for execution.
+   */
+  private long executedTaskCount;
+  /**
+   * The accumulated time tasks waited in the queue before being executed (in ns).
+   */
+  private long totalQueueTime;
+  /**
+   * The longest time a task waited in the queue before being executed (in ns).
+   */
+  private long maxQueueTime;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param name The name of this executor.
+   * @param threadPool The executor providing the threads tasks are executed on.
+   * @param timer The executor used to wait for delayed tasks to become due.
+   * @param terminationListener Called when this executor has terminated, with the executor's lock
+   * held.
+   */
+  CommAdapterExecutor(@Nonnull String name,
+                      @Nonnull Executor threadPool,
+                      @Nonnull ScheduledExecutorService timer,
+                      @Nonnull Consumer<CommAdapterExecutor> terminationListener) {
+    this.name = requireNonNull(name, "name");
+    this.threadPool = requireNonNull(threadPool, "threadPool");
+    this.timer = requireNonNull(timer, "timer");
+    this.terminationListener = requireNonNull(terminationListener, "terminationListener");
+  }
+
+  /**
+   * Returns the name of this executor.
+   *
+   * @return The name of this executor.
+   */
+  @Nonnull
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns the number of tasks waiting to be executed.
+   *
+   * @return The number of tasks waiting to be executed.
+   */
+  public synchronized int getQueuedTaskCount() {
+    return queuedTasks.size();
+  }
+
+  /**
+   * Returns the number of delayed and periodic tasks that are not done, yet.
+   *
+   * @return The number of delayed and periodic tasks that are not done, yet.
+   */
+  public synchronized int getScheduledTaskCount() {
+    return scheduledTasks.size();
+  }
+
+  /**
+   * Returns the number of tasks taken from the queue for execution.
+   *
+   * @return The number of tasks taken from the queue for execution.
+   */
+  public synchronized long getExecutedTaskCount() {
+    return executedTaskCount;
+  }
+
+  /**
+   * Returns the average time executed tasks waited in the queue before being executed.
+   *
+   * @param unit The time unit of the returned value.
+   * @return The average time executed tasks waited in the queue.
+   */
+  public synchronized long getAverageQueueTime(@Nonnull TimeUnit unit) {
+    requireNonNull(unit, "unit");
+
+    return executedTaskCount == 0
+        ? 0
+        : unit.convert(totalQueueTime / executedTaskCount, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Returns the longest time an executed task waited in the queue before being executed.
+   *
+   * @param unit The time unit of the returned value.
+   * @return The longest time an executed task waited in the queue.
+   */
+  public synchronized long getMaxQueueTime(@Nonnull TimeUnit unit) {
+    requireNonNull(unit, "unit");
+
+    return unit.convert(maxQueueTime, TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public void execute(@Nonnull Runnable command) {
+    requireNonNull(command, "command");
+
+    synchronized (this) {
+      if (shutdown) {
+        throw new RejectedExecutionException("Executor " + name + " has been shut down");
+      }
+      queuedTasks.add(new QueuedTask(command, System.nanoTime()));
+      if (!running) {
+        try {
+          threadPool.execute(this::executeQueuedTasks);
+        }
+        catch (RejectedExecutionException exc) {
+          queuedTasks.clear();
+          throw exc;
+        }
+        running = true;
+      }
+    }
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(@Nonnull Runnable command, long delay, @Nonnull TimeUnit unit) {
+    requireNonNull(command, "command");
+
+    return schedule(new ScheduledTask<Void>(command, null, triggerTime(delay, unit), 0));
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(@Nonnull Callable<V> callable,
+                                         long delay,
+                                         @Nonnull TimeUnit unit) {
+    requireNonNull(callable, "callable");
+
+    return schedule(new ScheduledTask<>(callable, triggerTime(delay, unit), 0));
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(@Nonnull Runnable command,
+                                                long initialDelay,
+                                                long period,
+                                                @Nonnull TimeUnit unit) {
+    requireNonNull(command, "command");
+    checkArgument(period > 0, "period <= 0");
+
+    return schedule(new ScheduledTask<Void>(command,
+                                            null,
+                                            triggerTime(initialDelay, unit),
+                                            unit.toNanos(period)));
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(@Nonnull Runnable command,
+                                                   long initialDelay,
+                                                   long delay,
+                                                   @Nonnull TimeUnit unit) {
+    requireNonNull(command, "command");
+    checkArgument(delay > 0, "delay <= 0");
+
+    return schedule(new ScheduledTask<Void>(command,
+                                            null,
+                                            triggerTime(initialDelay, unit),
+                                            -unit.toNanos(delay)));
+  }
+
+  @Override
+  public void shutdown() {
+    List<ScheduledTask<?>> tasksToCancel;
+    synchronized (this) {
+      if (shutdown) {
+        return;
+      }
+      shutdown = true;
+      tasksToCancel = new ArrayList<>(scheduledTasks);
+    }
+
+    for (ScheduledTask<?> task : tasksToCancel) {
+      task.cancel(false);
+    }
+
+    synchronized (this) {
+      if (!running) {
+        markTerminated();
+      }
+    }
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    List<Runnable> result = new ArrayList<>();
+    synchronized (this) {
+      for (QueuedTask task : queuedTasks) {
+        result.add(task.task);
+      }
+      queuedTasks.clear();
+    }
+    shutdown();
+    return result;
+  }
+
+  @Override
+  public synchronized boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public synchronized boolean isTerminated() {
+    return terminated;
+  }
+
+  @Override
+  public synchronized boolean awaitTermination(long timeout, @Nonnull TimeUnit unit)
+      throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!terminated) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "CommAdapterExecutor{" + "name=" + name + '}';
+  }
+
+  private long triggerTime(long delay, TimeUnit unit) {
+    requireNonNull(unit, "unit");
+
+    return System.nanoTime() + unit.toNanos(Math.max(delay, 0));
+  }
+
+  private <V> ScheduledTask<V> schedule(ScheduledTask<V> task) {
+    synchronized (this) {
+      if (shutdown) {
+        throw new RejectedExecutionException("Executor " + name + " has been shut down");
+      }
+      scheduledTasks.add(task);
+    }
+    task.arm();
+    return task;
+  }
+
+  private synchronized void scheduledTaskDone(ScheduledTask<?> task) {
+    scheduledTasks.remove(task);
+  }
+
+  /**
+   * Executes queued tasks on a thread borrowed from the pool.
+   */
+  private void executeQueuedTasks() {
+    Thread thread = Thread.currentThread();
+    String originalThreadName = thread.getName();
+    thread.setName(originalThreadName + "-" + name);
+    try {
+      for (int i = 0; i < MAX_TASKS_PER_RUN; i++) {
+        QueuedTask task = nextTask();
+        if (task == null) {
+          return;
+        }
+        runTask(task.task);
+      }
+    }
+    finally {
+      thread.setName(originalThreadName);
+    }
+
+    // Hand the thread back and continue later with the remaining tasks, if any.
+    threadPool.execute(this::executeQueuedTasks);
+  }
+
+  /**
+   * Returns the next task to be executed, or <code>null</code>, if there is none.
+   * In the latter case, this executor is marked as not running and terminated, if it has been
+   * shut down.
+   *
+   * @return The next task to be executed, or <code>null</code>.
+   */
+  private synchronized QueuedTask nextTask() {
+    QueuedTask task = queuedTasks.poll();
+    if (task != null) {
+      long queueTime = System.nanoTime() - task.queueTime;
+      executedTaskCount++;
+      totalQueueTime += queueTime;
+      maxQueueTime = Math.max(maxQueueTime, queueTime);
+      return task;
+    }
+
+    running = false;
+    if (shutdown) {
+      markTerminated();
+    }
+    return null;
+  }
+
+  private void markTerminated() {
+    if (terminated) {
+      return;
+    }
+    terminated = true;
+    terminationListener.accept(this);
+    notifyAll();
+  }
+
+  private void runTask(Runnable task) {
+    try {
+      task.run();
+    }
+    catch (RuntimeException exc) {
+      LOG.warn("{}: Unhandled exception in executed task", name, exc);
+      return;
+    }
+
+    if (task instanceof Future<?>) {
+      Future<?> future = (Future<?>) task;
+      if (future.isDone() && !future.isCancelled()) {
+        try {
+          future.get();
+        }
+        catch (ExecutionException exc) {
+          LOG.warn("{}: Unhandled exception in executed task", name, exc.getCause());
+        }
+        catch (CancellationException | InterruptedException exc) {
+          // Cannot happen, as the future is done and was not cancelled.
+          LOG.debug("{}: Unexpected exception retrieving task result", name, exc);
+        }
+      }
+    }
+  }
+
+  /**
+   * A task waiting in the queue.
+   */
+  private static class QueuedTask {
+
+    /**
+     * The task.
+     */
+    private final Runnable task;
+    /**
+     * The point of time at which the task was queued (in ns).
+     */
+    private final long queueTime;
+
+    QueuedTask(Runnable task, long queueTime) {
+      this.task = task;
+      this.queueTime = queueTime;
+    }
+  }
+
+  /**
+   * A delayed or periodic task.
+   *
+   * @param <V> The task's result type.
+   */
+  private class ScheduledTask<V>
+      extends FutureTask<V>
+      implements RunnableScheduledFuture<V> {
+
+    /**
+     * The period (in ns) for fixed-rate execution if positive, the delay (in ns) for fixed-delay
+     * execution if negative, or 0 for a one-shot task.
+     */
+    private final long period;
+    /**
+     * The point of time at which the task is to be executed next (in ns).
+     */
+    private volatile long time;
+    /**
+     * The timer's future for the next execution.
+     */
+    private volatile ScheduledFuture<?> timerFuture;
+
+    ScheduledTask(Runnable runnable, V result, long time, long period) {
+      this(Executors.callable(runnable, result), time, period);
+    }
+
+    ScheduledTask(Callable<V> callable, long time, long period) {
+      super(callable);
+      this.time = time;
+      this.period = period;
+    }
+
+    @Override
+    public boolean isPeriodic() {
+      return period != 0;
+    }
+
+    @Override
+    public long getDelay(TimeUnit unit) {
+      return unit.convert(time - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(Delayed other) {
+      if (other == this) {
+        return 0;
+      }
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+      boolean cancelled = super.cancel(mayInterruptIfRunning);
+      ScheduledFuture<?> currentTimerFuture = timerFuture;
+      if (cancelled && currentTimerFuture != null) {
+        currentTimerFuture.cancel(false);
+      }
+      scheduledTaskDone(this);
+      return cancelled;
+    }
+
+    @Override
+    public void run() {
+      if (!isPeriodic()) {
+        super.run();
+        scheduledTaskDone(this);
+      }
+      else if (runAndReset()) {
+        time = period > 0 ? time + period : System.nanoTime() - period;
+        arm();
+      }
+      else {
+        scheduledTaskDone(this);
+      }
+    }
+
+    /**
+     * Waits for the task to become due and queues it for execution then.
+     */
+    void arm() {
+      try {
+        timerFuture = timer.schedule(this::trigger,
+                                     time - System.nanoTime(),
+                                     TimeUnit.NANOSECONDS);
+      }
+      catch (RejectedExecutionException exc) {
+        cancel(false);
+      }
+    }
+
+    private void trigger() {
+      try {
+        execute(this);
+      }
+      catch (RejectedExecutionException exc) {
+        cancel(false);
+      }
+    }
+  }
+}
@@ -0,0 +1,205 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkInRange;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Provides communication adapters with executors of their own, all sharing a bounded pool of
+ * threads.
+ * <p>
+ * Communication adapters performing blocking I/O should not do so on the kernel executor, as that
+ * would stall the kernel, but starting a thread per adapter does not scale well to large numbers
+ * of vehicles or peripheral devices.
+ * Instead, factories for such adapters may use an instance of this class (provided by the kernel
+ * via dependency injection) to create a {@link CommAdapterExecutor} for every adapter.
+ * Such an executor occupies a thread only while it is executing tasks, and threads not used for a
+ * while are released.
+ * </p>
+ * <p>
+ * An adapter's executor should be shut down when the adapter is terminated.
+ * Executors that have not been shut down when the kernel leaves operating mode are shut down by the
+ * kernel via {@link #shutdownExecutors(long, TimeUnit)}.
+ * All threads are daemon threads.
+ * </p>
+ */
+public class CommAdapterExecutorPool {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(CommAdapterExecutorPool.class);
+  /**
+   * The time (in s) after which threads not used are released.
+   */
+  private static final long THREAD_KEEP_ALIVE_TIME = 60;
+  /**
+   * The threads executing the executors' tasks.
+   */
+  private final ThreadPoolExecutor threadPool;
+  /**
+   * The thread waiting for the executors' delayed tasks to become due.
+   */
+  private final ScheduledThreadPoolExecutor timer;
+  /**
+   * The executors created that have not terminated, yet.
+   */
+  private final Set<CommAdapterExecutor> executors = new LinkedHashSet<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param maxThreadCount The maximum number of threads executing the executors' tasks at the same
+   * time.
+   * If executors' tasks block for extended periods of time, this should not be less than the number
+   * of such executors.
+   */
+  public CommAdapterExecutorPool(int maxThreadCount) {
+    checkInRange(maxThreadCount, 1, Integer.MAX_VALUE, "maxThreadCount");
+
+    AtomicInteger threadCount = new AtomicInteger();
+    threadPool = new ThreadPoolExecutor(
+        maxThreadCount,
+        maxThreadCount,
+        THREAD_KEEP_ALIVE_TIME,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnable -> createDaemonThread(runnable,
+                                       "commAdapterExecutor-" + threadCount.getAndIncrement())
+    );
+    threadPool.allowCoreThreadTimeOut(true);
+
+    timer = new ScheduledThreadPoolExecutor(
+        1,
+        runnable -> createDaemonThread(runnable, "commAdapterExecutorTimer")
+    );
+    timer.setRemoveOnCancelPolicy(true);
+  }
+
+  /**
+   * Creates a new executor for a communication adapter.
+   *
+   * @param name The name of the executor, e.g. the name of the vehicle or peripheral device the
+   * adapter communicates with. Used for logging and naming threads.
+   * @return The new executor.
+   */
+  @Nonnull
+  public CommAdapterExecutor createExecutor(@Nonnull String name) {
+    requireNonNull(name, "name");
+
+    CommAdapterExecutor executor
+        = new CommAdapterExecutor(name, threadPool, timer, this::executorTerminated);
+    synchronized (executors) {
+      executors.add(executor);
+    }
+    return executor;
+  }
+
+  /**
+   * Returns the executors created that have not terminated, yet.
+   *
+   * @return The executors created that have not terminated, yet.
+   */
+  @Nonnull
+  public List<CommAdapterExecutor> getExecutors() {
+    synchronized (executors) {
+      return new ArrayList<>(executors);
+    }
+  }
+
+  /**
+   * Returns the number of threads currently executing tasks.
+   *
+   * @return The number of threads currently executing tasks.
+   */
+  public int getActiveThreadCount() {
+    return threadPool.getActiveCount();
+  }
+
+  /**
+   * Returns the current number of threads, including idle ones.
+   *
+   * @return The current number of threads.
+   */
+  public int getThreadCount() {
+    return threadPool.getPoolSize();
+  }
+
+  /**
+   * Returns the largest number of threads that have ever existed at the same time.
+   *
+   * @return The largest number of threads that have ever existed at the same time.
+   */
+  public int getLargestThreadCount() {
+    return threadPool.getLargestPoolSize();
+  }
+
+  /**
+   * Shuts down all executors that have not terminated, yet, and waits for them to terminate.
+   * Executors that do not terminate within the given time are shut down forcibly, discarding their
+   * queued tasks.
+   * Executors may still be created afterwards.
+   *
+   * @param timeout The maximum time to wait for the executors to terminate.
+   * @param unit The time unit of the timeout.
+   */
+  public void shutdownExecutors(long timeout, @Nonnull TimeUnit unit) {
+    requireNonNull(unit, "unit");
+
+    List<CommAdapterExecutor> executorsToShutdown = getExecutors();
+    for (CommAdapterExecutor executor : executorsToShutdown) {
+      LOG.debug("Shutting down executor '{}' ({} tasks executed, {} queued, max. queue time {} ms)",
+                executor.getName(),
+                executor.getExecutedTaskCount(),
+                executor.getQueuedTaskCount(),
+                executor.getMaxQueueTime(TimeUnit.MILLISECONDS));
+      executor.shutdown();
+    }
+
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    for (CommAdapterExecutor executor : executorsToShutdown) {
+      try {
+        if (!executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+          LOG.warn("Executor '{}' did not terminate in time, discarding {} queued tasks.",
+                   executor.getName(),
+                   executor.shutdownNow().size());
+        }
+      }
+      catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+        LOG.warn("Interrupted while waiting for executors to terminate.");
+        return;
+      }
+    }
+  }
+
+  private static Thread createDaemonThread(Runnable runnable, String name) {
+    Thread thread = new Thread(runnable, name);
+    thread.setDaemon(true);
+    return thread;
+  }
+
+  private void executorTerminated(CommAdapterExecutor executor) {
+    synchronized (executors) {
+      executors.remove(executor);
+    }
+  }
+}
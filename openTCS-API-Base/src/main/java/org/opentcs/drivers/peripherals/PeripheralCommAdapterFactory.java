@@ -14,6 +14,11 @@ import org.opentcs.data.model.Location;
 
 /**
  * Provides communication adapter instances for peripheral devices to be controlled.
+ * <p>
+ * Factories for adapters performing blocking I/O may provide every adapter with an executor of its
+ * own via a {@link org.opentcs.drivers.CommAdapterExecutorPool}, which the kernel provides via
+ * dependency injection.
+ * </p>
  */
 public interface PeripheralCommAdapterFactory
     extends Lifecycle {
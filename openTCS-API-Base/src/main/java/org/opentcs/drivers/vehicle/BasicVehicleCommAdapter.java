@@ -15,6 +15,8 @@ import java.util.Queue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Vehicle;
 import static org.opentcs.drivers.vehicle.VehicleProcessModel.Attribute.COMMAND_ENQUEUED;
 import static org.opentcs.drivers.vehicle.VehicleProcessModel.Attribute.COMMAND_EXECUTED;
@@ -33,6 +35,17 @@ import org.slf4j.LoggerFactory;
  * <ul>
  * <li>Accessing the command queue/sent queue from outside should always be
  * protected by synchronization on the BasicVehicleCommunicationAdapter instance.</li>
+ * <li>By default, commands are sent to the vehicle as long as the sent queue's capacity is not
+ * reached.
+ * With adaptive pipelining enabled via {@link #setPipeliningLookAheadTime(long)}, commands are
+ * only sent as long as the commands already sent are not expected to keep the vehicle busy for the
+ * given time, so that more (shorter) commands are sent when the vehicle moves fast, and fewer
+ * commands when it moves slowly.</li>
+ * <li>The number of times and the total time the vehicle ran out of commands while it was expected
+ * to receive more is recorded and available via {@link #getCommandStarvationCount()} and
+ * {@link #getCommandStarvationTime()}.
+ * With adaptive pipelining enabled, both figures are also published as the vehicle's properties
+ * {@value #PROPKEY_COMMAND_STARVATION_COUNT} and {@value #PROPKEY_COMMAND_STARVATION_TIME}.</li>
  * </ul>
  */
 public abstract class BasicVehicleCommAdapter
@@ -43,6 +56,18 @@ public abstract class BasicVehicleCommAdapter
    * This class's Logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(BasicVehicleCommAdapter.class);
+  /**
+   * The key of the vehicle property containing the number of times the vehicle ran out of commands
+   * while it was expected to receive more.
+   * Published only with adaptive pipelining enabled.
+   */
+  public static final String PROPKEY_COMMAND_STARVATION_COUNT = "tcs:commandStarvationCount";
+  /**
+   * The key of the vehicle property containing the total time (in ms) the vehicle was out of
+   * commands while it was expected to receive more.
+   * Published only with adaptive pipelining enabled.
+   */
+  public static final String PROPKEY_COMMAND_STARVATION_TIME = "tcs:commandStarvationTime";
   /**
    * An observable model of the vehicle's and its comm adapter's attributes.
    */
@@ -84,6 +109,24 @@ public abstract class BasicVehicleCommAdapter
    * been executed by it, yet.
    */
   private final Queue<MovementCommand> sentQueue = new LinkedBlockingQueue<>();
+  /**
+   * The time (in ms) the commands sent to the vehicle are supposed to keep it busy, or 0, if
+   * adaptive pipelining is disabled.
+   */
+  private long pipeliningLookAheadTime;
+  /**
+   * The number of times the vehicle ran out of commands while it was expected to receive more.
+   */
+  private long commandStarvationCount;
+  /**
+   * The total time (in ns) the vehicle was out of commands while it was expected to receive more.
+   */
+  private long commandStarvationTime;
+  /**
+   * The point of time (in ns) at which the vehicle last ran out of commands, or
+   * <code>null</code>, if it currently has commands to execute.
+   */
+  private Long commandStarvationStart;
 
   /**
    * Creates a new instance.
@@ -291,6 +334,8 @@ public abstract class BasicVehicleCommAdapter
       getCommandQueue().clear();
     }
     getSentQueue().clear();
+    // With the queues cleared, the vehicle is not expected to receive more commands.
+    endCommandStarvation();
   }
 
   @Override
@@ -309,12 +354,68 @@ public abstract class BasicVehicleCommAdapter
    */
   @Override
   public void propertyChange(PropertyChangeEvent evt) {
+    if (Objects.equals(evt.getPropertyName(), COMMAND_EXECUTED.name())) {
+      checkCommandStarvation((MovementCommand) evt.getNewValue());
+    }
     if (Objects.equals(evt.getPropertyName(), COMMAND_ENQUEUED.name())
         || Objects.equals(evt.getPropertyName(), COMMAND_EXECUTED.name())) {
       executor.execute(commandDispatcherTask);
     }
   }
 
+  /**
+   * Returns the time the commands sent to the vehicle are supposed to keep it busy with adaptive
+   * pipelining.
+   *
+   * @return The time (in ms), or 0, if adaptive pipelining is disabled.
+   */
+  public synchronized long getPipeliningLookAheadTime() {
+    return pipeliningLookAheadTime;
+  }
+
+  /**
+   * Enables or disables adaptive pipelining.
+   * <p>
+   * With adaptive pipelining enabled, another command is sent to the vehicle only if the commands
+   * already sent are expected to keep it busy for less than the given time, as estimated via
+   * {@link #getExpectedExecutionTime(MovementCommand)}.
+   * At least one command is always sent, and the sent queue's capacity is never exceeded.
+   * </p>
+   *
+   * @param lookAheadTime The time (in ms) the commands sent to the vehicle are supposed to keep it
+   * busy, or 0 to disable adaptive pipelining.
+   */
+  public synchronized void setPipeliningLookAheadTime(long lookAheadTime) {
+    this.pipeliningLookAheadTime = checkInRange(lookAheadTime,
+                                                0,
+                                                Long.MAX_VALUE,
+                                                "lookAheadTime");
+  }
+
+  /**
+   * Returns the number of times the vehicle ran out of commands while it was expected to receive
+   * more, i.e. the number of times it executed a command that was not the final movement of its
+   * transport order while no other command had been sent to it.
+   *
+   * @return The number of times the vehicle ran out of commands.
+   */
+  public synchronized long getCommandStarvationCount() {
+    return commandStarvationCount;
+  }
+
+  /**
+   * Returns the total time the vehicle was out of commands while it was expected to receive more.
+   *
+   * @return The total time (in ms) the vehicle was out of commands.
+   */
+  public synchronized long getCommandStarvationTime() {
+    long result = commandStarvationTime;
+    if (commandStarvationStart != null) {
+      result += System.nanoTime() - commandStarvationStart;
+    }
+    return TimeUnit.NANOSECONDS.toMillis(result);
+  }
+
   /**
    * Returns this communication adapter's name.
    *
@@ -358,7 +459,52 @@ public abstract class BasicVehicleCommAdapter
    * vehicle.
    */
   protected synchronized boolean canSendNextCommand() {
-    return (getSentQueue().size() < sentQueueCapacity) && !getCommandQueue().isEmpty();
+    if (getSentQueue().size() >= sentQueueCapacity || getCommandQueue().isEmpty()) {
+      return false;
+    }
+    if (pipeliningLookAheadTime == 0 || getSentQueue().isEmpty()) {
+      return true;
+    }
+
+    long expectedTime = 0;
+    for (MovementCommand sentCommand : getSentQueue()) {
+      expectedTime += getExpectedExecutionTime(sentCommand);
+      if (expectedTime >= pipeliningLookAheadTime) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the time the vehicle is expected to require for executing the given command, used for
+   * adaptive pipelining.
+   * <p>
+   * This implementation returns the time required for travelling along the command's path at the
+   * lower of the maximum velocities of the vehicle and the path (in the vehicle's direction of
+   * travel).
+   * It returns 0 for commands without a path and if neither the vehicle nor the path has a
+   * velocity limit.
+   * Subclasses knowing more about the vehicle, e.g. its current velocity or the duration of
+   * operations, may want to override this.
+   * </p>
+   *
+   * @param command The command.
+   * @return The expected execution time (in ms).
+   */
+  protected long getExpectedExecutionTime(MovementCommand command) {
+    Path path = command.getStep().getPath();
+    if (path == null) {
+      return 0;
+    }
+    Vehicle vehicle = getProcessModel().getVehicle();
+    int velocity = command.getStep().getVehicleOrientation() == Vehicle.Orientation.BACKWARD
+        ? lowerVelocityLimit(vehicle.getMaxReverseVelocity(), path.getMaxReverseVelocity())
+        : lowerVelocityLimit(vehicle.getMaxVelocity(), path.getMaxVelocity());
+    if (velocity <= 0) {
+      return 0;
+    }
+    return path.getLength() * 1000 / velocity;
   }
 
   // Abstract methods start here.
@@ -403,6 +549,57 @@ public abstract class BasicVehicleCommAdapter
     return new VehicleProcessModelTO();
   }
 
+  /**
+   * Returns the lower of the given velocity limits, with non-positive values meaning no limit.
+   *
+   * @param velocity1 The first velocity limit.
+   * @param velocity2 The second velocity limit.
+   * @return The lower of the given velocity limits, or 0, if there is no limit at all.
+   */
+  private int lowerVelocityLimit(int velocity1, int velocity2) {
+    if (velocity1 <= 0) {
+      return Math.max(velocity2, 0);
+    }
+    if (velocity2 <= 0) {
+      return velocity1;
+    }
+    return Math.min(velocity1, velocity2);
+  }
+
+  private synchronized void checkCommandStarvation(MovementCommand executedCommand) {
+    if (getSentQueue().isEmpty()
+        && executedCommand != null
+        && !executedCommand.isFinalMovement()
+        && commandStarvationStart == null) {
+      commandStarvationStart = System.nanoTime();
+      commandStarvationCount++;
+      publishCommandStarvation();
+    }
+  }
+
+  private synchronized void endCommandStarvation() {
+    if (commandStarvationStart == null) {
+      return;
+    }
+    long duration = System.nanoTime() - commandStarvationStart;
+    LOG.debug("{}: Vehicle was out of commands for {} ms.",
+              getName(),
+              TimeUnit.NANOSECONDS.toMillis(duration));
+    commandStarvationTime += duration;
+    commandStarvationStart = null;
+    publishCommandStarvation();
+  }
+
+  private void publishCommandStarvation() {
+    if (pipeliningLookAheadTime == 0) {
+      return;
+    }
+    getProcessModel().setVehicleProperty(PROPKEY_COMMAND_STARVATION_COUNT,
+                                         Long.toString(commandStarvationCount));
+    getProcessModel().setVehicleProperty(PROPKEY_COMMAND_STARVATION_TIME,
+                                         Long.toString(getCommandStarvationTime()));
+  }
+
   /**
    * The task processing the command queue.
    */
@@ -423,24 +620,30 @@ public abstract class BasicVehicleCommAdapter
           LOG.debug("{}: Cannot send another command, skipping.", getName());
           return;
         }
-        MovementCommand curCmd = getCommandQueue().poll();
-        if (curCmd == null) {
-          LOG.debug("{}: Nothing to send, skipping.", getName());
-          return;
-        }
-        try {
-          LOG.debug("{}: Sending command: {}", getName(), curCmd);
-          sendCommand(curCmd);
-          // Remember that we sent this command to the vehicle.
-          getSentQueue().add(curCmd);
-          // Notify listeners that this command was sent.
-          getProcessModel().commandSent(curCmd);
-        }
-        catch (IllegalArgumentException exc) {
-          // Notify listeners that this command failed.
-          LOG.warn("{}: Failed sending command {}", getName(), curCmd, exc);
-          getProcessModel().commandFailed(curCmd);
+        // More than one command is sent at once only with adaptive pipelining enabled.
+        do {
+          MovementCommand curCmd = getCommandQueue().poll();
+          if (curCmd == null) {
+            LOG.debug("{}: Nothing to send, skipping.", getName());
+            return;
+          }
+          try {
+            LOG.debug("{}: Sending command: {}", getName(), curCmd);
+            sendCommand(curCmd);
+            // Remember that we sent this command to the vehicle.
+            getSentQueue().add(curCmd);
+            endCommandStarvation();
+            // Notify listeners that this command was sent.
+            getProcessModel().commandSent(curCmd);
+          }
+          catch (IllegalArgumentException exc) {
+            // Notify listeners that this command failed.
+            LOG.warn("{}: Failed sending command {}", getName(), curCmd, exc);
+            getProcessModel().commandFailed(curCmd);
+            return;
+          }
         }
+        while (pipeliningLookAheadTime > 0 && canSendNextCommand());
       }
     }
   }
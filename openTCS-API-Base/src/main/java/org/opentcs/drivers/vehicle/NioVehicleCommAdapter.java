@@ -0,0 +1,305 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.drivers.vehicle.nio.MessageFraming;
+import org.opentcs.drivers.vehicle.nio.NioConnection;
+import org.opentcs.drivers.vehicle.nio.NioSelectorPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A base class for communication adapters exchanging messages with vehicles via TCP or UDP.
+ * <p>
+ * Instead of using threads of its own, an instance of this class performs its I/O via a
+ * {@link NioSelectorPool} shared by all instances, so that the number of I/O threads does not grow
+ * with the number of vehicles.
+ * Connection events and received messages are passed on to subclasses via the adapter's executor,
+ * i.e. on the same thread the adapter's other methods are usually called on.
+ * If the connection is lost or cannot be established while the adapter is enabled, it is
+ * reestablished after a delay that increases with every unsuccessful attempt.
+ * </p>
+ */
+public abstract class NioVehicleCommAdapter
+    extends BasicVehicleCommAdapter {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(NioVehicleCommAdapter.class);
+  /**
+   * The delay (in ms) before the first attempt to reestablish a connection.
+   */
+  private static final long MIN_RECONNECT_DELAY = 500;
+  /**
+   * The maximum delay (in ms) before an attempt to reestablish a connection.
+   */
+  private static final long MAX_RECONNECT_DELAY = 30000;
+  /**
+   * The executor to run tasks on.
+   */
+  private final ScheduledExecutorService executor;
+  /**
+   * The selector pool performing the I/O.
+   */
+  private final NioSelectorPool selectorPool;
+  /**
+   * The current connection to the vehicle, or <code>null</code>.
+   */
+  private volatile NioConnection connection;
+  /**
+   * Whether the connection to the vehicle is to be kept up.
+   */
+  private boolean connectionWanted;
+  /**
+   * The number of unsuccessful attempts to (re)establish the connection since it was last
+   * established.
+   */
+  private int failedConnectionAttempts;
+  /**
+   * The scheduled attempt to reestablish the connection, if any.
+   */
+  private ScheduledFuture<?> scheduledReconnect;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param vehicleModel An observable model of the vehicle's and its comm adapter's attributes.
+   * @param commandQueueCapacity The number of commands this comm adapter's command queue accepts.
+   * Must be at least 1.
+   * @param sentQueueCapacity The maximum number of orders to be sent to a vehicle.
+   * @param rechargeOperation The string to recognize as a recharge operation.
+   * @param executor The executor to run tasks on.
+   * @param selectorPool The selector pool performing the I/O.
+   */
+  public NioVehicleCommAdapter(VehicleProcessModel vehicleModel,
+                               int commandQueueCapacity,
+                               int sentQueueCapacity,
+                               String rechargeOperation,
+                               @Nonnull ScheduledExecutorService executor,
+                               @Nonnull NioSelectorPool selectorPool) {
+    super(vehicleModel, commandQueueCapacity, sentQueueCapacity, rechargeOperation, executor);
+    this.executor = requireNonNull(executor, "executor");
+    this.selectorPool = requireNonNull(selectorPool, "selectorPool");
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * <em>Overriding methods are expected to call this implementation, too.</em>
+   * </p>
+   */
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    selectorPool.initialize();
+    super.initialize();
+  }
+
+  @Override
+  protected synchronized void connectVehicle() {
+    connectionWanted = true;
+    failedConnectionAttempts = 0;
+    openConnection();
+  }
+
+  @Override
+  protected synchronized void disconnectVehicle() {
+    connectionWanted = false;
+    if (scheduledReconnect != null) {
+      scheduledReconnect.cancel(false);
+      scheduledReconnect = null;
+    }
+    if (connection != null) {
+      connection.close();
+      connection = null;
+    }
+    getProcessModel().setCommAdapterConnected(false);
+  }
+
+  @Override
+  protected boolean isVehicleConnected() {
+    NioConnection currentConnection = connection;
+    return currentConnection != null && currentConnection.isConnected();
+  }
+
+  /**
+   * Sends the given message to the vehicle.
+   * The message is framed as defined by {@link #createFraming()} and sent asynchronously.
+   *
+   * @param message The message.
+   * @return <code>true</code> if the message was queued for sending, <code>false</code> if there is
+   * no connection to the vehicle.
+   * @throws IllegalArgumentException If the message is too long to be sent.
+   */
+  protected boolean send(@Nonnull byte[] message)
+      throws IllegalArgumentException {
+    requireNonNull(message, "message");
+
+    NioConnection currentConnection = connection;
+    if (currentConnection == null || !currentConnection.isConnected()) {
+      LOG.debug("{}: Not connected, not sending message.", getName());
+      return false;
+    }
+    currentConnection.send(message);
+    return true;
+  }
+
+  /**
+   * Returns the delay before the given attempt to reestablish the connection to the vehicle.
+   * <p>
+   * By default, the delay starts at 500 ms and doubles with every attempt, up to 30 s.
+   * </p>
+   *
+   * @param attempt The number of the attempt, starting at 0.
+   * @return The delay before the attempt (in ms).
+   */
+  protected long getReconnectDelay(int attempt) {
+    return Math.min(MIN_RECONNECT_DELAY << Math.min(attempt, 16), MAX_RECONNECT_DELAY);
+  }
+
+  /**
+   * Returns the transport protocol to be used for the connection to the vehicle.
+   * <p>
+   * By default, TCP is used.
+   * </p>
+   *
+   * @return The transport protocol.
+   */
+  @Nonnull
+  protected NioConnection.Transport getTransport() {
+    return NioConnection.Transport.TCP;
+  }
+
+  /**
+   * Called when the connection to the vehicle has been established.
+   * <p>
+   * This implementation does nothing.
+   * </p>
+   */
+  protected void connectionEstablished() {
+  }
+
+  /**
+   * Called when the connection to the vehicle has been lost or could not be established.
+   * <p>
+   * This implementation does nothing.
+   * </p>
+   */
+  protected void connectionLost() {
+  }
+
+  // Abstract methods start here.
+  /**
+   * Returns the address of the vehicle to connect to.
+   *
+   * @return The address of the vehicle.
+   */
+  @Nonnull
+  protected abstract InetSocketAddress getRemoteAddress();
+
+  /**
+   * Creates the framing of the messages exchanged with the vehicle.
+   * Called whenever a connection is established.
+   *
+   * @return The framing of the messages.
+   */
+  @Nonnull
+  protected abstract MessageFraming createFraming();
+
+  /**
+   * Processes a message received from the vehicle.
+   *
+   * @param message The message.
+   */
+  protected abstract void messageReceived(@Nonnull byte[] message);
+
+  private void openConnection() {
+    connection = new NioConnection(selectorPool,
+                                   getTransport(),
+                                   getRemoteAddress(),
+                                   createFraming(),
+                                   new ConnectionListener());
+    connection.open();
+  }
+
+  private synchronized void reconnect() {
+    scheduledReconnect = null;
+    if (connectionWanted) {
+      openConnection();
+    }
+  }
+
+  /**
+   * Passes on connection events to the adapter via its executor.
+   */
+  private class ConnectionListener
+      implements NioConnection.Listener {
+
+    ConnectionListener() {
+    }
+
+    @Override
+    public void connectionEstablished(@Nonnull NioConnection source) {
+      executor.execute(() -> {
+        synchronized (NioVehicleCommAdapter.this) {
+          if (source != connection) {
+            return;
+          }
+          LOG.debug("{}: Connection established.", getName());
+          failedConnectionAttempts = 0;
+          getProcessModel().setCommAdapterConnected(true);
+        }
+        NioVehicleCommAdapter.this.connectionEstablished();
+      });
+    }
+
+    @Override
+    public void messageReceived(@Nonnull NioConnection source, @Nonnull byte[] message) {
+      executor.execute(() -> {
+        if (source == connection) {
+          NioVehicleCommAdapter.this.messageReceived(message);
+        }
+      });
+    }
+
+    @Override
+    public void connectionClosed(@Nonnull NioConnection source, @Nullable IOException cause) {
+      executor.execute(() -> {
+        synchronized (NioVehicleCommAdapter.this) {
+          if (source != connection) {
+            return;
+          }
+          getProcessModel().setCommAdapterConnected(false);
+          if (connectionWanted) {
+            long delay = getReconnectDelay(failedConnectionAttempts++);
+            LOG.info("{}: Connection lost or not established, retrying in {} ms: {}",
+                     getName(),
+                     delay,
+                     cause == null ? "closed" : cause.getMessage());
+            scheduledReconnect = executor.schedule(NioVehicleCommAdapter.this::reconnect,
+                                                   delay,
+                                                   TimeUnit.MILLISECONDS);
+          }
+        }
+        NioVehicleCommAdapter.this.connectionLost();
+      });
+    }
+  }
+}
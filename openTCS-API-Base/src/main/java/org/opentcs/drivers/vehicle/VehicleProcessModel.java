@@ -125,6 +125,16 @@ public class VehicleProcessModel {
     pcs.removePropertyChangeListener(listener);
   }
 
+  /**
+   * Returns the vehicle attached to this model, as it was when this model was created.
+   *
+   * @return The vehicle.
+   */
+  @Nonnull
+  Vehicle getVehicle() {
+    return vehicle;
+  }
+
   /**
    * Returns a reference to the vehicle.
    *
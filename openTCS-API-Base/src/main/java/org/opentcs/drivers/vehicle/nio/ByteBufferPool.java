@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.nio;
+
+import java.nio.ByteBuffer;
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.Assertions.checkInRange;
+
+/**
+ * A pool of direct byte buffers of a fixed size.
+ * <p>
+ * Allocating direct buffers is comparatively expensive, so buffers released to this pool are kept
+ * for reuse, up to a maximum number.
+ * This class is thread-safe.
+ * </p>
+ */
+public class ByteBufferPool {
+
+  /**
+   * The capacity of the buffers (in bytes).
+   */
+  private final int bufferSize;
+  /**
+   * The maximum number of buffers kept for reuse.
+   */
+  private final int maxPooledBuffers;
+  /**
+   * The buffers kept for reuse.
+   */
+  private final Queue<ByteBuffer> pooledBuffers = new ConcurrentLinkedQueue<>();
+  /**
+   * The number of buffers kept for reuse.
+   */
+  private final AtomicInteger pooledBufferCount = new AtomicInteger();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param bufferSize The capacity of the buffers (in bytes).
+   * @param maxPooledBuffers The maximum number of buffers kept for reuse.
+   */
+  public ByteBufferPool(int bufferSize, int maxPooledBuffers) {
+    this.bufferSize = checkInRange(bufferSize, 1, Integer.MAX_VALUE, "bufferSize");
+    this.maxPooledBuffers = checkInRange(maxPooledBuffers,
+                                         0,
+                                         Integer.MAX_VALUE,
+                                         "maxPooledBuffers");
+  }
+
+  /**
+   * Returns the capacity of the buffers (in bytes).
+   *
+   * @return The capacity of the buffers.
+   */
+  public int getBufferSize() {
+    return bufferSize;
+  }
+
+  /**
+   * Returns a cleared buffer, either one kept for reuse or a newly allocated one.
+   *
+   * @return A cleared buffer.
+   */
+  @Nonnull
+  public ByteBuffer acquire() {
+    ByteBuffer buffer = pooledBuffers.poll();
+    if (buffer == null) {
+      return ByteBuffer.allocateDirect(bufferSize);
+    }
+    pooledBufferCount.decrementAndGet();
+    return buffer;
+  }
+
+  /**
+   * Returns the given buffer to this pool.
+   * The buffer must not be used by the caller afterwards.
+   *
+   * @param buffer The buffer, which must have been acquired from this pool.
+   */
+  public void release(@Nonnull ByteBuffer buffer) {
+    requireNonNull(buffer, "buffer");
+    checkArgument(buffer.capacity() == bufferSize && buffer.isDirect(),
+                  "buffer was not acquired from this pool");
+
+    if (pooledBufferCount.incrementAndGet() > maxPooledBuffers) {
+      pooledBufferCount.decrementAndGet();
+      return;
+    }
+    buffer.clear();
+    pooledBuffers.add(buffer);
+  }
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.Assertions.checkInRange;
+
+/**
+ * A framing in which every message is followed by a delimiter, e.g. a line break.
+ * Messages themselves must not contain the delimiter.
+ */
+public class DelimiterFraming
+    implements MessageFraming {
+
+  /**
+   * The delimiter.
+   */
+  private final byte[] delimiter;
+  /**
+   * The maximum length of a message (in bytes), excluding the delimiter.
+   */
+  private final int maxMessageLength;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param delimiter The delimiter. Must not be empty.
+   * @param maxMessageLength The maximum length of a message (in bytes), excluding the delimiter.
+   */
+  public DelimiterFraming(@Nonnull byte[] delimiter, int maxMessageLength) {
+    requireNonNull(delimiter, "delimiter");
+    checkArgument(delimiter.length > 0, "delimiter is empty");
+    this.delimiter = delimiter.clone();
+    this.maxMessageLength = checkInRange(maxMessageLength,
+                                         0,
+                                         Integer.MAX_VALUE - delimiter.length,
+                                         "maxMessageLength");
+  }
+
+  @Override
+  public void decode(@Nonnull ByteBuffer buffer, @Nonnull Consumer<byte[]> messageConsumer)
+      throws IOException {
+    requireNonNull(buffer, "buffer");
+    requireNonNull(messageConsumer, "messageConsumer");
+
+    int delimiterIndex;
+    while ((delimiterIndex = indexOfDelimiter(buffer)) >= 0) {
+      byte[] message = new byte[delimiterIndex - buffer.position()];
+      buffer.get(message);
+      buffer.position(buffer.position() + delimiter.length);
+      messageConsumer.accept(message);
+    }
+
+    // Even if the delimiter follows, what's left cannot be a valid message.
+    if (buffer.remaining() > maxMessageLength + delimiter.length - 1) {
+      throw new IOException("Message length exceeds maximum of " + maxMessageLength);
+    }
+  }
+
+  @Override
+  public int encodedLength(@Nonnull byte[] message) {
+    requireNonNull(message, "message");
+
+    return message.length + delimiter.length;
+  }
+
+  @Override
+  public void encode(@Nonnull byte[] message, @Nonnull ByteBuffer buffer)
+      throws IllegalArgumentException {
+    requireNonNull(message, "message");
+    requireNonNull(buffer, "buffer");
+    checkArgument(message.length <= maxMessageLength,
+                  "Message length exceeds maximum of %s: %s",
+                  maxMessageLength,
+                  message.length);
+
+    buffer.put(message);
+    buffer.put(delimiter);
+  }
+
+  /**
+   * Returns the absolute index of the first occurrence of the delimiter in the given buffer's
+   * remaining bytes.
+   *
+   * @param buffer The buffer.
+   * @return The index of the first occurrence of the delimiter, or -1, if it does not occur.
+   */
+  private int indexOfDelimiter(ByteBuffer buffer) {
+    int lastStart = buffer.limit() - delimiter.length;
+    for (int start = buffer.position(); start <= lastStart; start++) {
+      int i = 0;
+      while (i < delimiter.length && buffer.get(start + i) == delimiter[i]) {
+        i++;
+      }
+      if (i == delimiter.length) {
+        return start;
+      }
+    }
+    return -1;
+  }
+}
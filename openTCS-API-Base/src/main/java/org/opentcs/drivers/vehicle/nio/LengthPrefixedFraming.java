@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkArgument;
+import static org.opentcs.util.Assertions.checkInRange;
+
+/**
+ * A framing in which every message is preceded by its length, as an unsigned big-endian integer of
+ * 1, 2 or 4 bytes.
+ * The length does not include the bytes of the length field itself.
+ */
+public class LengthPrefixedFraming
+    implements MessageFraming {
+
+  /**
+   * The number of bytes of the length field.
+   */
+  private final int lengthFieldSize;
+  /**
+   * The maximum length of a message (in bytes).
+   */
+  private final int maxMessageLength;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param lengthFieldSize The number of bytes of the length field. Must be 1, 2 or 4.
+   * @param maxMessageLength The maximum length of a message (in bytes).
+   */
+  public LengthPrefixedFraming(int lengthFieldSize, int maxMessageLength) {
+    checkArgument(lengthFieldSize == 1 || lengthFieldSize == 2 || lengthFieldSize == 4,
+                  "lengthFieldSize not 1, 2 or 4: %s",
+                  lengthFieldSize);
+    this.lengthFieldSize = lengthFieldSize;
+    this.maxMessageLength = checkInRange(maxMessageLength,
+                                         0,
+                                         lengthFieldSize == 4
+                                             ? Integer.MAX_VALUE
+                                             : (1 << (8 * lengthFieldSize)) - 1,
+                                         "maxMessageLength");
+  }
+
+  @Override
+  public void decode(@Nonnull ByteBuffer buffer, @Nonnull Consumer<byte[]> messageConsumer)
+      throws IOException {
+    requireNonNull(buffer, "buffer");
+    requireNonNull(messageConsumer, "messageConsumer");
+
+    while (buffer.remaining() >= lengthFieldSize) {
+      buffer.mark();
+      long length = readLength(buffer);
+      if (length > maxMessageLength) {
+        throw new IOException("Message length exceeds maximum of " + maxMessageLength + ": "
+            + length);
+      }
+      if (buffer.remaining() < length) {
+        buffer.reset();
+        return;
+      }
+      byte[] message = new byte[(int) length];
+      buffer.get(message);
+      messageConsumer.accept(message);
+    }
+  }
+
+  @Override
+  public int encodedLength(@Nonnull byte[] message) {
+    requireNonNull(message, "message");
+
+    return lengthFieldSize + message.length;
+  }
+
+  @Override
+  public void encode(@Nonnull byte[] message, @Nonnull ByteBuffer buffer)
+      throws IllegalArgumentException {
+    requireNonNull(message, "message");
+    requireNonNull(buffer, "buffer");
+    checkArgument(message.length <= maxMessageLength,
+                  "Message length exceeds maximum of %s: %s",
+                  maxMessageLength,
+                  message.length);
+
+    switch (lengthFieldSize) {
+      case 1:
+        buffer.put((byte) message.length);
+        break;
+      case 2:
+        buffer.putShort((short) message.length);
+        break;
+      default:
+        buffer.putInt(message.length);
+    }
+    buffer.put(message);
+  }
+
+  private long readLength(ByteBuffer buffer) {
+    switch (lengthFieldSize) {
+      case 1:
+        return Byte.toUnsignedLong(buffer.get());
+      case 2:
+        return Short.toUnsignedLong(buffer.getShort());
+      default:
+        return Integer.toUnsignedLong(buffer.getInt());
+    }
+  }
+}
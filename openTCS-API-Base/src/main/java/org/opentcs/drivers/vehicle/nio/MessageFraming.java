@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+
+/**
+ * Separates the messages within a stream of bytes.
+ */
+public interface MessageFraming {
+
+  /**
+   * Extracts all complete messages from the given buffer.
+   * <p>
+   * The buffer's position is advanced past the last complete message extracted.
+   * Bytes of an incomplete message remaining in the buffer are left for the next call.
+   * </p>
+   *
+   * @param buffer The buffer to extract messages from, ready for reading.
+   * @param messageConsumer The consumer to pass the extracted messages to.
+   * @throws IOException If the data in the buffer does not comply with this framing, e.g. because a
+   * message exceeds the maximum length.
+   */
+  void decode(@Nonnull ByteBuffer buffer, @Nonnull Consumer<byte[]> messageConsumer)
+      throws IOException;
+
+  /**
+   * Returns the number of bytes the given message takes up when encoded with this framing.
+   *
+   * @param message The message.
+   * @return The number of bytes the given message takes up when encoded.
+   */
+  int encodedLength(@Nonnull byte[] message);
+
+  /**
+   * Writes the given message to the given buffer, framed so that it can be extracted again via
+   * {@link #decode(java.nio.ByteBuffer, java.util.function.Consumer)}.
+   *
+   * @param message The message.
+   * @param buffer The buffer to write to, with at least {@link #encodedLength(byte[])} bytes
+   * remaining.
+   * @throws IllegalArgumentException If the message cannot be encoded with this framing, e.g.
+   * because it exceeds the maximum length.
+   */
+  void encode(@Nonnull byte[] message, @Nonnull ByteBuffer buffer)
+      throws IllegalArgumentException;
+}
@@ -0,0 +1,404 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.nio;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ByteChannel;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A non-blocking TCP or UDP connection to a remote host, exchanging messages.
+ * <p>
+ * All I/O is performed by one of the selector threads of a {@link NioSelectorPool}, which is also
+ * the thread the connection's {@link Listener} is called on.
+ * Incoming data is read into a pooled buffer and split into messages by a {@link MessageFraming}.
+ * Outgoing messages are queued and, with TCP, as many of them as fit into a pooled buffer are
+ * written with a single write operation.
+ * With UDP, every datagram is a message and no framing is applied.
+ * </p>
+ * <p>
+ * A connection may be opened again after it has been closed.
+ * </p>
+ */
+public class NioConnection {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(NioConnection.class);
+  /**
+   * The worker performing this connection's I/O.
+   */
+  private final NioSelectorPool.SelectorWorker worker;
+  /**
+   * The pool of buffers to use.
+   */
+  private final ByteBufferPool bufferPool;
+  /**
+   * The transport protocol.
+   */
+  private final Transport transport;
+  /**
+   * The address of the remote host.
+   */
+  private final InetSocketAddress remoteAddress;
+  /**
+   * The framing of messages.
+   */
+  private final MessageFraming framing;
+  /**
+   * The listener to notify.
+   */
+  private final Listener listener;
+  /**
+   * The messages to be sent.
+   */
+  private final Queue<byte[]> pendingMessages = new ConcurrentLinkedQueue<>();
+  /**
+   * Whether writing the pending messages has been scheduled.
+   */
+  private final AtomicBoolean writeScheduled = new AtomicBoolean();
+  /**
+   * Whether the connection is established.
+   */
+  private volatile boolean connected;
+  /**
+   * The channel, or <code>null</code>, if the connection is closed.
+   */
+  private SelectableChannel channel;
+  /**
+   * The channel's selection key.
+   */
+  private SelectionKey key;
+  /**
+   * The buffer incoming data is read into.
+   */
+  private ByteBuffer readBuffer;
+  /**
+   * The buffer with outgoing data not yet completely written, if any.
+   */
+  private ByteBuffer writeBuffer;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param selectorPool The selector pool to perform this connection's I/O.
+   * Must be initialized.
+   * @param transport The transport protocol.
+   * @param remoteAddress The address of the remote host.
+   * @param framing The framing of messages. Not used with UDP.
+   * @param listener The listener to notify.
+   */
+  public NioConnection(@Nonnull NioSelectorPool selectorPool,
+                       @Nonnull Transport transport,
+                       @Nonnull InetSocketAddress remoteAddress,
+                       @Nonnull MessageFraming framing,
+                       @Nonnull Listener listener) {
+    requireNonNull(selectorPool, "selectorPool");
+    this.worker = selectorPool.nextWorker();
+    this.bufferPool = selectorPool.getBufferPool();
+    this.transport = requireNonNull(transport, "transport");
+    this.remoteAddress = requireNonNull(remoteAddress, "remoteAddress");
+    this.framing = requireNonNull(framing, "framing");
+    this.listener = requireNonNull(listener, "listener");
+  }
+
+  /**
+   * Initiates establishing the connection.
+   * Does nothing if the connection is already open.
+   */
+  public void open() {
+    worker.execute(this::doOpen);
+  }
+
+  /**
+   * Closes the connection, discarding any messages not sent, yet.
+   * Does nothing if the connection is already closed.
+   */
+  public void close() {
+    worker.execute(() -> doClose(null));
+  }
+
+  /**
+   * Checks whether the connection is established.
+   *
+   * @return <code>true</code> if, and only if, the connection is established.
+   */
+  public boolean isConnected() {
+    return connected;
+  }
+
+  /**
+   * Queues the given message for sending.
+   * Messages queued while the connection is being established are sent once it is.
+   *
+   * @param message The message.
+   * @throws IllegalArgumentException If the encoded message would not fit into a buffer.
+   */
+  public void send(@Nonnull byte[] message)
+      throws IllegalArgumentException {
+    requireNonNull(message, "message");
+    int length = transport == Transport.UDP ? message.length : framing.encodedLength(message);
+    checkArgument(length <= bufferPool.getBufferSize(),
+                  "Encoded message length exceeds buffer size of %s: %s",
+                  bufferPool.getBufferSize(),
+                  length);
+
+    pendingMessages.add(message);
+    if (writeScheduled.compareAndSet(false, true)) {
+      worker.execute(this::writePendingMessages);
+    }
+  }
+
+  /**
+   * Handles the readiness of this connection's channel for I/O operations.
+   *
+   * @param readyKey The channel's selection key.
+   */
+  void handleReady(SelectionKey readyKey) {
+    try {
+      if (readyKey.isConnectable()) {
+        if (((SocketChannel) channel).finishConnect()) {
+          connectionEstablished();
+        }
+      }
+      if (readyKey.isValid() && readyKey.isReadable()) {
+        read();
+      }
+      if (readyKey.isValid() && readyKey.isWritable()) {
+        write();
+      }
+    }
+    catch (IOException exc) {
+      doClose(exc);
+    }
+    catch (CancelledKeyException exc) {
+      doClose(new IOException("Channel closed", exc));
+    }
+  }
+
+  private void doOpen() {
+    if (channel != null) {
+      return;
+    }
+
+    try {
+      readBuffer = bufferPool.acquire();
+      if (transport == Transport.TCP) {
+        SocketChannel socketChannel = SocketChannel.open();
+        channel = socketChannel;
+        socketChannel.configureBlocking(false);
+        socketChannel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        boolean established = socketChannel.connect(remoteAddress);
+        key = socketChannel.register(worker.getSelector(),
+                                     established ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT,
+                                     this);
+        if (established) {
+          connectionEstablished();
+        }
+      }
+      else {
+        DatagramChannel datagramChannel = DatagramChannel.open();
+        channel = datagramChannel;
+        datagramChannel.configureBlocking(false);
+        datagramChannel.connect(remoteAddress);
+        key = datagramChannel.register(worker.getSelector(), SelectionKey.OP_READ, this);
+        connectionEstablished();
+      }
+    }
+    catch (IOException exc) {
+      doClose(exc);
+    }
+  }
+
+  private void connectionEstablished()
+      throws IOException {
+    LOG.debug("Connection to {} established.", remoteAddress);
+    connected = true;
+    key.interestOps(SelectionKey.OP_READ);
+    listener.connectionEstablished(this);
+    write();
+  }
+
+  private void doClose(@Nullable IOException cause) {
+    // Note that the channel may not have been created if opening the connection failed.
+    if (channel == null && readBuffer == null) {
+      return;
+    }
+
+    if (cause != null) {
+      LOG.debug("Closing connection to {} due to exception.", remoteAddress, cause);
+    }
+    connected = false;
+    if (key != null) {
+      key.cancel();
+      key = null;
+    }
+    if (channel != null) {
+      try {
+        channel.close();
+      }
+      catch (IOException exc) {
+        LOG.debug("Exception closing channel to {}", remoteAddress, exc);
+      }
+      channel = null;
+    }
+    pendingMessages.clear();
+    if (readBuffer != null) {
+      bufferPool.release(readBuffer);
+      readBuffer = null;
+    }
+    if (writeBuffer != null) {
+      bufferPool.release(writeBuffer);
+      writeBuffer = null;
+    }
+
+    listener.connectionClosed(this, cause);
+  }
+
+  private void read()
+      throws IOException {
+    if (transport == Transport.UDP) {
+      readBuffer.clear();
+      while (((DatagramChannel) channel).read(readBuffer) > 0) {
+        readBuffer.flip();
+        byte[] message = new byte[readBuffer.remaining()];
+        readBuffer.get(message);
+        listener.messageReceived(this, message);
+        readBuffer.clear();
+      }
+      return;
+    }
+
+    if (((SocketChannel) channel).read(readBuffer) < 0) {
+      throw new EOFException("Connection closed by remote host");
+    }
+    readBuffer.flip();
+    framing.decode(readBuffer, message -> listener.messageReceived(this, message));
+    readBuffer.compact();
+    if (!readBuffer.hasRemaining()) {
+      throw new IOException("Incoming message exceeds buffer size of " + readBuffer.capacity());
+    }
+  }
+
+  private void writePendingMessages() {
+    writeScheduled.set(false);
+    try {
+      write();
+    }
+    catch (IOException exc) {
+      doClose(exc);
+    }
+    catch (CancelledKeyException exc) {
+      doClose(new IOException("Channel closed", exc));
+    }
+  }
+
+  private void write()
+      throws IOException {
+    if (!connected) {
+      return;
+    }
+
+    while (true) {
+      if (writeBuffer == null) {
+        if (pendingMessages.isEmpty()) {
+          key.interestOps(SelectionKey.OP_READ);
+          return;
+        }
+        writeBuffer = bufferPool.acquire();
+        fillWriteBuffer();
+        writeBuffer.flip();
+      }
+
+      ((ByteChannel) channel).write(writeBuffer);
+      if (writeBuffer.hasRemaining()) {
+        // Continue once the channel is ready for writing again.
+        key.interestOps(SelectionKey.OP_READ | SelectionKey.OP_WRITE);
+        return;
+      }
+      bufferPool.release(writeBuffer);
+      writeBuffer = null;
+    }
+  }
+
+  private void fillWriteBuffer() {
+    if (transport == Transport.UDP) {
+      writeBuffer.put(pendingMessages.poll());
+      return;
+    }
+
+    byte[] message;
+    while ((message = pendingMessages.peek()) != null
+        && framing.encodedLength(message) <= writeBuffer.remaining()) {
+      framing.encode(pendingMessages.poll(), writeBuffer);
+    }
+  }
+
+  /**
+   * The transport protocols supported.
+   */
+  public enum Transport {
+    /**
+     * TCP.
+     */
+    TCP,
+    /**
+     * UDP.
+     */
+    UDP;
+  }
+
+  /**
+   * Is notified about events of a connection.
+   * All methods are called on the connection's selector thread and should not block.
+   */
+  public interface Listener {
+
+    /**
+     * Called when the connection has been established.
+     *
+     * @param connection The connection.
+     */
+    void connectionEstablished(@Nonnull NioConnection connection);
+
+    /**
+     * Called when a message has been received.
+     *
+     * @param connection The connection.
+     * @param message The message.
+     */
+    void messageReceived(@Nonnull NioConnection connection, @Nonnull byte[] message);
+
+    /**
+     * Called when the connection has been closed, or could not be established.
+     *
+     * @param connection The connection.
+     * @param cause The exception that caused the connection to be closed, or <code>null</code>, if
+     * it was closed via {@link NioConnection#close()}.
+     */
+    void connectionClosed(@Nonnull NioConnection connection, @Nullable IOException cause);
+  }
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.nio;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import org.opentcs.components.Lifecycle;
+import static org.opentcs.util.Assertions.checkInRange;
+import static org.opentcs.util.Assertions.checkState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A small, fixed number of selector threads performing the I/O of any number of
+ * {@link NioConnection}s.
+ * <p>
+ * Every connection is assigned to one of the selector threads when it is created, and all of its
+ * I/O as well as all calls to its {@link NioConnection.Listener} happen on that thread.
+ * The selector threads are daemon threads.
+ * </p>
+ */
+public class NioSelectorPool
+    implements Lifecycle {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(NioSelectorPool.class);
+  /**
+   * The number of selector threads.
+   */
+  private final int selectorCount;
+  /**
+   * The pool of buffers used by the connections.
+   */
+  private final ByteBufferPool bufferPool;
+  /**
+   * The selector threads' workers.
+   */
+  private final List<SelectorWorker> workers = new ArrayList<>();
+  /**
+   * The index of the worker to assign the next connection to.
+   */
+  private final AtomicInteger nextWorkerIndex = new AtomicInteger();
+  /**
+   * Whether this instance is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param selectorCount The number of selector threads.
+   * @param bufferPool The pool of buffers to be used by the connections.
+   * The buffers' size limits the size of a single (encoded) message.
+   */
+  public NioSelectorPool(int selectorCount, @Nonnull ByteBufferPool bufferPool) {
+    this.selectorCount = checkInRange(selectorCount, 1, Integer.MAX_VALUE, "selectorCount");
+    this.bufferPool = requireNonNull(bufferPool, "bufferPool");
+  }
+
+  @Override
+  public synchronized void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    for (int i = 0; i < selectorCount; i++) {
+      SelectorWorker worker;
+      try {
+        worker = new SelectorWorker(Selector.open());
+      }
+      catch (IOException exc) {
+        throw new UncheckedIOException("Could not open selector", exc);
+      }
+      Thread thread = new Thread(worker, "nioSelector-" + i);
+      thread.setDaemon(true);
+      thread.start();
+      workers.add(worker);
+    }
+
+    initialized = true;
+  }
+
+  @Override
+  public synchronized boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public synchronized void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    for (SelectorWorker worker : workers) {
+      worker.terminate();
+    }
+    workers.clear();
+
+    initialized = false;
+  }
+
+  /**
+   * Returns the pool of buffers used by the connections.
+   *
+   * @return The pool of buffers used by the connections.
+   */
+  @Nonnull
+  public ByteBufferPool getBufferPool() {
+    return bufferPool;
+  }
+
+  /**
+   * Returns the worker to assign a new connection to.
+   *
+   * @return The worker to assign a new connection to.
+   */
+  synchronized SelectorWorker nextWorker() {
+    checkState(isInitialized(), "Not initialized");
+
+    return workers.get(Math.floorMod(nextWorkerIndex.getAndIncrement(), workers.size()));
+  }
+
+  /**
+   * Performs the I/O of the connections registered with a selector, as well as tasks submitted for
+   * these connections.
+   */
+  static class SelectorWorker
+      implements Runnable {
+
+    /**
+     * The selector.
+     */
+    private final Selector selector;
+    /**
+     * The tasks to be executed on this worker's thread.
+     */
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    /**
+     * Whether this worker is to terminate.
+     */
+    private volatile boolean terminated;
+
+    SelectorWorker(Selector selector) {
+      this.selector = requireNonNull(selector, "selector");
+    }
+
+    /**
+     * Returns the selector.
+     *
+     * @return The selector.
+     */
+    Selector getSelector() {
+      return selector;
+    }
+
+    /**
+     * Executes the given task on this worker's thread.
+     *
+     * @param task The task.
+     */
+    void execute(Runnable task) {
+      tasks.add(task);
+      selector.wakeup();
+    }
+
+    /**
+     * Stops this worker and closes its selector.
+     */
+    void terminate() {
+      terminated = true;
+      selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+      while (!terminated) {
+        try {
+          selector.select();
+          Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+          while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            try {
+              ((NioConnection) key.attachment()).handleReady(key);
+            }
+            catch (RuntimeException exc) {
+              LOG.warn("Exception performing I/O", exc);
+            }
+          }
+          runTasks();
+        }
+        catch (IOException | ClosedSelectorException exc) {
+          LOG.warn("Exception selecting channels", exc);
+          return;
+        }
+      }
+
+      try {
+        selector.close();
+      }
+      catch (IOException exc) {
+        LOG.warn("Exception closing selector", exc);
+      }
+    }
+
+    private void runTasks() {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        try {
+          task.run();
+        }
+        catch (RuntimeException exc) {
+          LOG.warn("Exception executing task", exc);
+        }
+      }
+    }
+  }
+}
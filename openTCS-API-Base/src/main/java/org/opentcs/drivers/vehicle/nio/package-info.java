@@ -0,0 +1,4 @@
+/**
+ * Components for non-blocking communication with vehicles via TCP or UDP.
+ */
+package org.opentcs.drivers.vehicle.nio;
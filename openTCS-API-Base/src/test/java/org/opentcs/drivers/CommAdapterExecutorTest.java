@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link CommAdapterExecutor} and {@link CommAdapterExecutorPool}.
+ */
+public class CommAdapterExecutorTest {
+
+  private static final long TIMEOUT = 5000;
+
+  private CommAdapterExecutorPool pool;
+
+  @BeforeEach
+  public void setUp() {
+    pool = new CommAdapterExecutorPool(4);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    pool.shutdownExecutors(1, TimeUnit.SECONDS);
+  }
+
+  @Test
+  public void executeTasksOneAtATimeInSubmissionOrder()
+      throws Exception {
+    CommAdapterExecutor executor = pool.createExecutor("vehicle");
+    List<Integer> executedTasks = Collections.synchronizedList(new ArrayList<>());
+    AtomicInteger concurrentTasks = new AtomicInteger();
+    AtomicInteger maxConcurrentTasks = new AtomicInteger();
+
+    for (int i = 0; i < 100; i++) {
+      int task = i;
+      executor.execute(() -> {
+        maxConcurrentTasks.accumulateAndGet(concurrentTasks.incrementAndGet(), Math::max);
+        executedTasks.add(task);
+        concurrentTasks.decrementAndGet();
+      });
+    }
+    executor.submit(() -> null).get(TIMEOUT, TimeUnit.MILLISECONDS);
+
+    assertEquals(100, executedTasks.size());
+    for (int i = 0; i < 100; i++) {
+      assertEquals(i, executedTasks.get(i));
+    }
+    assertEquals(1, maxConcurrentTasks.get());
+    assertEquals(101, executor.getExecutedTaskCount());
+  }
+
+  @Test
+  public void blockingTaskShouldNotDelayOtherExecutors()
+      throws Exception {
+    CommAdapterExecutor blockedExecutor = pool.createExecutor("blocked");
+    CommAdapterExecutor otherExecutor = pool.createExecutor("other");
+    CountDownLatch blockingTaskRelease = new CountDownLatch(1);
+
+    blockedExecutor.execute(() -> {
+      try {
+        blockingTaskRelease.await();
+      }
+      catch (InterruptedException exc) {
+        Thread.currentThread().interrupt();
+      }
+    });
+    Future<?> blockedTask = blockedExecutor.submit(() -> null);
+    Future<?> otherTask = otherExecutor.submit(() -> null);
+
+    otherTask.get(TIMEOUT, TimeUnit.MILLISECONDS);
+    assertFalse(blockedTask.isDone());
+
+    blockingTaskRelease.countDown();
+    blockedTask.get(TIMEOUT, TimeUnit.MILLISECONDS);
+  }
+
+  @Test
+  public void executeDelayedAndPeriodicTasks()
+      throws Exception {
+    CommAdapterExecutor executor = pool.createExecutor("vehicle");
+    CountDownLatch periodicExecutions = new CountDownLatch(3);
+
+    ScheduledFuture<String> delayedTask
+        = executor.schedule(() -> "done", 10, TimeUnit.MILLISECONDS);
+    ScheduledFuture<?> periodicTask
+        = executor.scheduleWithFixedDelay(periodicExecutions::countDown,
+                                          0,
+                                          10,
+                                          TimeUnit.MILLISECONDS);
+
+    assertEquals("done", delayedTask.get(TIMEOUT, TimeUnit.MILLISECONDS));
+    assertTrue(periodicExecutions.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    assertEquals(1, executor.getScheduledTaskCount());
+
+    periodicTask.cancel(false);
+    assertTrue(periodicTask.isCancelled());
+    assertEquals(0, executor.getScheduledTaskCount());
+  }
+
+  @Test
+  public void shutdownShouldCancelScheduledTasksAndRejectNewOnes()
+      throws Exception {
+    CommAdapterExecutor executor = pool.createExecutor("vehicle");
+    ScheduledFuture<?> delayedTask = executor.schedule(() -> { }, 1, TimeUnit.HOURS);
+
+    executor.shutdown();
+
+    assertTrue(delayedTask.isCancelled());
+    assertTrue(executor.awaitTermination(TIMEOUT, TimeUnit.MILLISECONDS));
+    assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> { }));
+    assertTrue(pool.getExecutors().isEmpty());
+  }
+
+  @Test
+  public void shutdownExecutorsShouldWaitForQueuedTasks() {
+    CommAdapterExecutor executor = pool.createExecutor("vehicle");
+    AtomicInteger executedTasks = new AtomicInteger();
+    for (int i = 0; i < 10; i++) {
+      executor.execute(() -> {
+        sleep(5);
+        executedTasks.incrementAndGet();
+      });
+    }
+
+    pool.shutdownExecutors(TIMEOUT, TimeUnit.MILLISECONDS);
+
+    assertTrue(executor.isTerminated());
+    assertEquals(10, executedTasks.get());
+    assertTrue(pool.getExecutors().isEmpty());
+  }
+
+  @Test
+  public void keepExecutingTasksAfterTaskThrowsException()
+      throws Exception {
+    CommAdapterExecutor executor = pool.createExecutor("vehicle");
+
+    executor.execute(() -> {
+      throw new IllegalStateException("Expected exception");
+    });
+
+    assertEquals("done", executor.submit(() -> "done").get(TIMEOUT, TimeUnit.MILLISECONDS));
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    }
+    catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
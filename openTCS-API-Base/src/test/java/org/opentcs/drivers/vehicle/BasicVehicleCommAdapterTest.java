@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+
+/**
+ * Unit tests for {@link BasicVehicleCommAdapter}.
+ */
+public class BasicVehicleCommAdapterTest {
+
+  private static final Point DEST_POINT = new Point("Point");
+
+  private ScheduledExecutorService executor;
+  private TestCommAdapter commAdapter;
+
+  @BeforeEach
+  public void setUp() {
+    executor = mock(ScheduledExecutorService.class);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(executor).execute(any(Runnable.class));
+
+    commAdapter = createCommAdapter(new Vehicle("Vehicle"));
+  }
+
+  @Test
+  public void sendCommandsUpToSentQueueCapacityByDefault() {
+    for (int i = 0; i < 5; i++) {
+      commAdapter.enqueueCommand(createCommand(10000, 1000, false));
+    }
+
+    assertEquals(3, commAdapter.sentCommands.size());
+    assertEquals(2, commAdapter.getCommandQueue().size());
+  }
+
+  @Test
+  public void sendOneCommandPerExecutedCommandByDefault() {
+    List<MovementCommand> commands = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      commands.add(createCommand(10000, 1000, false));
+      commAdapter.enqueueCommand(commands.get(i));
+    }
+    commAdapter.getSentQueue().poll();
+    commAdapter.getSentQueue().poll();
+
+    commAdapter.getProcessModel().commandExecuted(commands.get(1));
+
+    assertEquals(4, commAdapter.sentCommands.size());
+    assertEquals(2, commAdapter.getSentQueue().size());
+  }
+
+  @Test
+  public void sendCommandsCoveringLookAheadTimeWithAdaptivePipelining() {
+    commAdapter.setPipeliningLookAheadTime(2000);
+
+    // Each command is expected to take one second.
+    for (int i = 0; i < 5; i++) {
+      commAdapter.enqueueCommand(createCommand(1000, 1000, false));
+    }
+
+    assertEquals(2, commAdapter.sentCommands.size());
+  }
+
+  @Test
+  public void sendMoreCommandsForShorterStepsWithAdaptivePipelining() {
+    commAdapter.setPipeliningLookAheadTime(2000);
+    MovementCommand longCommand = createCommand(10000, 1000, false);
+    commAdapter.enqueueCommand(longCommand);
+    for (int i = 0; i < 4; i++) {
+      commAdapter.enqueueCommand(createCommand(500, 1000, false));
+    }
+
+    // The long command alone covers the look-ahead time.
+    assertEquals(1, commAdapter.sentCommands.size());
+
+    // Once it has been executed, all of the short ones but the last are sent at once.
+    commAdapter.getSentQueue().poll();
+    commAdapter.getProcessModel().commandExecuted(longCommand);
+
+    assertEquals(4, commAdapter.sentCommands.size());
+  }
+
+  @Test
+  public void limitExpectedVelocityToVehicleMaxVelocityWithAdaptivePipelining() {
+    commAdapter = createCommAdapter(new Vehicle("Vehicle").withMaxVelocity(500));
+    commAdapter.setPipeliningLookAheadTime(2000);
+
+    // Each command is expected to take two seconds at the vehicle's maximum velocity.
+    for (int i = 0; i < 5; i++) {
+      commAdapter.enqueueCommand(createCommand(1000, 1000, false));
+    }
+
+    assertEquals(1, commAdapter.sentCommands.size());
+  }
+
+  @Test
+  public void alwaysSendOneCommandWithAdaptivePipelining() {
+    commAdapter.setPipeliningLookAheadTime(1);
+
+    commAdapter.enqueueCommand(createCommand(10000, 1000, false));
+    commAdapter.enqueueCommand(createCommand(10000, 1000, false));
+
+    assertEquals(1, commAdapter.sentCommands.size());
+  }
+
+  @Test
+  public void recordStarvationWhenRunningOutOfCommandsBeforeFinalMovement() {
+    MovementCommand command = createCommand(1000, 1000, false);
+    commAdapter.enqueueCommand(command);
+    commAdapter.getSentQueue().poll();
+    commAdapter.getProcessModel().commandExecuted(command);
+
+    assertEquals(1, commAdapter.getCommandStarvationCount());
+
+    // Starvation ends with the next command sent.
+    commAdapter.enqueueCommand(createCommand(1000, 1000, false));
+    long starvationTime = commAdapter.getCommandStarvationTime();
+    assertTrue(starvationTime >= 0);
+    assertEquals(starvationTime, commAdapter.getCommandStarvationTime());
+  }
+
+  @Test
+  public void doNotRecordStarvationAfterFinalMovement() {
+    MovementCommand command = createCommand(1000, 1000, true);
+    commAdapter.enqueueCommand(command);
+    commAdapter.getSentQueue().poll();
+    commAdapter.getProcessModel().commandExecuted(command);
+
+    assertEquals(0, commAdapter.getCommandStarvationCount());
+  }
+
+  @Test
+  public void publishStarvationAsVehiclePropertiesWithAdaptivePipelining() {
+    Map<String, String> properties = new HashMap<>();
+    commAdapter.getProcessModel().addPropertyChangeListener(evt -> {
+      if (evt.getNewValue() instanceof VehicleProcessModel.VehiclePropertyUpdate) {
+        VehicleProcessModel.VehiclePropertyUpdate update
+            = (VehicleProcessModel.VehiclePropertyUpdate) evt.getNewValue();
+        properties.put(update.getKey(), update.getValue());
+      }
+    });
+    commAdapter.setPipeliningLookAheadTime(2000);
+
+    MovementCommand command = createCommand(1000, 1000, false);
+    commAdapter.enqueueCommand(command);
+    commAdapter.getSentQueue().poll();
+    commAdapter.getProcessModel().commandExecuted(command);
+    commAdapter.enqueueCommand(createCommand(1000, 1000, false));
+
+    assertEquals("1", properties.get(BasicVehicleCommAdapter.PROPKEY_COMMAND_STARVATION_COUNT));
+    assertEquals(Long.toString(commAdapter.getCommandStarvationTime()),
+                 properties.get(BasicVehicleCommAdapter.PROPKEY_COMMAND_STARVATION_TIME));
+  }
+
+  @Test
+  public void doNotPublishStarvationWithoutAdaptivePipelining() {
+    List<Object> updates = new ArrayList<>();
+    commAdapter.getProcessModel().addPropertyChangeListener(evt -> {
+      if (evt.getNewValue() instanceof VehicleProcessModel.VehiclePropertyUpdate) {
+        updates.add(evt.getNewValue());
+      }
+    });
+
+    MovementCommand command = createCommand(1000, 1000, false);
+    commAdapter.enqueueCommand(command);
+    commAdapter.getSentQueue().poll();
+    commAdapter.getProcessModel().commandExecuted(command);
+    commAdapter.enqueueCommand(createCommand(1000, 1000, false));
+
+    assertEquals(1, commAdapter.getCommandStarvationCount());
+    assertTrue(updates.isEmpty());
+  }
+
+  private TestCommAdapter createCommAdapter(Vehicle vehicle) {
+    TestCommAdapter result = new TestCommAdapter(new VehicleProcessModel(vehicle), executor);
+    result.initialize();
+    result.enable();
+    return result;
+  }
+
+  private MovementCommand createCommand(long pathLength, int maxVelocity, boolean finalMovement) {
+    @SuppressWarnings("unchecked")
+    Path path = new Path("Path",
+                         mock(TCSObjectReference.class),
+                         mock(TCSObjectReference.class))
+        .withLength(pathLength)
+        .withMaxVelocity(maxVelocity);
+    MovementCommand command = mock(MovementCommand.class);
+    when(command.getStep())
+        .thenReturn(new Route.Step(path, null, DEST_POINT, Vehicle.Orientation.FORWARD, 0));
+    when(command.isFinalMovement()).thenReturn(finalMovement);
+    return command;
+  }
+
+  private static class TestCommAdapter
+      extends BasicVehicleCommAdapter {
+
+    private final List<MovementCommand> sentCommands = new ArrayList<>();
+
+    TestCommAdapter(VehicleProcessModel vehicleModel, ScheduledExecutorService executor) {
+      super(vehicleModel, 10, 3, "CHARGE", executor);
+    }
+
+    @Override
+    public void sendCommand(MovementCommand cmd) {
+      sentCommands.add(cmd);
+    }
+
+    @Override
+    protected void connectVehicle() {
+    }
+
+    @Override
+    protected void disconnectVehicle() {
+    }
+
+    @Override
+    protected boolean isVehicleConnected() {
+      return true;
+    }
+
+    @Override
+    public void processMessage(Object message) {
+    }
+  }
+}
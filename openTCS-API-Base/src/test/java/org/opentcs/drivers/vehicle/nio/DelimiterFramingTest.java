@@ -0,0 +1,93 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link DelimiterFraming}.
+ */
+public class DelimiterFramingTest {
+
+  private DelimiterFraming framing;
+
+  private List<byte[]> decodedMessages;
+
+  @BeforeEach
+  public void setUp() {
+    framing = new DelimiterFraming(bytes("\r\n"), 10);
+    decodedMessages = new ArrayList<>();
+  }
+
+  @Test
+  public void decodeEncodedMessages()
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    framing.encode(bytes("first"), buffer);
+    framing.encode(bytes(""), buffer);
+    framing.encode(bytes("second"), buffer);
+    buffer.flip();
+
+    framing.decode(buffer, decodedMessages::add);
+
+    assertEquals(3, decodedMessages.size());
+    assertArrayEquals(bytes("first"), decodedMessages.get(0));
+    assertArrayEquals(bytes(""), decodedMessages.get(1));
+    assertArrayEquals(bytes("second"), decodedMessages.get(2));
+    assertEquals(0, buffer.remaining());
+  }
+
+  @Test
+  public void leaveIncompleteMessageInBuffer()
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes("first\r\nsecond\r"));
+
+    framing.decode(buffer, decodedMessages::add);
+
+    assertEquals(1, decodedMessages.size());
+    assertArrayEquals(bytes("first"), decodedMessages.get(0));
+    assertEquals("second\r".length(), buffer.remaining());
+  }
+
+  @Test
+  public void acceptMessageOfMaximumLengthWithPartialDelimiter()
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes("0123456789\r"));
+
+    framing.decode(buffer, decodedMessages::add);
+
+    assertEquals(0, decodedMessages.size());
+    assertEquals(11, buffer.remaining());
+  }
+
+  @Test
+  public void failOnTooLongIncomingMessage() {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes("0123456789ab"));
+
+    assertThrows(IOException.class, () -> framing.decode(buffer, decodedMessages::add));
+  }
+
+  @Test
+  public void failOnTooLongOutgoingMessage() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> framing.encode(bytes("0123456789a"), ByteBuffer.allocate(64)));
+  }
+
+  private byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+}
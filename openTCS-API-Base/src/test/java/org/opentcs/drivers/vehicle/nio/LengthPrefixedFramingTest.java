@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.nio;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link LengthPrefixedFraming}.
+ */
+public class LengthPrefixedFramingTest {
+
+  private LengthPrefixedFraming framing;
+
+  private List<byte[]> decodedMessages;
+
+  @BeforeEach
+  public void setUp() {
+    framing = new LengthPrefixedFraming(2, 100);
+    decodedMessages = new ArrayList<>();
+  }
+
+  @Test
+  public void decodeEncodedMessages()
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    framing.encode(bytes("first"), buffer);
+    framing.encode(bytes(""), buffer);
+    framing.encode(bytes("second"), buffer);
+    buffer.flip();
+
+    framing.decode(buffer, decodedMessages::add);
+
+    assertEquals(3, decodedMessages.size());
+    assertArrayEquals(bytes("first"), decodedMessages.get(0));
+    assertArrayEquals(bytes(""), decodedMessages.get(1));
+    assertArrayEquals(bytes("second"), decodedMessages.get(2));
+    assertEquals(0, buffer.remaining());
+  }
+
+  @Test
+  public void leaveIncompleteMessageInBuffer()
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    framing.encode(bytes("first"), buffer);
+    framing.encode(bytes("second"), buffer);
+    buffer.flip();
+    buffer.limit(buffer.limit() - 2);
+
+    framing.decode(buffer, decodedMessages::add);
+
+    assertEquals(1, decodedMessages.size());
+    assertArrayEquals(bytes("first"), decodedMessages.get(0));
+    assertEquals(framing.encodedLength(bytes("second")) - 2, buffer.remaining());
+
+    // Once the rest of the message is available, it should be decoded.
+    buffer.limit(buffer.limit() + 2);
+    framing.decode(buffer, decodedMessages::add);
+
+    assertEquals(2, decodedMessages.size());
+    assertArrayEquals(bytes("second"), decodedMessages.get(1));
+  }
+
+  @Test
+  public void interpretLengthAsUnsigned()
+      throws IOException {
+    framing = new LengthPrefixedFraming(1, 255);
+    ByteBuffer buffer = ByteBuffer.allocate(256);
+    framing.encode(new byte[200], buffer);
+    buffer.flip();
+
+    framing.decode(buffer, decodedMessages::add);
+
+    assertEquals(1, decodedMessages.size());
+    assertEquals(200, decodedMessages.get(0).length);
+  }
+
+  @Test
+  public void failOnTooLongIncomingMessage() {
+    ByteBuffer buffer = ByteBuffer.allocate(8);
+    buffer.putShort((short) 101);
+    buffer.flip();
+
+    assertThrows(IOException.class, () -> framing.decode(buffer, decodedMessages::add));
+    assertTrue(decodedMessages.isEmpty());
+  }
+
+  @Test
+  public void failOnTooLongOutgoingMessage() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> framing.encode(new byte[101], ByteBuffer.allocate(128)));
+  }
+
+  @Test
+  public void rejectInvalidLengthFieldSize() {
+    assertThrows(IllegalArgumentException.class, () -> new LengthPrefixedFraming(3, 100));
+  }
+
+  private byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+}
@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.drivers.vehicle.nio;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link NioConnection}, using a TCP server on the loopback interface.
+ */
+public class NioConnectionTest {
+
+  private static final long TIMEOUT = 5000;
+
+  private NioSelectorPool selectorPool;
+
+  private ServerSocket serverSocket;
+
+  private RecordingListener listener;
+
+  @BeforeEach
+  public void setUp()
+      throws IOException {
+    selectorPool = new NioSelectorPool(1, new ByteBufferPool(64, 4));
+    selectorPool.initialize();
+    serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    serverSocket.setSoTimeout((int) TIMEOUT);
+    listener = new RecordingListener();
+  }
+
+  @AfterEach
+  public void tearDown()
+      throws IOException {
+    serverSocket.close();
+    selectorPool.terminate();
+  }
+
+  @Test
+  public void exchangeMessagesWithRemoteHost()
+      throws Exception {
+    NioConnection connection = createConnection();
+    connection.open();
+
+    try (Socket socket = serverSocket.accept()) {
+      assertTrue(listener.established.await(TIMEOUT, TimeUnit.MILLISECONDS));
+      assertTrue(connection.isConnected());
+
+      DataInputStream input = new DataInputStream(socket.getInputStream());
+      DataOutputStream output = new DataOutputStream(socket.getOutputStream());
+
+      connection.send(bytes("ping"));
+      assertEquals(4, input.readShort());
+      byte[] received = new byte[4];
+      input.readFully(received);
+      assertArrayEquals(bytes("ping"), received);
+
+      output.writeShort(4);
+      output.write(bytes("pong"));
+      output.flush();
+      assertArrayEquals(bytes("pong"),
+                        listener.messages.poll(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    // The remote host closing the socket should close the connection.
+    assertTrue(listener.closed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    assertFalse(connection.isConnected());
+  }
+
+  @Test
+  public void sendMoreMessagesThanFitIntoOneBuffer()
+      throws Exception {
+    NioConnection connection = createConnection();
+    connection.open();
+
+    try (Socket socket = serverSocket.accept()) {
+      assertTrue(listener.established.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+      for (int i = 0; i < 100; i++) {
+        connection.send(bytes("message-" + i));
+      }
+
+      DataInputStream input = new DataInputStream(socket.getInputStream());
+      for (int i = 0; i < 100; i++) {
+        byte[] received = new byte[input.readShort()];
+        input.readFully(received);
+        assertArrayEquals(bytes("message-" + i), received);
+      }
+    }
+  }
+
+  @Test
+  public void notifyListenerWhenConnectionIsClosedLocally()
+      throws Exception {
+    NioConnection connection = createConnection();
+    connection.open();
+
+    try (Socket socket = serverSocket.accept()) {
+      assertTrue(listener.established.await(TIMEOUT, TimeUnit.MILLISECONDS));
+
+      connection.close();
+
+      assertTrue(listener.closed.await(TIMEOUT, TimeUnit.MILLISECONDS));
+      assertEquals(null, listener.closeCause);
+      assertEquals(-1, socket.getInputStream().read());
+    }
+  }
+
+  private NioConnection createConnection() {
+    return new NioConnection(selectorPool,
+                             NioConnection.Transport.TCP,
+                             new InetSocketAddress(InetAddress.getLoopbackAddress(),
+                                                   serverSocket.getLocalPort()),
+                             new LengthPrefixedFraming(2, 60),
+                             listener);
+  }
+
+  private byte[] bytes(String text) {
+    return text.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static class RecordingListener
+      implements NioConnection.Listener {
+
+    private final CountDownLatch established = new CountDownLatch(1);
+
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    private final BlockingQueue<byte[]> messages = new LinkedBlockingQueue<>();
+
+    private volatile IOException closeCause;
+
+    RecordingListener() {
+    }
+
+    @Override
+    public void connectionEstablished(@Nonnull NioConnection connection) {
+      established.countDown();
+    }
+
+    @Override
+    public void messageReceived(@Nonnull NioConnection connection, @Nonnull byte[] message) {
+      messages.add(message);
+    }
+
+    @Override
+    public void connectionClosed(@Nonnull NioConnection connection, @Nullable IOException cause) {
+      closeCause = cause;
+      closed.countDown();
+    }
+  }
+}
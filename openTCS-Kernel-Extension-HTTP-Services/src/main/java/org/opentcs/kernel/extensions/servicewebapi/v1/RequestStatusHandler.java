@@ -9,17 +9,23 @@ package org.opentcs.kernel.extensions.servicewebapi.v1;
 
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
 import org.opentcs.components.kernel.services.PeripheralService;
+import org.opentcs.components.kernel.services.PlantModelService;
+import org.opentcs.components.kernel.services.RouterService;
 import org.opentcs.components.kernel.services.TransportOrderService;
 import org.opentcs.components.kernel.services.VehicleService;
 import org.opentcs.data.ObjectUnknownException;
+import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.OrderSequence;
 import org.opentcs.data.order.TransportOrder;
@@ -31,8 +37,11 @@ import org.opentcs.drivers.vehicle.management.AttachmentInformation;
 import org.opentcs.kernel.extensions.servicewebapi.KernelExecutorWrapper;
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.GetOrderSequenceResponseTO;
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.GetPeripheralJobResponseTO;
+import org.opentcs.kernel.extensions.servicewebapi.v1.binding.GetResourceContentionResponseTO;
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.GetTransportOrderResponseTO;
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.GetVehicleResponseTO;
+import org.opentcs.kernel.extensions.servicewebapi.v1.binding.PostVehicleRouteCostsRequestTO;
+import org.opentcs.kernel.extensions.servicewebapi.v1.binding.PostVehicleRouteCostsResponseTO;
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.PutVehicleAllowedOrderTypesTO;
 import org.opentcs.kernel.extensions.servicewebapi.v1.filter.OrderSequenceFilter;
 import org.opentcs.kernel.extensions.servicewebapi.v1.filter.PeripheralJobFilter;
@@ -56,6 +65,14 @@ public class RequestStatusHandler {
    * Used to update vehicle instances.
    */
   private final VehicleService vehicleService;
+  /**
+   * Used to compute routing costs.
+   */
+  private final RouterService routerService;
+  /**
+   * Provides statistics about the contention of resources.
+   */
+  private final PlantModelService plantModelService;
   /**
    * Executes calls via the kernel executor and waits for the outcome.
    */
@@ -67,16 +84,22 @@ public class RequestStatusHandler {
    * @param peripheralService The service used to manage peripherals.
    * @param orderService The service we use to get the transport orders.
    * @param vehicleService Used to update vehicle instances.
+   * @param routerService Used to compute routing costs.
+   * @param plantModelService Provides statistics about the contention of resources.
    * @param executorWrapper Executes calls via the kernel executor and waits for the outcome.
    */
   @Inject
   public RequestStatusHandler(PeripheralService peripheralService,
                               TransportOrderService orderService,
                               VehicleService vehicleService,
+                              RouterService routerService,
+                              PlantModelService plantModelService,
                               KernelExecutorWrapper executorWrapper) {
     this.peripheralService = requireNonNull(peripheralService, "peripheralService");
     this.orderService = requireNonNull(orderService, "orderService");
     this.vehicleService = requireNonNull(vehicleService, "vehicleService");
+    this.routerService = requireNonNull(routerService, "routerService");
+    this.plantModelService = requireNonNull(plantModelService, "plantModelService");
     this.executorWrapper = requireNonNull(executorWrapper, "executorWrapper");
   }
 
@@ -384,6 +407,54 @@ public class RequestStatusHandler {
     });
   }
 
+  /**
+   * Computes the routing costs for the vehicle with the given name between the requested source
+   * and destination points.
+   *
+   * @param name The name of the vehicle.
+   * @param request The source and destination points.
+   * @return The routing costs for all pairs of points for which a route exists.
+   * @throws ObjectUnknownException If the vehicle or any of the points does not exist.
+   */
+  public PostVehicleRouteCostsResponseTO postVehicleRouteCosts(
+      String name,
+      PostVehicleRouteCostsRequestTO request)
+      throws ObjectUnknownException {
+    requireNonNull(name, "name");
+    requireNonNull(request, "request");
+
+    Vehicle vehicle = executorWrapper.callAndWait(() -> {
+      Vehicle result = vehicleService.fetchObject(Vehicle.class, name);
+      if (result == null) {
+        throw new ObjectUnknownException("Unknown vehicle: " + name);
+      }
+      return result;
+    });
+    Set<TCSObjectReference<Point>> sourcePointRefs = toPointReferences(request.getSourcePoints());
+    Set<TCSObjectReference<Point>> destinationPointRefs
+        = toPointReferences(request.getDestinationPoints());
+
+    // The router service does not need to be called via the kernel executor.
+    Map<TCSObjectReference<Point>, Map<TCSObjectReference<Point>, Long>> costs
+        = routerService.computeRouteCosts(vehicle.getReference(),
+                                          sourcePointRefs,
+                                          destinationPointRefs);
+    return PostVehicleRouteCostsResponseTO.fromCostMatrix(costs);
+  }
+
+  /**
+   * Returns statistics about the contention of resources within a recent period of time.
+   *
+   * @return Statistics about the contention of resources.
+   */
+  public GetResourceContentionResponseTO getResourceContention() {
+    // The statistics are provided by the scheduler and do not need to be fetched via the kernel
+    // executor.
+    return GetResourceContentionResponseTO.fromStatistics(
+        plantModelService.fetchResourceContentionStatistics()
+    );
+  }
+
   public List<GetOrderSequenceResponseTO> getOrderSequences(@Nullable String intendedVehicle) {
     return executorWrapper.callAndWait(() -> {
       if (intendedVehicle != null) {
@@ -430,4 +501,19 @@ public class RequestStatusHandler {
       orderService.markOrderSequenceComplete(orderSequence.getReference());
     });
   }
+
+  private Set<TCSObjectReference<Point>> toPointReferences(List<String> pointNames)
+      throws ObjectUnknownException {
+    return executorWrapper.callAndWait(() -> {
+      Set<TCSObjectReference<Point>> result = new HashSet<>();
+      for (String pointName : pointNames) {
+        Point point = vehicleService.fetchObject(Point.class, pointName);
+        if (point == null) {
+          throw new ObjectUnknownException("Unknown point: " + pointName);
+        }
+        result.add(point.getReference());
+      }
+      return result;
+    });
+  }
 }
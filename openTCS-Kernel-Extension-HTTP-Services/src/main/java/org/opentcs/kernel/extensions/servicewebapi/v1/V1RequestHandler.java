@@ -24,6 +24,7 @@ import org.opentcs.kernel.extensions.servicewebapi.v1.binding.GetVehicleAttachme
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.PostOrderSequenceRequestTO;
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.PostPeripheralJobRequestTO;
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.PostTransportOrderRequestTO;
+import org.opentcs.kernel.extensions.servicewebapi.v1.binding.PostVehicleRouteCostsRequestTO;
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.PlantModelTO;
 import org.opentcs.kernel.extensions.servicewebapi.v1.binding.PutVehicleAllowedOrderTypesTO;
 import spark.QueryParamsMap;
@@ -122,6 +123,8 @@ public class V1RequestHandler
                  this::handlePostVehicleRerouteRequest);
     service.put("/vehicles/:NAME/allowedOrderTypes",
                 this::handlePutVehicleAllowedOrderTypes);
+    service.post("/vehicles/:NAME/routeCostsQuery",
+                 this::handlePostVehicleRouteCostsQuery);
     service.get("/vehicles/:NAME",
                 this::handleGetVehicleByName);
     service.get("/vehicles",
@@ -150,6 +153,8 @@ public class V1RequestHandler
                 this::handlePutPlantModel);
     service.get("/plantModel",
                 this::handleGetPlantModel);
+    service.get("/resourceContention",
+                this::handleGetResourceContention);
     service.post("/dispatcher/trigger",
                  this::handlePostDispatcherTrigger);
     service.post("/peripherals/dispatcher/trigger",
@@ -337,6 +342,11 @@ public class V1RequestHandler
     return "";
   }
 
+  private Object handleGetResourceContention(Request request, Response response) {
+    response.type(HttpConstants.CONTENT_TYPE_APPLICATION_JSON_UTF8);
+    return jsonBinder.toJson(statusInformationProvider.getResourceContention());
+  }
+
   private Object handleGetPlantModel(Request request, Response response) {
     response.type(HttpConstants.CONTENT_TYPE_APPLICATION_JSON_UTF8);
     return jsonBinder.toJson(plantModelHandler.getPlantModel());
@@ -395,6 +405,17 @@ public class V1RequestHandler
     return "";
   }
 
+  private Object handlePostVehicleRouteCostsQuery(Request request, Response response)
+      throws ObjectUnknownException, IllegalArgumentException {
+    response.type(HttpConstants.CONTENT_TYPE_APPLICATION_JSON_UTF8);
+    return jsonBinder.toJson(
+        statusInformationProvider.postVehicleRouteCosts(
+            request.params(":NAME"),
+            jsonBinder.fromJson(request.body(), PostVehicleRouteCostsRequestTO.class)
+        )
+    );
+  }
+
   private Object handlePostPeripheralWithdrawal(Request request, Response response)
       throws KernelRuntimeException {
     orderHandler.withdrawPeripheral(request.params(":NAME"));
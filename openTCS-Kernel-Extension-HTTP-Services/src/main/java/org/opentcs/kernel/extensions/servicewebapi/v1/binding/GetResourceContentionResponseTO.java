@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.binding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.opentcs.access.ResourceContentionStatistics;
+
+/**
+ * Statistics about the contention of resources within a recent period of time.
+ */
+public class GetResourceContentionResponseTO {
+
+  /**
+   * The duration of the period of time the statistics cover (in ms).
+   */
+  private long windowDuration;
+  /**
+   * The statistics for the individual resources.
+   */
+  @Nonnull
+  private List<ResourceContention> resources = new ArrayList<>();
+
+  public GetResourceContentionResponseTO() {
+  }
+
+  public long getWindowDuration() {
+    return windowDuration;
+  }
+
+  public GetResourceContentionResponseTO setWindowDuration(long windowDuration) {
+    this.windowDuration = windowDuration;
+    return this;
+  }
+
+  @Nonnull
+  public List<ResourceContention> getResources() {
+    return resources;
+  }
+
+  public GetResourceContentionResponseTO setResources(@Nonnull List<ResourceContention> resources) {
+    this.resources = requireNonNull(resources, "resources");
+    return this;
+  }
+
+  /**
+   * Creates a new instance from the given statistics.
+   * Resources are sorted by their waiting time, descending, so that the most contended ones come
+   * first.
+   *
+   * @param statistics The statistics.
+   * @return A new instance containing the given statistics.
+   */
+  public static GetResourceContentionResponseTO fromStatistics(
+      @Nonnull ResourceContentionStatistics statistics) {
+    requireNonNull(statistics, "statistics");
+
+    return new GetResourceContentionResponseTO()
+        .setWindowDuration(statistics.getWindowDuration())
+        .setResources(
+            statistics.getEntries().stream()
+                .map(entry -> new ResourceContention(entry.getResource().getName(),
+                                                     entry.getOccupancyTime(),
+                                                     entry.getWaitingTime(),
+                                                     entry.getDeferralCount()))
+                .sorted(Comparator.comparingLong(ResourceContention::getWaitingTime).reversed()
+                    .thenComparing(ResourceContention::getName))
+                .collect(Collectors.toList())
+        );
+  }
+
+  /**
+   * The contention statistics for a single resource.
+   */
+  public static class ResourceContention {
+
+    private String name;
+
+    private long occupancyTime;
+
+    private long waitingTime;
+
+    private int deferralCount;
+
+    /**
+     * Creates a new instance.
+     */
+    public ResourceContention() {
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name The name of the resource.
+     * @param occupancyTime The time the resource was allocated (in ms).
+     * @param waitingTime The time allocations of the resource were waited for (in ms).
+     * @param deferralCount The number of times an allocation of the resource was deferred.
+     */
+    public ResourceContention(String name,
+                              long occupancyTime,
+                              long waitingTime,
+                              int deferralCount) {
+      this.name = requireNonNull(name, "name");
+      this.occupancyTime = occupancyTime;
+      this.waitingTime = waitingTime;
+      this.deferralCount = deferralCount;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = requireNonNull(name, "name");
+    }
+
+    public long getOccupancyTime() {
+      return occupancyTime;
+    }
+
+    public void setOccupancyTime(long occupancyTime) {
+      this.occupancyTime = occupancyTime;
+    }
+
+    public long getWaitingTime() {
+      return waitingTime;
+    }
+
+    public void setWaitingTime(long waitingTime) {
+      this.waitingTime = waitingTime;
+    }
+
+    public int getDeferralCount() {
+      return deferralCount;
+    }
+
+    public void setDeferralCount(int deferralCount) {
+      this.deferralCount = deferralCount;
+    }
+  }
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.binding;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+
+/**
+ * A request for the routing costs between a set of source points and a set of destination points.
+ */
+public class PostVehicleRouteCostsRequestTO {
+
+  @Nonnull
+  private List<String> sourcePoints;
+
+  @Nonnull
+  private List<String> destinationPoints;
+
+  @JsonCreator
+  public PostVehicleRouteCostsRequestTO(
+      @Nonnull @JsonProperty(value = "sourcePoints", required = true) List<String> sourcePoints,
+      @Nonnull @JsonProperty(value = "destinationPoints", required = true)
+      List<String> destinationPoints) {
+    this.sourcePoints = requireNonNull(sourcePoints, "sourcePoints");
+    this.destinationPoints = requireNonNull(destinationPoints, "destinationPoints");
+  }
+
+  @Nonnull
+  public List<String> getSourcePoints() {
+    return sourcePoints;
+  }
+
+  public PostVehicleRouteCostsRequestTO setSourcePoints(@Nonnull List<String> sourcePoints) {
+    this.sourcePoints = requireNonNull(sourcePoints, "sourcePoints");
+    return this;
+  }
+
+  @Nonnull
+  public List<String> getDestinationPoints() {
+    return destinationPoints;
+  }
+
+  public PostVehicleRouteCostsRequestTO setDestinationPoints(
+      @Nonnull List<String> destinationPoints) {
+    this.destinationPoints = requireNonNull(destinationPoints, "destinationPoints");
+    return this;
+  }
+}
@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.binding;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Point;
+
+/**
+ * The routing costs between a set of source points and a set of destination points.
+ */
+public class PostVehicleRouteCostsResponseTO {
+
+  /**
+   * The costs for every pair of source and destination point for which a route exists.
+   */
+  @Nonnull
+  private List<RouteCosts> routeCosts = new ArrayList<>();
+
+  public PostVehicleRouteCostsResponseTO() {
+  }
+
+  @Nonnull
+  public List<RouteCosts> getRouteCosts() {
+    return routeCosts;
+  }
+
+  public PostVehicleRouteCostsResponseTO setRouteCosts(@Nonnull List<RouteCosts> routeCosts) {
+    this.routeCosts = requireNonNull(routeCosts, "routeCosts");
+    return this;
+  }
+
+  /**
+   * Creates a new instance from a matrix of routing costs.
+   * Pairs of points for which no route exists are omitted.
+   *
+   * @param costs The routing costs, mapping each source point to a map of each destination point to
+   * the costs of the respective route.
+   * @return A new instance containing the given routing costs.
+   */
+  public static PostVehicleRouteCostsResponseTO fromCostMatrix(
+      @Nonnull Map<TCSObjectReference<Point>, Map<TCSObjectReference<Point>, Long>> costs) {
+    requireNonNull(costs, "costs");
+
+    List<RouteCosts> routeCosts = new ArrayList<>();
+    for (Map.Entry<TCSObjectReference<Point>, Map<TCSObjectReference<Point>, Long>> sourceEntry
+             : costs.entrySet()) {
+      for (Map.Entry<TCSObjectReference<Point>, Long> destinationEntry
+               : sourceEntry.getValue().entrySet()) {
+        if (destinationEntry.getValue() == Long.MAX_VALUE) {
+          continue;
+        }
+        routeCosts.add(new RouteCosts(sourceEntry.getKey().getName(),
+                                      destinationEntry.getKey().getName(),
+                                      destinationEntry.getValue()));
+      }
+    }
+    routeCosts.sort(Comparator.comparing(RouteCosts::getSourcePoint)
+        .thenComparing(RouteCosts::getDestinationPoint));
+
+    return new PostVehicleRouteCostsResponseTO().setRouteCosts(routeCosts);
+  }
+
+  /**
+   * The costs for a route from a source point to a destination point.
+   */
+  public static class RouteCosts {
+
+    private String sourcePoint;
+
+    private String destinationPoint;
+
+    private long costs;
+
+    /**
+     * Creates a new instance.
+     */
+    public RouteCosts() {
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param sourcePoint The name of the source point.
+     * @param destinationPoint The name of the destination point.
+     * @param costs The costs of the route.
+     */
+    public RouteCosts(String sourcePoint, String destinationPoint, long costs) {
+      this.sourcePoint = requireNonNull(sourcePoint, "sourcePoint");
+      this.destinationPoint = requireNonNull(destinationPoint, "destinationPoint");
+      this.costs = costs;
+    }
+
+    public String getSourcePoint() {
+      return sourcePoint;
+    }
+
+    public void setSourcePoint(String sourcePoint) {
+      this.sourcePoint = requireNonNull(sourcePoint, "sourcePoint");
+    }
+
+    public String getDestinationPoint() {
+      return destinationPoint;
+    }
+
+    public void setDestinationPoint(String destinationPoint) {
+      this.destinationPoint = requireNonNull(destinationPoint, "destinationPoint");
+    }
+
+    public long getCosts() {
+      return costs;
+    }
+
+    public void setCosts(long costs) {
+      this.costs = costs;
+    }
+  }
+}
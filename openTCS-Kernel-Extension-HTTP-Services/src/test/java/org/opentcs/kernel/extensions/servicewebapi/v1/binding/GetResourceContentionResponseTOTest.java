@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.binding;
+
+import java.util.List;
+import org.approvaltests.Approvals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentcs.access.ResourceContentionStatistics;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.kernel.extensions.servicewebapi.JsonBinder;
+
+/**
+ */
+public class GetResourceContentionResponseTOTest {
+
+  private JsonBinder jsonBinder;
+
+  @BeforeEach
+  public void setUp() {
+    jsonBinder = new JsonBinder();
+  }
+
+  @Test
+  public void jsonSample() {
+    Point point = new Point("some-point");
+    Point destinationPoint = new Point("some-destination-point");
+    Path path = new Path("some-path", point.getReference(), destinationPoint.getReference());
+
+    GetResourceContentionResponseTO to = GetResourceContentionResponseTO.fromStatistics(
+        new ResourceContentionStatistics(
+            3600000,
+            List.of(
+                new ResourceContentionStatistics.Entry(path.getReference(), 12000, 0, 0),
+                new ResourceContentionStatistics.Entry(point.getReference(), 34000, 5600, 3)
+            )
+        )
+    );
+
+    Approvals.verify(jsonBinder.toJson(to));
+  }
+}
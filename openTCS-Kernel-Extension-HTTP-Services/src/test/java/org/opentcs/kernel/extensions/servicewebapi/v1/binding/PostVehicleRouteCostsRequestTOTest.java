@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.extensions.servicewebapi.v1.binding;
+
+import java.util.List;
+import org.approvaltests.Approvals;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentcs.kernel.extensions.servicewebapi.JsonBinder;
+
+/**
+ */
+public class PostVehicleRouteCostsRequestTOTest {
+
+  private JsonBinder jsonBinder;
+
+  @BeforeEach
+  public void setUp() {
+    jsonBinder = new JsonBinder();
+  }
+
+  @Test
+  public void jsonSample() {
+    PostVehicleRouteCostsRequestTO to
+        = new PostVehicleRouteCostsRequestTO(List.of("some-point", "another-point"),
+                                             List.of("some-destination-point",
+                                                     "another-destination-point"));
+
+    Approvals.verify(jsonBinder.toJson(to));
+  }
+}
@@ -16,6 +16,7 @@ import static java.util.Objects.requireNonNull;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import javax.inject.Inject;
+import org.opentcs.access.ResourceContentionStatistics;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.access.rmi.factories.SocketFactoryProvider;
 import org.opentcs.access.rmi.services.RegistrationName;
@@ -205,4 +206,11 @@ public class StandardRemotePlantModelService
       throw findSuitableExceptionFor(exc);
     }
   }
+
+  @Override
+  public ResourceContentionStatistics fetchResourceContentionStatistics(ClientID clientId) {
+    userManager.verifyCredentials(clientId, UserPermission.READ_DATA);
+
+    return plantModelService.fetchResourceContentionStatistics();
+  }
 }
@@ -11,7 +11,9 @@ import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import javax.inject.Inject;
@@ -23,6 +25,8 @@ import org.opentcs.components.kernel.services.RouterService;
 import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -172,4 +176,15 @@ public class StandardRemoteRouterService
       throw findSuitableExceptionFor(exc);
     }
   }
+
+  @Override
+  public Map<TCSObjectReference<Point>, Map<TCSObjectReference<Point>, Long>> computeRouteCosts(
+      ClientID clientId,
+      TCSObjectReference<Vehicle> vehicleRef,
+      Set<TCSObjectReference<Point>> sourcePointRefs,
+      Set<TCSObjectReference<Point>> destinationPointRefs) {
+    userManager.verifyCredentials(clientId, UserPermission.READ_DATA);
+
+    return routerService.computeRouteCosts(vehicleRef, sourcePointRefs, destinationPointRefs);
+  }
 }
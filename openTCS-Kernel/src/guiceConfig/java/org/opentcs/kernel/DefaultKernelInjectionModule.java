@@ -41,8 +41,11 @@ import org.opentcs.customizations.ApplicationHome;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
+import org.opentcs.drivers.CommAdapterExecutorPool;
 import org.opentcs.drivers.peripherals.PeripheralControllerPool;
 import org.opentcs.drivers.vehicle.VehicleControllerPool;
+import org.opentcs.drivers.vehicle.nio.ByteBufferPool;
+import org.opentcs.drivers.vehicle.nio.NioSelectorPool;
 import org.opentcs.kernel.extensions.controlcenter.vehicles.AttachmentManager;
 import org.opentcs.kernel.extensions.controlcenter.vehicles.VehicleEntryPool;
 import org.opentcs.kernel.peripherals.DefaultPeripheralControllerPool;
@@ -128,6 +131,8 @@ public class DefaultKernelInjectionModule
         .in(Singleton.class);
 
     configureVehicleControllers();
+    configureNioSelectorPool();
+    configureCommAdapterExecutorPool();
 
     bind(AttachmentManager.class)
         .in(Singleton.class);
@@ -219,6 +224,24 @@ public class DefaultKernelInjectionModule
         .to(DefaultVehicleControllerPool.class);
   }
 
+  private void configureNioSelectorPool() {
+    KernelApplicationConfiguration configuration
+        = getConfigBindingProvider().get(KernelApplicationConfiguration.PREFIX,
+                                         KernelApplicationConfiguration.class);
+    bind(NioSelectorPool.class)
+        .toInstance(new NioSelectorPool(configuration.vehicleIoSelectorCount(),
+                                        new ByteBufferPool(configuration.vehicleIoBufferSize(),
+                                                           configuration.vehicleIoMaxPooledBuffers())));
+  }
+
+  private void configureCommAdapterExecutorPool() {
+    KernelApplicationConfiguration configuration
+        = getConfigBindingProvider().get(KernelApplicationConfiguration.PREFIX,
+                                         KernelApplicationConfiguration.class);
+    bind(CommAdapterExecutorPool.class)
+        .toInstance(new CommAdapterExecutorPool(configuration.commAdapterExecutorMaxThreadCount()));
+  }
+
   private void configurePeripheralControllers() {
     install(new FactoryModuleBuilder().build(PeripheralControllerFactory.class));
 
@@ -50,4 +50,77 @@ public interface KernelApplicationConfiguration {
       description = "Whether to implicitly update the router's topology when a path is (un)locked.",
       orderKey = "3_topologyUpdate")
   boolean updateRoutingTopologyOnPathLockChange();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of consecutive movement commands a vehicle controller allocates "
+        + "resources for in a single request to the scheduler.",
+        "Values greater than 1 let vehicles receive movement commands ahead of time, reducing the "
+        + "number of allocation round trips."},
+      orderKey = "4_vehicles_0")
+  int vehicleAllocationLookAhead();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The minimum time (in ms) between two updates of a vehicle's precise position that are "
+        + "passed on from its communication adapter.",
+        "Updates in between are coalesced, with only the latest one being passed on once the time "
+        + "has elapsed. A value of 0 passes on every update."},
+      orderKey = "4_vehicles_1")
+  long vehiclePrecisePositionUpdateInterval();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The distance (in mm) a vehicle has to move for an update of its precise position to be "
+        + "passed on regardless of 'vehiclePrecisePositionUpdateInterval'.",
+        "A value of 0 disables passing on updates based on the distance moved."},
+      orderKey = "4_vehicles_2")
+  long vehiclePrecisePositionUpdateDistance();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The minimum time (in ms) between two updates of a vehicle's orientation angle that are "
+        + "passed on from its communication adapter.",
+        "Updates in between are coalesced, with only the latest one being passed on once the time "
+        + "has elapsed. A value of 0 passes on every update."},
+      orderKey = "4_vehicles_3")
+  long vehicleOrientationAngleUpdateInterval();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The number of threads performing the I/O of vehicle drivers based on "
+        + "'NioVehicleCommAdapter', shared by all vehicles."},
+      orderKey = "4_vehicles_4")
+  int vehicleIoSelectorCount();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The size (in bytes) of the buffers used for the I/O of vehicle drivers based on "
+        + "'NioVehicleCommAdapter'.",
+        "Limits the size of a single message exchanged with a vehicle."},
+      orderKey = "4_vehicles_5")
+  int vehicleIoBufferSize();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of unused buffers kept for reuse by the I/O of vehicle drivers based on "
+        + "'NioVehicleCommAdapter'."},
+      orderKey = "4_vehicles_6")
+  int vehicleIoMaxPooledBuffers();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of threads executing tasks of vehicle and peripheral drivers using "
+        + "executors provided via 'CommAdapterExecutorPool'.",
+        "Drivers that block while executing tasks may require one thread per vehicle or device."},
+      orderKey = "5_commAdapters_0")
+  int commAdapterExecutorMaxThreadCount();
 }
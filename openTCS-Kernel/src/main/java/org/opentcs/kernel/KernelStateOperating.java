@@ -25,6 +25,7 @@ import org.opentcs.customizations.kernel.ActiveInOperatingMode;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.data.model.Vehicle;
+import org.opentcs.drivers.CommAdapterExecutorPool;
 import org.opentcs.kernel.extensions.controlcenter.vehicles.AttachmentManager;
 import org.opentcs.kernel.peripherals.LocalPeripheralControllerPool;
 import org.opentcs.kernel.peripherals.PeripheralAttachmentManager;
@@ -102,6 +103,10 @@ public class KernelStateOperating
    * The vehicle service.
    */
   private final InternalVehicleService vehicleService;
+  /**
+   * The pool providing communication adapters' executors.
+   */
+  private final CommAdapterExecutorPool commAdapterExecutorPool;
   /**
    * A handle for the cleaner task.
    */
@@ -132,6 +137,7 @@ public class KernelStateOperating
    * @param attachmentManager The attachment manager to be used.
    * @param peripheralAttachmentManager The peripheral attachment manager to be used.
    * @param vehicleService The vehicle service to be used.
+   * @param commAdapterExecutorPool The pool providing communication adapters' executors.
    */
   @Inject
   public KernelStateOperating(@GlobalSyncObject Object globalSyncObject,
@@ -151,7 +157,8 @@ public class KernelStateOperating
                               @ActiveInOperatingMode Set<KernelExtension> extensions,
                               AttachmentManager attachmentManager,
                               PeripheralAttachmentManager peripheralAttachmentManager,
-                              InternalVehicleService vehicleService) {
+                              InternalVehicleService vehicleService,
+                              CommAdapterExecutorPool commAdapterExecutorPool) {
     super(globalSyncObject,
           plantModelManager,
           modelPersister,
@@ -173,6 +180,8 @@ public class KernelStateOperating
     this.peripheralAttachmentManager = requireNonNull(peripheralAttachmentManager,
                                                       "peripheralAttachmentManager");
     this.vehicleService = requireNonNull(vehicleService, "vehicleService");
+    this.commAdapterExecutorPool = requireNonNull(commAdapterExecutorPool,
+                                                  "commAdapterExecutorPool");
   }
 
   // Implementation of interface Kernel starts here.
@@ -273,6 +282,9 @@ public class KernelStateOperating
     peripheralAttachmentManager.terminate();
     // Grant communication adapters etc. some time to settle things.
     Uninterruptibles.sleepUninterruptibly(500, TimeUnit.MILLISECONDS);
+    // Shut down executors that communication adapters did not shut down themselves.
+    LOG.debug("Shutting down communication adapter executors...");
+    commAdapterExecutorPool.shutdownExecutors(5, TimeUnit.SECONDS);
 
     // Ensure that vehicles do not reference orders any more.
     for (Vehicle curVehicle : vehicleService.fetchObjects(Vehicle.class)) {
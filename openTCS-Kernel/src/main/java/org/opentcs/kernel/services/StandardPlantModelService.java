@@ -12,11 +12,14 @@ import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import javax.inject.Inject;
+import javax.inject.Provider;
 import org.opentcs.access.Kernel;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.access.LocalKernel;
 import org.opentcs.access.ModelTransitionEvent;
+import org.opentcs.access.ResourceContentionStatistics;
 import org.opentcs.access.to.model.PlantModelCreationTO;
+import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.services.InternalPlantModelService;
 import org.opentcs.components.kernel.services.NotificationService;
 import org.opentcs.components.kernel.services.PlantModelService;
@@ -72,6 +75,10 @@ public class StandardPlantModelService
    * The notification service.
    */
   private final NotificationService notificationService;
+  /**
+   * Provides the scheduler.
+   */
+  private final Provider<Scheduler> schedulerProvider;
 
   /**
    * Creates a new instance.
@@ -83,6 +90,7 @@ public class StandardPlantModelService
    * @param modelPersister The model persister to be used.
    * @param eventHandler Where this instance sends events to.
    * @param notificationService The notification service.
+   * @param schedulerProvider Provides the scheduler.
    */
   @Inject
   public StandardPlantModelService(LocalKernel kernel,
@@ -91,7 +99,8 @@ public class StandardPlantModelService
                                    PlantModelManager plantModelManager,
                                    ModelPersister modelPersister,
                                    @ApplicationEventBus EventHandler eventHandler,
-                                   NotificationService notificationService) {
+                                   NotificationService notificationService,
+                                   Provider<Scheduler> schedulerProvider) {
     super(objectService);
     this.kernel = requireNonNull(kernel, "kernel");
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
@@ -99,6 +108,7 @@ public class StandardPlantModelService
     this.modelPersister = requireNonNull(modelPersister, "modelPersister");
     this.eventHandler = requireNonNull(eventHandler, "eventHandler");
     this.notificationService = requireNonNull(notificationService, "notificationService");
+    this.schedulerProvider = requireNonNull(schedulerProvider, "schedulerProvider");
   }
 
   @Override
@@ -212,6 +222,11 @@ public class StandardPlantModelService
     }
   }
 
+  @Override
+  public ResourceContentionStatistics fetchResourceContentionStatistics() {
+    return schedulerProvider.get().getResourceContentionStatistics();
+  }
+
   @Deprecated
   @Override
   public void updateLocationReservationToken(TCSObjectReference<Location> ref, String token)
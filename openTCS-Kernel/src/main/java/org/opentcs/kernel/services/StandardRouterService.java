@@ -7,7 +7,11 @@
  */
 package org.opentcs.kernel.services;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
 import javax.inject.Inject;
 import org.opentcs.access.Kernel;
 import org.opentcs.access.LocalKernel;
@@ -18,8 +22,11 @@ import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
 import org.opentcs.kernel.KernelApplicationConfiguration;
 import org.opentcs.kernel.workingset.PlantModelManager;
+import org.opentcs.kernel.workingset.TCSObjectRepository;
 
 /**
  * This class is the standard implementation of the {@link RouterService} interface.
@@ -47,6 +54,10 @@ public class StandardRouterService
    * The plant model manager.
    */
   private final PlantModelManager plantModelManager;
+  /**
+   * The object repo.
+   */
+  private final TCSObjectRepository objectRepo;
   /**
    * The kernel application's configuration.
    */
@@ -60,6 +71,7 @@ public class StandardRouterService
    * @param router The scheduler.
    * @param dispatcher The dispatcher.
    * @param plantModelManager The plant model manager to be used.
+   * @param objectRepo The object repo to be used.
    * @param configuration The kernel application's configuration.
    */
   @Inject
@@ -68,12 +80,14 @@ public class StandardRouterService
                                Router router,
                                Dispatcher dispatcher,
                                PlantModelManager plantModelManager,
+                               TCSObjectRepository objectRepo,
                                KernelApplicationConfiguration configuration) {
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
     this.kernel = requireNonNull(kernel, "kernel");
     this.router = requireNonNull(router, "router");
     this.dispatcher = requireNonNull(dispatcher, "dispatcher");
     this.plantModelManager = requireNonNull(plantModelManager, "plantModelManager");
+    this.objectRepo = requireNonNull(objectRepo, "objectRepo");
     this.configuration = requireNonNull(configuration, "configuration");
   }
 
@@ -96,4 +110,46 @@ public class StandardRouterService
       dispatcher.topologyChanged();
     }
   }
+
+  @Override
+  public Map<TCSObjectReference<Point>, Map<TCSObjectReference<Point>, Long>> computeRouteCosts(
+      TCSObjectReference<Vehicle> vehicleRef,
+      Set<TCSObjectReference<Point>> sourcePointRefs,
+      Set<TCSObjectReference<Point>> destinationPointRefs)
+      throws ObjectUnknownException {
+    requireNonNull(vehicleRef, "vehicleRef");
+    requireNonNull(sourcePointRefs, "sourcePointRefs");
+    requireNonNull(destinationPointRefs, "destinationPointRefs");
+
+    Vehicle vehicle;
+    Set<Point> sourcePoints;
+    Set<Point> destinationPoints;
+    synchronized (globalSyncObject) {
+      vehicle = objectRepo.getObject(Vehicle.class, vehicleRef);
+      sourcePoints = fetchPoints(sourcePointRefs);
+      destinationPoints = fetchPoints(destinationPointRefs);
+    }
+
+    // The router does not require the global lock, so compute the (potentially expensive) costs
+    // without holding it.
+    Map<TCSObjectReference<Point>, Map<TCSObjectReference<Point>, Long>> result = new HashMap<>();
+    for (Map.Entry<Point, Map<Point, Long>> sourceEntry
+             : router.getCosts(vehicle, sourcePoints, destinationPoints).entrySet()) {
+      Map<TCSObjectReference<Point>, Long> costsBySource = new HashMap<>();
+      for (Map.Entry<Point, Long> destinationEntry : sourceEntry.getValue().entrySet()) {
+        costsBySource.put(destinationEntry.getKey().getReference(), destinationEntry.getValue());
+      }
+      result.put(sourceEntry.getKey().getReference(), costsBySource);
+    }
+    return result;
+  }
+
+  private Set<Point> fetchPoints(Set<TCSObjectReference<Point>> pointRefs)
+      throws ObjectUnknownException {
+    Set<Point> result = new HashSet<>();
+    for (TCSObjectReference<Point> pointRef : pointRefs) {
+      result.add(objectRepo.getObject(Point.class, pointRef));
+    }
+    return result;
+  }
 }
@@ -23,6 +23,7 @@ import static java.util.Objects.requireNonNull;
 import java.util.Optional;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
@@ -34,6 +35,7 @@ import org.opentcs.components.kernel.services.DispatcherService;
 import org.opentcs.components.kernel.services.InternalVehicleService;
 import org.opentcs.components.kernel.services.NotificationService;
 import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectEvent;
 import org.opentcs.data.TCSObjectReference;
@@ -57,6 +59,7 @@ import org.opentcs.drivers.vehicle.VehicleCommAdapterEvent;
 import org.opentcs.drivers.vehicle.VehicleController;
 import org.opentcs.drivers.vehicle.VehicleProcessModel;
 import org.opentcs.drivers.vehicle.management.ProcessModelEvent;
+import org.opentcs.kernel.KernelApplicationConfiguration;
 import static org.opentcs.util.Assertions.checkArgument;
 import static org.opentcs.util.Assertions.checkState;
 import org.opentcs.util.ExplainedBoolean;
@@ -98,6 +101,10 @@ public class DefaultVehicleController
    * The event bus we should register with and send events to.
    */
   private final EventBus eventBus;
+  /**
+   * The kernel application's configuration.
+   */
+  private final KernelApplicationConfiguration configuration;
   /**
    * The vehicle controlled by this controller/the communication adapter.
    */
@@ -115,14 +122,14 @@ public class DefaultVehicleController
    */
   private final Queue<MovementCommand> futureCommands = new LinkedList<>();
   /**
-   * A command for which a resource allocation is pending and which has not yet been sent to the
+   * The commands for which a resource allocation is pending and which have not yet been sent to the
    * adapter.
    */
-  private volatile MovementCommand pendingCommand;
+  private final Queue<MovementCommand> pendingCommands = new LinkedList<>();
   /**
-   * A set of resources for which allocation is pending.
+   * The sets of resources for which allocation is pending.
    */
-  private volatile Set<TCSResource<?>> pendingResources;
+  private final Queue<Set<TCSResource<?>>> pendingResources = new LinkedList<>();
   /**
    * A command for which the execution of peripheral operations is pending.
    */
@@ -148,6 +155,10 @@ public class DefaultVehicleController
    * execution of movement commands.
    */
   private final PeripheralInteractor peripheralInteractor;
+  /**
+   * Limits the rate at which frequently changing process model attributes are handled.
+   */
+  private final ProcessModelUpdateThrottle processModelUpdateThrottle;
   /**
    * The transport order that the vehicle is currently processing.
    */
@@ -162,6 +173,10 @@ public class DefaultVehicleController
    * resources at a time (which can cause deadlocks).
    */
   private volatile boolean waitingForAllocation;
+  /**
+   * Whether the scheduler supports allocating sequences of resource sets at once.
+   */
+  private volatile boolean sequenceAllocationSupported = true;
 
   /**
    * Creates a new instance associated with the given vehicle.
@@ -174,6 +189,8 @@ public class DefaultVehicleController
    * @param scheduler The scheduler managing resource allocations.
    * @param eventBus The event bus this instance should register with and send events to.
    * @param componentsFactory A factory for various components related to a vehicle controller.
+   * @param configuration The kernel application's configuration.
+   * @param kernelExecutor The kernel executor.
    */
   @Inject
   public DefaultVehicleController(@Assisted @Nonnull Vehicle vehicle,
@@ -183,7 +200,9 @@ public class DefaultVehicleController
                                   @Nonnull DispatcherService dispatcherService,
                                   @Nonnull Scheduler scheduler,
                                   @Nonnull @ApplicationEventBus EventBus eventBus,
-                                  @Nonnull VehicleControllerComponentsFactory componentsFactory) {
+                                  @Nonnull VehicleControllerComponentsFactory componentsFactory,
+                                  @Nonnull KernelApplicationConfiguration configuration,
+                                  @Nonnull @KernelExecutor ScheduledExecutorService kernelExecutor) {
     this.vehicle = requireNonNull(vehicle, "vehicle");
     this.commAdapter = requireNonNull(adapter, "adapter");
     this.vehicleService = requireNonNull(vehicleService, "vehicleService");
@@ -191,9 +210,14 @@ public class DefaultVehicleController
     this.dispatcherService = requireNonNull(dispatcherService, "dispatcherService");
     this.scheduler = requireNonNull(scheduler, "scheduler");
     this.eventBus = requireNonNull(eventBus, "eventBus");
+    this.configuration = requireNonNull(configuration, "configuration");
     requireNonNull(componentsFactory, "componentsFactory");
     this.peripheralInteractor
         = componentsFactory.createPeripheralInteractor(vehicle.getReference());
+    this.processModelUpdateThrottle = new ProcessModelUpdateThrottle(kernelExecutor,
+                                                                     configuration,
+                                                                     System::currentTimeMillis,
+                                                                     this::handleProcessModelEvent);
   }
 
   @Override
@@ -249,6 +273,7 @@ public class DefaultVehicleController
     peripheralInteractor.terminate();
 
     commAdapter.getProcessModel().removePropertyChangeListener(this);
+    processModelUpdateThrottle.clear();
     // Reset the vehicle's position.
     updatePosition(null, null);
     vehicleService.updateVehiclePrecisePosition(vehicle.getReference(), null);
@@ -268,7 +293,7 @@ public class DefaultVehicleController
       return;
     }
 
-    handleProcessModelEvent(evt);
+    processModelUpdateThrottle.handle(evt);
   }
 
   @Override
@@ -530,7 +555,7 @@ public class DefaultVehicleController
     futureCommands.clear();
     scheduler.clearPendingAllocations(this);
     waitingForAllocation = false;
-    pendingCommand = null;
+    pendingCommands.clear();
   }
 
   private void discardSentFutureCommands() {
@@ -571,14 +596,13 @@ public class DefaultVehicleController
       else {
         abortDriveOrder();
 
-        List<Set<TCSResource<?>>> newClaim = new ArrayList<>();
-        if (pendingResources != null) {
-          newClaim.add(pendingResources);
-        }
-
         claimedResources.clear();
-        claimedResources.addAll(newClaim);
-        scheduler.claim(this, newClaim);
+        claimedResources.addAll(pendingResources);
+        // Resources for which allocation is pending may already have been allocated by the
+        // scheduler, so its claim is cleared only once all of them have been granted.
+        if (pendingResources.isEmpty()) {
+          scheduler.claim(this, List.of());
+        }
       }
 
       vehicleService.updateVehicleClaimedResources(vehicle.getReference(),
@@ -597,7 +621,7 @@ public class DefaultVehicleController
       // Clear pending resource allocations. If they still arrive, we will
       // refuse them in allocationSuccessful().
       waitingForAllocation = false;
-      pendingResources = null;
+      pendingResources.clear();
 
       vehicleService.updateVehicleRouteProgressIndex(vehicle.getReference(),
                                                      Vehicle.ROUTE_INDEX_DEFAULT);
@@ -625,7 +649,7 @@ public class DefaultVehicleController
       commAdapter.clearCommandQueue();
       commandsSent.clear();
       futureCommands.clear();
-      pendingCommand = null;
+      pendingCommands.clear();
       interactionsPendingCommand = null;
       peripheralInteractor.clear();
 
@@ -721,15 +745,15 @@ public class DefaultVehicleController
     synchronized (commAdapter) {
       // Check if we've actually been waiting for these resources now. If not,
       // let the scheduler know that we don't want them.
-      if (!Objects.equals(resources, pendingResources)) {
+      if (!Objects.equals(resources, pendingResources.peek())) {
         LOG.warn("{}: Allocated resources ({}) != pending resources ({}), refusing them",
                  vehicle.getName(),
                  resources,
-                 pendingResources);
+                 pendingResources.peek());
         return false;
       }
 
-      command = pendingCommand;
+      command = pendingCommands.poll();
       // If there was no command in the queue, it must have been withdrawn in
       // the meantime - let the scheduler know that we don't need the resources
       // any more.
@@ -739,7 +763,7 @@ public class DefaultVehicleController
                  pendingResources,
                  resources);
         waitingForAllocation = false;
-        pendingResources = null;
+        pendingResources.clear();
         // In case the contoller's vehicle got rerouted while waiting for resource allocation
         // the pending command is reset and therefore the associated allocation will be ignored.
         // Since there's now a new/updated route we need to trigger the next allocation. Otherwise
@@ -750,13 +774,17 @@ public class DefaultVehicleController
         return false;
       }
 
-      pendingCommand = null;
-      pendingResources = null;
+      pendingResources.poll();
 
       LOG.debug("{}: Accepting allocated resources: {}", vehicle.getName(), resources);
       allocatedResources.add(resources);
       claimedResources.poll();
-      waitingForAllocation = false;
+      waitingForAllocation = !pendingCommands.isEmpty();
+      if (!waitingForAllocation && claimedResources.isEmpty()) {
+        // After the transport order was aborted, the scheduler's claim may still contain resources
+        // beyond the ones that were pending.
+        scheduler.claim(this, List.of());
+      }
 
       vehicleService.updateVehicleClaimedResources(vehicle.getReference(),
                                                    toListOfResourceSets(claimedResources));
@@ -978,7 +1006,7 @@ public class DefaultVehicleController
   private void checkForPendingCommands() {
     // Check if there are more commands to be processed for the current drive order.
     if (interactionsPendingCommand == null
-        && pendingCommand == null
+        && pendingCommands.isEmpty()
         && futureCommands.isEmpty()) {
       LOG.debug("{}: No more commands in current drive order", vehicle.getName());
       // Check if there are still commands that have been sent to the communication adapter but
@@ -1070,10 +1098,10 @@ public class DefaultVehicleController
       LOG.debug("{}: Cannot send, waiting for allocation", vehicle.getName());
       return false;
     }
-    if (pendingCommand != null) {
+    if (!pendingCommands.isEmpty()) {
       LOG.debug("{}: Cannot send, resource allocation is pending for: {}",
                 vehicle.getName(),
-                pendingCommand);
+                pendingCommands);
       return false;
     }
     if (peripheralInteractor.isWaitingForMovementInteractionsToFinish()) {
@@ -1086,21 +1114,105 @@ public class DefaultVehicleController
   }
 
   /**
-   * Allocate the resources needed for executing the next command.
+   * Allocate the resources needed for executing the next command(s).
+   * <p>
+   * Depending on the configured look-ahead, the resources for multiple consecutive commands are
+   * requested at once, as long as the communication adapter is able to accept these commands and
+   * the scheduler supports allocating sequences of resource sets.
+   * </p>
    */
   private void allocateForNextCommand() {
-    checkState(pendingCommand == null, "pendingCommand != null");
+    checkState(pendingCommands.isEmpty(), "pendingCommands not empty");
+
+    int maxCommandCount = sequenceAllocationSupported
+        ? Math.min(configuration.vehicleAllocationLookAhead(),
+                   commAdapter.getCommandQueueCapacity() - commandsSent.size())
+        : 1;
+    pendingResources.clear();
+    MovementCommand moveCmd;
+    do {
+      // Find out which resources are actually needed for the next command.
+      moveCmd = futureCommands.poll();
+      pendingCommands.add(moveCmd);
+      pendingResources.add(getNeededResources(moveCmd));
+    }
+    while (pendingCommands.size() < maxCommandCount
+        && !hasPeripheralOperations(moveCmd)
+        && mayAllocateAlongPendingCommands(futureCommands.peek()));
 
-    // Find out which resources are actually needed for the next command.
-    MovementCommand moveCmd = futureCommands.poll();
-    pendingResources = getNeededResources(moveCmd);
     LOG.debug("{}: Allocating resources: {}", vehicle.getName(), pendingResources);
-    scheduler.allocate(this, pendingResources);
+    if (pendingResources.size() == 1) {
+      scheduler.allocate(this, pendingResources.peek());
+    }
+    else {
+      try {
+        scheduler.allocateSequence(this, new ArrayList<>(pendingResources));
+      }
+      catch (UnsupportedOperationException exc) {
+        LOG.info("{}: Scheduler does not support allocating resource sequences, "
+            + "allocating resources for one command at a time.",
+                 vehicle.getName());
+        sequenceAllocationSupported = false;
+        returnPendingCommandsButFirst();
+        scheduler.allocate(this, pendingResources.peek());
+      }
+    }
     // Remember that we're waiting for an allocation. This ensures that we only
     // wait for one allocation at a time, and that we get the resources from the
     // scheduler in the right order.
     waitingForAllocation = true;
-    pendingCommand = moveCmd;
+  }
+
+  /**
+   * Checks whether the resources for the given command may be requested along with the resources
+   * for the pending commands.
+   *
+   * @param cmd The command.
+   * @return <code>true</code> if, and only if, the resources for the given command may be requested
+   * along with the ones for the pending commands.
+   */
+  private boolean mayAllocateAlongPendingCommands(MovementCommand cmd) {
+    if (cmd == null || !cmd.getStep().isExecutionAllowed()) {
+      return false;
+    }
+    // Peripheral operations to be performed before the movement may delay sending the command, and
+    // commands following it must not be sent before it.
+    return !hasPeripheralOperations(cmd);
+  }
+
+  /**
+   * Checks whether peripheral operations are to be performed along with the given command.
+   * <p>
+   * Such operations may delay sending the command or subsequent commands, so the resources for
+   * subsequent commands are not requested along with the ones for this command.
+   * </p>
+   *
+   * @param cmd The command.
+   * @return <code>true</code> if, and only if, peripheral operations are to be performed along with
+   * the given command.
+   */
+  private boolean hasPeripheralOperations(MovementCommand cmd) {
+    return cmd.getStep().getPath() != null
+        && !cmd.getStep().getPath().getPeripheralOperations().isEmpty();
+  }
+
+  /**
+   * Moves all pending commands but the first one (along with their resources) back to the front of
+   * the future commands.
+   */
+  private void returnPendingCommandsButFirst() {
+    List<MovementCommand> returnedCommands = new ArrayList<>(pendingCommands);
+    returnedCommands.remove(0);
+    returnedCommands.addAll(futureCommands);
+    futureCommands.clear();
+    futureCommands.addAll(returnedCommands);
+
+    MovementCommand firstCommand = pendingCommands.peek();
+    Set<TCSResource<?>> firstResources = pendingResources.peek();
+    pendingCommands.clear();
+    pendingCommands.add(firstCommand);
+    pendingResources.clear();
+    pendingResources.add(firstResources);
   }
 
   /**
@@ -1142,7 +1254,7 @@ public class DefaultVehicleController
         .orElse(null);
 
     if (nextCommand == null) {
-      nextCommand = pendingCommand;
+      nextCommand = pendingCommands.peek();
     }
 
     if (nextCommand == null) {
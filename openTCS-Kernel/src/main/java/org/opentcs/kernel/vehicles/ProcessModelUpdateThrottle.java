@@ -0,0 +1,226 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import java.beans.PropertyChangeEvent;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import org.opentcs.data.model.Triple;
+import org.opentcs.drivers.vehicle.VehicleProcessModel;
+import org.opentcs.kernel.KernelApplicationConfiguration;
+
+/**
+ * Limits the rate at which changes of frequently updated process model attributes are passed on.
+ * <p>
+ * Changes of a vehicle's precise position and orientation angle are passed on at most once per
+ * configured interval.
+ * A change of the precise position is passed on immediately, though, if the vehicle moved at least
+ * the configured distance since the last precise position passed on.
+ * Changes held back are coalesced, i.e. only the latest change of each attribute is kept and passed
+ * on once the respective interval has elapsed.
+ * Changes of all other attributes are passed on immediately.
+ * </p>
+ */
+class ProcessModelUpdateThrottle {
+
+  /**
+   * The executor to pass on held back changes with.
+   */
+  private final ScheduledExecutorService executor;
+  /**
+   * The kernel application's configuration.
+   */
+  private final KernelApplicationConfiguration configuration;
+  /**
+   * Provides the current time (in ms).
+   */
+  private final LongSupplier clock;
+  /**
+   * Where changes are passed on to.
+   */
+  private final Consumer<PropertyChangeEvent> consumer;
+  /**
+   * The points of time at which a change was last passed on, by attribute name.
+   */
+  private final Map<String, Long> lastPassedTimes = new HashMap<>();
+  /**
+   * The latest changes held back, by attribute name.
+   */
+  private final Map<String, PropertyChangeEvent> heldBackChanges = new HashMap<>();
+  /**
+   * The scheduled tasks passing on held back changes, by attribute name.
+   */
+  private final Map<String, ScheduledFuture<?>> scheduledFlushes = new HashMap<>();
+  /**
+   * The precise position last passed on.
+   */
+  private Triple lastPassedPrecisePosition;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param executor The executor to pass on held back changes with.
+   * @param configuration The kernel application's configuration.
+   * @param clock Provides the current time (in ms).
+   * @param consumer Where changes are passed on to.
+   */
+  ProcessModelUpdateThrottle(@Nonnull ScheduledExecutorService executor,
+                             @Nonnull KernelApplicationConfiguration configuration,
+                             @Nonnull LongSupplier clock,
+                             @Nonnull Consumer<PropertyChangeEvent> consumer) {
+    this.executor = requireNonNull(executor, "executor");
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.clock = requireNonNull(clock, "clock");
+    this.consumer = requireNonNull(consumer, "consumer");
+  }
+
+  /**
+   * Passes on the given change, or holds it back if the attribute changed was passed on too
+   * recently.
+   *
+   * @param evt The change.
+   */
+  public void handle(@Nonnull PropertyChangeEvent evt) {
+    requireNonNull(evt, "evt");
+
+    long interval = intervalFor(evt.getPropertyName());
+    if (interval <= 0) {
+      consumer.accept(evt);
+      return;
+    }
+
+    if (passOnOrHoldBack(evt, interval)) {
+      // The consumer is called without holding this throttle's monitor, since it may run
+      // arbitrary (and possibly blocking) code.
+      consumer.accept(evt);
+    }
+  }
+
+  /**
+   * Discards all changes held back and forgets about changes passed on.
+   */
+  public synchronized void clear() {
+    scheduledFlushes.values().forEach(future -> future.cancel(false));
+    scheduledFlushes.clear();
+    heldBackChanges.clear();
+    lastPassedTimes.clear();
+    lastPassedPrecisePosition = null;
+  }
+
+  /**
+   * Decides whether the given change is to be passed on now, and holds it back otherwise.
+   *
+   * @param evt The change.
+   * @param interval The interval at which changes of the attribute are to be passed on at most.
+   * @return {@code true} if, and only if, the change is to be passed on now.
+   */
+  private synchronized boolean passOnOrHoldBack(PropertyChangeEvent evt, long interval) {
+    long now = clock.getAsLong();
+    Long lastPassedTime = lastPassedTimes.get(evt.getPropertyName());
+    if (lastPassedTime == null
+        || now - lastPassedTime >= interval
+        || movedFarEnough(evt)) {
+      cancelFlush(evt.getPropertyName());
+      heldBackChanges.remove(evt.getPropertyName());
+      markPassedOn(evt, now);
+      return true;
+    }
+
+    heldBackChanges.put(evt.getPropertyName(), evt);
+    if (!scheduledFlushes.containsKey(evt.getPropertyName())) {
+      scheduledFlushes.put(evt.getPropertyName(),
+                           executor.schedule(() -> flush(evt.getPropertyName()),
+                                             lastPassedTime + interval - now,
+                                             TimeUnit.MILLISECONDS));
+    }
+    return false;
+  }
+
+  private void flush(String attribute) {
+    PropertyChangeEvent evt = takeHeldBackChange(attribute);
+    if (evt != null) {
+      consumer.accept(evt);
+    }
+  }
+
+  /**
+   * Removes the change held back for the given attribute and marks it as passed on.
+   *
+   * @param attribute The attribute's name.
+   * @return The change held back, or {@code null}, if there was none.
+   */
+  private synchronized PropertyChangeEvent takeHeldBackChange(String attribute) {
+    scheduledFlushes.remove(attribute);
+    PropertyChangeEvent evt = heldBackChanges.remove(attribute);
+    if (evt != null) {
+      markPassedOn(evt, clock.getAsLong());
+    }
+    return evt;
+  }
+
+  private void markPassedOn(PropertyChangeEvent evt, long now) {
+    lastPassedTimes.put(evt.getPropertyName(), now);
+    if (isPrecisePosition(evt)) {
+      lastPassedPrecisePosition = (Triple) evt.getNewValue();
+    }
+  }
+
+  private void cancelFlush(String attribute) {
+    ScheduledFuture<?> future = scheduledFlushes.remove(attribute);
+    if (future != null) {
+      future.cancel(false);
+    }
+  }
+
+  private long intervalFor(String attribute) {
+    if (Objects.equals(attribute, VehicleProcessModel.Attribute.PRECISE_POSITION.name())) {
+      return configuration.vehiclePrecisePositionUpdateInterval();
+    }
+    else if (Objects.equals(attribute, VehicleProcessModel.Attribute.ORIENTATION_ANGLE.name())) {
+      return configuration.vehicleOrientationAngleUpdateInterval();
+    }
+    else {
+      return 0;
+    }
+  }
+
+  private boolean movedFarEnough(PropertyChangeEvent evt) {
+    if (!isPrecisePosition(evt)) {
+      return false;
+    }
+
+    Triple precisePosition = (Triple) evt.getNewValue();
+    // A position becoming known or unknown is always passed on.
+    if (precisePosition == null || lastPassedPrecisePosition == null) {
+      return true;
+    }
+
+    long distance = configuration.vehiclePrecisePositionUpdateDistance();
+    if (distance <= 0) {
+      return false;
+    }
+
+    double dx = precisePosition.getX() - lastPassedPrecisePosition.getX();
+    double dy = precisePosition.getY() - lastPassedPrecisePosition.getY();
+    double dz = precisePosition.getZ() - lastPassedPrecisePosition.getZ();
+    return Math.sqrt(dx * dx + dy * dy + dz * dz) >= distance;
+  }
+
+  private boolean isPrecisePosition(PropertyChangeEvent evt) {
+    return Objects.equals(evt.getPropertyName(),
+                          VehicleProcessModel.Attribute.PRECISE_POSITION.name());
+  }
+}
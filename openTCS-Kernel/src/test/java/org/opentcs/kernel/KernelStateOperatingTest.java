@@ -29,6 +29,7 @@ import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.services.InternalVehicleService;
 import org.opentcs.data.model.Vehicle;
+import org.opentcs.drivers.CommAdapterExecutorPool;
 import org.opentcs.kernel.extensions.controlcenter.vehicles.AttachmentManager;
 import org.opentcs.kernel.peripherals.LocalPeripheralControllerPool;
 import org.opentcs.kernel.peripherals.PeripheralAttachmentManager;
@@ -176,7 +177,8 @@ public class KernelStateOperatingTest {
             extensions,
             attachmentManager,
             mock(PeripheralAttachmentManager.class),
-            vehicleService
+            vehicleService,
+            mock(CommAdapterExecutorPool.class)
         )
     );
   }
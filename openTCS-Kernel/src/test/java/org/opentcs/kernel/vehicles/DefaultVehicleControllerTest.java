@@ -9,6 +9,8 @@ package org.opentcs.kernel.vehicles;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -18,7 +20,9 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.eq;
 import org.mockito.Mockito;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
 import org.opentcs.DataObjectFactory;
@@ -34,11 +38,14 @@ import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.DriveOrder;
 import org.opentcs.data.order.Route;
 import org.opentcs.data.order.TransportOrder;
+import org.opentcs.data.peripherals.PeripheralOperation;
+import org.opentcs.data.peripherals.PeripheralOperation.ExecutionTrigger;
 import org.opentcs.drivers.vehicle.LoadHandlingDevice;
 import org.opentcs.drivers.vehicle.VehicleCommAdapter;
 import org.opentcs.drivers.vehicle.VehicleCommAdapterEvent;
 import org.opentcs.drivers.vehicle.VehicleProcessModel;
 import org.opentcs.drivers.vehicle.management.VehicleProcessModelTO;
+import org.opentcs.kernel.KernelApplicationConfiguration;
 import org.opentcs.strategies.basic.scheduling.DummyScheduler;
 import org.opentcs.util.event.EventBus;
 import org.opentcs.util.event.SimpleEventBus;
@@ -89,6 +96,10 @@ public class DefaultVehicleControllerTest {
    * A (mocked) peripheral interactor.
    */
   private PeripheralInteractor peripheralInteractor;
+  /**
+   * The (mocked) kernel application configuration.
+   */
+  private KernelApplicationConfiguration configuration;
   /**
    * The instance we're testing.
    */
@@ -103,10 +114,12 @@ public class DefaultVehicleControllerTest {
     vehicleService = mock(InternalVehicleService.class);
     componentsFactory = mock(VehicleControllerComponentsFactory.class);
     peripheralInteractor = mock(PeripheralInteractor.class);
+    configuration = mock(KernelApplicationConfiguration.class);
 
     doReturn(RECHARGE_OP).when(commAdapter).getRechargeOperation();
     doReturn(vehicleModel).when(commAdapter).getProcessModel();
     doReturn(vehicleModelTO).when(commAdapter).createTransferableProcessModel();
+    doReturn(5).when(commAdapter).getCommandQueueCapacity();
 
     doReturn(vehicle).when(vehicleService).fetchObject(Vehicle.class, vehicle.getReference());
     doReturn(vehicle).when(vehicleService).fetchObject(Vehicle.class, vehicle.getName());
@@ -123,7 +136,9 @@ public class DefaultVehicleControllerTest {
                                                         mock(DispatcherService.class),
                                                         scheduler,
                                                         eventBus,
-                                                        componentsFactory);
+                                                        componentsFactory,
+                                                        configuration,
+                                                        mock(ScheduledExecutorService.class));
     stdVehicleController.initialize();
   }
 
@@ -242,4 +257,99 @@ public class DefaultVehicleControllerTest {
 
     verify(scheduler).claim(eq(stdVehicleController), Mockito.any());
   }
+
+  @Test
+  public void shouldAllocateResourcesForCommandsWithinLookAhead() {
+    doReturn(2).when(configuration).vehicleAllocationLookAhead();
+    doReturn(true).when(commAdapter).canAcceptNextCommand();
+
+    Location location = dataObjectFactory.createLocation();
+    List<Route.Step> steps = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Point dstPoint = dataObjectFactory.createPoint();
+      Path stepPath = dataObjectFactory.createPath(dstPoint.getReference());
+      steps.add(new Route.Step(stepPath, null, dstPoint, Vehicle.Orientation.FORWARD, i));
+    }
+
+    DriveOrder driveOrder = new DriveOrder(new DriveOrder.Destination(location.getReference()))
+        .withRoute(new Route(steps, 1));
+
+    TransportOrder transportOrder
+        = new TransportOrder("some-transport-order", List.of(driveOrder))
+            .withCurrentDriveOrderIndex(0);
+
+    stdVehicleController.setTransportOrder(transportOrder);
+
+    verify(scheduler).allocateSequence(
+        stdVehicleController,
+        List.of(Set.of(steps.get(0).getDestinationPoint(), steps.get(0).getPath()),
+                Set.of(steps.get(1).getDestinationPoint(), steps.get(1).getPath()))
+    );
+  }
+
+  @Test
+  public void shouldNotAllocateAlongCommandWithPeripheralOperations() {
+    doReturn(2).when(configuration).vehicleAllocationLookAhead();
+    doReturn(true).when(commAdapter).canAcceptNextCommand();
+
+    Location location = dataObjectFactory.createLocation();
+    PeripheralOperation operation = new PeripheralOperation(location.getReference(),
+                                                            "some-operation",
+                                                            ExecutionTrigger.BEFORE_MOVEMENT,
+                                                            true);
+    List<Route.Step> steps = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      Point dstPoint = dataObjectFactory.createPoint();
+      Path stepPath = dataObjectFactory.createPath(dstPoint.getReference());
+      if (i == 0) {
+        stepPath = stepPath.withPeripheralOperations(List.of(operation));
+      }
+      steps.add(new Route.Step(stepPath, null, dstPoint, Vehicle.Orientation.FORWARD, i));
+    }
+
+    DriveOrder driveOrder = new DriveOrder(new DriveOrder.Destination(location.getReference()))
+        .withRoute(new Route(steps, 1));
+
+    TransportOrder transportOrder
+        = new TransportOrder("some-transport-order", List.of(driveOrder))
+            .withCurrentDriveOrderIndex(0);
+
+    stdVehicleController.setTransportOrder(transportOrder);
+
+    verify(scheduler).allocate(
+        stdVehicleController,
+        Set.of(steps.get(0).getDestinationPoint(), steps.get(0).getPath())
+    );
+    verify(scheduler, never()).allocateSequence(Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  public void shouldAllocateForSingleCommandIfSchedulerDoesNotSupportSequences() {
+    doReturn(2).when(configuration).vehicleAllocationLookAhead();
+    doReturn(true).when(commAdapter).canAcceptNextCommand();
+    doThrow(new UnsupportedOperationException()).when(scheduler)
+        .allocateSequence(Mockito.any(), Mockito.any());
+
+    Location location = dataObjectFactory.createLocation();
+    List<Route.Step> steps = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      Point dstPoint = dataObjectFactory.createPoint();
+      Path stepPath = dataObjectFactory.createPath(dstPoint.getReference());
+      steps.add(new Route.Step(stepPath, null, dstPoint, Vehicle.Orientation.FORWARD, i));
+    }
+
+    DriveOrder driveOrder = new DriveOrder(new DriveOrder.Destination(location.getReference()))
+        .withRoute(new Route(steps, 1));
+
+    TransportOrder transportOrder
+        = new TransportOrder("some-transport-order", List.of(driveOrder))
+            .withCurrentDriveOrderIndex(0);
+
+    stdVehicleController.setTransportOrder(transportOrder);
+
+    verify(scheduler).allocate(
+        stdVehicleController,
+        Set.of(steps.get(0).getDestinationPoint(), steps.get(0).getPath())
+    );
+  }
 }
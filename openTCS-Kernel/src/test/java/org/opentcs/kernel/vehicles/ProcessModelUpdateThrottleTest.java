@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import java.beans.PropertyChangeEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.data.model.Triple;
+import org.opentcs.drivers.vehicle.VehicleProcessModel;
+import org.opentcs.kernel.KernelApplicationConfiguration;
+
+/**
+ * Unit tests for {@link ProcessModelUpdateThrottle}.
+ */
+public class ProcessModelUpdateThrottleTest {
+
+  private ScheduledExecutorService executor;
+  private ScheduledFuture<?> future;
+  private KernelApplicationConfiguration configuration;
+  private long now;
+  private List<PropertyChangeEvent> passedOn;
+  private ProcessModelUpdateThrottle throttle;
+
+  @BeforeEach
+  public void setUp() {
+    executor = mock(ScheduledExecutorService.class);
+    future = mock(ScheduledFuture.class);
+    doReturn(future).when(executor).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    configuration = mock(KernelApplicationConfiguration.class);
+    when(configuration.vehiclePrecisePositionUpdateInterval()).thenReturn(100L);
+    when(configuration.vehicleOrientationAngleUpdateInterval()).thenReturn(100L);
+    passedOn = new ArrayList<>();
+    throttle = new ProcessModelUpdateThrottle(executor, configuration, () -> now, passedOn::add);
+  }
+
+  @Test
+  public void passOnChangesOfOtherAttributesImmediately() {
+    throttle.handle(change(VehicleProcessModel.Attribute.ENERGY_LEVEL, 50));
+    throttle.handle(change(VehicleProcessModel.Attribute.ENERGY_LEVEL, 49));
+
+    assertEquals(2, passedOn.size());
+    verify(executor, never()).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+  }
+
+  @Test
+  public void passOnEveryChangeIfIntervalIsZero() {
+    when(configuration.vehicleOrientationAngleUpdateInterval()).thenReturn(0L);
+
+    throttle.handle(change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 1.0));
+    throttle.handle(change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 2.0));
+
+    assertEquals(2, passedOn.size());
+  }
+
+  @Test
+  public void coalesceChangesWithinInterval() {
+    PropertyChangeEvent first = change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 1.0);
+    PropertyChangeEvent last = change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 3.0);
+
+    throttle.handle(first);
+    now = 30;
+    throttle.handle(change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 2.0));
+    now = 60;
+    throttle.handle(last);
+
+    assertEquals(List.of(first), passedOn);
+
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor).schedule(flush.capture(), eq(70L), eq(TimeUnit.MILLISECONDS));
+    now = 100;
+    flush.getValue().run();
+
+    assertEquals(2, passedOn.size());
+    assertSame(last, passedOn.get(1));
+  }
+
+  @Test
+  public void passOnChangeAfterInterval() {
+    throttle.handle(change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 1.0));
+    now = 100;
+    throttle.handle(change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 2.0));
+
+    assertEquals(2, passedOn.size());
+  }
+
+  @Test
+  public void passOnPrecisePositionAfterMovingDistance() {
+    when(configuration.vehiclePrecisePositionUpdateDistance()).thenReturn(500L);
+
+    throttle.handle(change(VehicleProcessModel.Attribute.PRECISE_POSITION, new Triple(0, 0, 0)));
+    now = 10;
+    throttle.handle(change(VehicleProcessModel.Attribute.PRECISE_POSITION, new Triple(300, 0, 0)));
+    now = 20;
+    throttle.handle(change(VehicleProcessModel.Attribute.PRECISE_POSITION, new Triple(300, 400, 0)));
+
+    assertEquals(2, passedOn.size());
+    assertEquals(new Triple(300, 400, 0), passedOn.get(1).getNewValue());
+    verify(future).cancel(false);
+  }
+
+  @Test
+  public void passOnUnknownPrecisePositionImmediately() {
+    throttle.handle(change(VehicleProcessModel.Attribute.PRECISE_POSITION, new Triple(0, 0, 0)));
+    now = 10;
+    throttle.handle(change(VehicleProcessModel.Attribute.PRECISE_POSITION, null));
+
+    assertEquals(2, passedOn.size());
+  }
+
+  @Test
+  public void discardHeldBackChangesOnClear() {
+    throttle.handle(change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 1.0));
+    now = 10;
+    throttle.handle(change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 2.0));
+
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor).schedule(flush.capture(), anyLong(), any(TimeUnit.class));
+    throttle.clear();
+    flush.getValue().run();
+
+    assertEquals(1, passedOn.size());
+    verify(future).cancel(false);
+  }
+
+  @Test
+  public void passOnChangesWithoutHoldingLock() {
+    List<Boolean> lockHeld = new ArrayList<>();
+    throttle = new ProcessModelUpdateThrottle(executor,
+                                              configuration,
+                                              () -> now,
+                                              evt -> lockHeld.add(Thread.holdsLock(throttle)));
+
+    throttle.handle(change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 1.0));
+    now = 10;
+    throttle.handle(change(VehicleProcessModel.Attribute.ORIENTATION_ANGLE, 2.0));
+
+    ArgumentCaptor<Runnable> flush = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor).schedule(flush.capture(), anyLong(), any(TimeUnit.class));
+    now = 100;
+    flush.getValue().run();
+
+    assertEquals(List.of(false, false), lockHeld);
+  }
+
+  private PropertyChangeEvent change(VehicleProcessModel.Attribute attribute, Object newValue) {
+    return new PropertyChangeEvent(this, attribute.name(), null, newValue);
+  }
+}
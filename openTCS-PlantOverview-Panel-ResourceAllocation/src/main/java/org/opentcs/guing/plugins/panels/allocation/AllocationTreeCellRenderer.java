@@ -7,23 +7,42 @@
  */
 package org.opentcs.guing.plugins.panels.allocation;
 
+import java.awt.Color;
 import java.awt.Component;
 import java.net.URL;
+import java.text.MessageFormat;
+import java.util.HashMap;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
+import java.util.ResourceBundle;
+import javax.annotation.Nonnull;
 import javax.swing.ImageIcon;
 import javax.swing.JTree;
 import javax.swing.tree.DefaultMutableTreeNode;
 import javax.swing.tree.DefaultTreeCellRenderer;
+import org.opentcs.access.ResourceContentionStatistics;
 import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.TCSResourceReference;
 
 /**
  * Renders the tree nodes with vehicle, point and path icons.
+ * If contention statistics are set, resource nodes are annotated with them and colored according
+ * to the time allocations of the respective resource were waited for.
  */
 public class AllocationTreeCellRenderer
     extends DefaultTreeCellRenderer {
 
+  /**
+   * This class's resource bundle.
+   */
+  private static final ResourceBundle BUNDLE
+      = ResourceBundle.getBundle("i18n/org/opentcs/plantoverview/resourceAllocationPanel/Bundle");
+  /**
+   * The color used for the resources waited for the longest.
+   */
+  private static final Color MAX_CONTENTION_COLOR = Color.RED;
+
   /**
    * The icon for vehicles in the tree view.
    */
@@ -36,6 +55,19 @@ public class AllocationTreeCellRenderer
    * The icon for paths in the tree view.
    */
   private final ImageIcon pathIcon;
+  /**
+   * The contention statistics for the individual resources.
+   */
+  private Map<TCSResourceReference<?>, ResourceContentionStatistics.Entry> contentionEntries
+      = new HashMap<>();
+  /**
+   * The duration of the period of time the contention statistics cover (in ms).
+   */
+  private long contentionWindowDuration;
+  /**
+   * The longest time allocations of any resource were waited for (in ms).
+   */
+  private long maxWaitingTime;
 
   /**
    * Creates a new instance.
@@ -68,6 +100,10 @@ public class AllocationTreeCellRenderer
       else if (treeNode.getUserObject() instanceof TCSResourceReference) {
         TCSResourceReference<?> resource = (TCSResourceReference<?>) treeNode.getUserObject();
         setText(resource.getName());
+        ResourceContentionStatistics.Entry entry = contentionEntries.get(resource);
+        if (entry != null) {
+          annotateContention(entry, selected);
+        }
         if (resource.getReferentClass() == Path.class) {
           setIcon(pathIcon);
         }
@@ -79,6 +115,57 @@ public class AllocationTreeCellRenderer
     return this;
   }
 
+  /**
+   * Sets the contention statistics to annotate resource nodes with.
+   *
+   * @param statistics The contention statistics.
+   */
+  public void setContentionStatistics(@Nonnull ResourceContentionStatistics statistics) {
+    requireNonNull(statistics, "statistics");
+
+    contentionEntries = new HashMap<>();
+    maxWaitingTime = 0;
+    for (ResourceContentionStatistics.Entry entry : statistics.getEntries()) {
+      contentionEntries.put(entry.getResource(), entry);
+      maxWaitingTime = Math.max(maxWaitingTime, entry.getWaitingTime());
+    }
+    contentionWindowDuration = statistics.getWindowDuration();
+  }
+
+  /**
+   * Removes any contention statistics previously set.
+   */
+  public void clearContentionStatistics() {
+    contentionEntries = new HashMap<>();
+    contentionWindowDuration = 0;
+    maxWaitingTime = 0;
+  }
+
+  private void annotateContention(ResourceContentionStatistics.Entry entry, boolean selected) {
+    long occupancyPercentage = contentionWindowDuration == 0
+        ? 0
+        : entry.getOccupancyTime() * 100 / contentionWindowDuration;
+    setText(MessageFormat.format(BUNDLE.getString("resourceAllocationPanel.contention.text"),
+                                 getText(),
+                                 occupancyPercentage,
+                                 entry.getWaitingTime() / 1000,
+                                 entry.getDeferralCount()));
+
+    if (!selected && maxWaitingTime > 0) {
+      setForeground(blend(getTextNonSelectionColor(),
+                          MAX_CONTENTION_COLOR,
+                          (float) entry.getWaitingTime() / maxWaitingTime));
+    }
+  }
+
+  private Color blend(Color from, Color to, float ratio) {
+    return new Color(
+        Math.round(from.getRed() + (to.getRed() - from.getRed()) * ratio),
+        Math.round(from.getGreen() + (to.getGreen() - from.getGreen()) * ratio),
+        Math.round(from.getBlue() + (to.getBlue() - from.getBlue()) * ratio)
+    );
+  }
+
   /**
    * Creates an ImageIcon.
    *
@@ -14,7 +14,9 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import org.opentcs.access.Kernel;
+import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.access.SharedKernelServicePortal;
 import org.opentcs.access.SharedKernelServicePortalProvider;
 import org.opentcs.components.kernel.services.ServiceUnavailableException;
@@ -42,6 +44,10 @@ public class ResourceAllocationPanel
    * This class' logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(ResourceAllocationPanel.class);
+  /**
+   * The interval (in ms) in which contention statistics are refreshed while they are shown.
+   */
+  private static final int CONTENTION_REFRESH_INTERVAL = 5000;
   /**
    * The kernel to query allocations from.
    */
@@ -62,6 +68,11 @@ public class ResourceAllocationPanel
    * If the table model should update its contents if an event arrives.
    */
   private boolean enableUpdates = true;
+  /**
+   * Periodically refreshes the contention statistics while they are shown.
+   */
+  private final Timer contentionRefreshTimer
+      = new Timer(CONTENTION_REFRESH_INTERVAL, evt -> updateContentionStatistics());
 
   /**
    * Creates a new instance.
@@ -110,6 +121,7 @@ public class ResourceAllocationPanel
       LOG.debug("Already terminated - skipping.");
       return;
     }
+    contentionRefreshTimer.stop();
     // Remove event listener in the kernel.
     eventSource.unsubscribe(this);
     sharedPortal.close();
@@ -175,6 +187,26 @@ public class ResourceAllocationPanel
     );
   }
 
+  /**
+   * Queries the kernel for the current contention statistics and updates the tree's rendering.
+   */
+  private void updateContentionStatistics() {
+    if (!enableUpdates || sharedPortal == null
+        || sharedPortal.getPortal().getState() != Kernel.State.OPERATING) {
+      return;
+    }
+
+    try {
+      ((AllocationTreeCellRenderer) allocationTable.getCellRenderer()).setContentionStatistics(
+          sharedPortal.getPortal().getPlantModelService().fetchResourceContentionStatistics()
+      );
+      allocationTable.repaint();
+    }
+    catch (KernelRuntimeException exc) {
+      LOG.warn("Could not fetch resource contention statistics", exc);
+    }
+  }
+
   private List<TCSResourceReference<?>> inClassOrder(Set<TCSResourceReference<?>> resources) {
     List<TCSResourceReference<?>> result = new ArrayList<>();
     List<TCSResourceReference<?>> points = new ArrayList<>();
@@ -207,6 +239,7 @@ public class ResourceAllocationPanel
 
         optionsPanel = new javax.swing.JPanel();
         enableUpdatesCheckbox = new javax.swing.JCheckBox();
+        showContentionCheckbox = new javax.swing.JCheckBox();
         allocationScrollPane = new javax.swing.JScrollPane();
         allocationTable = new javax.swing.JTree();
 
@@ -224,6 +257,14 @@ public class ResourceAllocationPanel
         });
         optionsPanel.add(enableUpdatesCheckbox, new java.awt.GridBagConstraints());
 
+        showContentionCheckbox.setText(bundle.getString("resourceAllocationPanel.checkBox_showContention.text")); // NOI18N
+        showContentionCheckbox.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                showContentionCheckboxActionPerformed(evt);
+            }
+        });
+        optionsPanel.add(showContentionCheckbox, new java.awt.GridBagConstraints());
+
         add(optionsPanel, java.awt.BorderLayout.PAGE_START);
 
         allocationTable.setModel(new AllocationTreeModel());
@@ -238,12 +279,25 @@ public class ResourceAllocationPanel
     enableUpdates = enableUpdatesCheckbox.isSelected();
   }//GEN-LAST:event_enableUpdatesCheckboxActionPerformed
 
+  private void showContentionCheckboxActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_showContentionCheckboxActionPerformed
+    if (showContentionCheckbox.isSelected()) {
+      updateContentionStatistics();
+      contentionRefreshTimer.start();
+    }
+    else {
+      contentionRefreshTimer.stop();
+      ((AllocationTreeCellRenderer) allocationTable.getCellRenderer()).clearContentionStatistics();
+      allocationTable.repaint();
+    }
+  }//GEN-LAST:event_showContentionCheckboxActionPerformed
+
   // CHECKSTYLE:OFF
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JScrollPane allocationScrollPane;
     protected javax.swing.JTree allocationTable;
     private javax.swing.JCheckBox enableUpdatesCheckbox;
     private javax.swing.JPanel optionsPanel;
+    private javax.swing.JCheckBox showContentionCheckbox;
     // End of variables declaration//GEN-END:variables
   // CHECKSTYLE:ON
 }
@@ -16,6 +16,7 @@ import org.opentcs.customizations.kernel.KernelInjectionModule;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.ReroutingType;
 import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.phase.assignment.AssignmentRouteCache;
 import org.opentcs.strategies.basic.dispatching.phase.parking.DefaultParkingPositionSupplier;
 import org.opentcs.strategies.basic.dispatching.phase.parking.ParkingPositionSupplier;
 import org.opentcs.strategies.basic.dispatching.phase.recharging.DefaultRechargePositionSupplier;
@@ -110,6 +111,8 @@ public class DefaultDispatcherModule
 
     bind(OrderReservationPool.class)
         .in(Singleton.class);
+    bind(AssignmentRouteCache.class)
+        .in(Singleton.class);
 
     bind(ParkingPositionSupplier.class)
         .to(DefaultParkingPositionSupplier.class)
@@ -10,7 +10,9 @@ package org.opentcs.strategies.basic.routing;
 import javax.inject.Singleton;
 import org.opentcs.components.kernel.routing.GroupMapper;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
+import org.opentcs.strategies.basic.routing.edgeevaluator.CongestionConfiguration;
 import org.opentcs.strategies.basic.routing.edgeevaluator.EdgeEvaluatorComposite;
+import org.opentcs.strategies.basic.routing.edgeevaluator.EdgeEvaluatorCongestion;
 import org.opentcs.strategies.basic.routing.edgeevaluator.EdgeEvaluatorDistance;
 import org.opentcs.strategies.basic.routing.edgeevaluator.EdgeEvaluatorExplicitProperties;
 import org.opentcs.strategies.basic.routing.edgeevaluator.EdgeEvaluatorHops;
@@ -22,6 +24,8 @@ import org.opentcs.strategies.basic.routing.jgrapht.DijkstraPointRouterFactory;
 import org.opentcs.strategies.basic.routing.jgrapht.FloydWarshallPointRouterFactory;
 import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
 import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+import org.opentcs.strategies.basic.routing.timewindow.TimeWindowRouter;
+import org.opentcs.strategies.basic.routing.timewindow.TimeWindowRoutingConfiguration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -45,7 +49,22 @@ public class DefaultRouterModule
   @Override
   protected void configure() {
     configureRouterDependencies();
-    bindRouter(DefaultRouter.class);
+
+    TimeWindowRoutingConfiguration timeWindowConfiguration
+        = getConfigBindingProvider().get(TimeWindowRoutingConfiguration.PREFIX,
+                                         TimeWindowRoutingConfiguration.class);
+    if (timeWindowConfiguration.enable()) {
+      bind(TimeWindowRoutingConfiguration.class)
+          .toInstance(timeWindowConfiguration);
+      // The default router is used by the time-window router only and must not be instantiated
+      // more than once.
+      bind(DefaultRouter.class)
+          .in(Singleton.class);
+      bindRouter(TimeWindowRouter.class);
+    }
+    else {
+      bindRouter(DefaultRouter.class);
+    }
   }
 
   private void configureRouterDependencies() {
@@ -94,6 +113,9 @@ public class DefaultRouterModule
     edgeEvaluatorBinder()
         .addBinding(EdgeEvaluatorTravelTime.CONFIGURATION_KEY)
         .to(EdgeEvaluatorTravelTime.class);
+    edgeEvaluatorBinder()
+        .addBinding(EdgeEvaluatorCongestion.CONFIGURATION_KEY)
+        .to(EdgeEvaluatorCongestion.class);
 
     bind(EdgeEvaluatorComposite.class)
         .in(Singleton.class);
@@ -102,6 +124,13 @@ public class DefaultRouterModule
         .toInstance(getConfigBindingProvider().get(ExplicitPropertiesConfiguration.PREFIX,
                                                    ExplicitPropertiesConfiguration.class));
 
+    // The congestion evaluator is shared by the router and the edge evaluator composite.
+    bind(EdgeEvaluatorCongestion.class)
+        .in(Singleton.class);
+    bind(CongestionConfiguration.class)
+        .toInstance(getConfigBindingProvider().get(CongestionConfiguration.PREFIX,
+                                                   CongestionConfiguration.class));
+
     bind(DefaultRoutingGroupMapper.class)
         .in(Singleton.class);
     bind(GroupMapper.class)
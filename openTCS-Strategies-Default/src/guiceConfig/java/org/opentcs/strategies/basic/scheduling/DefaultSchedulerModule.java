@@ -11,6 +11,7 @@ import com.google.inject.multibindings.Multibinder;
 import javax.inject.Singleton;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
+import org.opentcs.strategies.basic.scheduling.modules.DeadlockAvoidanceModule;
 import org.opentcs.strategies.basic.scheduling.modules.PausedVehicleModule;
 import org.opentcs.strategies.basic.scheduling.modules.SameDirectionBlockModule;
 import org.opentcs.strategies.basic.scheduling.modules.SingleVehicleBlockModule;
@@ -34,11 +35,16 @@ public class DefaultSchedulerModule
   }
 
   private void configureSchedulerDependencies() {
+    bind(DefaultSchedulerConfiguration.class)
+        .toInstance(getConfigBindingProvider().get(DefaultSchedulerConfiguration.PREFIX,
+                                                   DefaultSchedulerConfiguration.class));
+
     bind(ReservationPool.class).in(Singleton.class);
 
     Multibinder<Scheduler.Module> moduleBinder = schedulerModuleBinder();
     moduleBinder.addBinding().to(SingleVehicleBlockModule.class);
     moduleBinder.addBinding().to(SameDirectionBlockModule.class);
     moduleBinder.addBinding().to(PausedVehicleModule.class);
+    moduleBinder.addBinding().to(DeadlockAvoidanceModule.class);
   }
 }
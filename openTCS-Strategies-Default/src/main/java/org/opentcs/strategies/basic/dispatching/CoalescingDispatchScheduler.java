@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching;
+
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Schedules runs of a dispatch task, coalescing requests for runs.
+ * <p>
+ * At most one run of the task is pending at any time. Requests for a run that arrive while a run
+ * is pending are merged into the pending one. Requests arriving while the task is running result
+ * in a new run, as the running one may not consider the changes that led to the request.
+ * Additionally, consecutive runs are started at least a configurable interval apart.
+ * </p>
+ */
+public class CoalescingDispatchScheduler {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(CoalescingDispatchScheduler.class);
+  /**
+   * The executor running the task.
+   */
+  private final ScheduledExecutorService executor;
+  /**
+   * The dispatch task.
+   */
+  private final Runnable task;
+  /**
+   * The minimum time (in ms) between the starts of two consecutive runs.
+   */
+  private final long minimumInterval;
+  /**
+   * The pending run, or <code>null</code>, if no run is pending.
+   */
+  private ScheduledFuture<?> pendingRun;
+  /**
+   * The number of requests merged into the pending run.
+   */
+  private int pendingRequestCount;
+  /**
+   * The time (in ms) at which the first request merged into the pending run arrived.
+   */
+  private long firstPendingRequestTime;
+  /**
+   * The time (in ms) at which the last run was started.
+   */
+  private long lastRunStartTime = Long.MIN_VALUE;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param executor The executor running the task.
+   * @param task The dispatch task.
+   * @param minimumInterval The minimum time (in ms) between the starts of two consecutive runs.
+   */
+  public CoalescingDispatchScheduler(ScheduledExecutorService executor,
+                                     Runnable task,
+                                     long minimumInterval) {
+    this.executor = requireNonNull(executor, "executor");
+    this.task = requireNonNull(task, "task");
+    checkArgument(minimumInterval >= 0,
+                  "minimumInterval must be at least 0: %s",
+                  minimumInterval);
+    this.minimumInterval = minimumInterval;
+  }
+
+  /**
+   * Requests a run of the dispatch task.
+   */
+  public synchronized void requestRun() {
+    long now = System.currentTimeMillis();
+    if (pendingRun != null) {
+      pendingRequestCount++;
+      LOG.debug("Merging dispatch request into pending run ({} requests).", pendingRequestCount);
+      return;
+    }
+
+    long delay = lastRunStartTime == Long.MIN_VALUE
+        ? 0
+        : Math.max(0, lastRunStartTime + minimumInterval - now);
+    LOG.debug("Scheduling dispatch run with a delay of {} ms...", delay);
+    pendingRequestCount = 1;
+    firstPendingRequestTime = now;
+    pendingRun = executor.schedule(this::run, delay, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Cancels the pending run, if any.
+   */
+  public synchronized void cancel() {
+    if (pendingRun != null) {
+      pendingRun.cancel(false);
+      pendingRun = null;
+      pendingRequestCount = 0;
+    }
+  }
+
+  private void run() {
+    synchronized (this) {
+      long now = System.currentTimeMillis();
+      LOG.debug("Running dispatch task for {} request(s), the first one {} ms ago.",
+                pendingRequestCount,
+                now - firstPendingRequestTime);
+      pendingRun = null;
+      pendingRequestCount = 0;
+      lastRunStartTime = now;
+    }
+
+    task.run();
+  }
+}
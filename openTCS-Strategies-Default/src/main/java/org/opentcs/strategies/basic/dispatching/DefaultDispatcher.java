@@ -21,6 +21,7 @@ import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.ReroutingType;
 import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.phase.assignment.AssignmentRouteCache;
 import org.opentcs.util.event.EventSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -63,6 +64,14 @@ public class DefaultDispatcher
   private final DefaultDispatcherConfiguration configuration;
 
   private final RerouteUtil rerouteUtil;
+  /**
+   * Keeps the routes computed for assignment candidates across dispatch runs.
+   */
+  private final AssignmentRouteCache assignmentRouteCache;
+  /**
+   * Schedules runs of the full dispatch task.
+   */
+  private final CoalescingDispatchScheduler dispatchScheduler;
   /**
    *
    */
@@ -86,6 +95,7 @@ public class DefaultDispatcher
    * @param periodicDispatchTaskProvider Provides the periodic vehicle redospatching task.
    * @param configuration The dispatcher configuration.
    * @param rerouteUtil The reroute util.
+   * @param assignmentRouteCache Keeps the routes computed for assignment candidates.
    */
   @Inject
   public DefaultDispatcher(OrderReservationPool orderReservationPool,
@@ -96,7 +106,8 @@ public class DefaultDispatcher
                            FullDispatchTask fullDispatchTask,
                            Provider<PeriodicVehicleRedispatchingTask> periodicDispatchTaskProvider,
                            DefaultDispatcherConfiguration configuration,
-                           RerouteUtil rerouteUtil) {
+                           RerouteUtil rerouteUtil,
+                           AssignmentRouteCache assignmentRouteCache) {
     this.orderReservationPool = requireNonNull(orderReservationPool, "orderReservationPool");
     this.transportOrderUtil = requireNonNull(transportOrderUtil, "transportOrderUtil");
     this.vehicleService = requireNonNull(vehicleService, "vehicleService");
@@ -107,6 +118,12 @@ public class DefaultDispatcher
                                                        "periodicDispatchTaskProvider");
     this.configuration = requireNonNull(configuration, "configuration");
     this.rerouteUtil = requireNonNull(rerouteUtil, "rerouteUtil");
+    this.assignmentRouteCache = requireNonNull(assignmentRouteCache, "assignmentRouteCache");
+    this.dispatchScheduler = new CoalescingDispatchScheduler(
+        kernelExecutor,
+        fullDispatchTask,
+        configuration.minimumDispatchInterval()
+    );
   }
 
   @Override
@@ -151,6 +168,7 @@ public class DefaultDispatcher
     eventSource.unsubscribe(implicitDispatchTrigger);
     implicitDispatchTrigger = null;
 
+    dispatchScheduler.cancel();
     fullDispatchTask.terminate();
 
     initialized = false;
@@ -163,9 +181,8 @@ public class DefaultDispatcher
 
   @Override
   public void dispatch() {
-    LOG.debug("Scheduling dispatch task...");
     // Schedule this to be executed by the kernel executor.
-    kernelExecutor.submit(fullDispatchTask);
+    dispatchScheduler.requestRun();
   }
 
   @Override
@@ -198,6 +215,10 @@ public class DefaultDispatcher
 
   @Override
   public void topologyChanged() {
+    // Routes computed before the router was notified about the topology change are outdated, even
+    // if they were computed after the changes to the plant model objects were observed.
+    assignmentRouteCache.clear();
+
     if (configuration.rerouteOnTopologyChanges()) {
       LOG.debug("Scheduling reroute task...");
       kernelExecutor.submit(() -> {
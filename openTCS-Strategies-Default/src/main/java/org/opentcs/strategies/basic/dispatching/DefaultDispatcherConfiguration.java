@@ -74,6 +74,58 @@ public interface DefaultDispatcherConfiguration {
       orderKey = "0_assign_special_0")
   long deadlineAtRiskPeriod();
 
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "The strategy to use for assigning transport orders to vehicles.",
+        "Possible values:",
+        "GREEDY: Assign the best candidate for each vehicle/transport order one after another, "
+        + "sorted by the configured priorities.",
+        "MINIMAL_TOTAL_COSTS: Assign transport orders to vehicles such that the sum of the "
+        + "complete routing costs of all assignments is minimal."
+      },
+      orderKey = "0_assign_special_1")
+  AssignmentStrategy assignmentStrategy();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The number of threads used for computing assignment candidates (i.e. routes) in parallel.",
+        "Values other than 1 require the router used to support concurrent routing queries (as the "
+        + "default router does).",
+        "0: Use as many threads as there are processors available.",
+        "1: Compute assignment candidates sequentially on the kernel executor."
+      },
+      orderKey = "0_assign_special_2")
+  int candidateEvaluationParallelism();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether routes computed for assignment candidates should be reused in subsequent dispatch "
+        + "runs as long as neither the vehicle's position nor the transport order changed and the "
+        + "driving course was not modified.",
+        "Ignored with edge evaluator CONGESTION or time-window routing, as routes then depend on "
+        + "the occupancy of resources or the routes of other vehicles.",
+        "Should be disabled when using custom routing costs that depend on the vehicles' current "
+        + "state or on time."
+      },
+      orderKey = "0_assign_special_3")
+  boolean cacheAssignmentRoutes();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of transport orders to be reserved in advance for a vehicle that is "
+        + "still processing a transport order, to be processed one after the other once it has "
+        + "finished.",
+        "A transport order is only reserved for such a vehicle if the vehicle would reach it with "
+        + "less routing costs than any idle vehicle.",
+        "0: Do not reserve transport orders in advance."
+      },
+      orderKey = "0_assign_special_4")
+  int followUpOrderChainLength();
+
   @ConfigurationEntry(
       type = "Boolean",
       description = "Whether orders to the current position with no operation should be assigned.",
@@ -150,6 +202,30 @@ public interface DefaultDispatcherConfiguration {
       orderKey = "9_misc")
   long idleVehicleRedispatchingInterval();
 
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The minimum time (in ms) between the starts of two consecutive dispatch runs.",
+        "Requests for dispatch runs arriving in the meantime are merged into a single run."
+      },
+      orderKey = "9_misc")
+  long minimumDispatchInterval();
+
+  /**
+   * The available strategies for assigning transport orders to vehicles.
+   */
+  enum AssignmentStrategy {
+    /**
+     * Assign the best candidate for each vehicle/transport order one after another.
+     */
+    GREEDY,
+    /**
+     * Assign transport orders to vehicles such that the sum of the complete routing costs of all
+     * assignments is minimal.
+     */
+    MINIMAL_TOTAL_COSTS;
+  }
+
   /**
    * The available strategies for situations in which rerouting is not possible.
    */
@@ -16,6 +16,7 @@ import org.opentcs.strategies.basic.dispatching.phase.CheckNewOrdersPhase;
 import org.opentcs.strategies.basic.dispatching.phase.FinishWithdrawalsPhase;
 import org.opentcs.strategies.basic.dispatching.phase.assignment.AssignFreeOrdersPhase;
 import org.opentcs.strategies.basic.dispatching.phase.assignment.AssignNextDriveOrdersPhase;
+import org.opentcs.strategies.basic.dispatching.phase.assignment.ChainFollowUpOrdersPhase;
 import org.opentcs.strategies.basic.dispatching.phase.parking.ParkIdleVehiclesPhase;
 import org.opentcs.strategies.basic.dispatching.phase.parking.PrioritizedParkingPhase;
 import org.opentcs.strategies.basic.dispatching.phase.parking.PrioritizedReparkPhase;
@@ -40,6 +41,7 @@ public class FullDispatchTask
   private final AssignNextDriveOrdersPhase assignNextDriveOrdersPhase;
   private final AssignReservedOrdersPhase assignReservedOrdersPhase;
   private final AssignSequenceSuccessorsPhase assignSequenceSuccessorsPhase;
+  private final ChainFollowUpOrdersPhase chainFollowUpOrdersPhase;
   private final AssignFreeOrdersPhase assignFreeOrdersPhase;
   private final RechargeIdleVehiclesPhase rechargeIdleVehiclesPhase;
   private final PrioritizedReparkPhase prioritizedReparkPhase;
@@ -56,6 +58,7 @@ public class FullDispatchTask
                           AssignNextDriveOrdersPhase assignNextDriveOrdersPhase,
                           AssignReservedOrdersPhase assignReservedOrdersPhase,
                           AssignSequenceSuccessorsPhase assignSequenceSuccessorsPhase,
+                          ChainFollowUpOrdersPhase chainFollowUpOrdersPhase,
                           AssignFreeOrdersPhase assignFreeOrdersPhase,
                           RechargeIdleVehiclesPhase rechargeIdleVehiclesPhase,
                           PrioritizedReparkPhase prioritizedReparkPhase,
@@ -69,6 +72,8 @@ public class FullDispatchTask
                                                     "assignReservedOrdersPhase");
     this.assignSequenceSuccessorsPhase = requireNonNull(assignSequenceSuccessorsPhase,
                                                         "assignSequenceSuccessorsPhase");
+    this.chainFollowUpOrdersPhase = requireNonNull(chainFollowUpOrdersPhase,
+                                                   "chainFollowUpOrdersPhase");
     this.assignFreeOrdersPhase = requireNonNull(assignFreeOrdersPhase, "assignFreeOrdersPhase");
     this.rechargeIdleVehiclesPhase = requireNonNull(rechargeIdleVehiclesPhase,
                                                     "rechargeIdleVehiclesPhase");
@@ -89,6 +94,7 @@ public class FullDispatchTask
     assignNextDriveOrdersPhase.initialize();
     assignReservedOrdersPhase.initialize();
     assignSequenceSuccessorsPhase.initialize();
+    chainFollowUpOrdersPhase.initialize();
     assignFreeOrdersPhase.initialize();
     rechargeIdleVehiclesPhase.initialize();
     prioritizedReparkPhase.initialize();
@@ -109,6 +115,7 @@ public class FullDispatchTask
     assignNextDriveOrdersPhase.terminate();
     assignReservedOrdersPhase.terminate();
     assignSequenceSuccessorsPhase.terminate();
+    chainFollowUpOrdersPhase.terminate();
     assignFreeOrdersPhase.terminate();
     rechargeIdleVehiclesPhase.terminate();
     prioritizedReparkPhase.terminate();
@@ -143,11 +150,13 @@ public class FullDispatchTask
   /**
    * Assignment of orders to vehicles.
    * <p>
-   * Default: Assigns reserved and then free orders to vehicles.
+   * Default: Assigns reserved orders to vehicles, reserves follow-up orders for vehicles that are
+   * still processing orders and then assigns free orders to vehicles.
    * </p>
    */
   protected void assignOrders() {
     assignReservedOrdersPhase.run();
+    chainFollowUpOrdersPhase.run();
     assignFreeOrdersPhase.run();
   }
 
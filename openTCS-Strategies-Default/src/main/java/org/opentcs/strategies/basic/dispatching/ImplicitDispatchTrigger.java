@@ -57,11 +57,27 @@ public class ImplicitDispatchTrigger
         && (idleAndEnergyLevelChanged(oldVehicle, newVehicle)
             || awaitingNextOrder(oldVehicle, newVehicle)
             || orderSequenceNulled(oldVehicle, newVehicle))) {
-      LOG.debug("Dispatching for {}...", newVehicle);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("Dispatching for {} ({})...",
+                  newVehicle.getName(),
+                  describeChange(oldVehicle, newVehicle));
+      }
       dispatcher.dispatch();
     }
   }
 
+  private String describeChange(Vehicle oldVehicle, Vehicle newVehicle) {
+    if (idleAndEnergyLevelChanged(oldVehicle, newVehicle)) {
+      return "energy level changed to " + newVehicle.getEnergyLevel();
+    }
+    else if (awaitingNextOrder(oldVehicle, newVehicle)) {
+      return "processing state changed to " + newVehicle.getProcState();
+    }
+    else {
+      return "released from order sequence";
+    }
+  }
+
   private boolean idleAndEnergyLevelChanged(Vehicle oldVehicle, Vehicle newVehicle) {
     // If the vehicle is idle and its energy level changed, we may want to order it to recharge.
     return newVehicle.hasProcState(Vehicle.ProcState.IDLE)
@@ -8,7 +8,7 @@
 package org.opentcs.strategies.basic.dispatching;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -24,10 +24,10 @@ import org.opentcs.data.order.TransportOrder;
 public class OrderReservationPool {
 
   /**
-   * Reservations of orders for vehicles.
+   * Reservations of orders for vehicles, in the order in which they were made.
    */
   private final Map<TCSObjectReference<TransportOrder>, TCSObjectReference<Vehicle>> reservations
-      = Collections.synchronizedMap(new HashMap<>());
+      = Collections.synchronizedMap(new LinkedHashMap<>());
 
   /**
    * Creates a new instance.
@@ -97,8 +97,9 @@ public class AssignReservedOrdersPhase
   private void checkForReservedOrder(Vehicle vehicle) {
     // Check if there's an order reserved for this vehicle that is in an assignable state. If yes,
     // try to assign that.
-    // Note that we expect no more than a single reserved order, and remove ALL reservations if we
-    // find at least one, even if it cannot be processed by the vehicle in the end.
+    // Note that we only consider the first reserved order (in the order of reservation), and remove
+    // ALL reservations if we find at least one, even if it cannot be processed by the vehicle in the
+    // end.
     orderReservationPool.findReservations(vehicle.getReference()).stream()
         .map(orderRef -> objectService.fetchObject(TransportOrder.class, orderRef))
         .filter(order -> order.hasState(TransportOrder.State.DISPATCHABLE))
@@ -12,11 +12,16 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import org.opentcs.components.kernel.Router;
@@ -24,12 +29,15 @@ import org.opentcs.components.kernel.services.TCSObjectService;
 import org.opentcs.data.ObjectHistory;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
 import org.opentcs.data.order.TransportOrder;
 import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_ASSIGNED_TO_VEHICLE;
 import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_DISPATCHING_DEFERRED;
 import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_DISPATCHING_RESUMED;
 import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_RESERVED_FOR_VEHICLE;
 import org.opentcs.strategies.basic.dispatching.AssignmentCandidate;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration.AssignmentStrategy;
 import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
 import org.opentcs.strategies.basic.dispatching.Phase;
 import org.opentcs.strategies.basic.dispatching.TransportOrderUtil;
@@ -46,12 +54,26 @@ import org.opentcs.strategies.basic.dispatching.selection.orders.CompositeTransp
 import org.opentcs.strategies.basic.dispatching.selection.orders.IsFreelyDispatchableToAnyVehicle;
 import org.opentcs.strategies.basic.dispatching.selection.vehicles.CompositeVehicleSelectionFilter;
 import org.opentcs.strategies.basic.dispatching.selection.vehicles.IsAvailableForAnyOrder;
+import static org.opentcs.util.Assertions.checkArgument;
+import org.opentcs.util.logging.UncaughtExceptionLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Assigns transport orders to vehicles that are currently not processing any and are not bound to
  * any order sequences.
+ * <p>
+ * Depending on the configured {@link AssignmentStrategy}, either the best candidate is assigned
+ * for each vehicle/transport order one after another, or the assignments with minimal total
+ * routing costs are computed for all vehicles and transport orders at once.
+ * </p>
+ * <p>
+ * The candidates, i.e. the routes for the combinations of vehicles and transport orders, may be
+ * computed in parallel, if configured to do so. As this results in concurrent queries to the
+ * router, it is only safe with routers supporting them, and candidates are computed sequentially by
+ * default. Filtering the candidates and assigning transport orders is always done sequentially, in
+ * the thread running this phase.
+ * </p>
  */
 public class AssignFreeOrdersPhase
     implements Phase {
@@ -106,6 +128,29 @@ public class AssignFreeOrdersPhase
   private final CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter;
 
   private final TransportOrderUtil transportOrderUtil;
+  /**
+   * Keeps routing results for vehicles and transport orders across dispatch runs.
+   */
+  private final AssignmentRouteCache routeCache;
+  /**
+   * The dispatcher configuration.
+   */
+  private final DefaultDispatcherConfiguration configuration;
+  /**
+   * The pool computing candidates in parallel, or <code>null</code>, if candidates are computed
+   * sequentially.
+   */
+  private ForkJoinPool candidateEvaluationPool;
+  /**
+   * The reasons for which the dispatching of transport orders is currently marked as deferred,
+   * mapped by transport order name. An empty value indicates that the dispatching of a transport
+   * order is not marked as deferred.
+   * <p>
+   * This mirrors the last relevant history entries of the transport orders, so their histories do
+   * not have to be scanned in every dispatch run.
+   * </p>
+   */
+  private final Map<String, Optional<Collection<String>>> deferralReasonsByOrder = new HashMap<>();
 
   /**
    * Indicates whether this component is initialized.
@@ -126,7 +171,9 @@ public class AssignFreeOrdersPhase
       IsFreelyDispatchableToAnyVehicle isFreelyDispatchableToAnyVehicle,
       CompositeTransportOrderSelectionFilter transportOrderSelectionFilter,
       CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter,
-      TransportOrderUtil transportOrderUtil) {
+      TransportOrderUtil transportOrderUtil,
+      AssignmentRouteCache routeCache,
+      DefaultDispatcherConfiguration configuration) {
     this.router = requireNonNull(router, "router");
     this.objectService = requireNonNull(objectService, "objectService");
     this.orderReservationPool = requireNonNull(orderReservationPool, "orderReservationPool");
@@ -145,6 +192,8 @@ public class AssignFreeOrdersPhase
     this.assignmentCandidateSelectionFilter = requireNonNull(assignmentCandidateSelectionFilter,
                                                              "assignmentCandidateSelectionFilter");
     this.transportOrderUtil = requireNonNull(transportOrderUtil, "transportOrderUtil");
+    this.routeCache = requireNonNull(routeCache, "routeCache");
+    this.configuration = requireNonNull(configuration, "configuration");
   }
 
   @Override
@@ -152,6 +201,32 @@ public class AssignFreeOrdersPhase
     if (isInitialized()) {
       return;
     }
+
+    int parallelism = configuration.candidateEvaluationParallelism();
+    checkArgument(parallelism >= 0,
+                  "candidateEvaluationParallelism must be at least 0: %s",
+                  parallelism);
+    if (parallelism == 0) {
+      parallelism = Runtime.getRuntime().availableProcessors();
+    }
+    if (parallelism > 1) {
+      LOG.debug("Computing assignment candidates with {} threads.", parallelism);
+      candidateEvaluationPool = new ForkJoinPool(parallelism,
+                                                 pool -> createWorkerThread(pool),
+                                                 new UncaughtExceptionLogger(false),
+                                                 false);
+    }
+
+    if (configuration.cacheAssignmentRoutes()) {
+      if (router.routesDependOnVehicleStates()) {
+        LOG.warn("Not caching assignment routes, as the router's routes depend on the occupancy of "
+            + "resources or the routes of other vehicles.");
+      }
+      else {
+        routeCache.initialize();
+      }
+    }
+
     initialized = true;
   }
 
@@ -165,6 +240,15 @@ public class AssignFreeOrdersPhase
     if (!isInitialized()) {
       return;
     }
+
+    if (candidateEvaluationPool != null) {
+      candidateEvaluationPool.shutdown();
+      candidateEvaluationPool = null;
+    }
+
+    routeCache.terminate();
+    deferralReasonsByOrder.clear();
+
     initialized = false;
   }
 
@@ -199,6 +283,13 @@ public class AssignFreeOrdersPhase
                    ordersSplitByFilter.get(Boolean.TRUE).stream()
                        .map(OrderFilterResult::getOrder)
                        .collect(Collectors.toList()));
+
+    // Forget about transport orders that are not dispatchable any more.
+    Set<String> dispatchableOrderNames = ordersSplitByFilter.values().stream()
+        .flatMap(List::stream)
+        .map(filterResult -> filterResult.getOrder().getName())
+        .collect(Collectors.toSet());
+    deferralReasonsByOrder.keySet().retainAll(dispatchableOrderNames);
   }
 
   private void tryAssignments(Collection<Vehicle> availableVehicles,
@@ -207,16 +298,36 @@ public class AssignFreeOrdersPhase
               availableOrders.size(),
               availableVehicles.size());
 
+    // Candidates are computed against this snapshot of the vehicles' positions, also when doing
+    // so in parallel.
+    Map<Vehicle, Point> vehiclePositions = new HashMap<>();
+    for (Vehicle vehicle : availableVehicles) {
+      vehiclePositions.put(vehicle,
+                           objectService.fetchObject(Point.class, vehicle.getCurrentPosition()));
+    }
+
     AssignmentState assignmentState = new AssignmentState();
-    if (availableVehicles.size() < availableOrders.size()) {
+    if (configuration.assignmentStrategy() == AssignmentStrategy.MINIMAL_TOTAL_COSTS) {
+      tryAssignmentsWithMinimalTotalCosts(availableVehicles,
+                                          availableOrders,
+                                          vehiclePositions,
+                                          assignmentState);
+    }
+    else if (availableVehicles.size() < availableOrders.size()) {
       availableVehicles.stream()
           .sorted(vehicleComparator)
-          .forEach(vehicle -> tryAssignOrder(vehicle, availableOrders, assignmentState));
+          .forEach(vehicle -> tryAssignOrder(vehicle,
+                                             vehiclePositions.get(vehicle),
+                                             availableOrders,
+                                             assignmentState));
     }
     else {
       availableOrders.stream()
           .sorted(orderComparator)
-          .forEach(order -> tryAssignVehicle(order, availableVehicles, assignmentState));
+          .forEach(order -> tryAssignVehicle(order,
+                                             availableVehicles,
+                                             vehiclePositions,
+                                             assignmentState));
     }
 
     assignmentState.getFilteredOrders().values().stream()
@@ -239,7 +350,18 @@ public class AssignFreeOrdersPhase
   }
 
   private boolean markedAsFiltered(TransportOrder order) {
-    return lastRelevantDeferredHistoryEntry(order).isPresent();
+    return deferralReasons(order).isPresent();
+  }
+
+  @SuppressWarnings("unchecked")
+  private Optional<Collection<String>> deferralReasons(TransportOrder order) {
+    // Scan the history only for transport orders not seen before, e.g. after a restart of the
+    // dispatcher.
+    return deferralReasonsByOrder.computeIfAbsent(
+        order.getName(),
+        orderName -> lastRelevantDeferredHistoryEntry(order)
+            .map(entry -> (Collection<String>) entry.getSupplement())
+    );
   }
 
   private Optional<ObjectHistory.Entry> lastRelevantDeferredHistoryEntry(TransportOrder order) {
@@ -251,11 +373,9 @@ public class AssignFreeOrdersPhase
         .filter(entry -> entry.getEventCode().equals(ORDER_DISPATCHING_DEFERRED));
   }
 
-  @SuppressWarnings("unchecked")
   private boolean filterReasonsChanged(OrderFilterResult filterResult) {
     Collection<String> newReasons = filterResult.getFilterReasons();
-    Collection<String> oldReasons = lastRelevantDeferredHistoryEntry(filterResult.getOrder())
-        .map(entry -> (Collection<String>) entry.getSupplement())
+    Collection<String> oldReasons = deferralReasons(filterResult.getOrder())
         .orElse(new ArrayList<>());
 
     return newReasons.size() != oldReasons.size()
@@ -263,13 +383,13 @@ public class AssignFreeOrdersPhase
   }
 
   private void doMarkAsFiltered(OrderFilterResult filterResult) {
+    List<String> reasons
+        = Collections.unmodifiableList(new ArrayList<>(filterResult.getFilterReasons()));
     objectService.appendObjectHistoryEntry(
         filterResult.getOrder().getReference(),
-        new ObjectHistory.Entry(
-            ORDER_DISPATCHING_DEFERRED,
-            Collections.unmodifiableList(new ArrayList<>(filterResult.getFilterReasons()))
-        )
+        new ObjectHistory.Entry(ORDER_DISPATCHING_DEFERRED, reasons)
     );
+    deferralReasonsByOrder.put(filterResult.getOrder().getName(), Optional.of(reasons));
   }
 
   private void doUnmarkAsFiltered(TransportOrder order) {
@@ -280,6 +400,7 @@ public class AssignFreeOrdersPhase
             Collections.unmodifiableList(new ArrayList<>())
         )
     );
+    deferralReasonsByOrder.put(order.getName(), Optional.empty());
   }
 
   private boolean equalsAny(String string, String... others) {
@@ -288,19 +409,19 @@ public class AssignFreeOrdersPhase
   }
 
   private void tryAssignOrder(Vehicle vehicle,
+                              Point vehiclePosition,
                               Collection<TransportOrder> availableOrders,
                               AssignmentState assignmentState) {
     LOG.debug("Trying to find transport order for vehicle '{}'...", vehicle.getName());
 
-    Point vehiclePosition = objectService.fetchObject(Point.class, vehicle.getCurrentPosition());
+    List<TransportOrder> orders = availableOrders.stream()
+        .filter(order -> (!assignmentState.wasAssignedToVehicle(order)
+                          && orderAssignableToVehicle(order, vehicle)))
+        .collect(Collectors.toList());
 
     Map<Boolean, List<CandidateFilterResult>> ordersSplitByFilter
-        = availableOrders.stream()
-            .filter(order -> (!assignmentState.wasAssignedToVehicle(order)
-                              && orderAssignableToVehicle(order, vehicle)))
-            .map(order -> computeCandidate(vehicle, vehiclePosition, order))
-            .filter(optCandidate -> optCandidate.isPresent())
-            .map(optCandidate -> optCandidate.get())
+        = computeCandidates(orders, order -> computeCandidate(vehicle, vehiclePosition, order))
+            .stream()
             .map(
                 candidate -> new CandidateFilterResult(
                     candidate,
@@ -322,22 +443,21 @@ public class AssignFreeOrdersPhase
 
   private void tryAssignVehicle(TransportOrder order,
                                 Collection<Vehicle> availableVehicles,
+                                Map<Vehicle, Point> vehiclePositions,
                                 AssignmentState assignmentState) {
     LOG.debug("Trying to find vehicle for transport order '{}'...", order.getName());
 
+    List<Vehicle> vehicles = availableVehicles.stream()
+        .filter(vehicle -> (!assignmentState.wasAssignedToOrder(vehicle)
+                            && orderAssignableToVehicle(order, vehicle)))
+        .collect(Collectors.toList());
+
     Map<Boolean, List<CandidateFilterResult>> ordersSplitByFilter
-        = availableVehicles.stream()
-            .filter(vehicle -> (!assignmentState.wasAssignedToOrder(vehicle)
-                                && orderAssignableToVehicle(order, vehicle)))
-            .map(
-                vehicle -> computeCandidate(
-                    vehicle,
-                    objectService.fetchObject(Point.class, vehicle.getCurrentPosition()),
-                    order
-                )
-            )
-            .filter(optCandidate -> optCandidate.isPresent())
-            .map(optCandidate -> optCandidate.get())
+        = computeCandidates(
+            vehicles,
+            vehicle -> computeCandidate(vehicle, vehiclePositions.get(vehicle), order)
+        )
+            .stream()
             .map(
                 candidate -> new CandidateFilterResult(
                     candidate,
@@ -357,6 +477,102 @@ public class AssignFreeOrdersPhase
         .ifPresent(candidate -> assignOrder(candidate, assignmentState));
   }
 
+  /**
+   * Computes the candidates for all combinations of the given vehicles and transport orders and
+   * assigns the ones with minimal total routing costs.
+   * <p>
+   * Combinations that are not routable, that are filtered or that would violate a transport
+   * order's intended vehicle are never assigned. Among all sets of assignments with the largest
+   * possible number of assignments, the one with the lowest sum of complete routing costs is
+   * chosen.
+   * </p>
+   */
+  private void tryAssignmentsWithMinimalTotalCosts(Collection<Vehicle> availableVehicles,
+                                                   Collection<TransportOrder> availableOrders,
+                                                   Map<Vehicle, Point> vehiclePositions,
+                                                   AssignmentState assignmentState) {
+    List<Vehicle> vehicles = new ArrayList<>(availableVehicles);
+    List<TransportOrder> orders = new ArrayList<>(availableOrders);
+    List<int[]> combinations = new ArrayList<>();
+    for (int vehicleIndex = 0; vehicleIndex < vehicles.size(); vehicleIndex++) {
+      for (int orderIndex = 0; orderIndex < orders.size(); orderIndex++) {
+        if (orderAssignableToVehicle(orders.get(orderIndex), vehicles.get(vehicleIndex))) {
+          combinations.add(new int[]{vehicleIndex, orderIndex});
+        }
+      }
+    }
+
+    List<IndexedCandidate> computedCandidates = computeCandidates(
+        combinations,
+        combination -> computeCandidate(vehicles.get(combination[0]),
+                                        vehiclePositions.get(vehicles.get(combination[0])),
+                                        orders.get(combination[1]))
+            .map(candidate -> new IndexedCandidate(candidate, combination[0], combination[1]))
+    );
+
+    AssignmentCandidate[][] candidates = new AssignmentCandidate[vehicles.size()][orders.size()];
+    for (IndexedCandidate indexedCandidate : computedCandidates) {
+      CandidateFilterResult filterResult
+          = new CandidateFilterResult(indexedCandidate.candidate,
+                                      assignmentCandidateSelectionFilter.apply(
+                                          indexedCandidate.candidate
+                                      ));
+      if (filterResult.isFiltered()) {
+        assignmentState.addFilteredOrder(filterResult.toFilterResult());
+      }
+      else {
+        candidates[indexedCandidate.vehicleIndex][indexedCandidate.orderIndex]
+            = indexedCandidate.candidate;
+      }
+    }
+
+    int[] orderIndicesByVehicle = HungarianAssignmentSolver.solve(
+        toCostMatrix(candidates, vehicles.size(), orders.size())
+    );
+
+    List<AssignmentCandidate> selectedCandidates = new ArrayList<>();
+    for (int vehicleIndex = 0; vehicleIndex < orderIndicesByVehicle.length; vehicleIndex++) {
+      int orderIndex = orderIndicesByVehicle[vehicleIndex];
+      if (orderIndex != HungarianAssignmentSolver.UNASSIGNED
+          && candidates[vehicleIndex][orderIndex] != null) {
+        selectedCandidates.add(candidates[vehicleIndex][orderIndex]);
+      }
+    }
+
+    LOG.debug("Assigning {} transport orders with minimal total routing costs.",
+              selectedCandidates.size());
+    selectedCandidates.stream()
+        .sorted(Comparator.comparing(AssignmentCandidate::getTransportOrder, orderComparator))
+        .forEach(candidate -> assignOrder(candidate, assignmentState));
+  }
+
+  /**
+   * Creates the cost matrix for the given candidates.
+   * <p>
+   * Missing candidates get costs exceeding those of any combination of existing candidates, so
+   * they are only chosen if no other assignment is possible for the respective vehicle or order.
+   * </p>
+   */
+  private long[][] toCostMatrix(AssignmentCandidate[][] candidates,
+                                int vehicleCount,
+                                int orderCount) {
+    int assignmentCount = Math.min(vehicleCount, orderCount);
+    // Limit the costs so that summing them up does not overflow.
+    long costLimit = Long.MAX_VALUE / (4L * (assignmentCount + 1));
+    long infeasibleCosts = costLimit * (assignmentCount + 1);
+
+    long[][] costs = new long[vehicleCount][orderCount];
+    for (int vehicleIndex = 0; vehicleIndex < vehicleCount; vehicleIndex++) {
+      for (int orderIndex = 0; orderIndex < orderCount; orderIndex++) {
+        AssignmentCandidate candidate = candidates[vehicleIndex][orderIndex];
+        costs[vehicleIndex][orderIndex] = candidate == null
+            ? infeasibleCosts
+            : Math.max(0, Math.min(candidate.getCompleteRoutingCosts(), costLimit - 1));
+      }
+    }
+    return costs;
+  }
+
   private void assignOrder(AssignmentCandidate candidate, AssignmentState assignmentState) {
     // If the vehicle currently has a (dispensable) order, we may not assign the new one here
     // directly, but must abort the old one (DefaultDispatcher.abortOrder()) and wait for the
@@ -398,15 +614,73 @@ public class AssignFreeOrdersPhase
     );
   }
 
+  /**
+   * Applies the given function to all of the given items, in parallel if configured to do so, and
+   * returns the present results in the order of the items.
+   * <p>
+   * The function must not modify any state and may only rely on the router and the data passed to
+   * it, as it may be called from multiple threads at the same time.
+   * </p>
+   */
+  private <T, R> List<R> computeCandidates(List<T> items, Function<T, Optional<R>> function) {
+    if (candidateEvaluationPool == null || items.size() < 2) {
+      return items.stream()
+          .map(function)
+          .flatMap(Optional::stream)
+          .collect(Collectors.toList());
+    }
+
+    return candidateEvaluationPool.submit(
+        () -> items.parallelStream()
+            .map(function)
+            .flatMap(Optional::stream)
+            .collect(Collectors.toList())
+    ).join();
+  }
+
+  private ForkJoinWorkerThread createWorkerThread(ForkJoinPool pool) {
+    ForkJoinWorkerThread thread
+        = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+    thread.setName("candidateEvaluation-" + thread.getPoolIndex());
+    thread.setDaemon(true);
+    return thread;
+  }
+
   private Optional<AssignmentCandidate> computeCandidate(Vehicle vehicle,
                                                          Point vehiclePosition,
                                                          TransportOrder order) {
-    return router.getRoute(vehicle, vehiclePosition, order)
-        .map(driveOrders -> new AssignmentCandidate(vehicle, order, driveOrders));
+    if (!routeCache.isInitialized()) {
+      return router.getRoute(vehicle, vehiclePosition, order)
+          .map(driveOrders -> new AssignmentCandidate(vehicle, order, driveOrders));
+    }
+
+    Optional<List<DriveOrder>> driveOrders = routeCache.get(vehicle, order);
+    if (driveOrders == null) {
+      long invalidationCount = routeCache.getInvalidationCount();
+      driveOrders = router.getRoute(vehicle, vehiclePosition, order);
+      routeCache.put(vehicle, order, driveOrders, invalidationCount);
+    }
+    return driveOrders.map(orders -> new AssignmentCandidate(vehicle, order, orders));
   }
 
   private boolean orderAssignableToVehicle(TransportOrder order, Vehicle vehicle) {
     return order.getIntendedVehicle() == null
         || Objects.equals(order.getIntendedVehicle(), vehicle.getReference());
   }
+
+  /**
+   * A candidate along with the indices of its vehicle and transport order.
+   */
+  private static class IndexedCandidate {
+
+    private final AssignmentCandidate candidate;
+    private final int vehicleIndex;
+    private final int orderIndex;
+
+    IndexedCandidate(AssignmentCandidate candidate, int vehicleIndex, int orderIndex) {
+      this.candidate = requireNonNull(candidate, "candidate");
+      this.vehicleIndex = vehicleIndex;
+      this.orderIndex = orderIndex;
+    }
+  }
 }
@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.event.EventHandler;
+import org.opentcs.util.event.EventSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the results of routing computations for combinations of vehicles and transport orders
+ * across dispatch runs.
+ * <p>
+ * A result is kept as long as it is not affected by any change, which is determined via object
+ * events:
+ * </p>
+ * <ul>
+ * <li>Results for a vehicle are discarded when its position or any of its attributes relevant for
+ * routing (properties, velocities, length) change.</li>
+ * <li>Results for a transport order are discarded when its state or its destinations change.</li>
+ * <li>All results are discarded when any point or path changes in a way relevant for routing (e.g.
+ * when a path is locked or a point's type changes) or when a location is locked/unlocked or its
+ * links change. Changes of the vehicles occupying points are not relevant.</li>
+ * <li>All results are discarded when the routing topology is updated, as the router may still have
+ * computed routes for the previous topology after the changes above were observed.</li>
+ * </ul>
+ * <p>
+ * As only these changes are observed, results must not be cached for routers whose routing costs
+ * depend on anything else, e.g. on the current occupancy of resources or on the routes of other
+ * vehicles.
+ * </p>
+ */
+public class AssignmentRouteCache
+    implements EventHandler,
+               Lifecycle {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(AssignmentRouteCache.class);
+  /**
+   * Where we register for application events.
+   */
+  private final EventSource eventSource;
+  /**
+   * The cached results, mapped by vehicle name and transport order name.
+   */
+  private final Map<String, Map<String, Optional<List<DriveOrder>>>> resultsByVehicle
+      = new ConcurrentHashMap<>();
+  /**
+   * The number of times results have been discarded.
+   */
+  private final AtomicLong invalidationCount = new AtomicLong();
+  /**
+   * Indicates whether this component is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param eventSource Where this instance registers for application events.
+   */
+  @Inject
+  public AssignmentRouteCache(@ApplicationEventBus EventSource eventSource) {
+    this.eventSource = requireNonNull(eventSource, "eventSource");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    eventSource.subscribe(this);
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    eventSource.unsubscribe(this);
+    clear();
+
+    initialized = false;
+  }
+
+  @Override
+  public void onEvent(Object event) {
+    if (!(event instanceof TCSObjectEvent)) {
+      return;
+    }
+
+    TCSObjectEvent objectEvent = (TCSObjectEvent) event;
+    TCSObject<?> object = objectEvent.getCurrentOrPreviousObjectState();
+    if (object instanceof Vehicle) {
+      if (objectEvent.getType() != TCSObjectEvent.Type.OBJECT_MODIFIED
+          || routingRelevantChange((Vehicle) objectEvent.getPreviousObjectState(),
+                                   (Vehicle) objectEvent.getCurrentObjectState())) {
+        invalidateVehicle(object.getName());
+      }
+    }
+    else if (object instanceof TransportOrder) {
+      if (objectEvent.getType() != TCSObjectEvent.Type.OBJECT_MODIFIED
+          || routingRelevantChange((TransportOrder) objectEvent.getPreviousObjectState(),
+                                   (TransportOrder) objectEvent.getCurrentObjectState())) {
+        invalidateOrder(object.getName());
+      }
+    }
+    else if (object instanceof Location) {
+      if (objectEvent.getType() != TCSObjectEvent.Type.OBJECT_MODIFIED
+          || routingRelevantChange((Location) objectEvent.getPreviousObjectState(),
+                                   (Location) objectEvent.getCurrentObjectState())) {
+        clear();
+      }
+    }
+    else if (object instanceof Point) {
+      if (objectEvent.getType() != TCSObjectEvent.Type.OBJECT_MODIFIED
+          || routingRelevantChange((Point) objectEvent.getPreviousObjectState(),
+                                   (Point) objectEvent.getCurrentObjectState())) {
+        clear();
+      }
+    }
+    else if (object instanceof Path) {
+      if (objectEvent.getType() != TCSObjectEvent.Type.OBJECT_MODIFIED
+          || routingRelevantChange((Path) objectEvent.getPreviousObjectState(),
+                                   (Path) objectEvent.getCurrentObjectState())) {
+        clear();
+      }
+    }
+  }
+
+  /**
+   * Returns the cached result for the given vehicle and transport order.
+   *
+   * @param vehicle The vehicle.
+   * @param order The transport order.
+   * @return The cached result, or <code>null</code>, if there is none. An empty result indicates
+   * that the transport order is not routable for the vehicle.
+   */
+  public Optional<List<DriveOrder>> get(Vehicle vehicle, TransportOrder order) {
+    return resultsByVehicle.getOrDefault(vehicle.getName(), Map.of()).get(order.getName());
+  }
+
+  /**
+   * Caches the given result for the given vehicle and transport order, provided no results have
+   * been discarded since the given invalidation count was retrieved.
+   * <p>
+   * This prevents caching results computed with objects that have been modified during the
+   * computation.
+   * </p>
+   *
+   * @param vehicle The vehicle.
+   * @param order The transport order.
+   * @param result The result.
+   * @param expectedInvalidationCount The invalidation count retrieved before the result was
+   * computed.
+   */
+  public synchronized void put(Vehicle vehicle,
+                               TransportOrder order,
+                               Optional<List<DriveOrder>> result,
+                               long expectedInvalidationCount) {
+    requireNonNull(result, "result");
+    if (invalidationCount.get() != expectedInvalidationCount) {
+      return;
+    }
+    resultsByVehicle.computeIfAbsent(vehicle.getName(), name -> new ConcurrentHashMap<>())
+        .put(order.getName(), result);
+  }
+
+  /**
+   * Returns the number of times results have been discarded so far.
+   *
+   * @return The number of times results have been discarded so far.
+   */
+  public long getInvalidationCount() {
+    return invalidationCount.get();
+  }
+
+  /**
+   * Discards all cached results.
+   */
+  public synchronized void clear() {
+    invalidationCount.incrementAndGet();
+    resultsByVehicle.clear();
+  }
+
+  private synchronized void invalidateVehicle(String vehicleName) {
+    invalidationCount.incrementAndGet();
+    if (resultsByVehicle.remove(vehicleName) != null) {
+      LOG.debug("Discarded cached routes for vehicle '{}'.", vehicleName);
+    }
+  }
+
+  private synchronized void invalidateOrder(String orderName) {
+    invalidationCount.incrementAndGet();
+    resultsByVehicle.values().forEach(results -> results.remove(orderName));
+  }
+
+  private boolean routingRelevantChange(Vehicle oldVehicle, Vehicle newVehicle) {
+    return !Objects.equals(oldVehicle.getCurrentPosition(), newVehicle.getCurrentPosition())
+        || !Objects.equals(oldVehicle.getProperties(), newVehicle.getProperties())
+        || oldVehicle.getMaxVelocity() != newVehicle.getMaxVelocity()
+        || oldVehicle.getMaxReverseVelocity() != newVehicle.getMaxReverseVelocity()
+        || oldVehicle.getLength() != newVehicle.getLength();
+  }
+
+  private boolean routingRelevantChange(Point oldPoint, Point newPoint) {
+    return oldPoint.getType() != newPoint.getType()
+        || !Objects.equals(oldPoint.getProperties(), newPoint.getProperties())
+        || !oldPoint.getIncomingPaths().equals(newPoint.getIncomingPaths())
+        || !oldPoint.getOutgoingPaths().equals(newPoint.getOutgoingPaths())
+        || !oldPoint.getAttachedLinks().equals(newPoint.getAttachedLinks());
+  }
+
+  private boolean routingRelevantChange(Path oldPath, Path newPath) {
+    return oldPath.isLocked() != newPath.isLocked()
+        || !Objects.equals(oldPath.getProperties(), newPath.getProperties())
+        || oldPath.getLength() != newPath.getLength()
+        || oldPath.getMaxVelocity() != newPath.getMaxVelocity()
+        || oldPath.getMaxReverseVelocity() != newPath.getMaxReverseVelocity();
+  }
+
+  private boolean routingRelevantChange(Location oldLocation, Location newLocation) {
+    return oldLocation.isLocked() != newLocation.isLocked()
+        || !oldLocation.getAttachedLinks().equals(newLocation.getAttachedLinks());
+  }
+
+  private boolean routingRelevantChange(TransportOrder oldOrder, TransportOrder newOrder) {
+    return oldOrder.getState() != newOrder.getState()
+        || !destinations(oldOrder).equals(destinations(newOrder));
+  }
+
+  private List<DriveOrder.Destination> destinations(TransportOrder order) {
+    return order.getAllDriveOrders().stream()
+        .map(DriveOrder::getDestination)
+        .collect(Collectors.toList());
+  }
+}
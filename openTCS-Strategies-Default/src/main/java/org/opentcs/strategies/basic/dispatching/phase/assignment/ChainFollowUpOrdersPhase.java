@@ -0,0 +1,479 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.ObjectHistory;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import static org.opentcs.data.order.TransportOrderHistoryCodes.ORDER_RESERVED_FOR_VEHICLE;
+import org.opentcs.strategies.basic.dispatching.AssignmentCandidate;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
+import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
+import org.opentcs.strategies.basic.dispatching.Phase;
+import org.opentcs.strategies.basic.dispatching.selection.candidates.CompositeAssignmentCandidateSelectionFilter;
+import org.opentcs.strategies.basic.dispatching.selection.orders.CompositeTransportOrderSelectionFilter;
+import org.opentcs.strategies.basic.dispatching.selection.orders.IsFreelyDispatchableToAnyVehicle;
+import org.opentcs.strategies.basic.dispatching.selection.vehicles.IsAvailableForAnyOrder;
+import org.opentcs.strategies.basic.routing.AccessPointIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reserves free transport orders for vehicles that are still processing a transport order, so
+ * they can be assigned to these vehicles as soon as they have finished.
+ * <p>
+ * For every vehicle processing a (non-dispensable) transport order, a chain of follow-up orders is
+ * planned, starting at the point at which the vehicle will finish its current transport order.
+ * The next order in a chain is always the one with the least routing costs for reaching its first
+ * destination, but only if the vehicle would reach that destination with less routing costs than
+ * any vehicle that is currently available for new transport orders.
+ * These costs are compared using the router's one-to-many cost computation, i.e. with one search
+ * per vehicle and source point, and complete routes are computed only for the orders chained.
+ * The chained orders are reserved in the {@link OrderReservationPool}, which excludes them from
+ * the assignment of free transport orders, and assigned by the {@code AssignReservedOrdersPhase}
+ * once the vehicle has finished its current transport order.
+ * </p>
+ * <p>
+ * The chains are only tentative: All reservations made by this phase are released and the chains
+ * are planned again with every dispatch run, e.g. when new transport orders arrive.
+ * </p>
+ */
+public class ChainFollowUpOrdersPhase
+    implements Phase {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(ChainFollowUpOrdersPhase.class);
+  /**
+   * The object service.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * The Router instance calculating route costs.
+   */
+  private final Router router;
+  /**
+   * Stores reservations of orders for vehicles.
+   */
+  private final OrderReservationPool orderReservationPool;
+  /**
+   * A collection of predicates for filtering transport orders.
+   */
+  private final CompositeTransportOrderSelectionFilter transportOrderSelectionFilter;
+  /**
+   * A collection of predicates for filtering assignment candidates.
+   */
+  private final CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter;
+  /**
+   * Checks whether a transport order may be assigned to any vehicle.
+   */
+  private final IsFreelyDispatchableToAnyVehicle isFreelyDispatchableToAnyVehicle;
+  /**
+   * Checks whether a vehicle is available for new transport orders.
+   */
+  private final IsAvailableForAnyOrder isAvailableForAnyOrder;
+  /**
+   * The dispatcher configuration.
+   */
+  private final DefaultDispatcherConfiguration configuration;
+  /**
+   * Provides the access points of locations.
+   */
+  private final AccessPointIndex accessPointIndex;
+  /**
+   * The transport orders currently reserved by this phase, mapped by vehicle, in the order in
+   * which the vehicle is supposed to process them.
+   */
+  private final Map<TCSObjectReference<Vehicle>, List<TCSObjectReference<TransportOrder>>> chains
+      = new HashMap<>();
+  /**
+   * Indicates whether this component is initialized.
+   */
+  private boolean initialized;
+
+  @Inject
+  public ChainFollowUpOrdersPhase(
+      TCSObjectService objectService,
+      Router router,
+      OrderReservationPool orderReservationPool,
+      CompositeTransportOrderSelectionFilter transportOrderSelectionFilter,
+      CompositeAssignmentCandidateSelectionFilter assignmentCandidateSelectionFilter,
+      IsFreelyDispatchableToAnyVehicle isFreelyDispatchableToAnyVehicle,
+      IsAvailableForAnyOrder isAvailableForAnyOrder,
+      DefaultDispatcherConfiguration configuration) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.router = requireNonNull(router, "router");
+    this.orderReservationPool = requireNonNull(orderReservationPool, "orderReservationPool");
+    this.transportOrderSelectionFilter = requireNonNull(transportOrderSelectionFilter,
+                                                        "transportOrderSelectionFilter");
+    this.assignmentCandidateSelectionFilter = requireNonNull(assignmentCandidateSelectionFilter,
+                                                             "assignmentCandidateSelectionFilter");
+    this.isFreelyDispatchableToAnyVehicle = requireNonNull(isFreelyDispatchableToAnyVehicle,
+                                                           "isFreelyDispatchableToAnyVehicle");
+    this.isAvailableForAnyOrder = requireNonNull(isAvailableForAnyOrder, "isAvailableForAnyOrder");
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.accessPointIndex = new AccessPointIndex(objectService);
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    accessPointIndex.clear();
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    chains.clear();
+
+    initialized = false;
+  }
+
+  @Override
+  public void run() {
+    Map<TCSObjectReference<Vehicle>, List<TCSObjectReference<TransportOrder>>> previousChains
+        = releaseChains();
+
+    if (configuration.followUpOrderChainLength() <= 0) {
+      return;
+    }
+
+    List<Vehicle> busyVehicles = objectService.fetchObjects(Vehicle.class, this::mayChainOrders)
+        .stream()
+        .sorted(Comparator.comparing(Vehicle::getName))
+        .collect(Collectors.toList());
+    if (busyVehicles.isEmpty()) {
+      return;
+    }
+
+    List<TransportOrder> orders = objectService.fetchObjects(TransportOrder.class,
+                                                             isFreelyDispatchableToAnyVehicle)
+        .stream()
+        .filter(order -> transportOrderSelectionFilter.apply(order).isEmpty())
+        .collect(Collectors.toList());
+    if (orders.isEmpty()) {
+      return;
+    }
+
+    ChainingState state = new ChainingState(orders, fetchAvailableVehicles());
+    for (Vehicle vehicle : busyVehicles) {
+      chainOrders(vehicle, state, previousChains.getOrDefault(vehicle.getReference(), List.of()));
+    }
+  }
+
+  /**
+   * Removes all reservations made by this phase that have not been used, yet.
+   *
+   * @return The released chains.
+   */
+  private Map<TCSObjectReference<Vehicle>, List<TCSObjectReference<TransportOrder>>>
+      releaseChains() {
+    Map<TCSObjectReference<Vehicle>, List<TCSObjectReference<TransportOrder>>> result
+        = new HashMap<>(chains);
+    for (Map.Entry<TCSObjectReference<Vehicle>, List<TCSObjectReference<TransportOrder>>> entry
+             : chains.entrySet()) {
+      List<TCSObjectReference<TransportOrder>> remainingReservations
+          = orderReservationPool.findReservations(entry.getKey());
+      entry.getValue().stream()
+          .filter(remainingReservations::contains)
+          .forEach(orderReservationPool::removeReservation);
+    }
+    chains.clear();
+    return result;
+  }
+
+  private void chainOrders(Vehicle vehicle,
+                           ChainingState state,
+                           List<TCSObjectReference<TransportOrder>> previousChain) {
+    TransportOrder currentOrder = objectService.fetchObject(TransportOrder.class,
+                                                            vehicle.getTransportOrder());
+    Point chainEnd = finalDestinationPoint(currentOrder.getAllDriveOrders());
+    if (chainEnd == null) {
+      return;
+    }
+    long chainCosts = remainingRoutingCosts(currentOrder);
+
+    List<TCSObjectReference<TransportOrder>> chain = new ArrayList<>();
+    while (chain.size() < configuration.followUpOrderChainLength()) {
+      Optional<AssignmentCandidate> bestCandidate
+          = bestCandidate(vehicle, chainEnd, chainCosts, state);
+      if (!bestCandidate.isPresent()) {
+        break;
+      }
+
+      AssignmentCandidate candidate = bestCandidate.get();
+      TransportOrder order = candidate.getTransportOrder();
+      if (!previousChain.contains(order.getReference())) {
+        LOG.debug("Reserving transport order '{}' as follow-up order for vehicle '{}'...",
+                  order.getName(),
+                  vehicle.getName());
+        objectService.appendObjectHistoryEntry(
+            order.getReference(),
+            new ObjectHistory.Entry(ORDER_RESERVED_FOR_VEHICLE, vehicle.getName())
+        );
+      }
+      orderReservationPool.addReservation(order.getReference(), vehicle.getReference());
+      chain.add(order.getReference());
+      state.chainedOrders.add(order);
+
+      chainEnd = finalDestinationPoint(candidate.getDriveOrders());
+      chainCosts = addCosts(chainCosts, candidate.getCompleteRoutingCosts());
+      if (chainEnd == null) {
+        break;
+      }
+    }
+
+    if (!chain.isEmpty()) {
+      chains.put(vehicle.getReference(), chain);
+    }
+  }
+
+  private Optional<AssignmentCandidate> bestCandidate(Vehicle vehicle,
+                                                      Point chainEnd,
+                                                      long chainCosts,
+                                                      ChainingState state) {
+    List<TransportOrder> orders = state.orders.stream()
+        .filter(order -> !state.chainedOrders.contains(order))
+        .filter(order -> orderAssignableToVehicle(order, vehicle))
+        .collect(Collectors.toList());
+    if (orders.isEmpty()) {
+      return Optional.empty();
+    }
+
+    Map<TransportOrder, Long> initialCosts = state.initialCosts(vehicle, chainEnd, orders);
+    // Compute complete routes lazily, starting with the order that is cheapest to reach, and stop
+    // with the first one that is accepted.
+    return orders.stream()
+        .filter(order -> initialCosts.get(order) < Long.MAX_VALUE)
+        .filter(order -> addCosts(chainCosts, initialCosts.get(order))
+        < state.availableVehicleCosts(order))
+        .sorted(Comparator.comparingLong(initialCosts::get))
+        .map(order -> computeCandidate(vehicle, chainEnd, order))
+        .filter(Optional::isPresent)
+        .map(Optional::get)
+        .filter(candidate -> assignmentCandidateSelectionFilter.apply(candidate).isEmpty())
+        .findFirst();
+  }
+
+  private Map<Vehicle, Point> fetchAvailableVehicles() {
+    Map<Vehicle, Point> result = new HashMap<>();
+    for (Vehicle vehicle : objectService.fetchObjects(Vehicle.class, isAvailableForAnyOrder)) {
+      result.put(vehicle, objectService.fetchObject(Point.class, vehicle.getCurrentPosition()));
+    }
+    return result;
+  }
+
+  /**
+   * Checks whether follow-up orders may be chained for the given vehicle.
+   * This is the case for vehicles that process a transport order that will not be withdrawn in
+   * favour of another one and that would be available for new transport orders afterwards.
+   *
+   * @param vehicle The vehicle.
+   * @return Whether follow-up orders may be chained for the given vehicle.
+   */
+  private boolean mayChainOrders(Vehicle vehicle) {
+    return vehicle.getIntegrationLevel() == Vehicle.IntegrationLevel.TO_BE_UTILIZED
+        && vehicle.hasProcState(Vehicle.ProcState.PROCESSING_ORDER)
+        && vehicle.getTransportOrder() != null
+        && vehicle.getOrderSequence() == null
+        && !vehicle.isEnergyLevelCritical()
+        && !vehicle.isEnergyLevelDegraded()
+        && !objectService.fetchObject(TransportOrder.class, vehicle.getTransportOrder())
+            .isDispensable()
+        && orderReservationPool.findReservations(vehicle.getReference()).isEmpty();
+  }
+
+  private Optional<AssignmentCandidate> computeCandidate(Vehicle vehicle,
+                                                         Point startPoint,
+                                                         TransportOrder order) {
+    return router.getRoute(vehicle, startPoint, order)
+        .map(driveOrders -> new AssignmentCandidate(vehicle, order, driveOrders));
+  }
+
+  private boolean orderAssignableToVehicle(TransportOrder order, Vehicle vehicle) {
+    return order.getIntendedVehicle() == null
+        || Objects.equals(order.getIntendedVehicle(), vehicle.getReference());
+  }
+
+  /**
+   * Returns the routing costs for the current and all future drive orders of the given transport
+   * order.
+   * The costs for the current drive order are included completely, as the part of its route that
+   * has already been travelled is not known here.
+   */
+  private long remainingRoutingCosts(TransportOrder order) {
+    long result = 0;
+    List<DriveOrder> driveOrders = new ArrayList<>();
+    if (order.getCurrentDriveOrder() != null) {
+      driveOrders.add(order.getCurrentDriveOrder());
+    }
+    driveOrders.addAll(order.getFutureDriveOrders());
+    for (DriveOrder driveOrder : driveOrders) {
+      if (driveOrder.getRoute() != null) {
+        result = addCosts(result, driveOrder.getRoute().getCosts());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the points at which the given transport order's first drive order may be finished.
+   */
+  private Set<Point> firstDestinationPoints(TransportOrder order) {
+    if (order.getFutureDriveOrders().isEmpty()) {
+      return Set.of();
+    }
+
+    DriveOrder.Destination dest = order.getFutureDriveOrders().get(0).getDestination();
+    if (dest.getDestination().getReferentClass() == Point.class) {
+      Point point = objectService.fetchObject(Point.class, dest.getDestination().getName());
+      return point != null && point.isHaltingPosition() ? Set.of(point) : Set.of();
+    }
+    else if (dest.getDestination().getReferentClass() == Location.class) {
+      @SuppressWarnings("unchecked")
+      TCSObjectReference<Location> locationRef
+          = (TCSObjectReference<Location>) dest.getDestination();
+      return accessPointIndex.getAccessPoints(locationRef, dest.getOperation());
+    }
+    else {
+      return Set.of();
+    }
+  }
+
+  @Nullable
+  private Point finalDestinationPoint(List<DriveOrder> driveOrders) {
+    if (driveOrders.isEmpty()) {
+      return null;
+    }
+    DriveOrder lastDriveOrder = driveOrders.get(driveOrders.size() - 1);
+    return lastDriveOrder.getRoute() == null
+        ? null
+        : lastDriveOrder.getRoute().getFinalDestinationPoint();
+  }
+
+  private static long addCosts(long costs1, long costs2) {
+    long result = costs1 + costs2;
+    return result < 0 ? Long.MAX_VALUE : result;
+  }
+
+  /**
+   * The state of a single chaining run.
+   */
+  private class ChainingState {
+
+    /**
+     * The transport orders that may be chained.
+     */
+    private final List<TransportOrder> orders;
+    /**
+     * The vehicles available for new transport orders, mapped to their current positions.
+     */
+    private final Map<Vehicle, Point> availableVehicles;
+    /**
+     * The transport orders that have already been chained in this run.
+     */
+    private final Set<TransportOrder> chainedOrders = new HashSet<>();
+    /**
+     * The points at which a transport order's first drive order may be finished, mapped by
+     * transport order.
+     */
+    private final Map<TransportOrder, Set<Point>> firstDestinationPoints = new HashMap<>();
+    /**
+     * The least routing costs with which any available vehicle reaches a transport order's first
+     * destination, mapped by transport order, or <code>null</code>, if not computed, yet.
+     */
+    private Map<TransportOrder, Long> availableVehicleCosts;
+
+    ChainingState(List<TransportOrder> orders, Map<Vehicle, Point> availableVehicles) {
+      this.orders = orders;
+      this.availableVehicles = availableVehicles;
+    }
+
+    long availableVehicleCosts(TransportOrder order) {
+      if (availableVehicleCosts == null) {
+        availableVehicleCosts = new HashMap<>();
+        for (Map.Entry<Vehicle, Point> entry : availableVehicles.entrySet()) {
+          List<TransportOrder> assignableOrders = orders.stream()
+              .filter(o -> orderAssignableToVehicle(o, entry.getKey()))
+              .collect(Collectors.toList());
+          initialCosts(entry.getKey(), entry.getValue(), assignableOrders)
+              .forEach((o, costs) -> availableVehicleCosts.merge(o, costs, Math::min));
+        }
+      }
+      return availableVehicleCosts.getOrDefault(order, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns the least routing costs with which the given vehicle reaches the first destinations
+     * of the given transport orders from the given point, computed in a single pass.
+     *
+     * @return The costs, mapped by transport order, or <code>Long.MAX_VALUE</code>, if a
+     * transport order's first destination cannot be reached.
+     */
+    Map<TransportOrder, Long> initialCosts(Vehicle vehicle,
+                                           Point sourcePoint,
+                                           Collection<TransportOrder> transportOrders) {
+      Set<Point> destinationPoints = new HashSet<>();
+      for (TransportOrder order : transportOrders) {
+        destinationPoints.addAll(destinationPoints(order));
+      }
+      Map<Point, Long> costsByPoint = destinationPoints.isEmpty()
+          ? Map.of()
+          : router.getCosts(vehicle, Set.of(sourcePoint), destinationPoints)
+              .getOrDefault(sourcePoint, Map.of());
+
+      Map<TransportOrder, Long> result = new HashMap<>();
+      for (TransportOrder order : transportOrders) {
+        result.put(order,
+                   destinationPoints(order).stream()
+                       .mapToLong(point -> costsByPoint.getOrDefault(point, Long.MAX_VALUE))
+                       .min()
+                       .orElse(Long.MAX_VALUE));
+      }
+      return result;
+    }
+
+    private Set<Point> destinationPoints(TransportOrder order) {
+      return firstDestinationPoints.computeIfAbsent(order, o -> firstDestinationPoints(o));
+    }
+  }
+}
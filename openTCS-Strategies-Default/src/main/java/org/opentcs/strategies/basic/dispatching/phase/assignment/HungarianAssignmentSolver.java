@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.Arrays;
+import static java.util.Objects.requireNonNull;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Solves the (rectangular) assignment problem with the Hungarian algorithm.
+ * <p>
+ * For a cost matrix with {@code n} rows and {@code m} columns, the solver assigns each row to a
+ * distinct column (if {@code n <= m}) or each column to a distinct row (if {@code n > m}) such that
+ * the total costs are minimal. The running time is in O(min(n, m)^2 * max(n, m)).
+ * </p>
+ */
+final class HungarianAssignmentSolver {
+
+  /**
+   * Indicates that a row has not been assigned to any column.
+   */
+  static final int UNASSIGNED = -1;
+
+  /**
+   * Prevents instantiation.
+   */
+  private HungarianAssignmentSolver() {
+  }
+
+  /**
+   * Computes an assignment of rows to columns with minimal total costs.
+   *
+   * @param costs The cost matrix, indexed by row and column. All rows must have the same length and
+   * all costs must be non-negative.
+   * @return For each row, the index of the column it is assigned to, or {@link #UNASSIGNED}, if
+   * there are more rows than columns and the row is not assigned.
+   */
+  static int[] solve(long[][] costs) {
+    requireNonNull(costs, "costs");
+    if (costs.length == 0 || costs[0].length == 0) {
+      int[] result = new int[costs.length];
+      Arrays.fill(result, UNASSIGNED);
+      return result;
+    }
+
+    int rowCount = costs.length;
+    int columnCount = costs[0].length;
+    for (long[] row : costs) {
+      checkArgument(row.length == columnCount, "Rows of the cost matrix differ in length");
+    }
+
+    if (rowCount <= columnCount) {
+      return solveForRows(costs, rowCount, columnCount);
+    }
+
+    // Assign the columns to the rows instead and invert the result.
+    long[][] transposed = new long[columnCount][rowCount];
+    for (int row = 0; row < rowCount; row++) {
+      for (int column = 0; column < columnCount; column++) {
+        transposed[column][row] = costs[row][column];
+      }
+    }
+    int[] rowsByColumn = solveForRows(transposed, columnCount, rowCount);
+    int[] result = new int[rowCount];
+    Arrays.fill(result, UNASSIGNED);
+    for (int column = 0; column < columnCount; column++) {
+      result[rowsByColumn[column]] = column;
+    }
+    return result;
+  }
+
+  /**
+   * Assigns every row to a distinct column, using potentials and shortest augmenting paths.
+   * Requires {@code rowCount <= columnCount}.
+   */
+  private static int[] solveForRows(long[][] costs, int rowCount, int columnCount) {
+    // Potentials and the matching use 1-based indices, with column 0 as a virtual column.
+    long[] rowPotentials = new long[rowCount + 1];
+    long[] columnPotentials = new long[columnCount + 1];
+    int[] rowByColumn = new int[columnCount + 1];
+    int[] predecessorColumns = new int[columnCount + 1];
+    long[] minSlacks = new long[columnCount + 1];
+    boolean[] visitedColumns = new boolean[columnCount + 1];
+
+    for (int row = 1; row <= rowCount; row++) {
+      rowByColumn[0] = row;
+      int curColumn = 0;
+      Arrays.fill(minSlacks, Long.MAX_VALUE);
+      Arrays.fill(visitedColumns, false);
+
+      do {
+        visitedColumns[curColumn] = true;
+        int curRow = rowByColumn[curColumn];
+        long delta = Long.MAX_VALUE;
+        int nextColumn = 0;
+        for (int column = 1; column <= columnCount; column++) {
+          if (visitedColumns[column]) {
+            continue;
+          }
+          long slack = costs[curRow - 1][column - 1]
+              - rowPotentials[curRow]
+              - columnPotentials[column];
+          if (slack < minSlacks[column]) {
+            minSlacks[column] = slack;
+            predecessorColumns[column] = curColumn;
+          }
+          if (minSlacks[column] < delta) {
+            delta = minSlacks[column];
+            nextColumn = column;
+          }
+        }
+        for (int column = 0; column <= columnCount; column++) {
+          if (visitedColumns[column]) {
+            rowPotentials[rowByColumn[column]] += delta;
+            columnPotentials[column] -= delta;
+          }
+          else {
+            minSlacks[column] -= delta;
+          }
+        }
+        curColumn = nextColumn;
+      }
+      while (rowByColumn[curColumn] != 0);
+
+      // Augment along the path found.
+      do {
+        int prevColumn = predecessorColumns[curColumn];
+        rowByColumn[curColumn] = rowByColumn[prevColumn];
+        curColumn = prevColumn;
+      }
+      while (curColumn != 0);
+    }
+
+    int[] result = new int[rowCount];
+    Arrays.fill(result, UNASSIGNED);
+    for (int column = 1; column <= columnCount; column++) {
+      if (rowByColumn[column] != 0) {
+        result[rowByColumn[column] - 1] = column - 1;
+      }
+    }
+    return result;
+  }
+}
@@ -8,7 +8,6 @@
 package org.opentcs.strategies.basic.dispatching.phase.parking;
 
 import java.util.Collections;
-import java.util.Comparator;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -126,11 +125,9 @@ public abstract class AbstractParkingPositionSupplier
 
     Point vehiclePos = plantModelService.fetchObject(Point.class, vehicle.getCurrentPosition());
 
-    return points.stream()
-        .map(point -> parkingPositionCandidate(vehicle, vehiclePos, point))
-        .filter(candidate -> candidate.costs < Long.MAX_VALUE)
-        .min(Comparator.comparingLong(candidate -> candidate.costs))
-        .map(candidate -> candidate.point)
+    // Only the closest point is of interest, so let the router stop searching once it is found.
+    return router.getCostsToClosest(vehicle, vehiclePos, points, 1).keySet().stream()
+        .findAny()
         .orElse(null);
   }
 
@@ -182,21 +179,4 @@ public abstract class AbstractParkingPositionSupplier
     }
     return false;
   }
-
-  private PointCandidate parkingPositionCandidate(Vehicle vehicle,
-                                                  Point srcPosition,
-                                                  Point destPosition) {
-    return new PointCandidate(destPosition, router.getCosts(vehicle, srcPosition, destPosition));
-  }
-
-  private static class PointCandidate {
-
-    private final Point point;
-    private final long costs;
-
-    PointCandidate(Point point, long costs) {
-      this.point = point;
-      this.costs = costs;
-    }
-  }
 }
@@ -25,10 +25,10 @@ import static org.opentcs.components.kernel.Dispatcher.PROPKEY_PREFERRED_RECHARG
 import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.services.InternalPlantModelService;
 import org.opentcs.data.model.Location;
-import org.opentcs.data.model.LocationType;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.DriveOrder;
+import org.opentcs.strategies.basic.routing.AccessPointIndex;
 
 /**
  * Finds assigned, preferred or (routing-wise) cheapest recharge locations for vehicles.
@@ -44,6 +44,10 @@ public class DefaultRechargePositionSupplier
    * Our router.
    */
   private final Router router;
+  /**
+   * Provides the access points of locations.
+   */
+  private final AccessPointIndex accessPointIndex;
   /**
    * Indicates whether this component is enabled.
    */
@@ -60,6 +64,7 @@ public class DefaultRechargePositionSupplier
                                          Router router) {
     this.plantModelService = requireNonNull(plantModelService, "plantModelService");
     this.router = requireNonNull(router, "router");
+    this.accessPointIndex = new AccessPointIndex(plantModelService);
   }
 
   @Override
@@ -68,6 +73,8 @@ public class DefaultRechargePositionSupplier
       return;
     }
 
+    accessPointIndex.clear();
+
     initialized = true;
   }
 
@@ -131,8 +138,15 @@ public class DefaultRechargePositionSupplier
   private Location findCheapestLocation(Map<Location, Set<Point>> locations, Vehicle vehicle) {
     Point curPos = plantModelService.fetchObject(Point.class, vehicle.getCurrentPosition());
 
+    // Only the closest access point of all locations is of interest, so let the router stop
+    // searching once it is found.
+    Set<Point> accessPoints = locations.values().stream()
+        .flatMap(points -> points.stream())
+        .collect(Collectors.toSet());
+    Map<Point, Long> costs = router.getCostsToClosest(vehicle, curPos, accessPoints, 1);
+
     return locations.entrySet().stream()
-        .map(entry -> bestAccessPointCandidate(vehicle, curPos, entry.getKey(), entry.getValue()))
+        .map(entry -> bestAccessPointCandidate(entry.getKey(), entry.getValue(), costs))
         .filter(candidate -> candidate.isPresent())
         .map(candidate -> candidate.get())
         .min(Comparator.comparingLong(candidate -> candidate.costs))
@@ -168,59 +182,25 @@ public class DefaultRechargePositionSupplier
                                                               Set<Point> targetedPoints) {
     Map<Location, Set<Point>> result = new HashMap<>();
 
-    for (Location curLoc : plantModelService.fetchObjects(Location.class)) {
-      LocationType lType = plantModelService.fetchObject(LocationType.class, curLoc.getType());
-      if (lType.isAllowedOperation(operation)) {
-        Set<Point> points = findUnoccupiedAccessPointsForOperation(curLoc,
-                                                                   operation,
-                                                                   vehicle,
-                                                                   targetedPoints);
-        if (!points.isEmpty()) {
-          result.put(curLoc, points);
-        }
+    for (Map.Entry<Location, Set<Point>> entry
+             : accessPointIndex.getLocationsAllowingOperation(operation).entrySet()) {
+      Set<Point> points = entry.getValue().stream()
+          .filter(accessPoint -> isPointUnoccupiedFor(accessPoint, vehicle, targetedPoints))
+          .collect(Collectors.toSet());
+      if (!points.isEmpty()) {
+        result.put(entry.getKey(), points);
       }
     }
 
     return result;
   }
 
-  private Set<Point> findUnoccupiedAccessPointsForOperation(Location location,
-                                                            String rechargeOp,
-                                                            Vehicle vehicle,
-                                                            Set<Point> targetedPoints) {
-    return location.getAttachedLinks().stream()
-        .filter(link -> allowsOperation(link, rechargeOp))
-        .map(link -> plantModelService.fetchObject(Point.class, link.getPoint()))
-        .filter(accessPoint -> isPointUnoccupiedFor(accessPoint, vehicle, targetedPoints))
-        .collect(Collectors.toSet());
-  }
-
-  /**
-   * Checks if the given link either does not define any allowed operations at all (meaning it does
-   * not override the allowed operations of the corresponding location's location type), or - if it
-   * does - explicitly allows the required recharge operation.
-   *
-   * @param link The link to be checked.
-   * @param operation The operation to be checked for.
-   * @return <code>true</code> if, and only if, the given link does not disallow the given
-   * operation.
-   */
-  private boolean allowsOperation(Location.Link link, String operation) {
-    // This link is only interesting if it either does not define any allowed operations (does
-    // not override the allowed operations of the corresponding location) at all or, if it does,
-    // allows the required recharge operation.
-    return link.getAllowedOperations().isEmpty() || link.hasAllowedOperation(operation);
-  }
-
-  private Optional<LocationCandidate> bestAccessPointCandidate(Vehicle vehicle,
-                                                               Point srcPosition,
-                                                               Location location,
-                                                               Set<Point> destPositions) {
+  private Optional<LocationCandidate> bestAccessPointCandidate(Location location,
+                                                               Set<Point> destPositions,
+                                                               Map<Point, Long> costs) {
     return destPositions.stream()
         .map(point -> new LocationCandidate(location,
-                                            router.getCostsByPointRef(vehicle,
-                                                                      srcPosition.getReference(),
-                                                                      point.getReference())))
+                                            costs.getOrDefault(point, Long.MAX_VALUE)))
         .min(Comparator.comparingLong(candidate -> candidate.costs));
   }
 
@@ -27,6 +27,7 @@ import org.opentcs.data.order.TransportOrder;
 import org.opentcs.data.peripherals.PeripheralJob;
 import org.opentcs.drivers.peripherals.PeripheralControllerPool;
 import org.opentcs.drivers.peripherals.PeripheralJobCallback;
+import org.opentcs.strategies.basic.dispatching.CoalescingDispatchScheduler;
 import static org.opentcs.util.Assertions.checkArgument;
 import org.opentcs.util.event.EventSource;
 import org.slf4j.Logger;
@@ -79,6 +80,10 @@ public class DefaultPeripheralJobDispatcher
    * The peripheral job dispatcher's configuration.
    */
   private final DefaultPeripheralJobDispatcherConfiguration configuration;
+  /**
+   * Schedules runs of the full dispatch task.
+   */
+  private final CoalescingDispatchScheduler dispatchScheduler;
   /**
    * The future for the periodic dispatch task.
    */
@@ -128,6 +133,11 @@ public class DefaultPeripheralJobDispatcher
     this.implicitDispatchTriggerProvider = requireNonNull(implicitDispatchTriggerProvider,
                                                           "implicitDispatchTriggerProvider");
     this.configuration = requireNonNull(configuration, "configuration");
+    this.dispatchScheduler = new CoalescingDispatchScheduler(
+        kernelExecutor,
+        fullDispatchTask,
+        configuration.minimumDispatchInterval()
+    );
   }
 
   @Override
@@ -168,6 +178,7 @@ public class DefaultPeripheralJobDispatcher
     eventSource.unsubscribe(implicitDispatchTrigger);
     implicitDispatchTrigger = null;
 
+    dispatchScheduler.cancel();
     fullDispatchTask.terminate();
 
     initialized = false;
@@ -180,8 +191,7 @@ public class DefaultPeripheralJobDispatcher
 
   @Override
   public void dispatch() {
-    LOG.debug("Scheduling dispatch task...");
-    kernelExecutor.submit(fullDispatchTask);
+    dispatchScheduler.requestRun();
   }
 
   @Override
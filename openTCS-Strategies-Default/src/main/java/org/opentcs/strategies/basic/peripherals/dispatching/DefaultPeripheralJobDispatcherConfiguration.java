@@ -26,4 +26,13 @@ public interface DefaultPeripheralJobDispatcherConfiguration {
       description = "The interval between redispatching of peripheral devices.",
       orderKey = "9_misc")
   long idlePeripheralRedispatchingInterval();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The minimum time (in ms) between the starts of two consecutive dispatch runs.",
+        "Requests for dispatch runs arriving in the meantime are merged into a single run."
+      },
+      orderKey = "9_misc")
+  long minimumDispatchInterval();
 }
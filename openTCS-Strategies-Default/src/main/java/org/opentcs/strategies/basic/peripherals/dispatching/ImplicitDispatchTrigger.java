@@ -57,7 +57,7 @@ public class ImplicitDispatchTrigger
   private void checkTransportOrderChange(TransportOrder oldOrder, TransportOrder newOrder) {
     if (newOrder.getState() != oldOrder.getState()
         && newOrder.getState() == TransportOrder.State.FAILED) {
-      LOG.debug("Dispatching for {}...", newOrder);
+      LOG.debug("Dispatching for {} (transport order failed)...", newOrder.getName());
       dispatcher.dispatch();
     }
   }
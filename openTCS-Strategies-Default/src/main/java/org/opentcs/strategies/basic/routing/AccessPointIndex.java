@@ -0,0 +1,169 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.order.DriveOrder.Destination;
+
+/**
+ * Provides the points at which vehicles may execute operations at locations.
+ * <p>
+ * The access points are derived from the plant model once per location and operation and kept
+ * until {@link #clear()} is called, so resolving them repeatedly only requires map lookups instead
+ * of fetching locations, location types and points again.
+ * </p>
+ */
+public class AccessPointIndex {
+
+  /**
+   * The object service.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * The indexed locations, mapped by location name.
+   */
+  private final Map<String, LocationEntry> locationEntries = new ConcurrentHashMap<>();
+  /**
+   * The locations whose types allow an operation and their access points for it, mapped by
+   * operation.
+   */
+  private final Map<String, Map<Location, Set<Point>>> locationsByOperation
+      = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service.
+   */
+  public AccessPointIndex(@Nonnull TCSObjectService objectService) {
+    this.objectService = requireNonNull(objectService, "objectService");
+  }
+
+  /**
+   * Returns the halting points at which a vehicle may execute the given operation at the given
+   * location.
+   * <p>
+   * A point linked to the location is an access point for the operation if any of the following
+   * conditions are true:
+   * </p>
+   * <ul>
+   * <li>The operation is {@link Destination#OP_NOP}, which is allowed everywhere.</li>
+   * <li>The operation is explicitly allowed with the link.</li>
+   * <li>The link's set of allowed operations is empty and the operation is allowed with the
+   * location's type.</li>
+   * </ul>
+   *
+   * @param location A reference to the location.
+   * @param operation The operation.
+   * @return The access points. May be empty, but never <code>null</code>.
+   */
+  @Nonnull
+  public Set<Point> getAccessPoints(@Nonnull TCSObjectReference<Location> location,
+                                    @Nonnull String operation) {
+    requireNonNull(location, "location");
+    requireNonNull(operation, "operation");
+
+    return locationEntries
+        .computeIfAbsent(location.getName(), this::createLocationEntry)
+        .getAccessPoints(operation);
+  }
+
+  /**
+   * Returns all locations whose types allow the given operation, along with their access points
+   * for the operation.
+   * Locations without any access points for the operation are not included.
+   *
+   * @param operation The operation.
+   * @return The locations and their access points.
+   */
+  @Nonnull
+  public Map<Location, Set<Point>> getLocationsAllowingOperation(@Nonnull String operation) {
+    requireNonNull(operation, "operation");
+
+    return locationsByOperation.computeIfAbsent(operation, this::collectLocations);
+  }
+
+  /**
+   * Discards all indexed data, e.g. after the plant model has changed.
+   */
+  public void clear() {
+    locationEntries.clear();
+    locationsByOperation.clear();
+  }
+
+  private Map<Location, Set<Point>> collectLocations(String operation) {
+    Map<Location, Set<Point>> result = new HashMap<>();
+    for (Location location : objectService.fetchObjects(Location.class)) {
+      LocationEntry entry = locationEntries.computeIfAbsent(location.getName(),
+                                                            name -> new LocationEntry(location));
+      if (entry.locationType.isAllowedOperation(operation)) {
+        Set<Point> accessPoints = entry.getAccessPoints(operation);
+        if (!accessPoints.isEmpty()) {
+          result.put(entry.location, accessPoints);
+        }
+      }
+    }
+    return Collections.unmodifiableMap(result);
+  }
+
+  private LocationEntry createLocationEntry(String locationName) {
+    Location location = objectService.fetchObject(Location.class, locationName);
+    requireNonNull(location, "location");
+    return new LocationEntry(location);
+  }
+
+  /**
+   * The indexed data for a single location.
+   */
+  private class LocationEntry {
+
+    private final Location location;
+    private final LocationType locationType;
+    private final Map<Location.Link, Point> linkedPoints = new HashMap<>();
+    private final Map<String, Set<Point>> accessPointsByOperation = new ConcurrentHashMap<>();
+
+    LocationEntry(Location location) {
+      this.location = location;
+      this.locationType = objectService.fetchObject(LocationType.class, location.getType());
+      for (Location.Link link : location.getAttachedLinks()) {
+        linkedPoints.put(link, objectService.fetchObject(Point.class, link.getPoint()));
+      }
+    }
+
+    Set<Point> getAccessPoints(String operation) {
+      return accessPointsByOperation.computeIfAbsent(operation, this::collectAccessPoints);
+    }
+
+    private Set<Point> collectAccessPoints(String operation) {
+      Set<Point> result = new HashSet<>();
+      for (Map.Entry<Location.Link, Point> entry : linkedPoints.entrySet()) {
+        Location.Link link = entry.getKey();
+        if ((Destination.OP_NOP.equals(operation)
+             || link.hasAllowedOperation(operation)
+             || (link.getAllowedOperations().isEmpty()
+                 && locationType.isAllowedOperation(operation)))
+            && entry.getValue().isHaltingPosition()) {
+          result.add(entry.getValue());
+        }
+      }
+      return Collections.unmodifiableSet(result);
+    }
+  }
+}
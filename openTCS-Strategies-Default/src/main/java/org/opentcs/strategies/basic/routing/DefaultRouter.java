@@ -9,6 +9,8 @@ package org.opentcs.strategies.basic.routing;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -17,14 +19,23 @@ import java.util.Objects;
 import static java.util.Objects.requireNonNull;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.routing.GroupMapper;
 import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Location;
-import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.DriveOrder;
@@ -32,11 +43,37 @@ import org.opentcs.data.order.DriveOrder.Destination;
 import org.opentcs.data.order.Route;
 import org.opentcs.data.order.TransportOrder;
 import static org.opentcs.strategies.basic.routing.PointRouter.INFINITE_COSTS;
+import org.opentcs.strategies.basic.routing.edgeevaluator.EdgeEvaluatorCongestion;
+import org.opentcs.util.logging.UncaughtExceptionLogger;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A basic {@link Router} implementation.
+ * <p>
+ * Point routers for all routing groups are computed in parallel on a dedicated thread pool. When
+ * the topology changes, the previous point routers keep serving concurrent routing requests until
+ * the new ones have been computed; {@link #topologyChanged()} returns only after they have been
+ * replaced.
+ * </p>
+ * <p>
+ * The point routers and selected routes are kept in immutable snapshots, so routing queries may
+ * be executed concurrently without any locking.
+ * </p>
+ * <p>
+ * If the {@link EdgeEvaluatorCongestion congestion edge evaluator} is enabled, the occupancy of
+ * resources is checked periodically, and the costs of only the affected paths are re-evaluated in
+ * the background. The point routers of the routing groups then include the resources occupied by
+ * all vehicles. As the resources occupied by the vehicle being routed do not obstruct the vehicle
+ * itself, their penalties are excluded per routing query, by searching a view on the point
+ * router's graph with the respective weights reduced. Routes computed this way are not cached.
+ * </p>
+ * <p>
+ * Computed routes are kept in a bounded {@link RouteCache} shared by all routing queries. Cached
+ * routes are discarded when the point routers are replaced after a topology change. After a
+ * re-evaluation of path costs, only the cached routes containing any of the affected paths or no
+ * longer being the cheapest ones are discarded.
+ * </p>
  */
 public class DefaultRouter
     implements Router {
@@ -62,13 +99,40 @@ public class DefaultRouter
    */
   private final GroupMapper routingGroupMapper;
   /**
-   * The routes selected for each vehicle.
+   * Penalizes paths by the occupancy of resources.
    */
-  private final Map<Vehicle, List<DriveOrder>> routesByVehicle = new ConcurrentHashMap<>();
+  private final EdgeEvaluatorCongestion congestionEvaluator;
   /**
-   * The point routers by vehicle routing group.
+   * The kernel's executor, used for periodically checking the occupancy of resources.
    */
-  private final Map<String, PointRouter> pointRoutersByVehicleGroup = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService kernelExecutor;
+  /**
+   * The current routing state.
+   * Routing queries work on the snapshot they find here and do not need to acquire any locks.
+   * Modifications replace the snapshot atomically.
+   */
+  private final AtomicReference<RouterState> state = new AtomicReference<>(RouterState.EMPTY);
+  /**
+   * Caches computed routes.
+   */
+  private final RouteCache routeCache;
+  /**
+   * Provides the access points of locations.
+   */
+  private final AccessPointIndex accessPointIndex;
+  /**
+   * Computes point routers for the routing groups in parallel.
+   */
+  private ExecutorService pointRouterExecutor;
+  /**
+   * The task periodically checking the occupancy of resources.
+   */
+  private ScheduledFuture<?> congestionRefreshFuture;
+  /**
+   * The re-evaluation of path costs currently in progress, if any.
+   * Only accessed by the kernel executor.
+   */
+  private CompletableFuture<Void> pendingCostUpdate = CompletableFuture.completedFuture(null);
   /**
    * Indicates whether this component is enabled.
    */
@@ -80,17 +144,25 @@ public class DefaultRouter
    * @param objectService The object service providing the model data.
    * @param pointRouterFactory A factory for point routers.
    * @param routingGroupMapper Used to map vehicles to their routing groups.
+   * @param congestionEvaluator Penalizes paths by the occupancy of resources.
+   * @param kernelExecutor The kernel's executor.
    * @param configuration This class's configuration.
    */
   @Inject
   public DefaultRouter(TCSObjectService objectService,
                        PointRouterFactory pointRouterFactory,
                        GroupMapper routingGroupMapper,
+                       EdgeEvaluatorCongestion congestionEvaluator,
+                       @KernelExecutor ScheduledExecutorService kernelExecutor,
                        DefaultRouterConfiguration configuration) {
     this.objectService = requireNonNull(objectService, "objectService");
     this.pointRouterFactory = requireNonNull(pointRouterFactory, "pointRouterFactory");
     this.routingGroupMapper = requireNonNull(routingGroupMapper, "routingGroupMapper");
+    this.congestionEvaluator = requireNonNull(congestionEvaluator, "congestionEvaluator");
+    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
     this.configuration = requireNonNull(configuration, "configuration");
+    this.routeCache = new RouteCache(configuration.routeCacheCapacity());
+    this.accessPointIndex = new AccessPointIndex(objectService);
   }
 
   @Override
@@ -100,8 +172,21 @@ public class DefaultRouter
     }
 
     synchronized (this) {
-      routesByVehicle.clear();
-      topologyChanged();
+      pointRouterExecutor = createPointRouterExecutor();
+      // Wait for the point routers here so that the first routing requests don't have to compute
+      // them on demand.
+      Map<String, PointRouter> pointRouters = computePointRouters().join();
+      routeCache.clear();
+      accessPointIndex.clear();
+      state.set(RouterState.EMPTY.withPointRouters(pointRouters));
+      if (congestionEvaluator.isEnabled()) {
+        congestionRefreshFuture = kernelExecutor.scheduleWithFixedDelay(
+            this::updateCongestionCosts,
+            congestionEvaluator.getRefreshInterval(),
+            congestionEvaluator.getRefreshInterval(),
+            TimeUnit.MILLISECONDS
+        );
+      }
       initialized = true;
     }
   }
@@ -118,8 +203,16 @@ public class DefaultRouter
     }
 
     synchronized (this) {
-      routesByVehicle.clear();
-      pointRoutersByVehicleGroup.clear();
+      if (congestionRefreshFuture != null) {
+        congestionRefreshFuture.cancel(false);
+        congestionRefreshFuture = null;
+      }
+      pointRouterExecutor.shutdownNow();
+      pointRouterExecutor = null;
+      logRouteCacheStatistics();
+      routeCache.clear();
+      accessPointIndex.clear();
+      state.set(RouterState.EMPTY);
       initialized = false;
     }
   }
@@ -127,7 +220,22 @@ public class DefaultRouter
   @Override
   public void topologyChanged() {
     synchronized (this) {
-      pointRoutersByVehicleGroup.clear();
+      accessPointIndex.clear();
+      if (pointRouterExecutor == null) {
+        // Not initialized, yet - the point routers will be computed on initialization.
+        state.updateAndGet(curState -> curState.withPointRouters(Map.of()));
+        return;
+      }
+
+      // Compute the new point routers (in parallel) before returning, as callers expect routing
+      // requests to reflect the changed topology afterwards. Until they are available, routing
+      // requests from other threads are still served by the current ones.
+      Map<String, PointRouter> pointRouters = computePointRouters().join();
+      state.updateAndGet(curState -> curState.withPointRouters(pointRouters));
+      // Routes computed with the previous point routers are not returned any more, anyway, but
+      // they should not occupy the cache until they are evicted.
+      logRouteCacheStatistics();
+      routeCache.clear();
     }
   }
 
@@ -135,29 +243,18 @@ public class DefaultRouter
   public Set<Vehicle> checkRoutability(TransportOrder order) {
     requireNonNull(order, "order");
 
-    synchronized (this) {
-      Set<Vehicle> result = new HashSet<>();
-      List<DriveOrder> driveOrderList = order.getFutureDriveOrders();
-      DriveOrder[] driveOrders
-          = driveOrderList.toArray(new DriveOrder[driveOrderList.size()]);
-
-      // Since point routers get reset on topology changes, make sure there are point routers for
-      // all routing groups.
-      createMissingPointRouters();
-
-      for (Map.Entry<String, PointRouter> curEntry : pointRoutersByVehicleGroup.entrySet()) {
-        // Get all points at the first location at which a vehicle of the current
-        // type can execute the desired operation and check if an acceptable route
-        // originating in one of them exists.
-        for (Point curStartPoint : getDestinationPoints(driveOrders[0])) {
-          if (isRoutable(curStartPoint, driveOrders, 1, curEntry.getValue())) {
-            result.addAll(getVehiclesByRoutingGroup(curEntry.getKey()));
-            break;
-          }
-        }
+    Set<Vehicle> result = new HashSet<>();
+    List<Set<Point>> destinationPoints = new ArrayList<>();
+    for (DriveOrder driveOrder : order.getFutureDriveOrders()) {
+      destinationPoints.add(getDestinationPoints(driveOrder));
+    }
+
+    for (Map.Entry<String, Vehicle> curEntry : getVehiclesByDistinctRoutingGroup().entrySet()) {
+      if (isRoutable(destinationPoints, getPointRouterForVehicle(curEntry.getValue()))) {
+        result.addAll(getVehiclesByRoutingGroup(curEntry.getKey()));
       }
-      return result;
     }
+    return result;
   }
 
   @Override
@@ -168,17 +265,11 @@ public class DefaultRouter
     requireNonNull(sourcePoint, "sourcePoint");
     requireNonNull(transportOrder, "transportOrder");
 
-    synchronized (this) {
-      List<DriveOrder> driveOrderList = transportOrder.getFutureDriveOrders();
-      DriveOrder[] driveOrders = driveOrderList.toArray(new DriveOrder[driveOrderList.size()]);
-      PointRouter pointRouter = getPointRouterForVehicle(vehicle);
-      OrderRouteParameterStruct params = new OrderRouteParameterStruct(driveOrders, pointRouter);
-      OrderRouteResultStruct resultStruct = new OrderRouteResultStruct(driveOrderList.size());
-      computeCheapestOrderRoute(sourcePoint, params, 0, resultStruct);
-      return (resultStruct.bestCosts == Long.MAX_VALUE)
-          ? Optional.empty()
-          : Optional.of(Arrays.asList(resultStruct.bestRoute));
-    }
+    String routingGroup = routingGroupMapper.apply(vehicle);
+    return computeCheapestOrderRoute(sourcePoint,
+                                     transportOrder.getFutureDriveOrders(),
+                                     routingGroup,
+                                     getPointRouterForQuery(routingGroup, vehicle, sourcePoint));
   }
 
   @Override
@@ -189,20 +280,25 @@ public class DefaultRouter
     requireNonNull(sourcePoint, "sourcePoint");
     requireNonNull(destinationPoint, "destinationPoint");
 
-    synchronized (this) {
-      PointRouter pointRouter = getPointRouterForVehicle(vehicle);
-      long costs = pointRouter.getCosts(sourcePoint, destinationPoint);
-      if (costs == INFINITE_COSTS) {
-        return Optional.empty();
-      }
-      List<Route.Step> steps = pointRouter.getRouteSteps(sourcePoint, destinationPoint);
-      if (steps.isEmpty()) {
-        // If the list of steps is empty, we're already at the destination point
-        // Create a single step without a path.
-        steps.add(new Route.Step(null, null, sourcePoint, Vehicle.Orientation.UNDEFINED, 0));
+    String routingGroup = routingGroupMapper.apply(vehicle);
+    PointRouter pointRouter = getPointRouterForQuery(routingGroup, vehicle, sourcePoint);
+    boolean cacheable = isCacheable(routingGroup, pointRouter);
+    if (cacheable) {
+      Route cachedRoute = routeCache.get(routingGroup, pointRouter, sourcePoint, destinationPoint);
+      if (cachedRoute != null) {
+        return Optional.of(cachedRoute);
       }
-      return Optional.of(new Route(steps, costs));
     }
+
+    long costs = pointRouter.getCosts(sourcePoint, destinationPoint);
+    if (costs == INFINITE_COSTS) {
+      return Optional.empty();
+    }
+    Route route = createHopRoute(sourcePoint, destinationPoint, costs, pointRouter);
+    if (cacheable) {
+      routeCache.put(routingGroup, pointRouter, sourcePoint, destinationPoint, route);
+    }
+    return Optional.of(route);
   }
 
   @Override
@@ -213,9 +309,39 @@ public class DefaultRouter
     requireNonNull(sourcePoint, "sourcePoint");
     requireNonNull(destinationPoint, "destinationPoint");
 
-    synchronized (this) {
-      return getPointRouterForVehicle(vehicle).getCosts(sourcePoint, destinationPoint);
+    return getPointRouterForQuery(routingGroupMapper.apply(vehicle), vehicle, sourcePoint)
+        .getCosts(sourcePoint, destinationPoint);
+  }
+
+  @Override
+  public Map<Point, Map<Point, Long>> getCosts(Vehicle vehicle,
+                                               Set<Point> sourcePoints,
+                                               Set<Point> destinationPoints) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(sourcePoints, "sourcePoints");
+    requireNonNull(destinationPoints, "destinationPoints");
+
+    String routingGroup = routingGroupMapper.apply(vehicle);
+    Map<Point, Map<Point, Long>> result = new HashMap<>();
+    for (Point sourcePoint : sourcePoints) {
+      result.put(sourcePoint,
+                 getPointRouterForQuery(routingGroup, vehicle, sourcePoint)
+                     .getCosts(sourcePoint, destinationPoints));
     }
+    return result;
+  }
+
+  @Override
+  public Map<Point, Long> getCostsToClosest(Vehicle vehicle,
+                                            Point sourcePoint,
+                                            Set<Point> destinationPoints,
+                                            int maxCount) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(sourcePoint, "sourcePoint");
+    requireNonNull(destinationPoints, "destinationPoints");
+
+    return getPointRouterForQuery(routingGroupMapper.apply(vehicle), vehicle, sourcePoint)
+        .getCostsToClosest(sourcePoint, destinationPoints, maxCount);
   }
 
   @Override
@@ -226,184 +352,510 @@ public class DefaultRouter
     requireNonNull(srcPointRef, "srcPointRef");
     requireNonNull(dstPointRef, "dstPointRef");
 
-    synchronized (this) {
-      return getPointRouterForVehicle(vehicle).getCosts(srcPointRef, dstPointRef);
-    }
+    return getPointRouterForQuery(routingGroupMapper.apply(vehicle), vehicle, srcPointRef)
+        .getCosts(srcPointRef, dstPointRef);
   }
 
   @Override
   public void selectRoute(Vehicle vehicle, List<DriveOrder> driveOrders) {
     requireNonNull(vehicle, "vehicle");
 
-    synchronized (this) {
-      if (driveOrders == null) {
-        // XXX Should we remember the vehicle's current position, maybe?
-        routesByVehicle.remove(vehicle);
-      }
-      else {
-        routesByVehicle.put(vehicle, driveOrders);
-      }
-    }
+    // XXX Should we remember the vehicle's current position, maybe?
+    state.updateAndGet(curState -> curState.withSelectedRoute(vehicle, driveOrders));
   }
 
   @Override
   public Map<Vehicle, List<DriveOrder>> getSelectedRoutes() {
-    synchronized (this) {
-      return new HashMap<>(routesByVehicle);
-    }
+    return new HashMap<>(state.get().routesByVehicle);
   }
 
   @Override
   public Set<Point> getTargetedPoints() {
+    Set<Point> result = new HashSet<>();
+    for (List<DriveOrder> curOrderList : state.get().routesByVehicle.values()) {
+      DriveOrder finalOrder = curOrderList.get(curOrderList.size() - 1);
+      result.add(finalOrder.getRoute().getFinalDestinationPoint());
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This is the case if the {@link EdgeEvaluatorCongestion congestion edge evaluator} is enabled,
+   * as routing costs then depend on the current occupancy of resources.
+   * </p>
+   */
+  @Override
+  public boolean routesDependOnVehicleStates() {
+    return congestionEvaluator.isEnabled();
+  }
+
+  /**
+   * Returns the {@link PointRouter} for the given vehicle considering the vehicle's routing group.
+   * <p>
+   * Point routers for routing groups that were not known when the point routers were last computed
+   * are created on demand.
+   * If the {@link EdgeEvaluatorCongestion congestion edge evaluator} is enabled, the returned point
+   * router's costs include the resources occupied by the given vehicle itself.
+   * </p>
+   *
+   * @param vehicle The vehicle to get the point router for.
+   * @return The point router.
+   */
+  @Nonnull
+  public PointRouter getPointRouterForVehicle(@Nonnull Vehicle vehicle) {
+    requireNonNull(vehicle, "vehicle");
+
+    return getPointRouter(routingGroupMapper.apply(vehicle), vehicle);
+  }
+
+  /**
+   * Returns the {@link PointRouter} for the given routing group.
+   *
+   * @param routingGroup The routing group.
+   * @param vehicle A vehicle of the routing group, used for creating the point router on demand.
+   * @return The point router.
+   */
+  private PointRouter getPointRouter(String routingGroup, Vehicle vehicle) {
+    PointRouter pointRouter = state.get().pointRoutersByVehicleGroup.get(routingGroup);
+    if (pointRouter != null) {
+      return pointRouter;
+    }
+
+    PointRouter newPointRouter = pointRouterFactory.createPointRouter(vehicle);
+    // Another thread may have created a point router for the same routing group in the meantime.
+    // In that case, prefer the one already known.
+    return state.updateAndGet(
+        curState -> curState.pointRoutersByVehicleGroup.containsKey(routingGroup)
+        ? curState
+        : curState.withPointRouter(routingGroup, newPointRouter)
+    ).pointRoutersByVehicleGroup.get(routingGroup);
+  }
+
+  /**
+   * Returns the {@link PointRouter} to be used for routing the given vehicle from the given source
+   * point.
+   * <p>
+   * If the {@link EdgeEvaluatorCongestion congestion edge evaluator} is enabled and the vehicle
+   * occupies any resources, this is a point router with the penalties for these resources excluded.
+   * The penalty for the source point is ignored, as it only applies to edges leading back to the
+   * source point, which no shortest route starting there contains.
+   * </p>
+   *
+   * @param routingGroup The vehicle's routing group.
+   * @param vehicle The vehicle.
+   * @param sourcePoint The source point.
+   * @return The point router.
+   */
+  private PointRouter getPointRouterForQuery(String routingGroup,
+                                             Vehicle vehicle,
+                                             TCSObjectReference<Point> sourcePoint) {
+    PointRouter pointRouter = getPointRouter(routingGroup, vehicle);
+    if (!congestionEvaluator.isEnabled()) {
+      return pointRouter;
+    }
+
+    Map<String, Long> ownPenalties = new HashMap<>(congestionEvaluator.getOwnPenalties(vehicle));
+    ownPenalties.remove(sourcePoint.getName());
+    if (ownPenalties.isEmpty()) {
+      return pointRouter;
+    }
+    return pointRouter.withReducedWeights(
+        edge -> congestionEvaluator.computeOwnWeight(edge, ownPenalties)
+    );
+  }
+
+  private PointRouter getPointRouterForQuery(String routingGroup,
+                                             Vehicle vehicle,
+                                             Point sourcePoint) {
+    return getPointRouterForQuery(routingGroup, vehicle, sourcePoint.getReference());
+  }
+
+  /**
+   * Checks whether routes computed by the given point router may be cached, i.e. whether it is the
+   * current point router of the given routing group.
+   *
+   * @param routingGroup The routing group.
+   * @param pointRouter The point router.
+   * @return <code>true</code> if, and only if, routes computed by the given point router may be
+   * cached.
+   */
+  private boolean isCacheable(String routingGroup, PointRouter pointRouter) {
+    return routeCache.isEnabled()
+        && state.get().pointRoutersByVehicleGroup.get(routingGroup) == pointRouter;
+  }
+
+  /**
+   * Computes point routers for all routing groups in parallel.
+   *
+   * @return A future providing the computed point routers, mapped by routing group.
+   */
+  private CompletableFuture<Map<String, PointRouter>> computePointRouters() {
+    long timeStampBefore = System.currentTimeMillis();
+
+    Map<String, CompletableFuture<PointRouter>> futures = new HashMap<>();
+    getVehiclesByDistinctRoutingGroup().forEach(
+        (routingGroup, vehicle) -> futures.put(
+            routingGroup,
+            CompletableFuture.supplyAsync(() -> pointRouterFactory.createPointRouter(vehicle),
+                                          pointRouterExecutor)
+        )
+    );
+
+    return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+        .thenApply(v -> {
+          Map<String, PointRouter> result = new HashMap<>();
+          futures.forEach((routingGroup, future) -> result.put(routingGroup, future.join()));
+          LOG.debug("Computed point routers for {} routing group(s) in {} milliseconds.",
+                    result.size(),
+                    System.currentTimeMillis() - timeStampBefore);
+          return Collections.unmodifiableMap(result);
+        });
+  }
+
+  /**
+   * Updates the occupancy of resources and re-evaluates the costs of the affected paths in the
+   * background.
+   * <p>
+   * Does nothing while a previous re-evaluation is still in progress, as the re-evaluation is based
+   * on the current point routers and must not miss any previous changes.
+   * </p>
+   */
+  private void updateCongestionCosts() {
+    if (!pendingCostUpdate.isDone()) {
+      return;
+    }
+
+    // Gather the required data without holding this instance's lock, as doing so requires the
+    // global lock.
+    Set<String> changedResources = congestionEvaluator.updateOccupancy();
+    if (changedResources.isEmpty()) {
+      return;
+    }
+
+    Set<Path> affectedPaths = objectService.fetchObjects(
+        Path.class,
+        path -> changedResources.contains(path.getName())
+        || changedResources.contains(path.getSourcePoint().getName())
+        || changedResources.contains(path.getDestinationPoint().getName())
+    );
+    if (affectedPaths.isEmpty()) {
+      return;
+    }
+    Map<String, Vehicle> vehicles = getVehiclesByDistinctRoutingGroup();
+
     synchronized (this) {
-      Set<Point> result = new HashSet<>();
-      for (List<DriveOrder> curOrderList : routesByVehicle.values()) {
-        DriveOrder finalOrder = curOrderList.get(curOrderList.size() - 1);
-        result.add(finalOrder.getRoute().getFinalDestinationPoint());
+      if (pointRouterExecutor == null) {
+        return;
       }
-      return result;
+
+      Map<String, PointRouter> basePointRouters = state.get().pointRoutersByVehicleGroup;
+      pendingCostUpdate = updatePointRouters(basePointRouters, vehicles, affectedPaths)
+          .thenAccept(pointRouters -> replacePointRouters(basePointRouters, pointRouters))
+          .exceptionally(exc -> {
+            LOG.warn("Updating point routers failed, keeping previous ones.", exc);
+            return null;
+          });
     }
   }
 
-  private void createMissingPointRouters() {
-    Map<String, Vehicle> distinctRoutingGroups = new HashMap<>();
-    for (Vehicle vehicle : objectService.fetchObjects(Vehicle.class)) {
-      distinctRoutingGroups.putIfAbsent(routingGroupMapper.apply(vehicle), vehicle);
+  /**
+   * Re-evaluates the costs of the given paths for the given point routers in parallel.
+   *
+   * @param pointRouters The point routers, mapped by routing group.
+   * @param vehicles One vehicle for each routing group, mapped by routing group.
+   * @param paths The paths whose costs are to be re-evaluated.
+   * @return A future providing the updated point routers, mapped by routing group.
+   */
+  private CompletableFuture<Map<String, PointRouter>> updatePointRouters(
+      Map<String, PointRouter> pointRouters,
+      Map<String, Vehicle> vehicles,
+      Set<Path> paths) {
+    long timeStampBefore = System.currentTimeMillis();
+    Set<String> pathNames = new HashSet<>();
+    for (Path path : paths) {
+      pathNames.add(path.getName());
     }
 
-    // Lazily create point routers if they don't exist.
-    distinctRoutingGroups.forEach((routingGroup, vehicle) -> getPointRouterForVehicle(vehicle));
+    Map<String, CompletableFuture<PointRouter>> futures = new HashMap<>();
+    pointRouters.forEach((routingGroup, pointRouter) -> {
+      Vehicle vehicle = vehicles.get(routingGroup);
+      futures.put(
+          routingGroup,
+          vehicle == null
+              ? CompletableFuture.completedFuture(pointRouter)
+              : CompletableFuture.supplyAsync(
+                  () -> updatePointRouter(routingGroup, pointRouter, vehicle, paths, pathNames),
+                  pointRouterExecutor
+              )
+      );
+    });
+
+    return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]))
+        .thenApply(v -> {
+          Map<String, PointRouter> result = new HashMap<>();
+          futures.forEach((routingGroup, future) -> result.put(routingGroup, future.join()));
+          LOG.debug("Updated costs of {} path(s) for {} routing group(s) in {} milliseconds.",
+                    paths.size(),
+                    result.size(),
+                    System.currentTimeMillis() - timeStampBefore);
+          return Collections.unmodifiableMap(result);
+        });
   }
 
   /**
-   * Returns the {@link PointRouter} for the given vehicle considering the vehicle's routing group.
+   * Re-evaluates the costs of the given paths for the given point router and transfers the cached
+   * routes that are not affected to the updated point router.
    *
-   * @param vehicle The vehicle to get the point router for.
-   * @return The point router.
+   * @param routingGroup The routing group of the point router.
+   * @param pointRouter The point router.
+   * @param vehicle A vehicle of the routing group.
+   * @param paths The paths whose costs are to be re-evaluated.
+   * @param pathNames The names of the paths whose costs are to be re-evaluated.
+   * @return The updated point router.
    */
-  private PointRouter getPointRouterForVehicle(Vehicle vehicle) {
-    String routingGroup = routingGroupMapper.apply(vehicle);
-    if (!pointRoutersByVehicleGroup.containsKey(routingGroup)) {
-      pointRoutersByVehicleGroup.put(routingGroup,
-                                     pointRouterFactory.createPointRouter(vehicle));
+  private PointRouter updatePointRouter(String routingGroup,
+                                        PointRouter pointRouter,
+                                        Vehicle vehicle,
+                                        Set<Path> paths,
+                                        Set<String> pathNames) {
+    PointRouter updatedPointRouter = pointRouterFactory.updatePointRouter(pointRouter,
+                                                                          vehicle,
+                                                                          paths);
+    if (routeCache.isEnabled() && updatedPointRouter != pointRouter) {
+      int removedCount = routeCache.transfer(routingGroup,
+                                             pointRouter,
+                                             updatedPointRouter,
+                                             pathNames);
+      LOG.debug("Removed {} cached route(s) affected by updated costs for routing group '{}'.",
+                removedCount,
+                routingGroup);
+    }
+    return updatedPointRouter;
+  }
+
+  /**
+   * Replaces the current point routers with the given updated ones.
+   * <p>
+   * A current point router is only replaced if it is still the one the update was based on. If it
+   * has been replaced in the meantime, e.g. after a topology change, the updated one is outdated
+   * and discarded. Point routers created on demand in the meantime are kept.
+   * </p>
+   *
+   * @param basePointRouters The point routers the update was based on, mapped by routing group.
+   * @param pointRouters The updated point routers, mapped by routing group.
+   */
+  private void replacePointRouters(Map<String, PointRouter> basePointRouters,
+                                   Map<String, PointRouter> pointRouters) {
+    state.updateAndGet(curState -> {
+      Map<String, PointRouter> result = new HashMap<>(curState.pointRoutersByVehicleGroup);
+      pointRouters.forEach((routingGroup, pointRouter) -> {
+        if (result.get(routingGroup) == basePointRouters.get(routingGroup)) {
+          result.put(routingGroup, pointRouter);
+        }
+      });
+      return curState.withPointRouters(Collections.unmodifiableMap(result));
+    });
+  }
+
+  private void logRouteCacheStatistics() {
+    if (routeCache.isEnabled()) {
+      LOG.debug("Route cache: {} route(s) cached, {} hit(s), {} miss(es), hit rate {}.",
+                routeCache.getRouteCount(),
+                routeCache.getHitCount(),
+                routeCache.getMissCount(),
+                routeCache.getHitRate());
+    }
+  }
+
+  /**
+   * Returns one vehicle for each distinct routing group.
+   *
+   * @return One vehicle for each distinct routing group, mapped by routing group.
+   */
+  private Map<String, Vehicle> getVehiclesByDistinctRoutingGroup() {
+    Map<String, Vehicle> result = new HashMap<>();
+    for (Vehicle vehicle : objectService.fetchObjects(Vehicle.class)) {
+      result.putIfAbsent(routingGroupMapper.apply(vehicle), vehicle);
     }
+    return result;
+  }
 
-    return pointRoutersByVehicleGroup.get(routingGroup);
+  private ExecutorService createPointRouterExecutor() {
+    AtomicInteger threadCount = new AtomicInteger();
+    return Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(),
+        runnable -> {
+          Thread thread = new Thread(runnable,
+                                     "pointRouterComputation-" + threadCount.incrementAndGet());
+          thread.setDaemon(true);
+          thread.setUncaughtExceptionHandler(new UncaughtExceptionLogger(false));
+          return thread;
+        }
+    );
   }
 
   /**
-   * Checks if a route exists for a vehicle of a given type which allows the
-   * vehicle to process a given list of drive orders.
+   * Checks if a route exists which allows a vehicle to process a list of drive orders.
+   * <p>
+   * Starting with the first drive order's destination points, this determines the destination
+   * points of every subsequent drive order that are reachable from any of the previous drive
+   * order's reachable ones.
+   * </p>
    *
-   * @param startPoint The point at which the route is supposed to start.
-   * @param driveOrders The list of drive orders, in the order they are to be
-   * processed.
-   * @param nextHopIndex The index of the next drive order in the list.
+   * @param destinationPoints The acceptable destination points for each drive order, in the order
+   * the drive orders are to be processed.
    * @param pointRouter The point router to use.
-   * @return <code>true</code> if, and only if, at least one route exists which
-   * would allow a vehicle of the given type to process the whole list of drive
-   * orders.
-   */
-  private boolean isRoutable(Point startPoint,
-                             DriveOrder[] driveOrders,
-                             int nextHopIndex,
-                             PointRouter pointRouter) {
-    assert startPoint != null;
-    assert driveOrders != null;
+   * @return <code>true</code> if, and only if, at least one route exists which would allow a
+   * vehicle to process the whole list of drive orders.
+   */
+  private boolean isRoutable(List<Set<Point>> destinationPoints, PointRouter pointRouter) {
+    assert destinationPoints != null;
     assert pointRouter != null;
 
-    if (nextHopIndex < driveOrders.length) {
-      for (Point curPoint : getDestinationPoints(driveOrders[nextHopIndex])) {
-        // Check if there is a route from the starting point to the current
-        // point and if the rest of the orders are routable from there, too.
-        if (pointRouter.getCosts(startPoint, curPoint) != INFINITE_COSTS
-            && isRoutable(curPoint, driveOrders, nextHopIndex + 1, pointRouter)) {
-          // If it was possible to reach the end of the order list from here,
-          // propagate the result back to the caller.
-          return true;
+    Set<Point> reachablePoints = destinationPoints.get(0);
+    for (int hopIndex = 1; hopIndex < destinationPoints.size(); hopIndex++) {
+      Set<Point> nextReachablePoints = new HashSet<>();
+      for (Point curDestPoint : destinationPoints.get(hopIndex)) {
+        for (Point curStartPoint : reachablePoints) {
+          if (pointRouter.getCosts(curStartPoint, curDestPoint) != INFINITE_COSTS) {
+            nextReachablePoints.add(curDestPoint);
+            break;
+          }
         }
       }
-      // If we haven't found an acceptable route, return false.
-      return false;
-    }
-    // If we have reached the end of the list, it seems we have found a route.
-    else {
-      return true;
+      if (nextReachablePoints.isEmpty()) {
+        return false;
+      }
+      reachablePoints = nextReachablePoints;
     }
+    return !reachablePoints.isEmpty();
   }
 
   /**
-   * Compute the cheapest route along a list of drive orders/checkpoints.
+   * Computes the cheapest route along a list of drive orders/checkpoints.
+   * <p>
+   * The candidate destination points of the drive orders form the layers of a graph in which only
+   * points of consecutive layers are connected. For every layer, the cheapest costs of reaching
+   * each candidate point (and its predecessor in the previous layer) are computed from the
+   * previous layer's results. The route steps are then created only for the cheapest combination
+   * of destination points, found by backtracking from the final layer's cheapest point.
+   * </p>
    *
-   * @param startPoint The current checkpoint which to start at.
-   * @param params A struct describing parameters for the route to be computed.
-   * @param hopIndex The current index in the list of drive orders/checkpoints.
-   * @param result A struct for keeping the (partial) result in.
-   */
-  private void computeCheapestOrderRoute(Point startPoint,
-                                         OrderRouteParameterStruct params,
-                                         int hopIndex,
-                                         OrderRouteResultStruct result) {
-    assert startPoint != null;
-    assert params != null;
-    assert result != null;
-    // If we haven't reached the final drive order in the list, yet...
-    if (hopIndex < params.driveOrders.length) {
-      // ...try every possible destination point of the current drive order as
-      // the next checkpoint and recursively route from there.
-      final long currentRouteCosts = result.currentCosts;
-      Set<Point> destPoints = getDestinationPoints(params.driveOrders[hopIndex]);
-      // If the set of destination points contains the starting point, keep only
-      // that one. This is just a shortcut - it is the cheapest way to go.
-      if (!configuration.routeToCurrentPosition() && destPoints.contains(startPoint)) {
-        LOG.debug("Shortcutting route to {}", startPoint);
-        destPoints.clear();
-        destPoints.add(startPoint);
-      }
-      boolean routable = false;
-      for (Point curDestPoint : destPoints) {
-        final long hopCosts = params.pointRouter.getCosts(startPoint, curDestPoint);
-        if (hopCosts == INFINITE_COSTS) {
-          continue;
+   * @param sourcePoint The point at which the route is supposed to start.
+   * @param driveOrders The drive orders, in the order they are to be processed.
+   * @param routingGroup The routing group of the vehicle.
+   * @param pointRouter The point router to use.
+   * @return The given drive orders with their routes set, or an empty optional, if no route
+   * exists.
+   */
+  private Optional<List<DriveOrder>> computeCheapestOrderRoute(Point sourcePoint,
+                                                               List<DriveOrder> driveOrders,
+                                                               String routingGroup,
+                                                               PointRouter pointRouter) {
+    assert sourcePoint != null;
+    assert driveOrders != null;
+    assert pointRouter != null;
+
+    List<Map<Point, CheckpointEntry>> layers = new ArrayList<>(driveOrders.size());
+    Map<Point, CheckpointEntry> previousLayer = Map.of(sourcePoint,
+                                                       new CheckpointEntry(null, 0, 0));
+    for (DriveOrder driveOrder : driveOrders) {
+      Set<Point> destPoints = getDestinationPoints(driveOrder);
+      Map<Point, CheckpointEntry> layer = new HashMap<>();
+
+      for (Map.Entry<Point, CheckpointEntry> curEntry : previousLayer.entrySet()) {
+        Point startPoint = curEntry.getKey();
+        Set<Point> candidatePoints = destPoints;
+        // If the set of destination points contains the starting point, consider only that one.
+        // This is just a shortcut - it is the cheapest way to go.
+        if (!configuration.routeToCurrentPosition() && destPoints.contains(startPoint)) {
+          LOG.debug("Shortcutting route to {}", startPoint);
+          candidatePoints = Set.of(startPoint);
         }
-        // Get the list of steps for the route of the current drive order.
-        List<Route.Step> steps = params.pointRouter.getRouteSteps(startPoint, curDestPoint);
-        if (steps.isEmpty()) {
-          // If the list of steps returned is empty, we're already at the
-          // destination point of the drive order - create a single step
-          // without a path.
-          steps = new ArrayList<>(1);
-          steps.add(new Route.Step(null,
-                                   null,
-                                   startPoint,
-                                   Vehicle.Orientation.UNDEFINED,
-                                   0));
+
+        // Look up the costs to all candidate points in one pass from the starting point.
+        Map<Point, Long> hopCostsByPoint = pointRouter.getCosts(startPoint, candidatePoints);
+        for (Point curDestPoint : candidatePoints) {
+          long hopCosts = hopCostsByPoint.getOrDefault(curDestPoint, INFINITE_COSTS);
+          if (hopCosts == INFINITE_COSTS) {
+            continue;
+          }
+          long costs = curEntry.getValue().costs + hopCosts;
+          CheckpointEntry bestEntry = layer.get(curDestPoint);
+          if (bestEntry == null || costs < bestEntry.costs) {
+            layer.put(curDestPoint, new CheckpointEntry(startPoint, hopCosts, costs));
+          }
         }
-        // Create a route from the list of steps gathered.
-        Route hopRoute = new Route(steps, hopCosts);
-        // Copy the current drive order, add the computed route to it and
-        // place it in the result struct.
-        DriveOrder hopOrder = params.driveOrders[hopIndex].withRoute(hopRoute);
-        result.currentRoute[hopIndex] = hopOrder;
-        // Calculate the costs for the route so far, too.
-        result.currentCosts = currentRouteCosts + hopRoute.getCosts();
-        computeCheapestOrderRoute(curDestPoint, params, hopIndex + 1, result);
-        // Remember that we did find at least one route that works.
-        routable = true;
       }
-      if (!routable) {
-        // Setting currentCosts is not strictly necessary for this algorithm,
-        // but might help with debugging.
-        result.currentCosts = Long.MAX_VALUE;
+
+      if (layer.isEmpty()) {
+        return Optional.empty();
       }
+      layers.add(layer);
+      previousLayer = layer;
     }
-    // If we have reached the final drive order, ...
-    else // If the route computed is cheaper than the best route found so far,
-    // replace the latter.
-    if (result.currentCosts < result.bestCosts) {
-      System.arraycopy(result.currentRoute, 0, result.bestRoute, 0, result.currentRoute.length);
-      result.bestCosts = result.currentCosts;
+
+    // Backtrack from the cheapest point of the final layer and create the actual routes.
+    DriveOrder[] result = new DriveOrder[driveOrders.size()];
+    Point hopDestPoint = previousLayer.entrySet().stream()
+        .min(Comparator.comparingLong(entry -> entry.getValue().costs))
+        .map(Map.Entry::getKey)
+        .orElse(sourcePoint);
+    for (int hopIndex = driveOrders.size() - 1; hopIndex >= 0; hopIndex--) {
+      CheckpointEntry entry = layers.get(hopIndex).get(hopDestPoint);
+      result[hopIndex] = driveOrders.get(hopIndex).withRoute(
+          createHopRoute(entry.predecessor,
+                         hopDestPoint,
+                         entry.hopCosts,
+                         routingGroup,
+                         pointRouter)
+      );
+      hopDestPoint = entry.predecessor;
     }
+
+    return Optional.of(Arrays.asList(result));
+  }
+
+  /**
+   * Creates the route for a single hop, or returns the cached one.
+   *
+   * @param startPoint The point at which the hop starts.
+   * @param destPoint The point at which the hop ends.
+   * @param hopCosts The costs for the hop.
+   * @param routingGroup The routing group of the vehicle.
+   * @param pointRouter The point router to use.
+   * @return The route.
+   */
+  private Route createHopRoute(Point startPoint,
+                               Point destPoint,
+                               long hopCosts,
+                               String routingGroup,
+                               PointRouter pointRouter) {
+    if (!isCacheable(routingGroup, pointRouter)) {
+      return createHopRoute(startPoint, destPoint, hopCosts, pointRouter);
+    }
+    Route route = routeCache.get(routingGroup, pointRouter, startPoint, destPoint);
+    if (route == null) {
+      route = createHopRoute(startPoint, destPoint, hopCosts, pointRouter);
+      routeCache.put(routingGroup, pointRouter, startPoint, destPoint, route);
+    }
+    return route;
+  }
+
+  private Route createHopRoute(Point startPoint,
+                               Point destPoint,
+                               long hopCosts,
+                               PointRouter pointRouter) {
+    List<Route.Step> steps = pointRouter.getRouteSteps(startPoint, destPoint);
+    if (steps.isEmpty()) {
+      // If the list of steps returned is empty, we're already at the destination point of the
+      // drive order - create a single step without a path.
+      steps = new ArrayList<>(1);
+      steps.add(new Route.Step(null, null, startPoint, Vehicle.Orientation.UNDEFINED, 0));
+    }
+    return new Route(steps, hopCosts);
   }
 
   /**
@@ -436,29 +888,10 @@ public class DefaultRouter
     // If it's a "normal" transport order, look for destination points adjacent
     // to the destination location.
     else if (dest.getDestination().getReferentClass() == Location.class) {
-      final Set<Point> result = new HashSet<>();
-      final Location destLoc = objectService.fetchObject(Location.class,
-                                                         dest.getDestination().getName());
-      final LocationType destLocType = objectService.fetchObject(LocationType.class,
-                                                                 destLoc.getType());
-      for (Location.Link curLink : destLoc.getAttachedLinks()) {
-        // A link is acceptable if any of the following conditions are true:
-        // - The destination operation is OP_NOP, which is allowed everywhere.
-        // - The destination operation is explicitly allowed with the link.
-        // - The link's set of allowed operations is empty and the destination
-        //   operation is explicitly allowed with the location's type.
-        // Furthermore, the point to be routed at must allow halting.
-        if (Destination.OP_NOP.equals(dest.getOperation())
-            || curLink.hasAllowedOperation(dest.getOperation())
-            || (curLink.getAllowedOperations().isEmpty()
-                && destLocType.isAllowedOperation(dest.getOperation()))) {
-          Point destPoint = objectService.fetchObject(Point.class, curLink.getPoint());
-          if (destPoint.isHaltingPosition()) {
-            result.add(destPoint);
-          }
-        }
-      }
-      return result;
+      @SuppressWarnings("unchecked")
+      TCSObjectReference<Location> destLocRef
+          = (TCSObjectReference<Location>) dest.getDestination();
+      return accessPointIndex.getAccessPoints(destLocRef, dest.getOperation());
     }
     else {
       return new HashSet<>();
@@ -482,67 +915,88 @@ public class DefaultRouter
   }
 
   /**
-   * Contains parameters for a route to be computed.
+   * An immutable snapshot of the router's state.
    */
-  private static final class OrderRouteParameterStruct {
+  private static final class RouterState {
 
     /**
-     * The drive orders containing the route's checkpoints.
+     * A state without any point routers or selected routes.
+     */
+    private static final RouterState EMPTY = new RouterState(Map.of(), Map.of());
+    /**
+     * The point routers by vehicle routing group.
      */
-    private final DriveOrder[] driveOrders;
+    private final Map<String, PointRouter> pointRoutersByVehicleGroup;
     /**
-     * The point router for the vehicle type.
+     * The routes selected for each vehicle.
      */
-    private final PointRouter pointRouter;
+    private final Map<Vehicle, List<DriveOrder>> routesByVehicle;
 
     /**
-     * Creates a new OrderRouteParameterStruct.
+     * Creates a new instance.
      *
-     * @param driveOrders A list of drive orders to be processed as checkpoints
-     * of the route to be computed.
-     * @param pointRouter The point router for the vehicle type.
+     * @param pointRoutersByVehicleGroup The point routers by vehicle routing group.
+     * @param routesByVehicle The routes selected for each vehicle.
      */
-    OrderRouteParameterStruct(DriveOrder[] driveOrders,
-                              PointRouter pointRouter) {
-      this.driveOrders = requireNonNull(driveOrders, "driveOrders");
-      this.pointRouter = requireNonNull(pointRouter, "pointRouter");
+    private RouterState(Map<String, PointRouter> pointRoutersByVehicleGroup,
+                        Map<Vehicle, List<DriveOrder>> routesByVehicle) {
+      this.pointRoutersByVehicleGroup = requireNonNull(pointRoutersByVehicleGroup,
+                                                       "pointRoutersByVehicleGroup");
+      this.routesByVehicle = requireNonNull(routesByVehicle, "routesByVehicle");
+    }
+
+    private RouterState withPointRouters(Map<String, PointRouter> pointRoutersByVehicleGroup) {
+      return new RouterState(pointRoutersByVehicleGroup, routesByVehicle);
+    }
+
+    private RouterState withPointRouter(String routingGroup, PointRouter pointRouter) {
+      Map<String, PointRouter> pointRouters = new HashMap<>(pointRoutersByVehicleGroup);
+      pointRouters.put(routingGroup, pointRouter);
+      return new RouterState(Collections.unmodifiableMap(pointRouters), routesByVehicle);
+    }
+
+    private RouterState withSelectedRoute(Vehicle vehicle, List<DriveOrder> driveOrders) {
+      Map<Vehicle, List<DriveOrder>> routes = new HashMap<>(routesByVehicle);
+      if (driveOrders == null) {
+        routes.remove(vehicle);
+      }
+      else {
+        routes.put(vehicle, driveOrders);
+      }
+      return new RouterState(pointRoutersByVehicleGroup, Collections.unmodifiableMap(routes));
     }
   }
 
   /**
-   * A struct supporting cheapest route calculation.
+   * Describes the cheapest known way of reaching a candidate destination point of a drive order.
    */
-  private static final class OrderRouteResultStruct {
+  private static final class CheckpointEntry {
 
     /**
-     * The (possibly partial) route currently being examined.
-     */
-    private DriveOrder[] currentRoute;
-    /**
-     * The costs of the route currently being examined.
+     * The destination point of the previous drive order (or the source point) from which this one
+     * is reached.
      */
-    private long currentCosts;
+    private final Point predecessor;
     /**
-     * The best route found so far.
+     * The costs for travelling from the predecessor to this point.
      */
-    private DriveOrder[] bestRoute;
+    private final long hopCosts;
     /**
-     * The costs of the best route found so far.
+     * The costs for travelling from the source point to this point.
      */
-    private long bestCosts;
+    private final long costs;
 
     /**
-     * Creates a new OrderRouteResultStruct.
+     * Creates a new instance.
      *
-     * @param driveOrderCount The number of <code>DriveOrder</code>s in the
-     * <code>TransportOrder</code> for which this struct is to store the
-     * routing result.
+     * @param predecessor The point from which this one is reached.
+     * @param hopCosts The costs for travelling from the predecessor to this point.
+     * @param costs The costs for travelling from the source point to this point.
      */
-    OrderRouteResultStruct(int driveOrderCount) {
-      currentRoute = new DriveOrder[driveOrderCount];
-      currentCosts = 0;
-      bestRoute = new DriveOrder[driveOrderCount];
-      bestCosts = Long.MAX_VALUE;
+    CheckpointEntry(Point predecessor, long hopCosts, long costs) {
+      this.predecessor = predecessor;
+      this.hopCosts = hopCosts;
+      this.costs = costs;
     }
   }
 }
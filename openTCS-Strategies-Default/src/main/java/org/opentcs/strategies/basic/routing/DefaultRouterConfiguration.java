@@ -26,4 +26,11 @@ public interface DefaultRouterConfiguration {
       description = "Whether to compute a route even if the vehicle is already at the destination.")
   boolean routeToCurrentPosition();
 
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum total number of route steps kept in the cache for computed routes.",
+        "If set to 0, computed routes are not cached."})
+  long routeCacheCapacity();
+
 }
@@ -7,14 +7,23 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import org.opentcs.components.kernel.routing.Edge;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.order.Route;
 
 /**
  * Computes routes between points.
+ * <p>
+ * Once created, instances are expected to be safe for concurrent use by multiple threads.
+ * </p>
  */
 public interface PointRouter {
 
@@ -63,4 +72,60 @@ public interface PointRouter {
 
     return getCosts(srcPoint.getReference(), destPoint.getReference());
   }
+
+  /**
+   * Returns the costs for travelling the shortest routes from one point to each of the given
+   * destination points.
+   *
+   * @param srcPoint The starting point.
+   * @param destPoints The destination points.
+   * @return A map of each destination point to the costs for travelling the shortest route from
+   * the starting point to it.
+   * If no route to a destination point exists, {@link #INFINITE_COSTS INFINITE_COSTS} will be
+   * mapped to it.
+   */
+  default Map<Point, Long> getCosts(Point srcPoint, Set<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    Map<Point, Long> result = new HashMap<>();
+    for (Point destPoint : destPoints) {
+      result.put(destPoint, getCosts(srcPoint, destPoint));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the costs for travelling the shortest routes from one point to those of the given
+   * destination points that can be reached with the lowest costs.
+   *
+   * @param srcPoint The starting point.
+   * @param destPoints The destination points.
+   * @param maxCount The maximum number of destination points to return costs for.
+   * @return A map of (at most) the given number of destination points with the lowest costs to
+   * the costs for travelling the shortest route from the starting point to them.
+   * Destination points that cannot be reached are not contained.
+   */
+  default Map<Point, Long> getCostsToClosest(Point srcPoint, Set<Point> destPoints, int maxCount) {
+    return getCosts(srcPoint, destPoints).entrySet().stream()
+        .filter(entry -> entry.getValue() != INFINITE_COSTS)
+        .sorted(Map.Entry.comparingByValue())
+        .limit(maxCount)
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+  }
+
+  /**
+   * Returns a point router computing routes on the same graph as this one, but with the weights of
+   * edges reduced by the given amounts.
+   * This point router itself is not modified.
+   * <p>
+   * The default implementation ignores the reductions and returns this point router itself.
+   * </p>
+   *
+   * @param reductions Provides the amount by which an edge's weight is to be reduced.
+   * @return The point router.
+   */
+  default PointRouter withReducedWeights(ToDoubleFunction<Edge> reductions) {
+    return this;
+  }
 }
@@ -7,6 +7,8 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.Set;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Vehicle;
 
 /**
@@ -21,4 +23,21 @@ public interface PointRouterFactory {
    * @return The point router.
    */
   PointRouter createPointRouter(Vehicle vehicle);
+
+  /**
+   * Creates a point router for the given vehicle based on an existing one, with the costs of the
+   * given paths re-evaluated.
+   * The given point router itself is not modified.
+   * <p>
+   * The default implementation creates a completely new point router.
+   * </p>
+   *
+   * @param pointRouter The existing point router, previously created by this factory.
+   * @param vehicle The vehicle.
+   * @param paths The paths whose costs are to be re-evaluated.
+   * @return The point router.
+   */
+  default PointRouter updatePointRouter(PointRouter pointRouter, Vehicle vehicle, Set<Path> paths) {
+    return createPointRouter(vehicle);
+  }
 }
@@ -0,0 +1,397 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.order.Route;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * A bounded cache for routes, shared by all routing queries.
+ * <p>
+ * Routes are cached per routing group, source and destination point. Every cached route is bound
+ * to the point router it was computed with and is only returned as long as that point router is
+ * the one used for the routing group. When point routers are replaced after a re-evaluation of
+ * path costs, the cached routes that are still optimal can be transferred to the new point router
+ * (see {@link #transfer(String, PointRouter, PointRouter, Set)}).
+ * </p>
+ * <p>
+ * The size of the cache is bounded by the total number of route steps kept, as this is what the
+ * memory consumption of the cached routes mostly depends on. If the bound is exceeded, the least
+ * recently used routes are evicted.
+ * </p>
+ * <p>
+ * Lookups and insertions do not acquire any locks, so concurrent routing queries are not
+ * serialized by the cache. For this, the eviction order is only approximately LRU: every entry
+ * records the time of its last use, and a single thread at a time evicts the entries used least
+ * recently in a batch, reducing the size to somewhat below the bound. Insertions by other threads
+ * meanwhile may exceed the bound temporarily.
+ * </p>
+ */
+final class RouteCache {
+
+  /**
+   * The maximum total number of route steps kept.
+   */
+  private final long capacity;
+  /**
+   * The total number of route steps kept after evicting entries.
+   */
+  private final long evictionTarget;
+  /**
+   * The cached entries.
+   */
+  private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+  /**
+   * Provides the (logical) times at which entries are used.
+   */
+  private final AtomicLong clock = new AtomicLong();
+  /**
+   * Ensures that only one thread at a time evicts entries.
+   */
+  private final Lock evictionLock = new ReentrantLock();
+  /**
+   * The number of successful lookups.
+   */
+  private final LongAdder hitCount = new LongAdder();
+  /**
+   * The number of unsuccessful lookups.
+   */
+  private final LongAdder missCount = new LongAdder();
+  /**
+   * The total number of route steps currently kept.
+   */
+  private final AtomicLong size = new AtomicLong();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param capacity The maximum total number of route steps kept. If zero, no routes are cached.
+   */
+  RouteCache(long capacity) {
+    checkArgument(capacity >= 0, "capacity must be at least 0: %s", capacity);
+    this.capacity = capacity;
+    this.evictionTarget = capacity - capacity / 10;
+  }
+
+  /**
+   * Checks whether this cache keeps any routes at all.
+   *
+   * @return <code>true</code> if, and only if, this cache keeps routes.
+   */
+  boolean isEnabled() {
+    return capacity > 0;
+  }
+
+  /**
+   * Returns the cached route for the given routing group and points.
+   *
+   * @param routingGroup The routing group.
+   * @param pointRouter The point router currently used for the routing group.
+   * @param sourcePoint The source point.
+   * @param destinationPoint The destination point.
+   * @return The cached route, or <code>null</code>, if no route computed with the given point router
+   * is cached.
+   */
+  Route get(String routingGroup,
+            PointRouter pointRouter,
+            Point sourcePoint,
+            Point destinationPoint) {
+    Key key = new Key(routingGroup, sourcePoint.getName(), destinationPoint.getName());
+    Entry entry = entries.get(key);
+    if (entry == null) {
+      missCount.increment();
+      return null;
+    }
+    if (entry.pointRouter != pointRouter) {
+      remove(key, entry);
+      missCount.increment();
+      return null;
+    }
+    entry.lastAccess = clock.incrementAndGet();
+    hitCount.increment();
+    return entry.route;
+  }
+
+  /**
+   * Caches the given route, evicting the least recently used routes if necessary.
+   *
+   * @param routingGroup The routing group.
+   * @param pointRouter The point router the route was computed with.
+   * @param sourcePoint The source point.
+   * @param destinationPoint The destination point.
+   * @param route The route.
+   */
+  void put(String routingGroup,
+           PointRouter pointRouter,
+           Point sourcePoint,
+           Point destinationPoint,
+           Route route) {
+    requireNonNull(pointRouter, "pointRouter");
+    requireNonNull(route, "route");
+    if (route.getSteps().size() > capacity) {
+      return;
+    }
+
+    Key key = new Key(routingGroup, sourcePoint.getName(), destinationPoint.getName());
+    Entry entry = new Entry(pointRouter, sourcePoint, destinationPoint, route);
+    entry.lastAccess = clock.incrementAndGet();
+    Entry oldEntry = entries.put(key, entry);
+    long newSize = size.addAndGet(
+        route.getSteps().size() - (oldEntry == null ? 0 : oldEntry.route.getSteps().size())
+    );
+
+    if (newSize > capacity) {
+      evict();
+    }
+  }
+
+  /**
+   * Transfers the routes cached for the given routing group from the given old point router to the
+   * given new one, for which the costs of the given paths have been re-evaluated.
+   * <p>
+   * A route is transferred only if it does not contain any of the given paths and its costs are
+   * still the lowest ones according to the new point router. (A route not containing any of the
+   * paths has the same costs as before, but a cheaper route may now exist if the costs of any of
+   * the paths decreased.) All other routes cached for the old point router are removed.
+   * </p>
+   *
+   * @param routingGroup The routing group.
+   * @param oldPointRouter The point router the routes were computed with.
+   * @param newPointRouter The point router replacing the old one.
+   * @param pathNames The names of the paths whose costs have been re-evaluated.
+   * @return The number of routes removed.
+   */
+  int transfer(String routingGroup,
+               PointRouter oldPointRouter,
+               PointRouter newPointRouter,
+               Set<String> pathNames) {
+    Map<Key, Entry> candidates = new HashMap<>();
+    for (Map.Entry<Key, Entry> mapEntry : entries.entrySet()) {
+      if (mapEntry.getKey().routingGroup.equals(routingGroup)
+          && mapEntry.getValue().pointRouter == oldPointRouter) {
+        candidates.put(mapEntry.getKey(), mapEntry.getValue());
+      }
+    }
+
+    // Look up the current costs to all destination points in one pass per source point.
+    Map<Point, Set<Point>> destinationsBySource = new HashMap<>();
+    for (Entry entry : candidates.values()) {
+      if (!containsAnyPath(entry.route, pathNames)) {
+        destinationsBySource.computeIfAbsent(entry.sourcePoint, point -> new HashSet<>())
+            .add(entry.destinationPoint);
+      }
+    }
+    Map<Point, Map<Point, Long>> costs = new HashMap<>();
+    destinationsBySource.forEach(
+        (source, destinations) -> costs.put(source, newPointRouter.getCosts(source, destinations))
+    );
+
+    int removedCount = 0;
+    for (Map.Entry<Key, Entry> candidate : candidates.entrySet()) {
+      Entry entry = candidate.getValue();
+      Long newCosts = costs.getOrDefault(entry.sourcePoint, Map.of()).get(entry.destinationPoint);
+      // Entries replaced or evicted in the meantime are left alone.
+      if (newCosts != null && newCosts == entry.route.getCosts()) {
+        entries.replace(candidate.getKey(), entry, entry.withPointRouter(newPointRouter));
+      }
+      else if (remove(candidate.getKey(), entry)) {
+        removedCount++;
+      }
+    }
+    return removedCount;
+  }
+
+  /**
+   * Removes all cached routes.
+   */
+  void clear() {
+    for (Key key : entries.keySet()) {
+      Entry entry = entries.remove(key);
+      if (entry != null) {
+        size.addAndGet(-entry.route.getSteps().size());
+      }
+    }
+  }
+
+  /**
+   * Returns the number of routes currently cached.
+   *
+   * @return The number of routes currently cached.
+   */
+  int getRouteCount() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the number of successful lookups.
+   *
+   * @return The number of successful lookups.
+   */
+  long getHitCount() {
+    return hitCount.sum();
+  }
+
+  /**
+   * Returns the number of unsuccessful lookups.
+   *
+   * @return The number of unsuccessful lookups.
+   */
+  long getMissCount() {
+    return missCount.sum();
+  }
+
+  /**
+   * Returns the ratio of successful lookups to all lookups.
+   *
+   * @return The ratio of successful lookups to all lookups, or 0 if there were no lookups, yet.
+   */
+  double getHitRate() {
+    long hits = getHitCount();
+    long lookups = hits + getMissCount();
+    return lookups == 0 ? 0.0 : (double) hits / lookups;
+  }
+
+  /**
+   * Removes the given entry, unless it has been replaced or removed in the meantime.
+   *
+   * @param key The entry's key.
+   * @param entry The entry.
+   * @return <code>true</code> if, and only if, the entry was removed.
+   */
+  private boolean remove(Key key, Entry entry) {
+    if (!entries.remove(key, entry)) {
+      return false;
+    }
+    size.addAndGet(-entry.route.getSteps().size());
+    return true;
+  }
+
+  /**
+   * Evicts the least recently used entries until the size is reduced to the eviction target.
+   * Does nothing if another thread is already evicting entries.
+   */
+  private void evict() {
+    if (!evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      // Sort by the access times at this point, as they may change while sorting.
+      List<EvictionCandidate> candidates = new ArrayList<>(entries.size());
+      entries.forEach((key, entry) -> candidates.add(new EvictionCandidate(key, entry)));
+      candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+      for (EvictionCandidate candidate : candidates) {
+        if (size.get() <= evictionTarget) {
+          break;
+        }
+        remove(candidate.key, candidate.entry);
+      }
+    }
+    finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private static boolean containsAnyPath(Route route, Set<String> pathNames) {
+    return route.getSteps().stream()
+        .anyMatch(step -> step.getPath() != null && pathNames.contains(step.getPath().getName()));
+  }
+
+  /**
+   * The key of a cached route.
+   */
+  private static final class Key {
+
+    private final String routingGroup;
+    private final String sourcePointName;
+    private final String destinationPointName;
+
+    Key(String routingGroup, String sourcePointName, String destinationPointName) {
+      this.routingGroup = requireNonNull(routingGroup, "routingGroup");
+      this.sourcePointName = requireNonNull(sourcePointName, "sourcePointName");
+      this.destinationPointName = requireNonNull(destinationPointName, "destinationPointName");
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) obj;
+      return routingGroup.equals(other.routingGroup)
+          && sourcePointName.equals(other.sourcePointName)
+          && destinationPointName.equals(other.destinationPointName);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(routingGroup, sourcePointName, destinationPointName);
+    }
+  }
+
+  /**
+   * A cached route and the point router it is valid for.
+   */
+  private static final class Entry {
+
+    private final PointRouter pointRouter;
+    private final Point sourcePoint;
+    private final Point destinationPoint;
+    private final Route route;
+    /**
+     * The (logical) time at which this entry was last used.
+     */
+    private volatile long lastAccess;
+
+    Entry(PointRouter pointRouter, Point sourcePoint, Point destinationPoint, Route route) {
+      this.pointRouter = pointRouter;
+      this.sourcePoint = sourcePoint;
+      this.destinationPoint = destinationPoint;
+      this.route = route;
+    }
+
+    Entry withPointRouter(PointRouter pointRouter) {
+      Entry result = new Entry(pointRouter, sourcePoint, destinationPoint, route);
+      result.lastAccess = lastAccess;
+      return result;
+    }
+  }
+
+  /**
+   * An entry to be considered for eviction, with the time it was last used.
+   */
+  private static final class EvictionCandidate {
+
+    private final Key key;
+    private final Entry entry;
+    private final long lastAccess;
+
+    EvictionCandidate(Key key, Entry entry) {
+      this.key = key;
+      this.entry = entry;
+      this.lastAccess = entry.lastAccess;
+    }
+  }
+}
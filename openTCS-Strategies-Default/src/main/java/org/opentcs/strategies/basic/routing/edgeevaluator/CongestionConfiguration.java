@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.edgeevaluator;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure {@link EdgeEvaluatorCongestion}.
+ */
+@ConfigurationPrefix(CongestionConfiguration.PREFIX)
+public interface CongestionConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "defaultrouter.edgeevaluator.congestion";
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The interval (in ms) in which the occupancy of resources is checked and the routing costs "
+        + "of affected paths are updated."},
+      orderKey = "0_refresh")
+  long refreshInterval();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The costs added for travelling on a path or towards a point that is currently allocated "
+        + "by a vehicle."},
+      orderKey = "1_penalty_0")
+  long allocatedResourcePenalty();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The costs added for travelling on a path or towards a point that is currently claimed "
+        + "(but not allocated) by a vehicle."},
+      orderKey = "1_penalty_1")
+  long claimedResourcePenalty();
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.edgeevaluator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.routing.Edge;
+import org.opentcs.components.kernel.routing.EdgeEvaluator;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.TCSResourceReference;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+
+/**
+ * Penalizes edges by the current occupancy of the resources they lead through.
+ * <p>
+ * An edge's weight is the sum of the penalties for its path and for the point it leads to. A
+ * resource allocated by any vehicle (according to the scheduler) is penalized with the configured
+ * costs for allocated resources, a resource only claimed by any vehicle is penalized with the
+ * configured costs for claimed resources.
+ * </p>
+ * <p>
+ * Weights include the resources occupied by all vehicles, so they can be shared by all vehicles of
+ * a routing group. As the resources occupied by a vehicle do not obstruct the vehicle itself, a
+ * vehicle would be routed away from them, though. Routers using this evaluator are thus expected
+ * to reduce the weights by the vehicle's own penalties when routing the vehicle - see
+ * {@link #getOwnPenalties(Vehicle)} and {@link #computeOwnWeight(Edge, Map)}.
+ * </p>
+ * <p>
+ * The occupancy is not observed continuously but updated via {@link #updateOccupancy()}, which
+ * reports the resources whose penalties have changed, so only the weights of the affected edges
+ * need to be re-evaluated.
+ * </p>
+ */
+public class EdgeEvaluatorCongestion
+    implements EdgeEvaluator {
+
+  /**
+   * A key used for selecting this evaluator in a configuration setting.
+   * Should be unique among all keys.
+   */
+  public static final String CONFIGURATION_KEY = "CONGESTION";
+  /**
+   * This class's configuration.
+   */
+  private final CongestionConfiguration configuration;
+  /**
+   * The shortest path configuration, telling whether this evaluator is used at all.
+   */
+  private final ShortestPathConfiguration shortestPathConfiguration;
+  /**
+   * Provides the current resource allocations.
+   */
+  private final Scheduler scheduler;
+  /**
+   * Provides the vehicles' claimed resources.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * The current occupancy.
+   * It is never modified but replaced as a whole, so it may be read concurrently.
+   */
+  private volatile Occupancy occupancy = Occupancy.EMPTY;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration This class's configuration.
+   * @param shortestPathConfiguration The shortest path configuration.
+   * @param scheduler Provides the current resource allocations.
+   * @param objectService Provides the vehicles' claimed resources.
+   */
+  @Inject
+  public EdgeEvaluatorCongestion(CongestionConfiguration configuration,
+                                 ShortestPathConfiguration shortestPathConfiguration,
+                                 Scheduler scheduler,
+                                 TCSObjectService objectService) {
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.shortestPathConfiguration = requireNonNull(shortestPathConfiguration,
+                                                    "shortestPathConfiguration");
+    this.scheduler = requireNonNull(scheduler, "scheduler");
+    this.objectService = requireNonNull(objectService, "objectService");
+  }
+
+  @Override
+  public double computeWeight(Edge edge, Vehicle vehicle) {
+    requireNonNull(edge, "edge");
+    requireNonNull(vehicle, "vehicle");
+
+    Map<String, Long> curPenalties = occupancy.penalties;
+    return curPenalties.getOrDefault(edge.getPath().getName(), 0L)
+        + curPenalties.getOrDefault(targetPointName(edge), 0L);
+  }
+
+  /**
+   * Returns the parts of the current penalties that are caused only by the given vehicle, i.e. by
+   * which the penalties for the resources it occupies exceed the ones caused by other vehicles.
+   *
+   * @param vehicle The vehicle.
+   * @return The parts of the penalties caused only by the given vehicle, mapped by the names of the
+   * respective resources. Resources without such a part are not contained.
+   */
+  public Map<String, Long> getOwnPenalties(Vehicle vehicle) {
+    requireNonNull(vehicle, "vehicle");
+
+    Occupancy curOccupancy = occupancy;
+    Map<String, Long> result = new HashMap<>();
+    for (String resourceName
+             : curOccupancy.resourcesByVehicle.getOrDefault(vehicle.getName(), Set.of())) {
+      long ownPenalty = curOccupancy.penalties.get(resourceName)
+          - getPenaltyByOthers(curOccupancy, resourceName, vehicle.getName());
+      if (ownPenalty > 0) {
+        result.put(resourceName, ownPenalty);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the part of the given edge's weight that is caused by the given penalties.
+   *
+   * @param edge The edge.
+   * @param ownPenalties Penalties as returned by {@link #getOwnPenalties(Vehicle)}.
+   * @return The part of the given edge's weight that is caused by the given penalties.
+   */
+  public double computeOwnWeight(Edge edge, Map<String, Long> ownPenalties) {
+    requireNonNull(edge, "edge");
+    requireNonNull(ownPenalties, "ownPenalties");
+
+    return ownPenalties.getOrDefault(edge.getPath().getName(), 0L)
+        + ownPenalties.getOrDefault(targetPointName(edge), 0L);
+  }
+
+  /**
+   * Indicates whether this evaluator is selected in the configuration.
+   *
+   * @return <code>true</code> if, and only if, this evaluator is selected in the configuration.
+   */
+  public boolean isEnabled() {
+    return shortestPathConfiguration.edgeEvaluators().contains(CONFIGURATION_KEY);
+  }
+
+  /**
+   * Returns the interval in which the occupancy is to be updated.
+   *
+   * @return The interval in which the occupancy is to be updated (in ms).
+   */
+  public long getRefreshInterval() {
+    return configuration.refreshInterval();
+  }
+
+  /**
+   * Updates the penalties from the current resource allocations and claims.
+   *
+   * @return The names of all resources whose penalties have changed.
+   */
+  public Set<String> updateOccupancy() {
+    Map<String, Map<String, Long>> newPenaltiesByVehicle = new HashMap<>();
+    for (Vehicle vehicle : objectService.fetchObjects(Vehicle.class)) {
+      for (Set<TCSResourceReference<?>> resources : vehicle.getClaimedResources()) {
+        for (TCSResourceReference<?> resource : resources) {
+          newPenaltiesByVehicle.computeIfAbsent(resource.getName(), name -> new HashMap<>())
+              .put(vehicle.getName(), configuration.claimedResourcePenalty());
+        }
+      }
+    }
+    // Allocations are recorded after claims, so resources both claimed and allocated by a vehicle
+    // are penalized as allocated ones.
+    for (Map.Entry<String, Set<TCSResource<?>>> entry : scheduler.getAllocations().entrySet()) {
+      for (TCSResource<?> resource : entry.getValue()) {
+        newPenaltiesByVehicle.computeIfAbsent(resource.getName(), name -> new HashMap<>())
+            .put(entry.getKey(), configuration.allocatedResourcePenalty());
+      }
+    }
+
+    Occupancy newOccupancy = new Occupancy(newPenaltiesByVehicle);
+
+    // Only changes of the highest penalties affect edge weights.
+    Map<String, Long> oldPenalties = occupancy.penalties;
+    Set<String> changedResources = new HashSet<>();
+    for (Map.Entry<String, Long> entry : newOccupancy.penalties.entrySet()) {
+      if (!entry.getValue().equals(oldPenalties.get(entry.getKey()))) {
+        changedResources.add(entry.getKey());
+      }
+    }
+    for (String resourceName : oldPenalties.keySet()) {
+      if (!newOccupancy.penalties.containsKey(resourceName)) {
+        changedResources.add(resourceName);
+      }
+    }
+
+    occupancy = newOccupancy;
+    return changedResources;
+  }
+
+  private String targetPointName(Edge edge) {
+    return edge.isTravellingReverse()
+        ? edge.getPath().getSourcePoint().getName()
+        : edge.getPath().getDestinationPoint().getName();
+  }
+
+  /**
+   * Returns the highest penalty for the given resource by any vehicle but the given one.
+   *
+   * @param curOccupancy The occupancy.
+   * @param resourceName The name of the resource.
+   * @param vehicleName The name of the vehicle whose own penalties are to be ignored.
+   * @return The highest penalty for the given resource by any vehicle but the given one.
+   */
+  private long getPenaltyByOthers(Occupancy curOccupancy,
+                                  String resourceName,
+                                  String vehicleName) {
+    long result = 0;
+    for (Map.Entry<String, Long> entry
+             : curOccupancy.penaltiesByVehicle.getOrDefault(resourceName, Map.of()).entrySet()) {
+      if (!entry.getKey().equals(vehicleName)) {
+        result = Math.max(result, entry.getValue());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * An immutable snapshot of the occupancy of resources.
+   */
+  private static final class Occupancy {
+
+    /**
+     * An occupancy without any occupied resources.
+     */
+    private static final Occupancy EMPTY = new Occupancy(Map.of());
+    /**
+     * The penalties, mapped by the names of the respective resources and the names of the
+     * vehicles occupying them.
+     */
+    private final Map<String, Map<String, Long>> penaltiesByVehicle;
+    /**
+     * The highest penalties by any vehicle, mapped by the names of the respective resources.
+     */
+    private final Map<String, Long> penalties;
+    /**
+     * The names of the resources occupied by each vehicle, mapped by the names of the vehicles.
+     */
+    private final Map<String, Set<String>> resourcesByVehicle;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param penaltiesByVehicle The penalties, mapped by the names of the respective resources and
+     * the names of the vehicles occupying them.
+     */
+    private Occupancy(Map<String, Map<String, Long>> penaltiesByVehicle) {
+      this.penaltiesByVehicle = Collections.unmodifiableMap(penaltiesByVehicle);
+      Map<String, Long> highestPenalties = new HashMap<>();
+      Map<String, Set<String>> occupiedResources = new HashMap<>();
+      penaltiesByVehicle.forEach((resourceName, vehiclePenalties) -> {
+        vehiclePenalties.forEach((vehicleName, penalty) -> {
+          highestPenalties.merge(resourceName, penalty, Math::max);
+          occupiedResources.computeIfAbsent(vehicleName, name -> new HashSet<>())
+              .add(resourceName);
+        });
+      });
+      this.penalties = Collections.unmodifiableMap(highestPenalties);
+      this.resourcesByVehicle = Collections.unmodifiableMap(occupiedResources);
+    }
+  }
+}
@@ -7,6 +7,7 @@
  */
 package org.opentcs.strategies.basic.routing.jgrapht;
 
+import java.util.Collection;
 import java.util.Iterator;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
@@ -65,13 +66,10 @@ public abstract class AbstractPointRouterFactory
                                                            objectService.fetchObjects(Path.class),
                                                            vehicle);
 
-    PointRouter router = new ShortestPathPointRouter(createShortestPathAlgorithm(graph), points);
-    // Make a single request for a route from one point to a different one to make sure the
-    // point router is primed. (Some implementations are initialized lazily.)
-    if (points.size() >= 2) {
-      Iterator<Point> pointIter = points.iterator();
-      router.getRouteSteps(pointIter.next(), pointIter.next());
-    }
+    PointRouter router = new ShortestPathPointRouter(createShortestPathAlgorithm(graph),
+                                                     graph,
+                                                     points);
+    prime(router, points);
 
     LOG.debug("Created point router for {} in {} milliseconds.",
               vehicle.getName(),
@@ -80,6 +78,51 @@ public abstract class AbstractPointRouterFactory
     return router;
   }
 
+  @Override
+  public PointRouter updatePointRouter(PointRouter pointRouter,
+                                       Vehicle vehicle,
+                                       Set<Path> paths) {
+    requireNonNull(pointRouter, "pointRouter");
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(paths, "paths");
+
+    if (!(pointRouter instanceof ShortestPathPointRouter)
+        || ((ShortestPathPointRouter) pointRouter).getGraph() == null) {
+      return createPointRouter(vehicle);
+    }
+
+    long timeStampBefore = System.currentTimeMillis();
+
+    ShortestPathPointRouter oldRouter = (ShortestPathPointRouter) pointRouter;
+    Graph<String, Edge> graph = mapper.updateGraph(oldRouter.getGraph(), paths, vehicle);
+
+    PointRouter router = new ShortestPathPointRouter(createShortestPathAlgorithm(graph),
+                                                     graph,
+                                                     oldRouter.getPoints());
+    prime(router, oldRouter.getPoints());
+
+    LOG.debug("Updated point router for {} ({} paths) in {} milliseconds.",
+              vehicle.getName(),
+              paths.size(),
+              System.currentTimeMillis() - timeStampBefore);
+
+    return router;
+  }
+
+  /**
+   * Makes a single request for a route from one point to a different one to make sure the given
+   * point router is primed. (Some implementations are initialized lazily.)
+   *
+   * @param router The point router.
+   * @param points The points known to the point router.
+   */
+  private void prime(PointRouter router, Collection<Point> points) {
+    if (points.size() >= 2) {
+      Iterator<Point> pointIter = points.iterator();
+      router.getRouteSteps(pointIter.next(), pointIter.next());
+    }
+  }
+
   /**
    * Returns a shortest path algorithm implementation working on the given graph.
    *
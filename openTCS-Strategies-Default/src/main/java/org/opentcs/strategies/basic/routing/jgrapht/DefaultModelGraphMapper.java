@@ -8,6 +8,8 @@
 package org.opentcs.strategies.basic.routing.jgrapht;
 
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
@@ -120,6 +122,42 @@ public class DefaultModelGraphMapper
     return graph;
   }
 
+  @Override
+  public Graph<String, Edge> updateGraph(Graph<String, Edge> graph,
+                                         Collection<Path> paths,
+                                         Vehicle vehicle) {
+    requireNonNull(graph, "graph");
+    requireNonNull(paths, "paths");
+    requireNonNull(vehicle, "vehicle");
+
+    edgeEvaluator.onGraphComputationStart(vehicle);
+
+    boolean allowNegativeEdgeWeights = configuration.algorithm().isHandlingNegativeCosts();
+    Map<Edge, Double> weights = new HashMap<>();
+    for (Path path : paths) {
+      String srcName = path.getSourcePoint().getName();
+      String destName = path.getDestinationPoint().getName();
+      if (!graph.containsVertex(srcName) || !graph.containsVertex(destName)) {
+        continue;
+      }
+
+      for (Edge edge : graph.getAllEdges(srcName, destName)) {
+        if (edge.getPath().equals(path) && !edge.isTravellingReverse()) {
+          putWeight(weights, edge, vehicle, allowNegativeEdgeWeights);
+        }
+      }
+      for (Edge edge : graph.getAllEdges(destName, srcName)) {
+        if (edge.getPath().equals(path) && edge.isTravellingReverse()) {
+          putWeight(weights, edge, vehicle, allowNegativeEdgeWeights);
+        }
+      }
+    }
+
+    edgeEvaluator.onGraphComputationEnd(vehicle);
+
+    return ReweightedGraph.of(graph, weights);
+  }
+
   /**
    * Returns <code>true</code> if and only if the graph should contain an edge from the source
    * of the path to its destination for the given vehicle.
@@ -143,4 +181,25 @@ public class DefaultModelGraphMapper
   protected boolean shouldAddReverseEdge(Path path, Vehicle vehicle) {
     return path.isNavigableReverse();
   }
+
+  private void putWeight(Map<Edge, Double> weights,
+                         Edge edge,
+                         Vehicle vehicle,
+                         boolean allowNegativeEdgeWeights) {
+    double weight = edgeEvaluator.computeWeight(edge, vehicle);
+
+    // Edges cannot be removed from the graph here, so keep their previous weights instead.
+    if (weight < 0 && !allowNegativeEdgeWeights) {
+      LOG.warn("Edge {} with weight {} not updated. Algorithm {} cannot handle negative weights.",
+               edge,
+               weight,
+               configuration.algorithm().name());
+    }
+    else if (weight == Double.POSITIVE_INFINITY) {
+      LOG.debug("Edge {} with infinite weight not updated.", edge);
+    }
+    else {
+      weights.put(edge, weight);
+    }
+  }
 }
@@ -30,4 +30,23 @@ public interface ModelGraphMapper {
   Graph<String, Edge> translateModel(Collection<Point> points,
                                           Collection<Path> paths,
                                           Vehicle vehicle);
+
+  /**
+   * Returns a graph with the weights of the edges of the given paths re-evaluated for the given
+   * vehicle.
+   * The given graph itself is not modified.
+   * <p>
+   * The default implementation returns the given graph unchanged.
+   * </p>
+   *
+   * @param graph A graph previously created by this mapper.
+   * @param paths The paths whose edges are to be re-evaluated.
+   * @param vehicle The vehicle for which the graph was built.
+   * @return A graph with the weights of the edges of the given paths re-evaluated.
+   */
+  default Graph<String, Edge> updateGraph(Graph<String, Edge> graph,
+                                          Collection<Path> paths,
+                                          Vehicle vehicle) {
+    return graph;
+  }
 }
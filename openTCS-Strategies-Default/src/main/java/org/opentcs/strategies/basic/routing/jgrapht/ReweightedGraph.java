@@ -0,0 +1,81 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.GraphDelegator;
+import org.opentcs.components.kernel.routing.Edge;
+
+/**
+ * A view on a graph that overrides the weights of some of its edges.
+ * <p>
+ * The overridden weights are never modified. Updating weights results in a new view on the same
+ * underlying graph, so existing views may still be used concurrently.
+ * </p>
+ */
+class ReweightedGraph
+    extends GraphDelegator<String, Edge> {
+
+  /**
+   * The underlying graph.
+   */
+  private final Graph<String, Edge> baseGraph;
+  /**
+   * The overridden weights.
+   */
+  private final Map<Edge, Double> weights;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param baseGraph The underlying graph.
+   * @param weights The overridden weights.
+   */
+  private ReweightedGraph(Graph<String, Edge> baseGraph, Map<Edge, Double> weights) {
+    super(baseGraph);
+    this.baseGraph = requireNonNull(baseGraph, "baseGraph");
+    this.weights = requireNonNull(weights, "weights");
+  }
+
+  /**
+   * Returns a view on the given graph with the given weights overridden.
+   * If the given graph is already a view, the weights are merged into a new view on the same
+   * underlying graph.
+   *
+   * @param graph The graph.
+   * @param updatedWeights The weights to override.
+   * @return A view on the given graph with the given weights overridden.
+   */
+  static ReweightedGraph of(Graph<String, Edge> graph, Map<Edge, Double> updatedWeights) {
+    requireNonNull(graph, "graph");
+    requireNonNull(updatedWeights, "updatedWeights");
+
+    if (graph instanceof ReweightedGraph) {
+      ReweightedGraph view = (ReweightedGraph) graph;
+      Map<Edge, Double> mergedWeights = new HashMap<>(view.weights);
+      mergedWeights.putAll(updatedWeights);
+      return new ReweightedGraph(view.baseGraph, Collections.unmodifiableMap(mergedWeights));
+    }
+    return new ReweightedGraph(graph, Collections.unmodifiableMap(new HashMap<>(updatedWeights)));
+  }
+
+  @Override
+  public double getEdgeWeight(Edge edge) {
+    Double weight = weights.get(edge);
+    return weight != null ? weight : super.getEdgeWeight(edge);
+  }
+
+  @Override
+  public void setEdgeWeight(Edge edge, double weight) {
+    throw new UnsupportedOperationException("Weights of this graph may not be modified.");
+  }
+}
@@ -40,7 +40,9 @@ public interface ShortestPathConfiguration {
         "'TRAVELTIME': A route's cost equals the vehicle's expected travel time.",
         "'EXPLICIT_PROPERTIES': A route's cost equals the sum of the explicitly given costs "
         + "extracted from path properties.",
-        "'HOPS': A route's cost equals the number of paths it consists of."
+        "'HOPS': A route's cost equals the number of paths it consists of.",
+        "'CONGESTION': A route's cost equals the sum of penalties for the resources along it that "
+        + "are currently allocated or claimed by vehicles."
       })
   List<String> edgeEvaluators();
 
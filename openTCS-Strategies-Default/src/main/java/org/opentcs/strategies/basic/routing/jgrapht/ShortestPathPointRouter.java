@@ -9,13 +9,21 @@ package org.opentcs.strategies.basic.routing.jgrapht;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+import javax.annotation.Nullable;
+import org.jgrapht.Graph;
 import org.jgrapht.GraphPath;
 import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
+import org.jgrapht.alg.interfaces.ShortestPathAlgorithm.SingleSourcePaths;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.traverse.ClosestFirstIterator;
 import org.opentcs.components.kernel.routing.Edge;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Point;
@@ -41,11 +49,27 @@ public class ShortestPathPointRouter
 
   private final ShortestPathAlgorithm<String, Edge> algo;
 
+  private final Graph<String, Edge> graph;
+
   private final Map<String, Point> points = new HashMap<>();
 
   public ShortestPathPointRouter(ShortestPathAlgorithm<String, Edge> algo,
                                  Collection<Point> points) {
+    this(algo, null, points);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param algo The shortest path algorithm.
+   * @param graph The graph the algorithm works on, or <code>null</code>, if unknown.
+   * @param points The points.
+   */
+  public ShortestPathPointRouter(ShortestPathAlgorithm<String, Edge> algo,
+                                 @Nullable Graph<String, Edge> graph,
+                                 Collection<Point> points) {
     this.algo = requireNonNull(algo, "algo");
+    this.graph = graph;
     requireNonNull(points, "points");
 
     for (Point point : points) {
@@ -54,6 +78,25 @@ public class ShortestPathPointRouter
 
   }
 
+  /**
+   * Returns the graph the shortest path algorithm works on.
+   *
+   * @return The graph the shortest path algorithm works on, or <code>null</code>, if unknown.
+   */
+  @Nullable
+  public Graph<String, Edge> getGraph() {
+    return graph;
+  }
+
+  /**
+   * Returns the points this router knows.
+   *
+   * @return The points this router knows.
+   */
+  public Collection<Point> getPoints() {
+    return Collections.unmodifiableCollection(points.values());
+  }
+
   @Override
   public List<Route.Step> getRouteSteps(Point srcPoint, Point destPoint) {
     requireNonNull(srcPoint, "srcPoint");
@@ -98,6 +141,143 @@ public class ShortestPathPointRouter
     return (long) graphPath.getWeight();
   }
 
+  @Override
+  public Map<Point, Long> getCosts(Point srcPoint, Set<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    long timeBefore = System.currentTimeMillis();
+    Map<Point, Long> result = new HashMap<>();
+    if (destPoints.isEmpty()) {
+      return result;
+    }
+
+    if (graph != null && algo instanceof DijkstraShortestPath) {
+      result.putAll(getCostsBySearch(srcPoint, destPoints, destPoints.size()));
+      for (Point destPoint : destPoints) {
+        result.putIfAbsent(destPoint, INFINITE_COSTS);
+      }
+    }
+    else {
+      // Compute the shortest path tree for the source point once and look up all destinations in
+      // it.
+      SingleSourcePaths<String, Edge> paths = algo.getPaths(srcPoint.getName());
+      for (Point destPoint : destPoints) {
+        if (Objects.equals(srcPoint.getName(), destPoint.getName())) {
+          result.put(destPoint, 0L);
+          continue;
+        }
+
+        double weight = paths.getWeight(destPoint.getName());
+        result.put(destPoint, Double.isInfinite(weight) ? INFINITE_COSTS : (long) weight);
+      }
+    }
+
+    LOG.debug("Looking up costs from {} to {} destination points took {} milliseconds.",
+              srcPoint.getName(),
+              destPoints.size(),
+              System.currentTimeMillis() - timeBefore);
+
+    return result;
+  }
+
+  @Override
+  public Map<Point, Long> getCostsToClosest(Point srcPoint, Set<Point> destPoints, int maxCount) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    if (graph == null || !(algo instanceof DijkstraShortestPath)) {
+      return PointRouter.super.getCostsToClosest(srcPoint, destPoints, maxCount);
+    }
+
+    long timeBefore = System.currentTimeMillis();
+    Map<Point, Long> result = getCostsBySearch(srcPoint, destPoints, maxCount);
+
+    LOG.debug("Looking up costs from {} to {} closest of {} destination points took {} ms.",
+              srcPoint.getName(),
+              maxCount,
+              destPoints.size(),
+              System.currentTimeMillis() - timeBefore);
+
+    return result;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The returned point router searches a view on this one's graph on demand, so creating it does
+   * not require any precomputation, even if this one's shortest path algorithm does.
+   * Reduced weights are never negative.
+   * </p>
+   */
+  @Override
+  public PointRouter withReducedWeights(ToDoubleFunction<Edge> reductions) {
+    requireNonNull(reductions, "reductions");
+
+    if (graph == null) {
+      return this;
+    }
+
+    Map<Edge, Double> reducedWeights = new HashMap<>();
+    for (Edge edge : graph.edgeSet()) {
+      double reduction = reductions.applyAsDouble(edge);
+      if (reduction > 0) {
+        reducedWeights.put(edge, Math.max(0.0, graph.getEdgeWeight(edge) - reduction));
+      }
+    }
+    if (reducedWeights.isEmpty()) {
+      return this;
+    }
+
+    Graph<String, Edge> reducedGraph = ReweightedGraph.of(graph, reducedWeights);
+    return new ShortestPathPointRouter(new DijkstraShortestPath<>(reducedGraph),
+                                       reducedGraph,
+                                       points.values());
+  }
+
+  /**
+   * Computes the costs from the given source point to the given destination points by searching
+   * the graph in order of increasing costs from the source point.
+   * <p>
+   * The search stops as soon as the given number of destination points has been reached, so
+   * destination points close to the source point do not require the shortest path tree for the
+   * whole graph to be computed.
+   * </p>
+   *
+   * @param srcPoint The source point.
+   * @param destPoints The destination points.
+   * @param maxCount The number of destination points after reaching which the search stops.
+   * @return The costs for the destination points reached, which are the ones with the lowest costs.
+   * Destination points not reached are not contained.
+   */
+  private Map<Point, Long> getCostsBySearch(Point srcPoint, Set<Point> destPoints, int maxCount) {
+    Map<String, Point> pendingPoints = new HashMap<>();
+    for (Point destPoint : destPoints) {
+      pendingPoints.put(destPoint.getName(), destPoint);
+    }
+
+    Map<Point, Long> result = new HashMap<>();
+    if (!graph.containsVertex(srcPoint.getName())) {
+      Point destPoint = pendingPoints.get(srcPoint.getName());
+      if (destPoint != null && maxCount > 0) {
+        result.put(destPoint, 0L);
+      }
+      return result;
+    }
+
+    ClosestFirstIterator<String, Edge> iterator
+        = new ClosestFirstIterator<>(graph, srcPoint.getName());
+    while (result.size() < maxCount && !pendingPoints.isEmpty() && iterator.hasNext()) {
+      String vertex = iterator.next();
+      Point destPoint = pendingPoints.remove(vertex);
+      if (destPoint != null) {
+        result.put(destPoint, (long) iterator.getShortestPathLength(vertex));
+      }
+    }
+
+    return result;
+  }
+
   private List<Route.Step> translateToSteps(GraphPath<String, Edge> graphPath) {
     List<Edge> edges = graphPath.getEdgeList();
     List<Route.Step> result = new ArrayList<>(edges.size());
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import static java.util.Objects.requireNonNull;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * The reservation of a resource (a point or a path) by a vehicle for a time window.
+ */
+final class Reservation {
+
+  /**
+   * The name of the reserved resource.
+   */
+  private final String resourceName;
+  /**
+   * The name of the vehicle the resource is reserved for.
+   */
+  private final String vehicleName;
+  /**
+   * The start of the time window (in ms since the epoch, inclusive).
+   */
+  private final long start;
+  /**
+   * The end of the time window (in ms since the epoch, exclusive).
+   */
+  private final long end;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param resourceName The name of the reserved resource.
+   * @param vehicleName The name of the vehicle the resource is reserved for.
+   * @param start The start of the time window (in ms since the epoch, inclusive).
+   * @param end The end of the time window (in ms since the epoch, exclusive).
+   */
+  Reservation(String resourceName, String vehicleName, long start, long end) {
+    this.resourceName = requireNonNull(resourceName, "resourceName");
+    this.vehicleName = requireNonNull(vehicleName, "vehicleName");
+    checkArgument(start <= end, "start %d is after end %d", start, end);
+    this.start = start;
+    this.end = end;
+  }
+
+  public String getResourceName() {
+    return resourceName;
+  }
+
+  public String getVehicleName() {
+    return vehicleName;
+  }
+
+  public long getStart() {
+    return start;
+  }
+
+  public long getEnd() {
+    return end;
+  }
+
+  @Override
+  public String toString() {
+    return "Reservation{"
+        + "resourceName=" + resourceName
+        + ", vehicleName=" + vehicleName
+        + ", start=" + start
+        + ", end=" + end
+        + '}';
+  }
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable space-time reservation table, mapping resources (points and paths) to the time
+ * windows in which they are reserved for vehicles.
+ * <p>
+ * Modifications return a new table, so a table may be used for planning concurrently without any
+ * locking.
+ * </p>
+ */
+final class ReservationTable {
+
+  /**
+   * Indicates that a time window is not in conflict with any reservation.
+   */
+  static final long NO_CONFLICT = Long.MIN_VALUE;
+  /**
+   * A table without any reservations.
+   */
+  static final ReservationTable EMPTY = new ReservationTable(Map.of(), Map.of());
+  /**
+   * The reservations by resource name, each list sorted by the reservations' start times.
+   */
+  private final Map<String, List<Reservation>> reservationsByResource;
+  /**
+   * The reservations by vehicle name.
+   */
+  private final Map<String, List<Reservation>> reservationsByVehicle;
+
+  private ReservationTable(Map<String, List<Reservation>> reservationsByResource,
+                           Map<String, List<Reservation>> reservationsByVehicle) {
+    this.reservationsByResource = requireNonNull(reservationsByResource, "reservationsByResource");
+    this.reservationsByVehicle = requireNonNull(reservationsByVehicle, "reservationsByVehicle");
+  }
+
+  /**
+   * Checks whether the given time window of the given resource is reserved for any vehicle other
+   * than the given one.
+   *
+   * @param resourceName The name of the resource.
+   * @param vehicleName The name of the vehicle whose own reservations are to be ignored.
+   * @param start The start of the time window (inclusive).
+   * @param end The end of the time window (exclusive).
+   * @return The latest end of all conflicting reservations, or {@link #NO_CONFLICT}, if there is
+   * no conflicting reservation.
+   */
+  long getConflictEnd(String resourceName, String vehicleName, long start, long end) {
+    long result = NO_CONFLICT;
+    for (Reservation reservation : reservationsByResource.getOrDefault(resourceName, List.of())) {
+      if (reservation.getStart() >= end) {
+        break;
+      }
+      if (start < reservation.getEnd() && !vehicleName.equals(reservation.getVehicleName())) {
+        result = Math.max(result, reservation.getEnd());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the reservations of the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @return The reservations of the given vehicle.
+   */
+  List<Reservation> getReservations(String vehicleName) {
+    return reservationsByVehicle.getOrDefault(vehicleName, List.of());
+  }
+
+  /**
+   * Returns a table in which the given vehicle's reservations are replaced with the given ones.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @param reservations The vehicle's new reservations.
+   * @return The new table.
+   */
+  ReservationTable withReservations(String vehicleName, List<Reservation> reservations) {
+    Map<String, List<Reservation>> byResource = new HashMap<>(reservationsByResource);
+    Set<String> affectedResources = new HashSet<>();
+    for (Reservation reservation : getReservations(vehicleName)) {
+      affectedResources.add(reservation.getResourceName());
+    }
+    for (Reservation reservation : reservations) {
+      affectedResources.add(reservation.getResourceName());
+    }
+
+    Map<String, List<Reservation>> newByResource = reservations.stream()
+        .collect(Collectors.groupingBy(Reservation::getResourceName));
+    for (String resourceName : affectedResources) {
+      List<Reservation> resourceReservations = new ArrayList<>();
+      for (Reservation reservation : byResource.getOrDefault(resourceName, List.of())) {
+        if (!vehicleName.equals(reservation.getVehicleName())) {
+          resourceReservations.add(reservation);
+        }
+      }
+      resourceReservations.addAll(newByResource.getOrDefault(resourceName, List.of()));
+      if (resourceReservations.isEmpty()) {
+        byResource.remove(resourceName);
+      }
+      else {
+        resourceReservations.sort(Comparator.comparingLong(Reservation::getStart));
+        byResource.put(resourceName, Collections.unmodifiableList(resourceReservations));
+      }
+    }
+
+    Map<String, List<Reservation>> byVehicle = new HashMap<>(reservationsByVehicle);
+    if (reservations.isEmpty()) {
+      byVehicle.remove(vehicleName);
+    }
+    else {
+      byVehicle.put(vehicleName, Collections.unmodifiableList(new ArrayList<>(reservations)));
+    }
+
+    return new ReservationTable(Collections.unmodifiableMap(byResource),
+                                Collections.unmodifiableMap(byVehicle));
+  }
+}
@@ -0,0 +1,352 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import org.jgrapht.Graph;
+import org.opentcs.components.kernel.routing.Edge;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+
+/**
+ * Plans routes through space and time, avoiding the time windows reserved for other vehicles.
+ * <p>
+ * Routes are planned on the routing graph of the vehicle's routing group, so only the edges the
+ * vehicle may travel on according to the default router's graph mapping and edge evaluators are
+ * considered. The time a vehicle needs for travelling on a path is derived from the path's length
+ * and the lower of the path's and the vehicle's maximum velocities. Routes are planned with a
+ * time-dependent variant of Dijkstra's algorithm, minimizing the expected arrival time at the
+ * destination point. Where a path or the point it leads to is reserved for another vehicle, the
+ * vehicle may wait at its current point for the reservation to pass, as long as that point is not
+ * reserved for another vehicle in the meantime.
+ * </p>
+ * <p>
+ * Instances are immutable and may be used concurrently.
+ * </p>
+ */
+final class SpaceTimePlanner {
+
+  /**
+   * Indicates that a path cannot be entered within the maximum waiting time.
+   */
+  private static final long NO_DEPARTURE = -1;
+  /**
+   * The points by name.
+   */
+  private final Map<String, Point> points;
+  /**
+   * The time (in ms) by which every reservation is extended.
+   */
+  private final long safetyMargin;
+  /**
+   * The maximum time (in ms) a vehicle may wait at a point.
+   */
+  private final long maxWaitingTime;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param points The points in the model.
+   * @param safetyMargin The time (in ms) by which every reservation is extended.
+   * @param maxWaitingTime The maximum time (in ms) a vehicle may wait at a point.
+   */
+  SpaceTimePlanner(Collection<Point> points,
+                   long safetyMargin,
+                   long maxWaitingTime) {
+    requireNonNull(points, "points");
+    this.safetyMargin = safetyMargin;
+    this.maxWaitingTime = maxWaitingTime;
+
+    Map<String, Point> pointsByName = new HashMap<>();
+    for (Point point : points) {
+      pointsByName.put(point.getName(), point);
+    }
+    this.points = Collections.unmodifiableMap(pointsByName);
+  }
+
+  /**
+   * Plans the route with the earliest arrival time from the given source point to the given
+   * destination point.
+   *
+   * @param vehicle The vehicle to plan the route for.
+   * @param graph The routing graph of the vehicle's routing group.
+   * @param sourcePoint The point at which the route starts.
+   * @param destinationPoint The point at which the route ends.
+   * @param startTime The time (in ms since the epoch) at which the vehicle starts.
+   * @param table The reservations to be avoided.
+   * @param finalDestination Whether the vehicle is expected to stay at the destination point, i.e.
+   * the destination point must not be reserved for other vehicles at any time after the arrival.
+   * @return The route, with its costs being the sum of the weights of its edges in the given graph
+   * (i.e. costs comparable to those of the default router), or an empty optional, if no
+   * conflict-free route was found.
+   */
+  Optional<Route> planRoute(Vehicle vehicle,
+                            Graph<String, Edge> graph,
+                            Point sourcePoint,
+                            Point destinationPoint,
+                            long startTime,
+                            ReservationTable table,
+                            boolean finalDestination) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(graph, "graph");
+    requireNonNull(sourcePoint, "sourcePoint");
+    requireNonNull(destinationPoint, "destinationPoint");
+    requireNonNull(table, "table");
+
+    String destName = destinationPoint.getName();
+    if (sourcePoint.getName().equals(destName)) {
+      return Optional.of(new Route(
+          List.of(new Route.Step(null, null, sourcePoint, Vehicle.Orientation.UNDEFINED, 0)),
+          0
+      ));
+    }
+    if (!graph.containsVertex(sourcePoint.getName()) || !graph.containsVertex(destName)) {
+      return Optional.empty();
+    }
+
+    Map<String, Long> arrivalTimes = new HashMap<>();
+    Map<String, Edge> predecessorEdges = new HashMap<>();
+    Set<String> settledPoints = new HashSet<>();
+    PriorityQueue<Label> queue = new PriorityQueue<>(Comparator.comparingLong(label -> label.time));
+    arrivalTimes.put(sourcePoint.getName(), startTime);
+    queue.add(new Label(sourcePoint.getName(), startTime));
+
+    while (!queue.isEmpty()) {
+      Label label = queue.poll();
+      if (!settledPoints.add(label.pointName)) {
+        continue;
+      }
+      if (label.pointName.equals(destName)) {
+        return Optional.of(createRoute(graph, sourcePoint.getName(), destName, predecessorEdges));
+      }
+
+      for (Edge edge : graph.outgoingEdgesOf(label.pointName)) {
+        Path path = edge.getPath();
+        String nextPointName = graph.getEdgeTarget(edge);
+        if (settledPoints.contains(nextPointName)) {
+          continue;
+        }
+        long duration = travelDuration(path, !edge.isTravellingReverse(), vehicle);
+        if (duration < 0) {
+          continue;
+        }
+        long departure = earliestDeparture(table,
+                                           vehicle.getName(),
+                                           label.pointName,
+                                           path,
+                                           nextPointName,
+                                           label.time,
+                                           duration,
+                                           finalDestination && nextPointName.equals(destName));
+        if (departure == NO_DEPARTURE) {
+          continue;
+        }
+        long arrival = departure + duration;
+        if (arrival < arrivalTimes.getOrDefault(nextPointName, Long.MAX_VALUE)) {
+          arrivalTimes.put(nextPointName, arrival);
+          predecessorEdges.put(nextPointName, edge);
+          queue.add(new Label(nextPointName, arrival));
+        }
+      }
+    }
+
+    return Optional.empty();
+  }
+
+  /**
+   * Determines the time windows in which the given vehicle is expected to occupy the resources
+   * along the given route steps, waiting for other vehicles' reservations where necessary.
+   *
+   * @param vehicle The vehicle travelling the route.
+   * @param steps The route steps.
+   * @param startTime The time (in ms since the epoch) at which the vehicle starts.
+   * @param table The reservations of other vehicles.
+   * @param finalDestination Whether the vehicle is expected to stay at the final point.
+   * @param reservations The list to which the vehicle's reservations are added.
+   * @return The expected time (in ms since the epoch) of the vehicle's arrival at the final point.
+   */
+  long traverseRoute(Vehicle vehicle,
+                     List<Route.Step> steps,
+                     long startTime,
+                     ReservationTable table,
+                     boolean finalDestination,
+                     List<Reservation> reservations) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(steps, "steps");
+    requireNonNull(table, "table");
+    requireNonNull(reservations, "reservations");
+
+    long time = startTime;
+    for (int i = 0; i < steps.size(); i++) {
+      Route.Step step = steps.get(i);
+      Path path = step.getPath();
+      if (path == null || step.getSourcePoint() == null) {
+        continue;
+      }
+      String fromPointName = step.getSourcePoint().getName();
+      String toPointName = step.getDestinationPoint().getName();
+      boolean forward = path.getSourcePoint().getName().equals(fromPointName);
+      long duration = Math.max(0, travelDuration(path, forward, vehicle));
+      long departure = earliestDeparture(table,
+                                         vehicle.getName(),
+                                         fromPointName,
+                                         path,
+                                         toPointName,
+                                         time,
+                                         duration,
+                                         finalDestination && i == steps.size() - 1);
+      if (departure == NO_DEPARTURE) {
+        // The route was not planned avoiding the reservations, so the scheduler will have to
+        // resolve the conflict.
+        departure = time;
+      }
+      reservations.add(new Reservation(fromPointName,
+                                       vehicle.getName(),
+                                       time,
+                                       departure + safetyMargin));
+      reservations.add(new Reservation(path.getName(),
+                                       vehicle.getName(),
+                                       departure,
+                                       departure + duration + safetyMargin));
+      time = departure + duration;
+    }
+
+    if (finalDestination && !steps.isEmpty()) {
+      reservations.add(new Reservation(steps.get(steps.size() - 1).getDestinationPoint().getName(),
+                                       vehicle.getName(),
+                                       time,
+                                       Long.MAX_VALUE));
+    }
+    return time;
+  }
+
+  /**
+   * Returns the earliest time at which the given path can be entered without conflicting with
+   * other vehicles' reservations.
+   *
+   * @param table The reservations of other vehicles.
+   * @param vehicleName The name of the vehicle.
+   * @param fromPointName The name of the point at which the vehicle enters the path.
+   * @param path The path.
+   * @param toPointName The name of the point at which the vehicle leaves the path.
+   * @param readyTime The earliest time at which the vehicle could enter the path.
+   * @param duration The time needed for travelling on the path.
+   * @param finalDestination Whether the vehicle is expected to stay at the point it leaves the path
+   * at.
+   * @return The departure time, or {@link #NO_DEPARTURE}, if the path cannot be entered within the
+   * maximum waiting time.
+   */
+  private long earliestDeparture(ReservationTable table,
+                                 String vehicleName,
+                                 String fromPointName,
+                                 Path path,
+                                 String toPointName,
+                                 long readyTime,
+                                 long duration,
+                                 boolean finalDestination) {
+    long latestDeparture = readyTime + maxWaitingTime;
+    long departure = readyTime;
+    while (departure <= latestDeparture) {
+      long arrival = departure + duration;
+      long conflictEnd = Math.max(
+          table.getConflictEnd(path.getName(), vehicleName, departure, arrival + safetyMargin),
+          table.getConflictEnd(toPointName,
+                               vehicleName,
+                               arrival,
+                               finalDestination ? Long.MAX_VALUE : arrival + safetyMargin)
+      );
+      if (conflictEnd == ReservationTable.NO_CONFLICT) {
+        // Waiting at the current point must not block other vehicles passing it in the meantime.
+        if (departure > readyTime
+            && table.getConflictEnd(fromPointName,
+                                    vehicleName,
+                                    readyTime,
+                                    departure + safetyMargin) != ReservationTable.NO_CONFLICT) {
+          return NO_DEPARTURE;
+        }
+        return departure;
+      }
+      departure = conflictEnd;
+    }
+    return NO_DEPARTURE;
+  }
+
+  /**
+   * Returns the time (in ms) the given vehicle needs for travelling on the given path.
+   *
+   * @param path The path.
+   * @param forward Whether the vehicle travels from the path's source to its destination point.
+   * @param vehicle The vehicle.
+   * @return The travel time, or a negative value, if the vehicle cannot travel on the path in the
+   * given direction at a positive velocity.
+   */
+  private long travelDuration(Path path, boolean forward, Vehicle vehicle) {
+    int maxVelocity = forward
+        ? Math.min(vehicle.getMaxVelocity(), path.getMaxVelocity())
+        : Math.min(vehicle.getMaxReverseVelocity(), path.getMaxReverseVelocity());
+    if (maxVelocity <= 0) {
+      return -1;
+    }
+    // Lengths are in mm and velocities in mm/s.
+    return path.getLength() * 1000 / maxVelocity;
+  }
+
+  private Route createRoute(Graph<String, Edge> graph,
+                            String sourcePointName,
+                            String destPointName,
+                            Map<String, Edge> predecessorEdges) {
+    List<Edge> edges = new ArrayList<>();
+    for (String pointName = destPointName;
+         !pointName.equals(sourcePointName);
+         pointName = graph.getEdgeSource(edges.get(edges.size() - 1))) {
+      edges.add(predecessorEdges.get(pointName));
+    }
+    Collections.reverse(edges);
+
+    List<Route.Step> steps = new ArrayList<>(edges.size());
+    double costs = 0;
+    for (Edge edge : edges) {
+      steps.add(new Route.Step(edge.getPath(),
+                               points.get(graph.getEdgeSource(edge)),
+                               points.get(graph.getEdgeTarget(edge)),
+                               edge.isTravellingReverse()
+                               ? Vehicle.Orientation.BACKWARD
+                               : Vehicle.Orientation.FORWARD,
+                               steps.size()));
+      costs += graph.getEdgeWeight(edge);
+    }
+    return new Route(steps, (long) costs);
+  }
+
+  /**
+   * The expected arrival time at a point.
+   */
+  private static final class Label {
+
+    private final String pointName;
+    private final long time;
+
+    Label(String pointName, long time) {
+      this.pointName = pointName;
+      this.time = time;
+    }
+  }
+}
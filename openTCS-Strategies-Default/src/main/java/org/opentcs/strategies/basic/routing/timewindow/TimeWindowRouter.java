@@ -0,0 +1,505 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.jgrapht.Graph;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.routing.Edge;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.routing.DefaultRouter;
+import org.opentcs.strategies.basic.routing.PointRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathPointRouter;
+import org.opentcs.util.event.EventHandler;
+import org.opentcs.util.event.EventSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Router} implementation planning routes that avoid the time windows reserved for the
+ * routes selected for other vehicles (prioritised planning).
+ * <p>
+ * Whenever a route is selected for a vehicle, the time windows in which the vehicle is expected to
+ * occupy the points and paths along the route are recorded in a space-time reservation table.
+ * Routes for other vehicles are then planned around these reservations, taking a different way
+ * where waiting for a reservation to pass would delay the expected arrival more. This way,
+ * vehicles selected earlier take precedence over vehicles selected later.
+ * </p>
+ * <p>
+ * Waiting times are only used for estimating the time windows - they are not passed on to the
+ * vehicles. Whether and where a vehicle actually waits is determined by the scheduler, as usual.
+ * To keep the reservations in line with the vehicles' actual progress, a vehicle's reservations
+ * are computed again whenever it reports a new position on its route, starting at that position
+ * and the current time. Reservations for the points and paths the vehicle has passed are dropped
+ * at that time.
+ * </p>
+ * <p>
+ * The destination points for transport orders and all routing costs not related to a specific
+ * route are determined by the {@link DefaultRouter}. Routes are planned on the graph of the
+ * default router's point router for the vehicle, so routing groups, the graph mapping and edges
+ * excluded by edge evaluators are respected, and the costs of the routes returned are the sums of
+ * the respective edge weights, i.e. comparable to the costs provided by the default router. If no
+ * conflict-free route is found for a drive order within the configured maximum waiting time, or if
+ * the default router's point router does not provide its graph, the route computed by the default
+ * router is used, leaving any conflict to be resolved by the scheduler.
+ * </p>
+ */
+public class TimeWindowRouter
+    implements Router,
+               EventHandler {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(TimeWindowRouter.class);
+  /**
+   * The object service providing the model data.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * The router determining destination points and routing costs.
+   */
+  private final DefaultRouter defaultRouter;
+  /**
+   * This class's configuration.
+   */
+  private final TimeWindowRoutingConfiguration configuration;
+  /**
+   * Where this instance registers for application events.
+   */
+  private final EventSource eventSource;
+  /**
+   * The routes selected for vehicles and the vehicles' progress on them, mapped by vehicle name.
+   */
+  private final Map<String, SelectedRoute> selectedRoutes = new ConcurrentHashMap<>();
+  /**
+   * The current reservations.
+   */
+  private final AtomicReference<ReservationTable> reservations
+      = new AtomicReference<>(ReservationTable.EMPTY);
+  /**
+   * The planner for the current topology.
+   */
+  private volatile SpaceTimePlanner planner;
+  /**
+   * Indicates whether this component is enabled.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service providing the model data.
+   * @param defaultRouter The router determining destination points and routing costs.
+   * @param configuration This class's configuration.
+   * @param eventSource Where this instance registers for application events.
+   */
+  @Inject
+  public TimeWindowRouter(TCSObjectService objectService,
+                          DefaultRouter defaultRouter,
+                          TimeWindowRoutingConfiguration configuration,
+                          @ApplicationEventBus EventSource eventSource) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.defaultRouter = requireNonNull(defaultRouter, "defaultRouter");
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.eventSource = requireNonNull(eventSource, "eventSource");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    defaultRouter.initialize();
+    planner = createPlanner();
+    selectedRoutes.clear();
+    reservations.set(ReservationTable.EMPTY);
+    eventSource.subscribe(this);
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    eventSource.unsubscribe(this);
+    defaultRouter.terminate();
+    selectedRoutes.clear();
+    reservations.set(ReservationTable.EMPTY);
+    initialized = false;
+  }
+
+  @Override
+  public void topologyChanged() {
+    defaultRouter.topologyChanged();
+    planner = createPlanner();
+  }
+
+  @Override
+  public Set<Vehicle> checkRoutability(TransportOrder order) {
+    return defaultRouter.checkRoutability(order);
+  }
+
+  @Override
+  public Optional<List<DriveOrder>> getRoute(Vehicle vehicle,
+                                             Point sourcePoint,
+                                             TransportOrder transportOrder) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(sourcePoint, "sourcePoint");
+    requireNonNull(transportOrder, "transportOrder");
+
+    Optional<List<DriveOrder>> driveOrders
+        = defaultRouter.getRoute(vehicle, sourcePoint, transportOrder);
+    if (driveOrders.isEmpty()) {
+      return driveOrders;
+    }
+
+    Graph<String, Edge> graph = getRoutingGraph(vehicle);
+    if (graph == null) {
+      return driveOrders;
+    }
+
+    long timeBefore = System.currentTimeMillis();
+    SpaceTimePlanner curPlanner = planner;
+    ReservationTable table = reservations.get();
+    List<DriveOrder> result = new ArrayList<>(driveOrders.get().size());
+    Point hopSourcePoint = sourcePoint;
+    long hopStartTime = timeBefore;
+    for (int i = 0; i < driveOrders.get().size(); i++) {
+      DriveOrder driveOrder = driveOrders.get().get(i);
+      Point hopDestPoint = driveOrder.getRoute().getFinalDestinationPoint();
+      boolean finalDestination = i == driveOrders.get().size() - 1;
+      Optional<Route> plannedRoute = curPlanner.planRoute(vehicle,
+                                                          graph,
+                                                          hopSourcePoint,
+                                                          hopDestPoint,
+                                                          hopStartTime,
+                                                          table,
+                                                          finalDestination);
+      if (plannedRoute.isEmpty()) {
+        LOG.debug("No conflict-free route for {} from {} to {}, using default route.",
+                  vehicle.getName(),
+                  hopSourcePoint.getName(),
+                  hopDestPoint.getName());
+      }
+      Route hopRoute = plannedRoute.orElse(driveOrder.getRoute());
+      long arrivalTime = curPlanner.traverseRoute(vehicle,
+                                                  hopRoute.getSteps(),
+                                                  hopStartTime,
+                                                  table,
+                                                  finalDestination,
+                                                  new ArrayList<>());
+      result.add(driveOrder.withRoute(hopRoute));
+      hopSourcePoint = hopDestPoint;
+      hopStartTime = arrivalTime;
+    }
+    LOG.debug("Planning time-window route for {} took {} milliseconds.",
+              vehicle.getName(),
+              System.currentTimeMillis() - timeBefore);
+
+    return Optional.of(result);
+  }
+
+  @Override
+  public Optional<Route> getRoute(Vehicle vehicle,
+                                  Point sourcePoint,
+                                  Point destinationPoint) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(sourcePoint, "sourcePoint");
+    requireNonNull(destinationPoint, "destinationPoint");
+
+    Graph<String, Edge> graph = getRoutingGraph(vehicle);
+    if (graph == null) {
+      return defaultRouter.getRoute(vehicle, sourcePoint, destinationPoint);
+    }
+
+    Optional<Route> route = planner.planRoute(vehicle,
+                                              graph,
+                                              sourcePoint,
+                                              destinationPoint,
+                                              System.currentTimeMillis(),
+                                              reservations.get(),
+                                              true);
+    if (route.isPresent()) {
+      return route;
+    }
+    LOG.debug("No conflict-free route for {} from {} to {}, using default route.",
+              vehicle.getName(),
+              sourcePoint.getName(),
+              destinationPoint.getName());
+    return defaultRouter.getRoute(vehicle, sourcePoint, destinationPoint);
+  }
+
+  @Override
+  public long getCosts(Vehicle vehicle,
+                       Point sourcePoint,
+                       Point destinationPoint) {
+    return defaultRouter.getCosts(vehicle, sourcePoint, destinationPoint);
+  }
+
+  @Override
+  public Map<Point, Map<Point, Long>> getCosts(Vehicle vehicle,
+                                               Set<Point> sourcePoints,
+                                               Set<Point> destinationPoints) {
+    return defaultRouter.getCosts(vehicle, sourcePoints, destinationPoints);
+  }
+
+  @Override
+  public Map<Point, Long> getCostsToClosest(Vehicle vehicle,
+                                            Point sourcePoint,
+                                            Set<Point> destinationPoints,
+                                            int maxCount) {
+    return defaultRouter.getCostsToClosest(vehicle, sourcePoint, destinationPoints, maxCount);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * This is always the case, as routes depend on the time windows reserved by other vehicles.
+   * </p>
+   */
+  @Override
+  public boolean routesDependOnVehicleStates() {
+    return true;
+  }
+
+  @Override
+  public long getCostsByPointRef(Vehicle vehicle,
+                                 TCSObjectReference<Point> srcPointRef,
+                                 TCSObjectReference<Point> dstPointRef) {
+    return defaultRouter.getCostsByPointRef(vehicle, srcPointRef, dstPointRef);
+  }
+
+  @Override
+  public void selectRoute(Vehicle vehicle, List<DriveOrder> driveOrders) {
+    requireNonNull(vehicle, "vehicle");
+
+    defaultRouter.selectRoute(vehicle, driveOrders);
+
+    if (driveOrders == null) {
+      selectedRoutes.remove(vehicle.getName());
+      reserveCurrentPosition(vehicle, getCurrentPosition(vehicle));
+      return;
+    }
+
+    List<Route.Step> steps = new ArrayList<>();
+    for (DriveOrder driveOrder : driveOrders) {
+      if (driveOrder.getRoute() != null) {
+        steps.addAll(driveOrder.getRoute().getSteps());
+      }
+    }
+    SelectedRoute selectedRoute = new SelectedRoute(steps, 0);
+    selectedRoutes.put(vehicle.getName(), selectedRoute);
+    reserveRemainingRoute(vehicle, selectedRoute, getCurrentPosition(vehicle));
+  }
+
+  @Override
+  public void onEvent(Object event) {
+    if (!(event instanceof TCSObjectEvent)) {
+      return;
+    }
+
+    TCSObjectEvent objectEvent = (TCSObjectEvent) event;
+    if (objectEvent.getType() != TCSObjectEvent.Type.OBJECT_MODIFIED
+        || !(objectEvent.getCurrentObjectState() instanceof Vehicle)) {
+      return;
+    }
+
+    Vehicle previousState = (Vehicle) objectEvent.getPreviousObjectState();
+    Vehicle currentState = (Vehicle) objectEvent.getCurrentObjectState();
+    if (currentState.getCurrentPosition() == null
+        || Objects.equals(previousState.getCurrentPosition(), currentState.getCurrentPosition())) {
+      return;
+    }
+
+    Point position = objectService.fetchObject(Point.class, currentState.getCurrentPosition());
+    if (position != null) {
+      positionChanged(currentState, position);
+    }
+  }
+
+  @Override
+  public Map<Vehicle, List<DriveOrder>> getSelectedRoutes() {
+    return defaultRouter.getSelectedRoutes();
+  }
+
+  @Override
+  public Set<Point> getTargetedPoints() {
+    return defaultRouter.getTargetedPoints();
+  }
+
+  /**
+   * Returns the current reservations.
+   *
+   * @return The current reservations.
+   */
+  ReservationTable getReservationTable() {
+    return reservations.get();
+  }
+
+  private SpaceTimePlanner createPlanner() {
+    return new SpaceTimePlanner(objectService.fetchObjects(Point.class),
+                                configuration.safetyMargin(),
+                                configuration.maxWaitingTime());
+  }
+
+  /**
+   * Returns the graph the default router's point router for the given vehicle works on.
+   *
+   * @param vehicle The vehicle.
+   * @return The graph, or <code>null</code>, if the point router does not provide it.
+   */
+  @Nullable
+  private Graph<String, Edge> getRoutingGraph(Vehicle vehicle) {
+    PointRouter pointRouter = defaultRouter.getPointRouterForVehicle(vehicle);
+    if (!(pointRouter instanceof ShortestPathPointRouter)) {
+      LOG.debug("Point router for {} does not provide its graph, using default routes.",
+                vehicle.getName());
+      return null;
+    }
+    return ((ShortestPathPointRouter) pointRouter).getGraph();
+  }
+
+  /**
+   * Re-anchors the given vehicle's reservations at its new position and the current time.
+   *
+   * @param vehicle The vehicle.
+   * @param position The vehicle's new position.
+   */
+  private void positionChanged(Vehicle vehicle, Point position) {
+    SelectedRoute selectedRoute = selectedRoutes.get(vehicle.getName());
+    if (selectedRoute == null) {
+      // A vehicle without a route is expected to stay where it is - if it has any reservations.
+      if (!reservations.get().getReservations(vehicle.getName()).isEmpty()) {
+        reserveCurrentPosition(vehicle, position);
+      }
+      return;
+    }
+
+    SelectedRoute advancedRoute = selectedRoute.advancedTo(position.getName());
+    if (advancedRoute == null) {
+      LOG.debug("{} reported position {}, which is not on its remaining route.",
+                vehicle.getName(),
+                position.getName());
+      return;
+    }
+    selectedRoutes.put(vehicle.getName(), advancedRoute);
+    reserveRemainingRoute(vehicle, advancedRoute, position);
+  }
+
+  private Point getCurrentPosition(Vehicle vehicle) {
+    Vehicle curVehicle = objectService.fetchObject(Vehicle.class, vehicle.getReference());
+    if (curVehicle == null || curVehicle.getCurrentPosition() == null) {
+      return null;
+    }
+    return objectService.fetchObject(Point.class, curVehicle.getCurrentPosition());
+  }
+
+  /**
+   * Reserves the given vehicle's current position (replacing all of its other reservations), as a
+   * vehicle without a route is expected to stay where it is.
+   */
+  private void reserveCurrentPosition(Vehicle vehicle, @Nullable Point currentPosition) {
+    long now = System.currentTimeMillis();
+    List<Reservation> result = currentPosition == null
+        ? List.of()
+        : List.of(new Reservation(currentPosition.getName(),
+                                  vehicle.getName(),
+                                  now,
+                                  Long.MAX_VALUE));
+    reservations.updateAndGet(table -> table.withReservations(vehicle.getName(), result));
+  }
+
+  /**
+   * Reserves the resources along the part of the given route the vehicle has not travelled, yet,
+   * starting at the current time and replacing all of the vehicle's other reservations.
+   */
+  private void reserveRemainingRoute(Vehicle vehicle,
+                                     SelectedRoute selectedRoute,
+                                     @Nullable Point currentPosition) {
+    List<Route.Step> remainingSteps = selectedRoute.getRemainingSteps();
+    if (remainingSteps.isEmpty()) {
+      reserveCurrentPosition(vehicle, currentPosition);
+      return;
+    }
+
+    long now = System.currentTimeMillis();
+    SpaceTimePlanner curPlanner = planner;
+    reservations.updateAndGet(table -> {
+      List<Reservation> result = new ArrayList<>();
+      curPlanner.traverseRoute(vehicle, remainingSteps, now, table, true, result);
+      return table.withReservations(vehicle.getName(), result);
+    });
+  }
+
+  /**
+   * The steps of a route selected for a vehicle and the vehicle's progress on them.
+   */
+  private static final class SelectedRoute {
+
+    /**
+     * The steps of all drive orders of the route.
+     */
+    private final List<Route.Step> steps;
+    /**
+     * The index of the first step the vehicle has not finished, yet.
+     */
+    private final int nextStepIndex;
+
+    SelectedRoute(List<Route.Step> steps, int nextStepIndex) {
+      this.steps = requireNonNull(steps, "steps");
+      this.nextStepIndex = nextStepIndex;
+    }
+
+    List<Route.Step> getRemainingSteps() {
+      return steps.subList(nextStepIndex, steps.size());
+    }
+
+    /**
+     * Returns the progress after the vehicle reached the given point on its remaining route.
+     *
+     * @param pointName The name of the point reached.
+     * @return The progress, or <code>null</code>, if the point is not on the remaining route.
+     */
+    @Nullable
+    SelectedRoute advancedTo(String pointName) {
+      for (int i = nextStepIndex; i < steps.size(); i++) {
+        if (steps.get(i).getDestinationPoint().getName().equals(pointName)) {
+          return new SelectedRoute(steps, i + 1);
+        }
+      }
+      return null;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link TimeWindowRouter}.
+ */
+@ConfigurationPrefix(TimeWindowRoutingConfiguration.PREFIX)
+public interface TimeWindowRoutingConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "defaultrouter.timewindow";
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether to plan routes avoiding the time windows reserved by the routes selected for "
+        + "other vehicles."},
+      orderKey = "0_enable")
+  boolean enable();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The time (in ms) by which every reservation of a point or path is extended after the "
+        + "vehicle is expected to have left it."},
+      orderKey = "1_safetyMargin")
+  long safetyMargin();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum time (in ms) a vehicle is assumed to wait at a point for a reserved time "
+        + "window to pass when planning routes, before the point is considered a dead end."},
+      orderKey = "2_maxWaitingTime")
+  long maxWaitingTime();
+}
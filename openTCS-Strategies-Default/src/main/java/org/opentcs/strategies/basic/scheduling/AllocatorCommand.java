@@ -7,10 +7,12 @@
  */
 package org.opentcs.strategies.basic.scheduling;
 
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import org.opentcs.components.kernel.Scheduler.Client;
 import org.opentcs.data.model.TCSResource;
+import static org.opentcs.util.Assertions.checkArgument;
 
 /**
  * A command for the scheduler's allocation task.
@@ -38,9 +40,20 @@ abstract class AllocatorCommand
    * @param client The scheduler client the command is associated with.
    */
   private AllocatorCommand(int priority, Client client) {
+    this(priority, client, System.currentTimeMillis());
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param priority The command's priority (lesser values represent higher priority).
+   * @param client The scheduler client the command is associated with.
+   * @param creationTime The point of time at which the command was created.
+   */
+  private AllocatorCommand(int priority, Client client, long creationTime) {
     this.priority = priority;
     this.client = requireNonNull(client, "client");
-    this.creationTime = System.currentTimeMillis();
+    this.creationTime = creationTime;
   }
 
   @Override
@@ -63,6 +76,15 @@ abstract class AllocatorCommand
     }
   }
 
+  /**
+   * Returns the point of time at which the command was created.
+   *
+   * @return The point of time at which the command was created.
+   */
+  public long getCreationTime() {
+    return creationTime;
+  }
+
   /**
    * Returns the scheduler client this command is associated with.
    *
@@ -74,6 +96,7 @@ abstract class AllocatorCommand
 
   /**
    * Indicates resources being released by a client.
+   * Deferred allocations waiting for these resources are retried afterwards.
    */
   public static class AllocationsReleased
       extends AllocatorCommand {
@@ -113,7 +136,7 @@ abstract class AllocatorCommand
   }
 
   /**
-   * Indicates the receiving task should retry to grant deferred allocations.
+   * Indicates the receiving task should retry to grant all deferred allocations.
    */
   public static class RetryAllocates
       extends AllocatorCommand {
@@ -135,6 +158,30 @@ abstract class AllocatorCommand
     }
   }
 
+  /**
+   * Indicates the receiving task should retry to grant the deferred allocations of the command's
+   * client.
+   */
+  public static class RetryClientAllocates
+      extends AllocatorCommand {
+
+    /**
+     * Creates a new instance.
+     *
+     * @param client The scheduler client whose deferred allocations are to be retried.
+     */
+    RetryClientAllocates(Client client) {
+      super(3, client);
+    }
+
+    @Override
+    public String toString() {
+      return "RetryClientAllocates{"
+          + "client=" + getClient()
+          + '}';
+    }
+  }
+
   /**
    * Indicates the receiving task should check if a set of resources is prepared for client
    * allocation.
@@ -177,15 +224,15 @@ abstract class AllocatorCommand
   }
 
   /**
-   * Indicates the receiving task should try to allocate a set of resources for a client.
+   * Indicates the receiving task should try to allocate a sequence of resource sets for a client.
    */
   public static class Allocate
       extends AllocatorCommand {
 
     /**
-     * The resources to be allocated.
+     * The sequence of resource sets to be allocated.
      */
-    private final Set<TCSResource<?>> resources;
+    private final List<Set<TCSResource<?>>> resourceSequence;
 
     /**
      * Creates a new instance.
@@ -194,24 +241,72 @@ abstract class AllocatorCommand
      * @param resources The resources to be allocated.
      */
     Allocate(Client client, Set<TCSResource<?>> resources) {
-      super(5, client);
-      this.resources = requireNonNull(resources, "resources");
+      this(client, List.of(requireNonNull(resources, "resources")));
     }
 
     /**
-     * Returns the resources to be allocated.
+     * Creates a new instance.
      *
-     * @return The resources to be allocated.
+     * @param client The scheduler client this command is associated with.
+     * @param resourceSequence The sequence of resource sets to be allocated.
+     */
+    Allocate(Client client, List<Set<TCSResource<?>>> resourceSequence) {
+      this(client, resourceSequence, System.currentTimeMillis());
+    }
+
+    /**
+     * Creates a new instance.
+     *
+     * @param client The scheduler client this command is associated with.
+     * @param resourceSequence The sequence of resource sets to be allocated.
+     * @param creationTime The point of time at which the command was created.
+     */
+    private Allocate(Client client, List<Set<TCSResource<?>>> resourceSequence, long creationTime) {
+      super(5, client, creationTime);
+      requireNonNull(resourceSequence, "resourceSequence");
+      checkArgument(!resourceSequence.isEmpty(), "resourceSequence is empty");
+      this.resourceSequence = resourceSequence;
+    }
+
+    /**
+     * Returns the resources to be allocated first, i.e. the first set in the sequence of resource
+     * sets.
+     *
+     * @return The resources to be allocated first.
      */
     public Set<TCSResource<?>> getResources() {
-      return resources;
+      return resourceSequence.get(0);
+    }
+
+    /**
+     * Returns the sequence of resource sets to be allocated.
+     *
+     * @return The sequence of resource sets to be allocated.
+     */
+    public List<Set<TCSResource<?>>> getResourceSequence() {
+      return resourceSequence;
+    }
+
+    /**
+     * Returns a command for allocating the resource sets remaining after skipping the given number
+     * of resource sets in this command's sequence.
+     * The returned command keeps this command's creation time, so it does not lose its place among
+     * commands of the same priority.
+     *
+     * @param count The number of resource sets to skip.
+     * @return A command for allocating the remaining resource sets.
+     */
+    public Allocate skip(int count) {
+      return new Allocate(getClient(),
+                          resourceSequence.subList(count, resourceSequence.size()),
+                          getCreationTime());
     }
 
     @Override
     public String toString() {
       return "Allocate{"
           + "client=" + getClient()
-          + ", resources=" + resources
+          + ", resourceSequence=" + resourceSequence
           + '}';
     }
   }
@@ -7,10 +7,17 @@
  */
 package org.opentcs.strategies.basic.scheduling;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import static java.util.Objects.requireNonNull;
+import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.Scheduler.Client;
@@ -21,6 +28,15 @@ import org.slf4j.LoggerFactory;
 
 /**
  * Handles regular resource allocations.
+ * <p>
+ * A single instance processes all commands submitted to it one after the other.
+ * Commands are queued and processed in cycles on the kernel executor, with at most one cycle being
+ * scheduled at any time and a bounded number of commands processed per cycle.
+ * Deferred allocations to be retried during a cycle are collected and retried only once at the end
+ * of the cycle, so that multiple requests to retry the same allocations are merged.
+ * An exception thrown while processing a command (e.g. by a client's callback) is logged and does
+ * not keep the remaining commands from being processed.
+ * </p>
  */
 class AllocatorTask
     implements Runnable {
@@ -29,6 +45,10 @@ class AllocatorTask
    * This class's Logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(AllocatorTask.class);
+  /**
+   * The maximum number of commands processed per cycle.
+   */
+  private static final int MAX_COMMANDS_PER_CYCLE = 100;
   /**
    * The reservation pool.
    */
@@ -40,7 +60,7 @@ class AllocatorTask
   /**
    * Allocations deferred because they couldn't be granted, yet.
    */
-  private final Queue<AllocatorCommand.Allocate> deferredAllocations;
+  private final DeferredAllocations deferredAllocations;
   /**
    * Executes tasks.
    */
@@ -50,29 +70,108 @@ class AllocatorTask
    */
   private final Object globalSyncObject;
   /**
-   * Describes the actual task.
+   * Records the contention of resources.
+   */
+  private final ResourceContentionRecorder contentionRecorder;
+  /**
+   * The commands to be processed.
+   */
+  private final Queue<AllocatorCommand> commands = new ConcurrentLinkedQueue<>();
+  /**
+   * Whether a cycle is currently scheduled for execution on the kernel executor.
+   */
+  private final AtomicBoolean cycleScheduled = new AtomicBoolean();
+  /**
+   * The released resources for which deferred allocations are to be retried in the current cycle.
+   */
+  private final Set<TCSResource<?>> retryResources = new HashSet<>();
+  /**
+   * The clients for which deferred allocations are to be retried in the current cycle.
    */
-  private final AllocatorCommand command;
+  private final Set<Client> retryClients = new HashSet<>();
+  /**
+   * Whether all deferred allocations are to be retried in the current cycle.
+   */
+  private boolean retryAll;
 
   /**
    * Creates a new instance.
    */
   AllocatorTask(@Nonnull ReservationPool reservationPool,
-                @Nonnull Queue<AllocatorCommand.Allocate> deferredAllocations,
+                @Nonnull DeferredAllocations deferredAllocations,
                 @Nonnull Scheduler.Module allocationAdvisor,
                 @Nonnull ScheduledExecutorService kernelExecutor,
                 @Nonnull @GlobalSyncObject Object globalSyncObject,
-                @Nonnull AllocatorCommand command) {
+                @Nonnull ResourceContentionRecorder contentionRecorder) {
     this.reservationPool = requireNonNull(reservationPool, "reservationPool");
     this.deferredAllocations = requireNonNull(deferredAllocations, "deferredAllocations");
     this.allocationAdvisor = requireNonNull(allocationAdvisor, "allocationAdvisor");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
-    this.command = requireNonNull(command, "command");
+    this.contentionRecorder = requireNonNull(contentionRecorder, "contentionRecorder");
+  }
+
+  /**
+   * Adds the given command to the ones to be processed.
+   *
+   * @param command The command.
+   */
+  public void submit(@Nonnull AllocatorCommand command) {
+    requireNonNull(command, "command");
+
+    commands.add(command);
+    scheduleCycle();
+  }
+
+  /**
+   * Removes all allocations of the given client that have not been processed, yet.
+   *
+   * @param client The client.
+   */
+  public void removePendingAllocations(@Nonnull Client client) {
+    requireNonNull(client, "client");
+
+    commands.removeIf(command -> command instanceof AllocatorCommand.Allocate
+        && client.equals(command.getClient()));
   }
 
   @Override
   public void run() {
+    try {
+      for (int i = 0; i < MAX_COMMANDS_PER_CYCLE; i++) {
+        AllocatorCommand command = commands.poll();
+        if (command == null) {
+          break;
+        }
+        try {
+          process(command);
+        }
+        catch (RuntimeException exc) {
+          LOG.warn("Exception processing AllocatorCommand {}, continuing with the next one.",
+                   command,
+                   exc);
+        }
+      }
+
+      retryWaitingAllocations();
+    }
+    finally {
+      cycleScheduled.set(false);
+      // Commands may have been submitted after the last poll, or more may be left than could be
+      // processed in this cycle.
+      if (!commands.isEmpty()) {
+        scheduleCycle();
+      }
+    }
+  }
+
+  private void scheduleCycle() {
+    if (cycleScheduled.compareAndSet(false, true)) {
+      kernelExecutor.submit(this);
+    }
+  }
+
+  private void process(AllocatorCommand command) {
     LOG.debug("Processing AllocatorCommand: {}", command);
 
     if (command instanceof AllocatorCommand.Allocate) {
@@ -81,6 +180,9 @@ class AllocatorTask
     else if (command instanceof AllocatorCommand.RetryAllocates) {
       scheduleRetryWaitingAllocations();
     }
+    else if (command instanceof AllocatorCommand.RetryClientAllocates) {
+      retryClients.add(command.getClient());
+    }
     else if (command instanceof AllocatorCommand.CheckAllocationsPrepared) {
       checkAllocationsPrepared((AllocatorCommand.CheckAllocationsPrepared) command);
     }
@@ -93,13 +195,31 @@ class AllocatorTask
   }
 
   private void processAllocate(AllocatorCommand.Allocate command) {
-    if (!tryAllocate(command)) {
-      LOG.debug("{}: Resources unavailable, deferring allocation...", command.getClient().getId());
+    Scheduler.Client client = command.getClient();
+    List<Set<TCSResource<?>>> resourceSequence = command.getResourceSequence();
+
+    int allocatedCount = tryAllocate(command);
+    if (allocatedCount == 0) {
+      LOG.debug("{}: Resources unavailable, deferring allocation...", client.getId());
+      contentionRecorder.allocationDeferred(command.getResources());
       deferredAllocations.add(command);
       return;
     }
 
-    checkAllocationsPrepared(command.getClient(), command.getResources());
+    if (allocatedCount < resourceSequence.size()) {
+      LOG.debug("{}: Allocated {} of {} resource sets, continuing after callback...",
+                client.getId(),
+                allocatedCount,
+                resourceSequence.size());
+      // The client must have been called back for all allocated resources before the remaining ones
+      // may be allocated, so it receives them in the right order.
+      deferredAllocations.addContinuation(resourceSequence.get(allocatedCount - 1),
+                                          command.skip(allocatedCount));
+    }
+
+    for (Set<TCSResource<?>> resources : resourceSequence.subList(0, allocatedCount)) {
+      checkAllocationsPrepared(client, resources);
+    }
   }
 
   private void checkAllocationsPrepared(AllocatorCommand.CheckAllocationsPrepared command) {
@@ -122,8 +242,19 @@ class AllocatorTask
                client.getId(),
                resources);
       undoAllocate(client, resources);
+      // The client doesn't wait for any resources following the ones it didn't want, either.
+      deferredAllocations.removeContinuation(client, resources);
       // See if others want the resources this one didn't, then.
-      scheduleRetryWaitingAllocations();
+      scheduleRetryWaitingAllocations(resources);
+    }
+    else {
+      // Now that the client has been called back, allocations of resources following the ones just
+      // allocated may be continued.
+      AllocatorCommand.Allocate continuation = deferredAllocations.removeContinuation(client,
+                                                                                      resources);
+      if (continuation != null) {
+        processAllocate(continuation);
+      }
     }
     // Notify modules about the changes in claimed/allocated resources for this client.
     allocationAdvisor.setAllocationState(client,
@@ -132,53 +263,81 @@ class AllocatorTask
   }
 
   /**
-   * Allocates the given set of resources, if possible.
+   * Allocates as many sets of resources at the head of the given command's sequence as possible.
+   * <p>
+   * The resource sets are checked and allocated one after the other, exactly as if they had been
+   * requested one by one.
+   * Allocation stops at the first resource set that cannot be allocated and after a resource set
+   * that has not been prepared for allocation immediately.
+   * </p>
    *
    * @param command Describes the requested allocation.
-   * @return <code>true</code> if, and only if, the given resources were allocated.
+   * @return The number of resource sets at the head of the command's sequence that were allocated.
    */
-  private boolean tryAllocate(AllocatorCommand.Allocate command) {
+  private int tryAllocate(AllocatorCommand.Allocate command) {
     Scheduler.Client client = command.getClient();
-    Set<TCSResource<?>> resources = command.getResources();
 
     synchronized (globalSyncObject) {
-      if (!reservationPool.isNextInClaim(client, resources)) {
-        LOG.error("{}: Not allocating resources that are not next claimed resources: {}",
-                  client.getId(),
-                  resources);
-        return false;
+      int allocatedCount = 0;
+      for (Set<TCSResource<?>> resources : command.getResourceSequence()) {
+        if (!tryAllocate(client, resources)) {
+          break;
+        }
+        contentionRecorder.allocationGranted(resources, command.getCreationTime());
+        allocatedCount++;
+        if (!allocationAdvisor.hasPreparedAllocation(client, resources)) {
+          break;
+        }
       }
+      return allocatedCount;
+    }
+  }
 
-      LOG.debug("{}: Checking resource availability: {}...", client.getId(), resources);
-      if (!reservationPool.resourcesAvailableForUser(resources, client)) {
-        LOG.debug("{}: Resources unavailable.", client.getId());
-        return false;
-      }
+  /**
+   * Allocates the given set of resources, if possible.
+   *
+   * @param client The client requesting the resources.
+   * @param resources The resources to be allocated.
+   * @return <code>true</code> if, and only if, the given resources were allocated.
+   */
+  private boolean tryAllocate(Scheduler.Client client, Set<TCSResource<?>> resources) {
+    if (!reservationPool.isNextInClaim(client, resources)) {
+      LOG.error("{}: Not allocating resources that are not next claimed resources: {}",
+                client.getId(),
+                resources);
+      return false;
+    }
 
-      LOG.debug("{}: Checking if resources may be allocated...", client.getId());
-      if (!allocationAdvisor.mayAllocate(client, resources)) {
-        LOG.debug("{}: Resources may not be allocated.", client.getId());
-        return false;
-      }
+    LOG.debug("{}: Checking resource availability: {}...", client.getId(), resources);
+    if (!reservationPool.resourcesAvailableForUser(resources, client)) {
+      LOG.debug("{}: Resources unavailable.", client.getId());
+      return false;
+    }
 
-      LOG.debug("{}: Preparing resources for allocation...", client.getId());
-      allocationAdvisor.prepareAllocation(client, resources);
+    LOG.debug("{}: Checking if resources may be allocated...", client.getId());
+    if (!allocationAdvisor.mayAllocate(client, resources)) {
+      LOG.debug("{}: Resources may not be allocated.", client.getId());
+      return false;
+    }
 
-      LOG.debug("{}: All resources available, allocating...", client.getId());
-      // Allocate resources.
-      for (TCSResource<?> curRes : command.getResources()) {
-        reservationPool.getReservationEntry(curRes).allocate(client);
-      }
+    LOG.debug("{}: Preparing resources for allocation...", client.getId());
+    allocationAdvisor.prepareAllocation(client, resources);
 
-      LOG.debug("{}: Removing resources claim: {}...", client.getId(), resources);
-      reservationPool.unclaim(client, resources);
+    LOG.debug("{}: All resources available, allocating...", client.getId());
+    // Allocate resources.
+    reservationPool.allocate(client, resources);
+    contentionRecorder.resourcesAllocated(resources);
 
-      return true;
-    }
+    LOG.debug("{}: Removing resources claim: {}...", client.getId(), resources);
+    reservationPool.unclaim(client, resources);
+
+    return true;
   }
 
   private void allocationsReleased(AllocatorCommand.AllocationsReleased command) {
     allocationAdvisor.allocationReleased(command.getClient(), command.getResources());
+    // See if others waiting for the released resources can be served now.
+    scheduleRetryWaitingAllocations(command.getResources());
   }
 
   /**
@@ -192,21 +351,56 @@ class AllocatorTask
   private void undoAllocate(Client client, Set<TCSResource<?>> resources) {
     synchronized (globalSyncObject) {
       reservationPool.free(client, resources);
+      contentionRecorder.resourcesFreed(
+          resources.stream()
+              .filter(resource -> reservationPool.getReservationEntry(resource).isFree())
+              .collect(Collectors.toSet())
+      );
     }
   }
 
   /**
-   * Moves all waiting allocations back into the incoming queue so they can be rechecked.
+   * Marks all waiting allocations to be moved back into the incoming queue at the end of the
+   * current cycle so they can be rechecked.
    */
   private void scheduleRetryWaitingAllocations() {
-    for (AllocatorCommand.Allocate allocate : deferredAllocations) {
-      kernelExecutor.submit(new AllocatorTask(reservationPool,
-                                              deferredAllocations,
-                                              allocationAdvisor,
-                                              kernelExecutor,
-                                              globalSyncObject,
-                                              allocate));
-    }
-    deferredAllocations.clear();
+    retryAll = true;
+  }
+
+  /**
+   * Marks the waiting allocations that are waiting for any of the given resources (or any member
+   * of a block containing them) to be moved back into the incoming queue at the end of the current
+   * cycle so they can be rechecked.
+   *
+   * @param resources The resources.
+   */
+  private void scheduleRetryWaitingAllocations(Set<TCSResource<?>> resources) {
+    retryResources.addAll(resources);
+  }
+
+  private void retryWaitingAllocations() {
+    if (!retryAll && retryResources.isEmpty() && retryClients.isEmpty()) {
+      return;
+    }
+
+    List<AllocatorCommand.Allocate> allocations;
+    if (retryAll) {
+      allocations = deferredAllocations.removeAll();
+    }
+    else {
+      allocations = new ArrayList<>(deferredAllocations.removeWaitingFor(retryResources));
+      for (Client client : retryClients) {
+        allocations.addAll(deferredAllocations.removeWaitingOf(client));
+      }
+      Collections.sort(allocations);
+    }
+    retryAll = false;
+    retryResources.clear();
+    retryClients.clear();
+
+    LOG.debug("Retrying {} deferred allocations ({} remaining deferred).",
+              allocations.size(),
+              deferredAllocations.size());
+    commands.addAll(allocations);
   }
 }
@@ -8,32 +8,34 @@
 package org.opentcs.strategies.basic.scheduling;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import static java.util.Objects.requireNonNull;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import org.opentcs.access.ResourceContentionStatistics;
 import org.opentcs.components.kernel.ResourceAllocationException;
 import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
 import org.opentcs.customizations.ApplicationEventBus;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.Allocate;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.AllocationsReleased;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.CheckAllocationsPrepared;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.RetryAllocates;
+import org.opentcs.strategies.basic.scheduling.AllocatorCommand.RetryClientAllocates;
 import static org.opentcs.util.Assertions.checkArgument;
 import org.opentcs.util.event.EventBus;
 import org.opentcs.util.event.EventHandler;
@@ -63,11 +65,28 @@ public class DefaultScheduler
   /**
    * Allocations deferred because they couldn't be granted, yet.
    */
-  private final Queue<AllocatorCommand.Allocate> deferredAllocations = new LinkedBlockingQueue<>();
+  private final DeferredAllocations deferredAllocations;
   /**
-   * Executes scheduling tasks.
+   * Processes allocator commands.
    */
-  private final ScheduledExecutorService kernelExecutor;
+  private final AllocatorTask allocatorTask;
+  /**
+   * Records the contention of resources.
+   */
+  private final ResourceContentionRecorder contentionRecorder
+      = new ResourceContentionRecorder(System::currentTimeMillis);
+  /**
+   * The plant model service.
+   */
+  private final InternalPlantModelService plantModelService;
+  /**
+   * The scheduler's configuration.
+   */
+  private final DefaultSchedulerConfiguration configuration;
+  /**
+   * The command for retrying all deferred allocations.
+   */
+  private final RetryAllocates retryAllocates = new RetryAllocates(new DummyClient());
   /**
    * The kernel's event bus.
    */
@@ -76,10 +95,6 @@ public class DefaultScheduler
    * A global object to be used for synchronization within the kernel.
    */
   private final Object globalSyncObject;
-  /**
-   * Allocations that are scheduled for execution on the kernel executor.
-   */
-  private final Map<Client, List<Future<?>>> allocateFutures = new HashMap<>();
   /**
    * Indicates whether this component is enabled.
    */
@@ -90,21 +105,33 @@ public class DefaultScheduler
    *
    * @param allocationAdvisor Takes care of modules.
    * @param reservationPool The reservation pool to be used.
+   * @param plantModelService The plant model service.
    * @param kernelExecutor Executes scheduling tasks.
    * @param eventBus The kernel's event bus.
    * @param globalSyncObject The kernel threads' global synchronization object.
+   * @param configuration The scheduler's configuration.
    */
   @Inject
   public DefaultScheduler(AllocationAdvisor allocationAdvisor,
                           ReservationPool reservationPool,
+                          InternalPlantModelService plantModelService,
                           @KernelExecutor ScheduledExecutorService kernelExecutor,
                           @ApplicationEventBus EventBus eventBus,
-                          @GlobalSyncObject Object globalSyncObject) {
+                          @GlobalSyncObject Object globalSyncObject,
+                          DefaultSchedulerConfiguration configuration) {
     this.allocationAdvisor = requireNonNull(allocationAdvisor, "allocationAdvisor");
     this.reservationPool = requireNonNull(reservationPool, "reservationPool");
-    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    this.plantModelService = requireNonNull(plantModelService, "plantModelService");
+    this.deferredAllocations = new DeferredAllocations(plantModelService);
     this.eventBus = requireNonNull(eventBus, "eventBus");
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.allocatorTask = new AllocatorTask(reservationPool,
+                                           deferredAllocations,
+                                           allocationAdvisor,
+                                           requireNonNull(kernelExecutor, "kernelExecutor"),
+                                           globalSyncObject,
+                                           contentionRecorder);
+    this.configuration = requireNonNull(configuration, "configuration");
   }
 
   @Override
@@ -114,6 +141,8 @@ public class DefaultScheduler
     }
 
     reservationPool.clear();
+    deferredAllocations.clear();
+    contentionRecorder.reset(contendableResources(), configuration.contentionStatisticsWindow());
     allocationAdvisor.initialize();
 
     eventBus.subscribe(this);
@@ -177,22 +206,22 @@ public class DefaultScheduler
                     "Not the next claimed resources: %s",
                     resources);
 
-      Future<?> allocateFuture = kernelExecutor.submit(
-          new AllocatorTask(reservationPool,
-                            deferredAllocations,
-                            allocationAdvisor,
-                            kernelExecutor,
-                            globalSyncObject,
-                            new Allocate(client, resources))
-      );
-
-      // Remember the allocate future in case we need to cancel it.
-      addAllocateFuture(client, allocateFuture);
-
-      // Clean up the collection of allocate futures and remove futures that have already been
-      // completed. This could also be done in other places, but doing it for every new allocation
-      // should be sufficient.
-      removeCompletedAllocateFutures(client);
+      allocatorTask.submit(new Allocate(client, resources));
+    }
+  }
+
+  @Override
+  public void allocateSequence(Client client, List<Set<TCSResource<?>>> resourceSequence) {
+    requireNonNull(client, "client");
+    requireNonNull(resourceSequence, "resourceSequence");
+    checkArgument(!resourceSequence.isEmpty(), "resourceSequence is empty");
+
+    synchronized (globalSyncObject) {
+      checkArgument(reservationPool.isNextSequenceInClaim(client, resourceSequence),
+                    "Not the next claimed resources: %s",
+                    resourceSequence);
+
+      allocatorTask.submit(new Allocate(client, new ArrayList<>(resourceSequence)));
     }
   }
 
@@ -242,9 +271,8 @@ public class DefaultScheduler
       }
       // Allocate all requested resources that are available.
       LOG.debug("{}: Allocating immediately: {}", client.getId(), availableResources);
-      for (TCSResource<?> curResource : availableResources) {
-        reservationPool.getReservationEntry(curResource).allocate(client);
-      }
+      reservationPool.allocate(client, availableResources);
+      contentionRecorder.resourcesAllocated(availableResources);
     }
   }
 
@@ -261,20 +289,9 @@ public class DefaultScheduler
       Set<TCSResource<?>> completelyFreeResources = resources.stream()
           .filter(resource -> reservationPool.getReservationEntry(resource).isFree())
           .collect(Collectors.toCollection(HashSet::new));
-      kernelExecutor.submit(new AllocatorTask(reservationPool,
-                                              deferredAllocations,
-                                              allocationAdvisor,
-                                              kernelExecutor,
-                                              globalSyncObject,
-                                              new AllocationsReleased(client,
-                                                                      completelyFreeResources)));
+      contentionRecorder.resourcesFreed(completelyFreeResources);
+      allocatorTask.submit(new AllocationsReleased(client, completelyFreeResources));
     }
-    kernelExecutor.submit(new AllocatorTask(reservationPool,
-                                            deferredAllocations,
-                                            allocationAdvisor,
-                                            kernelExecutor,
-                                            globalSyncObject,
-                                            new RetryAllocates(client)));
   }
 
   @Override
@@ -286,22 +303,11 @@ public class DefaultScheduler
 
       LOG.debug("{}: Releasing all resources...", client.getId());
       reservationPool.freeAll(client);
+      contentionRecorder.resourcesFreed(freedResources);
       clearPendingAllocations(client);
 
-      kernelExecutor.submit(new AllocatorTask(reservationPool,
-                                              deferredAllocations,
-                                              allocationAdvisor,
-                                              kernelExecutor,
-                                              globalSyncObject,
-                                              new AllocationsReleased(client,
-                                                                      freedResources)));
+      allocatorTask.submit(new AllocationsReleased(client, freedResources));
     }
-    kernelExecutor.submit(new AllocatorTask(reservationPool,
-                                            deferredAllocations,
-                                            allocationAdvisor,
-                                            kernelExecutor,
-                                            globalSyncObject,
-                                            new RetryAllocates(client)));
   }
 
   @Override
@@ -309,19 +315,22 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     synchronized (globalSyncObject) {
       LOG.debug("{}: Clearing pending allocation requests...", client.getId());
-      deferredAllocations.removeIf(allocate -> client.equals(allocate.getClient()));
-      cancelPendingAllocateFutures(client);
+      deferredAllocations.removeAllOf(client);
+      allocatorTask.removePendingAllocations(client);
     }
   }
 
   @Override
   public void reschedule() {
-    kernelExecutor.submit(new AllocatorTask(reservationPool,
-                                            deferredAllocations,
-                                            allocationAdvisor,
-                                            kernelExecutor,
-                                            globalSyncObject,
-                                            new RetryAllocates(new DummyClient())));
+    allocatorTask.submit(retryAllocates);
+  }
+
+  @Override
+  public void retryAllocations(@Nonnull Module module, @Nonnull Client client) {
+    requireNonNull(module, "module");
+    requireNonNull(client, "client");
+
+    allocatorTask.submit(new RetryClientAllocates(client));
   }
 
   @Override
@@ -331,6 +340,11 @@ public class DefaultScheduler
     }
   }
 
+  @Override
+  public ResourceContentionStatistics getResourceContentionStatistics() {
+    return contentionRecorder.getStatistics();
+  }
+
   @Override
   public void preparationSuccessful(@Nonnull Module module,
                                     @Nonnull Client client,
@@ -339,12 +353,7 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
-    kernelExecutor.submit(new AllocatorTask(reservationPool,
-                                            deferredAllocations,
-                                            allocationAdvisor,
-                                            kernelExecutor,
-                                            globalSyncObject,
-                                            new CheckAllocationsPrepared(client, resources)));
+    allocatorTask.submit(new CheckAllocationsPrepared(client, resources));
   }
 
   @Override
@@ -367,34 +376,16 @@ public class DefaultScheduler
     }
   }
 
-  private void addAllocateFuture(Client client, Future<?> allocateFuture) {
-    if (!allocateFutures.containsKey(client)) {
-      allocateFutures.put(client, new ArrayList<>());
-    }
-
-    allocateFutures.get(client).add(allocateFuture);
-  }
-
-  private void removeCompletedAllocateFutures(Client client) {
-    if (!allocateFutures.containsKey(client)) {
-      return;
-    }
-
-    allocateFutures.get(client).removeAll(
-        allocateFutures.get(client).stream()
-            .filter(future -> future.isDone())
-            .collect(Collectors.toList())
-    );
-  }
-
-  private void cancelPendingAllocateFutures(Client client) {
-    if (!allocateFutures.containsKey(client)) {
-      return;
-    }
+  private Set<TCSResource<?>> contendableResources() {
+    Set<Point> points = plantModelService.fetchObjects(Point.class);
+    Set<Path> paths = plantModelService.fetchObjects(Path.class);
+    Set<Location> locations = plantModelService.fetchObjects(Location.class);
 
-    allocateFutures.get(client).stream()
-        .filter(future -> !future.isDone())
-        .forEach(future -> future.cancel(false));
+    Set<TCSResource<?>> result = new HashSet<>();
+    result.addAll(points);
+    result.addAll(paths);
+    result.addAll(locations);
+    return result;
   }
 
   /**
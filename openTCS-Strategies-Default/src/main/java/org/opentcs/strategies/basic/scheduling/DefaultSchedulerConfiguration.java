@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link DefaultScheduler}.
+ */
+@ConfigurationPrefix(DefaultSchedulerConfiguration.PREFIX)
+public interface DefaultSchedulerConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "defaultscheduler";
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "How the scheduler handles allocations that would lead to vehicles waiting for each other "
+        + "in a cycle. Valid values:",
+        "'NONE': Allocations are not checked for deadlocks.",
+        "'AVOID': Allocations that would close a cycle of waiting vehicles are refused.",
+        "'AVOID_AND_REROUTE': Allocations that would close a cycle of waiting vehicles are refused "
+        + "and the vehicle requesting them is rerouted."},
+      orderKey = "0_deadlock")
+  DeadlockHandling deadlockHandling();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The duration (in ms) of the recent period of time for which statistics about the "
+        + "contention of resources are provided."},
+      orderKey = "1_contention")
+  long contentionStatisticsWindow();
+
+  /**
+   * The ways of handling deadlocks.
+   */
+  enum DeadlockHandling {
+    /**
+     * Allocations are not checked for deadlocks.
+     */
+    NONE,
+    /**
+     * Allocations that would close a cycle of waiting vehicles are refused.
+     */
+    AVOID,
+    /**
+     * Allocations that would close a cycle of waiting vehicles are refused and the vehicle
+     * requesting them is rerouted.
+     */
+    AVOID_AND_REROUTE;
+  }
+}
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.TCSResourceReference;
+
+/**
+ * Keeps allocations deferred because they couldn't be granted, yet, indexed by the resources they
+ * are waiting for.
+ * <p>
+ * A deferred allocation is waiting for the resources it requested as well as for all members of
+ * blocks containing any of these resources, as allocations of block members may prevent the
+ * allocation of other members of the same block.
+ * When resources are released, only allocations waiting for any of these resources need to be
+ * retried.
+ * Allocations are always returned in their natural order (i.e. by age), so that older
+ * allocations are retried first.
+ * </p>
+ * <p>
+ * Additionally keeps the remainders of partially granted allocations of resource sequences, which
+ * are to be continued once the respective client has been called back for the last resource set
+ * granted.
+ * </p>
+ */
+class DeferredAllocations {
+
+  /**
+   * The plant model service.
+   */
+  private final InternalPlantModelService plantModelService;
+  /**
+   * The resources each deferred allocation is waiting for.
+   */
+  private final Map<AllocatorCommand.Allocate, Set<TCSResource<?>>> awaitedResources
+      = new HashMap<>();
+  /**
+   * The deferred allocations waiting for each resource.
+   */
+  private final Map<TCSResource<?>, Set<AllocatorCommand.Allocate>> allocationsByResource
+      = new HashMap<>();
+  /**
+   * The allocations to be continued after a callback, by client.
+   */
+  private final Map<Scheduler.Client, Continuation> continuations = new HashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param plantModelService The plant model service.
+   */
+  DeferredAllocations(@Nonnull InternalPlantModelService plantModelService) {
+    this.plantModelService = requireNonNull(plantModelService, "plantModelService");
+  }
+
+  /**
+   * Adds the given allocation.
+   *
+   * @param allocate The allocation.
+   */
+  public void add(@Nonnull AllocatorCommand.Allocate allocate) {
+    requireNonNull(allocate, "allocate");
+
+    // Expand the resources before locking, as doing so requires the global synchronization object.
+    Set<TCSResource<?>> resources = expandResources(allocate.getResources());
+
+    synchronized (this) {
+      awaitedResources.put(allocate, resources);
+      for (TCSResource<?> resource : resources) {
+        allocationsByResource.computeIfAbsent(resource, r -> new HashSet<>()).add(allocate);
+      }
+    }
+  }
+
+  /**
+   * Removes and returns all allocations waiting for any of the given resources.
+   *
+   * @param resources The resources.
+   * @return The allocations waiting for any of the given resources, in their natural order.
+   */
+  @Nonnull
+  public synchronized List<AllocatorCommand.Allocate> removeWaitingFor(
+      @Nonnull Set<TCSResource<?>> resources) {
+    requireNonNull(resources, "resources");
+
+    Set<AllocatorCommand.Allocate> result = new HashSet<>();
+    for (TCSResource<?> resource : resources) {
+      result.addAll(allocationsByResource.getOrDefault(resource, Collections.emptySet()));
+    }
+    result.forEach(this::remove);
+
+    return sorted(result);
+  }
+
+  /**
+   * Removes and returns all allocations waiting for resources.
+   *
+   * @return All allocations waiting for resources, in their natural order.
+   */
+  @Nonnull
+  public synchronized List<AllocatorCommand.Allocate> removeAll() {
+    List<AllocatorCommand.Allocate> result = sorted(awaitedResources.keySet());
+    awaitedResources.clear();
+    allocationsByResource.clear();
+    return result;
+  }
+
+  /**
+   * Removes and returns all allocations of the given client waiting for resources.
+   *
+   * @param client The client.
+   * @return The client's allocations waiting for resources, in their natural order.
+   */
+  @Nonnull
+  public synchronized List<AllocatorCommand.Allocate> removeWaitingOf(
+      @Nonnull Scheduler.Client client) {
+    requireNonNull(client, "client");
+
+    List<AllocatorCommand.Allocate> result = sorted(
+        awaitedResources.keySet().stream()
+            .filter(allocate -> client.equals(allocate.getClient()))
+            .collect(Collectors.toSet())
+    );
+    result.forEach(this::remove);
+    return result;
+  }
+
+  /**
+   * Removes all allocations of the given client, including one to be continued.
+   *
+   * @param client The client.
+   */
+  public synchronized void removeAllOf(@Nonnull Scheduler.Client client) {
+    requireNonNull(client, "client");
+
+    awaitedResources.keySet().stream()
+        .filter(allocate -> client.equals(allocate.getClient()))
+        .collect(Collectors.toList())
+        .forEach(this::remove);
+    continuations.remove(client);
+  }
+
+  /**
+   * Adds an allocation to be continued once its client has been called back for the given
+   * resources.
+   *
+   * @param precedingResources The resources preceding the ones to be allocated.
+   * @param allocate The allocation to be continued.
+   */
+  public synchronized void addContinuation(@Nonnull Set<TCSResource<?>> precedingResources,
+                                           @Nonnull AllocatorCommand.Allocate allocate) {
+    requireNonNull(precedingResources, "precedingResources");
+    requireNonNull(allocate, "allocate");
+
+    continuations.put(allocate.getClient(), new Continuation(precedingResources, allocate));
+  }
+
+  /**
+   * Removes and returns the allocation to be continued once the given client has been called back
+   * for the given resources.
+   *
+   * @param client The client.
+   * @param precedingResources The resources the client has been called back for.
+   * @return The allocation to be continued, or <code>null</code>, if there is none.
+   */
+  @Nullable
+  public synchronized AllocatorCommand.Allocate removeContinuation(
+      @Nonnull Scheduler.Client client,
+      @Nonnull Set<TCSResource<?>> precedingResources) {
+    requireNonNull(client, "client");
+    requireNonNull(precedingResources, "precedingResources");
+
+    Continuation continuation = continuations.get(client);
+    if (continuation == null || !continuation.precedingResources.equals(precedingResources)) {
+      return null;
+    }
+
+    continuations.remove(client);
+    return continuation.allocate;
+  }
+
+  /**
+   * Returns the number of allocations.
+   *
+   * @return The number of allocations.
+   */
+  public synchronized int size() {
+    return awaitedResources.size();
+  }
+
+  /**
+   * Removes all allocations, including the ones to be continued.
+   */
+  public synchronized void clear() {
+    awaitedResources.clear();
+    allocationsByResource.clear();
+    continuations.clear();
+  }
+
+  private void remove(AllocatorCommand.Allocate allocate) {
+    Set<TCSResource<?>> resources = awaitedResources.remove(allocate);
+    if (resources == null) {
+      return;
+    }
+
+    for (TCSResource<?> resource : resources) {
+      Set<AllocatorCommand.Allocate> allocations = allocationsByResource.get(resource);
+      allocations.remove(allocate);
+      if (allocations.isEmpty()) {
+        allocationsByResource.remove(resource);
+      }
+    }
+  }
+
+  private List<AllocatorCommand.Allocate> sorted(Set<AllocatorCommand.Allocate> allocations) {
+    List<AllocatorCommand.Allocate> result = new ArrayList<>(allocations);
+    Collections.sort(result);
+    return result;
+  }
+
+  private Set<TCSResource<?>> expandResources(Set<TCSResource<?>> resources) {
+    Set<TCSResourceReference<?>> refs = resources.stream()
+        .map(resource -> resource.getReference())
+        .collect(Collectors.toSet());
+    Set<TCSResource<?>> result = new HashSet<>(plantModelService.expandResources(refs));
+    result.addAll(resources);
+    return result;
+  }
+
+  /**
+   * An allocation to be continued once its client has been called back for the preceding
+   * resources.
+   */
+  private static class Continuation {
+
+    /**
+     * The resources preceding the ones to be allocated.
+     */
+    private final Set<TCSResource<?>> precedingResources;
+    /**
+     * The allocation to be continued.
+     */
+    private final AllocatorCommand.Allocate allocate;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param precedingResources The resources preceding the ones to be allocated.
+     * @param allocate The allocation to be continued.
+     */
+    Continuation(Set<TCSResource<?>> precedingResources, AllocatorCommand.Allocate allocate) {
+      this.precedingResources = precedingResources;
+      this.allocate = allocate;
+    }
+  }
+}
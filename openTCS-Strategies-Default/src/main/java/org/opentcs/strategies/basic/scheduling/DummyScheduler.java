@@ -69,6 +69,16 @@ public class DummyScheduler
     // Don't do anything else - this is a dummy, after all.
   }
 
+  @Override
+  public void allocateSequence(Client resourceUser, List<Set<TCSResource<?>>> resourceSequence) {
+    requireNonNull(resourceUser, "resourceUser");
+    requireNonNull(resourceSequence, "resourceSequence");
+    // Just schedule the callbacks for successful allocations.
+    for (Set<TCSResource<?>> resources : resourceSequence) {
+      callbackExecutor.execute(new CallbackTask(resourceUser, resources));
+    }
+  }
+
   @Override
   public void free(Client resourceUser, Set<TCSResource<?>> resources) {
   }
@@ -85,6 +95,10 @@ public class DummyScheduler
   public void reschedule() {
   }
 
+  @Override
+  public void retryAllocations(Module module, Client client) {
+  }
+
   @Override
   public void preparationSuccessful(Module module, Client client, Set<TCSResource<?>> resources) {
   }
@@ -18,8 +18,14 @@ import org.slf4j.LoggerFactory;
  * Contains reservation information for a resource - a reference to the
  * <code>ResourceUser</code> currently holding the resource and a counter
  * for how many times the <code>ResouceUser</code> has allocated the resource.
+ * <p>
+ * Entries are modified via {@link ReservationPool} only, which also keeps track of the resources
+ * allocated by each client.
+ * Other classes must not call this class's modifying methods, as doing so would leave the pool's
+ * index of allocations by client stale.
+ * </p>
  */
-public class ReservationEntry {
+class ReservationEntry {
 
   /**
    * This class's Logger.
@@ -45,7 +51,7 @@ public class ReservationEntry {
    *
    * @param reqResource The resource.
    */
-  public ReservationEntry(final TCSResource<?> reqResource) {
+  ReservationEntry(final TCSResource<?> reqResource) {
     this.resource = requireNonNull(reqResource, "reqResource");
   }
 
@@ -9,6 +9,7 @@ package org.opentcs.strategies.basic.scheduling;
 
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -41,6 +42,10 @@ public class ReservationPool {
    * <code>ReservationEntry</code> instances for each <code>TCSResource</code>.
    */
   private final Map<TCSResource<?>, ReservationEntry> reservations = new HashMap<>();
+  /**
+   * The resources currently allocated by each client.
+   */
+  private final Map<Scheduler.Client, Set<TCSResource<?>>> allocationsByClient = new HashMap<>();
 
   /**
    * Creates a new instance.
@@ -51,12 +56,14 @@ public class ReservationPool {
 
   /**
    * Returns a reservation entry for the given resource.
+   * The entry returned is meant for inspection only - it must not be modified other than via this
+   * pool.
    *
    * @param resource The resource for which to return the reservation entry.
    * @return The reservation entry for the given resource.
    */
   @Nonnull
-  public ReservationEntry getReservationEntry(TCSResource<?> resource) {
+  ReservationEntry getReservationEntry(TCSResource<?> resource) {
     requireNonNull(resource, "resource");
 
     ReservationEntry entry = reservations.get(resource);
@@ -149,6 +156,35 @@ public class ReservationPool {
     return true;
   }
 
+  /**
+   * Checks whether the given sequence of resource sets is at the head of the given client's claim
+   * sequence.
+   *
+   * @param client The client.
+   * @param resourceSequence The sequence of resource sets to be checked.
+   * @return <code>true</code> if, and only if, the given sequence of resource sets is at the head of
+   * the given client's claim sequence.
+   */
+  public boolean isNextSequenceInClaim(@Nonnull Scheduler.Client client,
+                                       @Nonnull List<Set<TCSResource<?>>> resourceSequence) {
+    requireNonNull(client, "client");
+    requireNonNull(resourceSequence, "resourceSequence");
+
+    Queue<Set<TCSResource<?>>> claim = claimsByClient.get(client);
+    if (claim == null || claim.size() < resourceSequence.size()) {
+      return false;
+    }
+
+    Iterator<Set<TCSResource<?>>> claimIter = claim.iterator();
+    for (Set<TCSResource<?>> resources : resourceSequence) {
+      if (!Objects.equals(resources, claimIter.next())) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
   /**
    * Returns all resources allocated by the given client.
    *
@@ -159,10 +195,7 @@ public class ReservationPool {
   public Set<TCSResource<?>> allocatedResources(@Nonnull Scheduler.Client client) {
     requireNonNull(client, "client");
 
-    return reservations.entrySet().stream()
-        .filter(entry -> entry.getValue().isAllocatedBy(client))
-        .map(entry -> entry.getKey())
-        .collect(Collectors.toSet());
+    return new HashSet<>(allocationsByClient.getOrDefault(client, Set.of()));
   }
 
   /**
@@ -189,38 +222,63 @@ public class ReservationPool {
     return true;
   }
 
+  /**
+   * Allocates the given resources for the given client.
+   * Increments the allocation counters of resources already allocated by the client.
+   *
+   * @param client The client.
+   * @param resources The resources to be allocated.
+   * @throws IllegalStateException If any of the resources is allocated by another client.
+   */
+  public void allocate(@Nonnull Scheduler.Client client, @Nonnull Set<TCSResource<?>> resources)
+      throws IllegalStateException {
+    requireNonNull(client, "client");
+    requireNonNull(resources, "resources");
+
+    for (TCSResource<?> curResource : resources) {
+      getReservationEntry(curResource).allocate(client);
+      allocationsByClient.computeIfAbsent(client, c -> new HashSet<>()).add(curResource);
+    }
+  }
+
   public void free(@Nonnull Scheduler.Client client, @Nonnull Set<TCSResource<?>> resources) {
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
     LOG.debug("{}: Releasing resources: {}", client.getId(), resources);
     for (TCSResource<?> curResource : getFreeableResources(resources, client)) {
-      getReservationEntry(curResource).free();
+      ReservationEntry entry = getReservationEntry(curResource);
+      entry.free();
+      if (entry.isFree()) {
+        removeAllocation(client, curResource);
+      }
     }
   }
 
   public void freeAll(@Nonnull Scheduler.Client client) {
     requireNonNull(client, "client");
 
-    reservations.values().stream()
-        .filter(reservationEntry -> reservationEntry.isAllocatedBy(client))
-        .forEach(reservationEntry -> reservationEntry.freeCompletely());
+    Set<TCSResource<?>> allocatedResources = allocationsByClient.remove(client);
+    if (allocatedResources == null) {
+      return;
+    }
+
+    for (TCSResource<?> curResource : allocatedResources) {
+      getReservationEntry(curResource).freeCompletely();
+    }
   }
 
+  /**
+   * Returns the resources currently allocated by all clients.
+   *
+   * @return The resources currently allocated, mapped by the IDs of the allocating clients.
+   */
   @Nonnull
   public Map<String, Set<TCSResource<?>>> getAllocations() {
     final Map<String, Set<TCSResource<?>>> result = new HashMap<>();
-    for (Map.Entry<TCSResource<?>, ReservationEntry> curEntry : reservations.entrySet()) {
-      final TCSResource<?> curResource = curEntry.getKey();
-      final Scheduler.Client curUser = curEntry.getValue().getClient();
-      if (curUser != null) {
-        Set<TCSResource<?>> userResources = result.get(curUser.getId());
-        if (userResources == null) {
-          userResources = new HashSet<>();
-        }
-        userResources.add(curResource);
-        result.put(curUser.getId(), userResources);
-      }
+    for (Map.Entry<Scheduler.Client, Set<TCSResource<?>>> curEntry
+             : allocationsByClient.entrySet()) {
+      result.put(curEntry.getKey().getId(), new HashSet<>(curEntry.getValue()));
     }
     return result;
   }
@@ -228,6 +286,19 @@ public class ReservationPool {
   public void clear() {
     claimsByClient.clear();
     reservations.clear();
+    allocationsByClient.clear();
+  }
+
+  private void removeAllocation(Scheduler.Client client, TCSResource<?> resource) {
+    Set<TCSResource<?>> allocatedResources = allocationsByClient.get(client);
+    if (allocatedResources == null) {
+      return;
+    }
+
+    allocatedResources.remove(resource);
+    if (allocatedResources.isEmpty()) {
+      allocationsByClient.remove(client);
+    }
   }
 
   /**
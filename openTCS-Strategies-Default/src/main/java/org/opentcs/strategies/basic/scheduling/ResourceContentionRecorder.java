@@ -0,0 +1,264 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.function.LongSupplier;
+import javax.annotation.Nonnull;
+import org.opentcs.access.ResourceContentionStatistics;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.TCSResourceReference;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Records how long resources are allocated and how long and how often allocations of them have to
+ * wait, within a rolling window of time.
+ * <p>
+ * The window is divided into a fixed number of buckets, each of which keeps its values in arrays
+ * indexed by the resources known at the time the recorder was reset.
+ * Values for other resources are not recorded.
+ * Whenever a bucket's time has elapsed, the oldest bucket is cleared and reused.
+ * </p>
+ */
+class ResourceContentionRecorder {
+
+  /**
+   * The number of buckets the window is divided into.
+   */
+  private static final int BUCKET_COUNT = 12;
+  /**
+   * Indicates a resource is not allocated.
+   */
+  private static final long NOT_OCCUPIED = -1;
+  /**
+   * Provides the current time (in ms).
+   */
+  private final LongSupplier clock;
+  /**
+   * The indices of the resources.
+   */
+  private final Map<TCSResource<?>, Integer> indices = new HashMap<>();
+  /**
+   * The resources, by index.
+   */
+  private TCSResourceReference<?>[] resources = new TCSResourceReference<?>[0];
+  /**
+   * The point of time since which each resource is allocated, or {@link #NOT_OCCUPIED}.
+   */
+  private long[] occupiedSince = new long[0];
+  /**
+   * The time each resource was allocated, per bucket.
+   */
+  private long[][] occupancyTimes = new long[BUCKET_COUNT][0];
+  /**
+   * The time allocations of each resource were waited for, per bucket.
+   */
+  private long[][] waitingTimes = new long[BUCKET_COUNT][0];
+  /**
+   * The number of times an allocation of each resource was deferred, per bucket.
+   */
+  private int[][] deferralCounts = new int[BUCKET_COUNT][0];
+  /**
+   * The duration of the window (in ms).
+   */
+  private long windowDuration;
+  /**
+   * The duration of each bucket (in ms).
+   */
+  private long bucketDuration = 1;
+  /**
+   * The index of the current bucket.
+   */
+  private int currentBucket;
+  /**
+   * The point of time at which the current bucket started.
+   */
+  private long currentBucketStart;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param clock Provides the current time (in ms).
+   */
+  ResourceContentionRecorder(@Nonnull LongSupplier clock) {
+    this.clock = requireNonNull(clock, "clock");
+  }
+
+  /**
+   * Discards all recorded values and prepares for recording values for the given resources.
+   *
+   * @param resources The resources to record values for.
+   * @param windowDuration The duration of the window (in ms).
+   */
+  public synchronized void reset(@Nonnull Collection<? extends TCSResource<?>> resources,
+                                 long windowDuration) {
+    requireNonNull(resources, "resources");
+    checkArgument(windowDuration >= BUCKET_COUNT,
+                  "windowDuration < %s: %s",
+                  BUCKET_COUNT,
+                  windowDuration);
+
+    indices.clear();
+    this.resources = new TCSResourceReference<?>[resources.size()];
+    for (TCSResource<?> resource : resources) {
+      int index = indices.size();
+      indices.put(resource, index);
+      this.resources[index] = resource.getReference();
+    }
+    occupiedSince = new long[resources.size()];
+    Arrays.fill(occupiedSince, NOT_OCCUPIED);
+    occupancyTimes = new long[BUCKET_COUNT][resources.size()];
+    waitingTimes = new long[BUCKET_COUNT][resources.size()];
+    deferralCounts = new int[BUCKET_COUNT][resources.size()];
+    this.windowDuration = windowDuration;
+    bucketDuration = windowDuration / BUCKET_COUNT;
+    currentBucket = 0;
+    currentBucketStart = clock.getAsLong();
+  }
+
+  /**
+   * Records the given resources being allocated.
+   * Resources that are already recorded as being allocated are ignored.
+   *
+   * @param allocatedResources The resources.
+   */
+  public synchronized void resourcesAllocated(@Nonnull Set<TCSResource<?>> allocatedResources) {
+    long now = advance();
+    for (TCSResource<?> resource : allocatedResources) {
+      Integer index = indices.get(resource);
+      if (index != null && occupiedSince[index] == NOT_OCCUPIED) {
+        occupiedSince[index] = now;
+      }
+    }
+  }
+
+  /**
+   * Records the given resources being freed completely.
+   *
+   * @param freedResources The resources.
+   */
+  public synchronized void resourcesFreed(@Nonnull Set<TCSResource<?>> freedResources) {
+    long now = advance();
+    for (TCSResource<?> resource : freedResources) {
+      Integer index = indices.get(resource);
+      if (index != null && occupiedSince[index] != NOT_OCCUPIED) {
+        occupancyTimes[currentBucket][index] += now - occupiedSince[index];
+        occupiedSince[index] = NOT_OCCUPIED;
+      }
+    }
+  }
+
+  /**
+   * Records an allocation of the given resources being deferred.
+   *
+   * @param requestedResources The resources.
+   */
+  public synchronized void allocationDeferred(@Nonnull Set<TCSResource<?>> requestedResources) {
+    advance();
+    for (TCSResource<?> resource : requestedResources) {
+      Integer index = indices.get(resource);
+      if (index != null) {
+        deferralCounts[currentBucket][index]++;
+      }
+    }
+  }
+
+  /**
+   * Records an allocation of the given resources being granted.
+   *
+   * @param requestedResources The resources.
+   * @param requestTime The point of time at which the allocation was requested.
+   */
+  public synchronized void allocationGranted(@Nonnull Set<TCSResource<?>> requestedResources,
+                                             long requestTime) {
+    long now = advance();
+    long waitingTime = Math.max(now - requestTime, 0);
+    for (TCSResource<?> resource : requestedResources) {
+      Integer index = indices.get(resource);
+      if (index != null) {
+        waitingTimes[currentBucket][index] += waitingTime;
+      }
+    }
+  }
+
+  /**
+   * Returns the statistics for the current window.
+   * Resources that have neither been allocated nor waited for within the window are omitted.
+   *
+   * @return The statistics for the current window.
+   */
+  @Nonnull
+  public synchronized ResourceContentionStatistics getStatistics() {
+    long now = advance();
+    List<ResourceContentionStatistics.Entry> entries = new ArrayList<>();
+    for (int index = 0; index < resources.length; index++) {
+      long occupancyTime = occupiedSince[index] == NOT_OCCUPIED ? 0 : now - occupiedSince[index];
+      long waitingTime = 0;
+      int deferralCount = 0;
+      for (int bucket = 0; bucket < BUCKET_COUNT; bucket++) {
+        occupancyTime += occupancyTimes[bucket][index];
+        waitingTime += waitingTimes[bucket][index];
+        deferralCount += deferralCounts[bucket][index];
+      }
+      if (occupancyTime != 0 || waitingTime != 0 || deferralCount != 0) {
+        entries.add(new ResourceContentionStatistics.Entry(resources[index],
+                                                           occupancyTime,
+                                                           waitingTime,
+                                                           deferralCount));
+      }
+    }
+    return new ResourceContentionStatistics(windowDuration, entries);
+  }
+
+  /**
+   * Moves on to the bucket for the current point of time, clearing the buckets reused.
+   *
+   * @return The current point of time.
+   */
+  private long advance() {
+    long now = clock.getAsLong();
+    long elapsedBuckets = (now - currentBucketStart) / bucketDuration;
+    if (elapsedBuckets > BUCKET_COUNT) {
+      // All buckets will be cleared, so skip the ones that would be cleared twice.
+      currentBucketStart += (elapsedBuckets - BUCKET_COUNT) * bucketDuration;
+      elapsedBuckets = BUCKET_COUNT;
+      for (int index = 0; index < occupiedSince.length; index++) {
+        if (occupiedSince[index] != NOT_OCCUPIED) {
+          occupiedSince[index] = Math.max(occupiedSince[index], currentBucketStart);
+        }
+      }
+    }
+
+    for (long i = 0; i < elapsedBuckets; i++) {
+      long bucketEnd = currentBucketStart + bucketDuration;
+      // Account for the time resources have been allocated within the bucket being left.
+      for (int index = 0; index < occupiedSince.length; index++) {
+        if (occupiedSince[index] != NOT_OCCUPIED) {
+          if (occupiedSince[index] < bucketEnd) {
+            occupancyTimes[currentBucket][index] += bucketEnd - occupiedSince[index];
+          }
+          occupiedSince[index] = Math.max(occupiedSince[index], bucketEnd);
+        }
+      }
+      currentBucket = (currentBucket + 1) % BUCKET_COUNT;
+      currentBucketStart = bucketEnd;
+      Arrays.fill(occupancyTimes[currentBucket], 0);
+      Arrays.fill(waitingTimes[currentBucket], 0);
+      Arrays.fill(deferralCounts[currentBucket], 0);
+    }
+
+    return now;
+  }
+}
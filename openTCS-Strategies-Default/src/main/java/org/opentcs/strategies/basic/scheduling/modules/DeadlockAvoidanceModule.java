@@ -0,0 +1,435 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling.modules;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.DispatcherService;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.customizations.kernel.GlobalSyncObject;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.ReroutingType;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockHandling;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Refuses allocations that would lead to clients waiting for each other in a cycle.
+ * <p>
+ * This module maintains a wait-for graph in which a client waits for another one if the latter
+ * holds any of the resources in the former's next claimed resource set.
+ * The graph is kept up to date with every allocation state reported to the module, so that checking
+ * an allocation only requires following the edges reachable from the requesting client.
+ * An allocation is refused if, with the requested resources allocated and the client waiting for
+ * its subsequently claimed resource set, the client would (transitively) wait for itself.
+ * Depending on the configuration, the requesting client is also rerouted in that case.
+ * </p>
+ * <p>
+ * A refused allocation is not waiting for any resources to be released, so the scheduler would not
+ * retry it on its own.
+ * Instead, whenever the allocation state of any client in the cycle changes, this module checks
+ * the refused allocation again and requests the scheduler to retry it once it would no longer lead
+ * to a cycle.
+ * </p>
+ * <p>
+ * Note that this module assumes that a client's {@link Scheduler.Client#getId()} returns the name
+ * of a vehicle for rerouting.
+ * </p>
+ */
+public class DeadlockAvoidanceModule
+    implements Scheduler.Module {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(DeadlockAvoidanceModule.class);
+  /**
+   * The object service.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * Provides the dispatcher service.
+   */
+  private final Provider<DispatcherService> dispatcherServiceProvider;
+  /**
+   * Provides the scheduler.
+   */
+  private final Provider<Scheduler> schedulerProvider;
+  /**
+   * A global object to be used for synchronization within the kernel.
+   */
+  private final Object globalSyncObject;
+  /**
+   * The scheduler's configuration.
+   */
+  private final DefaultSchedulerConfiguration configuration;
+  /**
+   * The client currently holding each allocated resource.
+   */
+  private final Map<TCSResource<?>, Scheduler.Client> holders = new HashMap<>();
+  /**
+   * The resources currently allocated by each client.
+   */
+  private final Map<Scheduler.Client, Set<TCSResource<?>>> allocations = new HashMap<>();
+  /**
+   * The resource sets each client has claimed but not yet allocated, in order.
+   */
+  private final Map<Scheduler.Client, List<Set<TCSResource<?>>>> claims = new HashMap<>();
+  /**
+   * The clients that have been rerouted and have not reported a new allocation state since.
+   */
+  private final Set<Scheduler.Client> reroutedClients = new HashSet<>();
+  /**
+   * The allocations refused for each client.
+   */
+  private final Map<Scheduler.Client, RefusedAllocation> refusedAllocations = new HashMap<>();
+  /**
+   * Whether this module is initialized.
+   */
+  private boolean initialized;
+
+  @Inject
+  public DeadlockAvoidanceModule(@Nonnull TCSObjectService objectService,
+                                 @Nonnull Provider<DispatcherService> dispatcherServiceProvider,
+                                 @Nonnull Provider<Scheduler> schedulerProvider,
+                                 @Nonnull @GlobalSyncObject Object globalSyncObject,
+                                 @Nonnull DefaultSchedulerConfiguration configuration) {
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.dispatcherServiceProvider = requireNonNull(dispatcherServiceProvider,
+                                                    "dispatcherServiceProvider");
+    this.schedulerProvider = requireNonNull(schedulerProvider, "schedulerProvider");
+    this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.configuration = requireNonNull(configuration, "configuration");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    synchronized (globalSyncObject) {
+      holders.clear();
+      allocations.clear();
+      claims.clear();
+      reroutedClients.clear();
+      refusedAllocations.clear();
+    }
+
+    initialized = false;
+  }
+
+  @Override
+  public void setAllocationState(Scheduler.Client client,
+                                 Set<TCSResource<?>> alloc,
+                                 List<Set<TCSResource<?>>> remainingClaim) {
+    requireNonNull(client, "client");
+    requireNonNull(alloc, "alloc");
+    requireNonNull(remainingClaim, "remainingClaim");
+
+    if (configuration.deadlockHandling() == DeadlockHandling.NONE) {
+      return;
+    }
+
+    List<Scheduler.Client> clientsToRetry;
+    synchronized (globalSyncObject) {
+      Set<TCSResource<?>> previousAlloc = allocations.getOrDefault(client, Collections.emptySet());
+      for (TCSResource<?> resource : previousAlloc) {
+        if (!alloc.contains(resource)) {
+          holders.remove(resource, client);
+        }
+      }
+      for (TCSResource<?> resource : alloc) {
+        holders.put(resource, client);
+      }
+      allocations.put(client, new HashSet<>(alloc));
+      claims.put(client, new ArrayList<>(remainingClaim));
+      reroutedClients.remove(client);
+
+      if (waitsForItself(client,
+                         Collections.emptySet(),
+                         nextClaimedResources(client),
+                         new HashSet<>())) {
+        LOG.debug("Client '{}' is waiting in a cycle.", client.getId());
+        reroute(client);
+      }
+
+      clientsToRetry = recheckRefusedAllocations(client);
+    }
+    retryAllocations(clientsToRetry);
+  }
+
+  @Override
+  public boolean mayAllocate(Scheduler.Client client,
+                             Set<TCSResource<?>> resources) {
+    requireNonNull(client, "client");
+    requireNonNull(resources, "resources");
+
+    if (configuration.deadlockHandling() == DeadlockHandling.NONE) {
+      return true;
+    }
+
+    synchronized (globalSyncObject) {
+      Set<Scheduler.Client> involvedClients = new HashSet<>();
+      if (!waitsForItself(client,
+                          resources,
+                          claimedResourcesFollowing(client, resources),
+                          involvedClients)) {
+        refusedAllocations.remove(client);
+        return true;
+      }
+
+      LOG.debug("Not allowing allocation of {} for client '{}' as it would lead to a deadlock.",
+                resources,
+                client.getId());
+      refusedAllocations.put(client, new RefusedAllocation(resources, involvedClients));
+      reroute(client);
+      return false;
+    }
+  }
+
+  @Override
+  public void prepareAllocation(Scheduler.Client client,
+                                Set<TCSResource<?>> resources) {
+    requireNonNull(client, "client");
+    requireNonNull(resources, "resources");
+
+    if (configuration.deadlockHandling() == DeadlockHandling.NONE) {
+      return;
+    }
+
+    List<Scheduler.Client> clientsToRetry;
+    synchronized (globalSyncObject) {
+      for (TCSResource<?> resource : resources) {
+        holders.put(resource, client);
+      }
+      allocations.computeIfAbsent(client, c -> new HashSet<>()).addAll(resources);
+
+      // Within allocations of resource sequences, the client's allocation state is reported only
+      // after all sets have been allocated, so advance its claim here.
+      List<Set<TCSResource<?>>> claim = claims.get(client);
+      if (claim != null) {
+        int index = claim.indexOf(resources);
+        if (index >= 0) {
+          claim.subList(0, index + 1).clear();
+        }
+      }
+
+      clientsToRetry = recheckRefusedAllocations(client);
+    }
+    retryAllocations(clientsToRetry);
+  }
+
+  @Override
+  public boolean hasPreparedAllocation(Scheduler.Client client,
+                                       Set<TCSResource<?>> resources) {
+    return true;
+  }
+
+  @Override
+  public void allocationReleased(Scheduler.Client client,
+                                 Set<TCSResource<?>> resources) {
+    requireNonNull(client, "client");
+    requireNonNull(resources, "resources");
+
+    if (configuration.deadlockHandling() == DeadlockHandling.NONE) {
+      return;
+    }
+
+    List<Scheduler.Client> clientsToRetry;
+    synchronized (globalSyncObject) {
+      Set<TCSResource<?>> alloc = allocations.getOrDefault(client, Collections.emptySet());
+      for (TCSResource<?> resource : resources) {
+        alloc.remove(resource);
+        holders.remove(resource, client);
+      }
+
+      clientsToRetry = recheckRefusedAllocations(client);
+    }
+    retryAllocations(clientsToRetry);
+  }
+
+  /**
+   * Checks the refused allocations involving the given client again, after the client's
+   * allocation state has changed.
+   *
+   * @param changedClient The client whose allocation state has changed.
+   * @return The clients whose refused allocations would no longer lead to a cycle.
+   */
+  private List<Scheduler.Client> recheckRefusedAllocations(Scheduler.Client changedClient) {
+    List<Scheduler.Client> result = new ArrayList<>();
+
+    for (Iterator<Map.Entry<Scheduler.Client, RefusedAllocation>> iter
+             = refusedAllocations.entrySet().iterator();
+         iter.hasNext();) {
+      Map.Entry<Scheduler.Client, RefusedAllocation> entry = iter.next();
+      Scheduler.Client client = entry.getKey();
+      RefusedAllocation refusedAllocation = entry.getValue();
+      if (!client.equals(changedClient)
+          && !refusedAllocation.involvedClients.contains(changedClient)) {
+        continue;
+      }
+
+      if (!claims.getOrDefault(client, Collections.emptyList())
+          .contains(refusedAllocation.resources)) {
+        // The client does not wait for the refused resources any more.
+        iter.remove();
+        continue;
+      }
+
+      Set<Scheduler.Client> involvedClients = new HashSet<>();
+      if (waitsForItself(client,
+                         refusedAllocation.resources,
+                         claimedResourcesFollowing(client, refusedAllocation.resources),
+                         involvedClients)) {
+        entry.setValue(new RefusedAllocation(refusedAllocation.resources, involvedClients));
+      }
+      else {
+        LOG.debug("Allocation of {} for client '{}' would no longer lead to a deadlock.",
+                  refusedAllocation.resources,
+                  client.getId());
+        iter.remove();
+        result.add(client);
+      }
+    }
+
+    return result;
+  }
+
+  private void retryAllocations(List<Scheduler.Client> clients) {
+    for (Scheduler.Client client : clients) {
+      schedulerProvider.get().retryAllocations(this, client);
+    }
+  }
+
+  /**
+   * Checks whether the given client would wait for itself if it held the given additional
+   * resources and waited for the given ones next.
+   *
+   * @param client The client.
+   * @param additionalResources The resources the client is assumed to hold additionally.
+   * @param awaitedResources The resources the client is assumed to wait for next.
+   * @param visited The set to which the clients (transitively) waited for are added.
+   * @return <code>true</code> if, and only if, the client would wait for itself.
+   */
+  private boolean waitsForItself(Scheduler.Client client,
+                                 Set<TCSResource<?>> additionalResources,
+                                 Set<TCSResource<?>> awaitedResources,
+                                 Set<Scheduler.Client> visited) {
+    Deque<Scheduler.Client> pending = new ArrayDeque<>();
+    pushHolders(awaitedResources, client, client, additionalResources, pending);
+
+    while (!pending.isEmpty()) {
+      Scheduler.Client waitedFor = pending.pop();
+      if (waitedFor.equals(client)) {
+        return true;
+      }
+      if (visited.add(waitedFor)) {
+        pushHolders(nextClaimedResources(waitedFor),
+                    waitedFor,
+                    client,
+                    additionalResources,
+                    pending);
+      }
+    }
+
+    return false;
+  }
+
+  private void pushHolders(Set<TCSResource<?>> awaitedResources,
+                           Scheduler.Client waitingClient,
+                           Scheduler.Client client,
+                           Set<TCSResource<?>> additionalResources,
+                           Deque<Scheduler.Client> pending) {
+    for (TCSResource<?> resource : awaitedResources) {
+      Scheduler.Client holder = additionalResources.contains(resource)
+          ? client
+          : holders.get(resource);
+      if (holder != null && !holder.equals(waitingClient)) {
+        pending.push(holder);
+      }
+    }
+  }
+
+  private Set<TCSResource<?>> nextClaimedResources(Scheduler.Client client) {
+    List<Set<TCSResource<?>>> claim = claims.getOrDefault(client, Collections.emptyList());
+    return claim.isEmpty() ? Collections.emptySet() : claim.get(0);
+  }
+
+  private Set<TCSResource<?>> claimedResourcesFollowing(Scheduler.Client client,
+                                                        Set<TCSResource<?>> resources) {
+    List<Set<TCSResource<?>>> claim = claims.getOrDefault(client, Collections.emptyList());
+    int index = claim.indexOf(resources);
+    return index >= 0 && index + 1 < claim.size() ? claim.get(index + 1) : Collections.emptySet();
+  }
+
+  private void reroute(Scheduler.Client client) {
+    if (configuration.deadlockHandling() != DeadlockHandling.AVOID_AND_REROUTE
+        || !reroutedClients.add(client)) {
+      return;
+    }
+
+    Vehicle vehicle = objectService.fetchObject(Vehicle.class, client.getId());
+    if (vehicle == null) {
+      LOG.debug("Client '{}' is not a vehicle; not rerouting.", client.getId());
+      return;
+    }
+
+    LOG.info("Rerouting vehicle '{}' to resolve a deadlock.", vehicle.getName());
+    dispatcherServiceProvider.get().reroute(vehicle.getReference(), ReroutingType.REGULAR);
+  }
+
+  /**
+   * An allocation refused as it would have led to a cycle.
+   */
+  private static class RefusedAllocation {
+
+    /**
+     * The resources requested.
+     */
+    private final Set<TCSResource<?>> resources;
+    /**
+     * The clients the requesting client would have (transitively) waited for.
+     */
+    private final Set<Scheduler.Client> involvedClients;
+
+    RefusedAllocation(Set<TCSResource<?>> resources, Set<Scheduler.Client> involvedClients) {
+      this.resources = resources;
+      this.involvedClients = involvedClients;
+    }
+  }
+}
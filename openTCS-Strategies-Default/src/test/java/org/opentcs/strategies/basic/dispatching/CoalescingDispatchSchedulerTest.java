@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ */
+public class CoalescingDispatchSchedulerTest {
+
+  private ScheduledExecutorService executor;
+  private Runnable task;
+  private ScheduledFuture<?> future;
+  private CoalescingDispatchScheduler scheduler;
+
+  @BeforeEach
+  public void setUp() {
+    executor = mock(ScheduledExecutorService.class);
+    task = mock(Runnable.class);
+    future = mock(ScheduledFuture.class);
+    doReturn(future).when(executor).schedule(any(Runnable.class), anyLong(), any(TimeUnit.class));
+    scheduler = new CoalescingDispatchScheduler(executor, task, 60000);
+  }
+
+  @Test
+  public void mergeRequestsIntoPendingRun() {
+    scheduler.requestRun();
+    scheduler.requestRun();
+    scheduler.requestRun();
+
+    ArgumentCaptor<Runnable> runCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor).schedule(runCaptor.capture(), eq(0L), eq(TimeUnit.MILLISECONDS));
+
+    runCaptor.getValue().run();
+
+    verify(task, times(1)).run();
+  }
+
+  @Test
+  public void delayRunsByMinimumInterval() {
+    scheduler.requestRun();
+    ArgumentCaptor<Runnable> runCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(executor).schedule(runCaptor.capture(), anyLong(), eq(TimeUnit.MILLISECONDS));
+    runCaptor.getValue().run();
+
+    scheduler.requestRun();
+
+    ArgumentCaptor<Long> delayCaptor = ArgumentCaptor.forClass(Long.class);
+    verify(executor, times(2))
+        .schedule(any(Runnable.class), delayCaptor.capture(), eq(TimeUnit.MILLISECONDS));
+    assertThat(delayCaptor.getValue(), is(greaterThan(0L)));
+    assertThat(delayCaptor.getValue(), is(lessThanOrEqualTo(60000L)));
+  }
+
+  @Test
+  public void scheduleNewRunAfterCancellation() {
+    scheduler.requestRun();
+    scheduler.cancel();
+    scheduler.requestRun();
+
+    verify(future).cancel(false);
+    verify(executor, times(2)).schedule(any(Runnable.class), eq(0L), eq(TimeUnit.MILLISECONDS));
+  }
+}
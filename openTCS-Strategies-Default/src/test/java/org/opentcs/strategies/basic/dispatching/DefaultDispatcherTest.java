@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.opentcs.components.kernel.services.InternalVehicleService;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.phase.assignment.AssignmentRouteCache;
+import org.opentcs.util.event.EventSource;
+
+/**
+ * Unit tests for {@link DefaultDispatcher}.
+ */
+public class DefaultDispatcherTest {
+
+  private Point pointA;
+  private Point pointB;
+  private Path pathAB;
+  private Vehicle vehicle;
+  private TransportOrder order;
+  private AssignmentRouteCache assignmentRouteCache;
+  private DefaultDispatcher dispatcher;
+
+  @BeforeEach
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pathAB = new Path("A-->B", pointA.getReference(), pointB.getReference());
+    vehicle = new Vehicle("vehicle").withCurrentPosition(pointA.getReference());
+    order = new TransportOrder("order", List.of());
+
+    assignmentRouteCache = new AssignmentRouteCache(mock(EventSource.class));
+    assignmentRouteCache.initialize();
+    dispatcher = new DefaultDispatcher(mock(OrderReservationPool.class),
+                                       mock(TransportOrderUtil.class),
+                                       mock(InternalVehicleService.class),
+                                       mock(EventSource.class),
+                                       mock(ScheduledExecutorService.class),
+                                       mock(FullDispatchTask.class),
+                                       () -> mock(PeriodicVehicleRedispatchingTask.class),
+                                       mock(DefaultDispatcherConfiguration.class),
+                                       mock(RerouteUtil.class),
+                                       assignmentRouteCache);
+  }
+
+  @Test
+  public void discardAssignmentRoutesComputedBeforeRoutingTopologyUpdate() {
+    assignmentRouteCache.put(vehicle,
+                             order,
+                             routeOverPathAB(),
+                             assignmentRouteCache.getInvalidationCount());
+
+    // The path is locked...
+    assignmentRouteCache.onEvent(new TCSObjectEvent(pathAB.withLocked(true),
+                                                    pathAB,
+                                                    TCSObjectEvent.Type.OBJECT_MODIFIED));
+    assertThat(assignmentRouteCache.get(vehicle, order), is(nullValue()));
+    // ...but a dispatch run still computes a route with the router's previous topology...
+    assignmentRouteCache.put(vehicle,
+                             order,
+                             routeOverPathAB(),
+                             assignmentRouteCache.getInvalidationCount());
+    // ...until the routing topology is updated.
+    dispatcher.topologyChanged();
+
+    assertThat(assignmentRouteCache.get(vehicle, order), is(nullValue()));
+  }
+
+  private Optional<List<DriveOrder>> routeOverPathAB() {
+    Route route = new Route(
+        List.of(new Route.Step(pathAB, pointA, pointB, Vehicle.Orientation.FORWARD, 0)),
+        10
+    );
+    return Optional.of(
+        List.of(new DriveOrder(new DriveOrder.Destination(pointB.getReference())).withRoute(route))
+    );
+  }
+}
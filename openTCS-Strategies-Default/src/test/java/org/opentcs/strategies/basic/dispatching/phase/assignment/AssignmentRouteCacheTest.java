@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.List;
+import java.util.Optional;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.event.EventSource;
+
+/**
+ */
+public class AssignmentRouteCacheTest {
+
+  private AssignmentRouteCache cache;
+  private Vehicle vehicle;
+  private TransportOrder order;
+  private Optional<List<DriveOrder>> result;
+
+  @BeforeEach
+  public void setUp() {
+    cache = new AssignmentRouteCache(mock(EventSource.class));
+    cache.initialize();
+    vehicle = new Vehicle("vehicle")
+        .withCurrentPosition(new Point("A").getReference());
+    order = new TransportOrder("order", List.of());
+    result = Optional.of(List.of());
+    cache.put(vehicle, order, result, cache.getInvalidationCount());
+  }
+
+  @Test
+  public void keepResultsOnIrrelevantVehicleChanges() {
+    cache.onEvent(new TCSObjectEvent(vehicle.withEnergyLevel(42),
+                                     vehicle,
+                                     TCSObjectEvent.Type.OBJECT_MODIFIED));
+
+    assertThat(cache.get(vehicle, order), is(result));
+  }
+
+  @Test
+  public void discardResultsOnVehiclePositionChange() {
+    cache.onEvent(new TCSObjectEvent(vehicle.withCurrentPosition(new Point("B").getReference()),
+                                     vehicle,
+                                     TCSObjectEvent.Type.OBJECT_MODIFIED));
+
+    assertThat(cache.get(vehicle, order), is(nullValue()));
+  }
+
+  @Test
+  public void discardResultsOnOrderStateChange() {
+    cache.onEvent(new TCSObjectEvent(order.withState(TransportOrder.State.DISPATCHABLE),
+                                     order,
+                                     TCSObjectEvent.Type.OBJECT_MODIFIED));
+
+    assertThat(cache.get(vehicle, order), is(nullValue()));
+  }
+
+  @Test
+  public void discardAllResultsOnPathChange() {
+    Path path = new Path("A-B", new Point("A").getReference(), new Point("B").getReference());
+    cache.onEvent(new TCSObjectEvent(path.withLocked(true),
+                                     path,
+                                     TCSObjectEvent.Type.OBJECT_MODIFIED));
+
+    assertThat(cache.get(vehicle, order), is(nullValue()));
+  }
+
+  @Test
+  public void keepResultsOnPointOccupancyChange() {
+    Point point = new Point("B");
+    cache.onEvent(new TCSObjectEvent(point.withOccupyingVehicle(vehicle.getReference()),
+                                     point,
+                                     TCSObjectEvent.Type.OBJECT_MODIFIED));
+
+    assertThat(cache.get(vehicle, order), is(result));
+  }
+
+  @Test
+  public void keepResultsOnIrrelevantPathChanges() {
+    Path path = new Path("A-B", new Point("A").getReference(), new Point("B").getReference());
+    cache.onEvent(new TCSObjectEvent(path.withLayout(new Path.Layout()),
+                                     path,
+                                     TCSObjectEvent.Type.OBJECT_MODIFIED));
+
+    assertThat(cache.get(vehicle, order), is(result));
+  }
+
+  @Test
+  public void discardAllResultsOnPointTypeChange() {
+    Point point = new Point("B");
+    cache.onEvent(new TCSObjectEvent(point.withType(Point.Type.PARK_POSITION),
+                                     point,
+                                     TCSObjectEvent.Type.OBJECT_MODIFIED));
+
+    assertThat(cache.get(vehicle, order), is(nullValue()));
+  }
+
+  @Test
+  public void ignoreResultsComputedDuringInvalidation() {
+    Vehicle otherVehicle = new Vehicle("otherVehicle");
+    long invalidationCount = cache.getInvalidationCount();
+    cache.onEvent(new TCSObjectEvent(null, order, TCSObjectEvent.Type.OBJECT_REMOVED));
+
+    cache.put(otherVehicle, order, result, invalidationCount);
+
+    assertThat(cache.get(otherVehicle, order), is(nullValue()));
+  }
+}
@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
+import org.opentcs.strategies.basic.dispatching.OrderReservationPool;
+import org.opentcs.strategies.basic.dispatching.selection.candidates.CompositeAssignmentCandidateSelectionFilter;
+import org.opentcs.strategies.basic.dispatching.selection.orders.CompositeTransportOrderSelectionFilter;
+import org.opentcs.strategies.basic.dispatching.selection.orders.IsFreelyDispatchableToAnyVehicle;
+import org.opentcs.strategies.basic.dispatching.selection.vehicles.IsAvailableForAnyOrder;
+
+/**
+ */
+public class ChainFollowUpOrdersPhaseTest {
+
+  private TCSObjectService objectService;
+  private Router router;
+  private OrderReservationPool orderReservationPool;
+  private IsFreelyDispatchableToAnyVehicle isFreelyDispatchableToAnyVehicle;
+  private IsAvailableForAnyOrder isAvailableForAnyOrder;
+  private DefaultDispatcherConfiguration configuration;
+  private Location location;
+  private Point accessPoint;
+  private Point busyVehicleEnd;
+  private Point idleVehiclePosition;
+  private Vehicle busyVehicle;
+  private Vehicle idleVehicle;
+  private TransportOrder freeOrder;
+  private ChainFollowUpOrdersPhase phase;
+
+  @BeforeEach
+  public void setUp() {
+    objectService = mock(TCSObjectService.class);
+    router = mock(Router.class);
+    orderReservationPool = new OrderReservationPool();
+    isFreelyDispatchableToAnyVehicle = mock(IsFreelyDispatchableToAnyVehicle.class);
+    isAvailableForAnyOrder = mock(IsAvailableForAnyOrder.class);
+    configuration = mock(DefaultDispatcherConfiguration.class);
+    when(configuration.followUpOrderChainLength()).thenReturn(1);
+
+    LocationType locationType = new LocationType("type");
+    accessPoint = new Point("accessPoint").withType(Point.Type.HALT_POSITION);
+    location = new Location("location", locationType.getReference());
+    location = location.withAttachedLinks(Set.of(
+        new Location.Link(location.getReference(), accessPoint.getReference())
+    ));
+    when(objectService.fetchObject(Location.class, location.getName())).thenReturn(location);
+    when(objectService.fetchObject(LocationType.class, locationType.getReference()))
+        .thenReturn(locationType);
+    when(objectService.fetchObject(Point.class, accessPoint.getReference()))
+        .thenReturn(accessPoint);
+    busyVehicleEnd = new Point("busyVehicleEnd");
+    idleVehiclePosition = new Point("idleVehiclePosition");
+    when(objectService.fetchObject(Point.class, idleVehiclePosition.getReference()))
+        .thenReturn(idleVehiclePosition);
+
+    TransportOrder currentOrder
+        = new TransportOrder("currentOrder", List.of(driveOrder(busyVehicleEnd, 10)))
+            .withCurrentDriveOrderIndex(0);
+    when(objectService.fetchObject(TransportOrder.class, currentOrder.getReference()))
+        .thenReturn(currentOrder);
+    busyVehicle = new Vehicle("busyVehicle")
+        .withIntegrationLevel(Vehicle.IntegrationLevel.TO_BE_UTILIZED)
+        .withProcState(Vehicle.ProcState.PROCESSING_ORDER)
+        .withTransportOrder(currentOrder.getReference());
+    idleVehicle = new Vehicle("idleVehicle")
+        .withIntegrationLevel(Vehicle.IntegrationLevel.TO_BE_UTILIZED)
+        .withCurrentPosition(idleVehiclePosition.getReference());
+    when(isAvailableForAnyOrder.test(any(Vehicle.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0) == idleVehicle);
+    when(objectService.fetchObjects(eq(Vehicle.class), any()))
+        .thenAnswer(invocation -> filter(Set.of(busyVehicle, idleVehicle),
+                                         invocation.getArgument(1)));
+
+    freeOrder = new TransportOrder("freeOrder", List.of(driveOrder(busyVehicleEnd, 0)));
+    when(isFreelyDispatchableToAnyVehicle.test(any(TransportOrder.class))).thenReturn(true);
+    when(objectService.fetchObjects(eq(TransportOrder.class), any()))
+        .thenAnswer(invocation -> filter(Set.of(freeOrder), invocation.getArgument(1)));
+
+    phase = new ChainFollowUpOrdersPhase(objectService,
+                                         router,
+                                         orderReservationPool,
+                                         new CompositeTransportOrderSelectionFilter(Set.of()),
+                                         new CompositeAssignmentCandidateSelectionFilter(Set.of()),
+                                         isFreelyDispatchableToAnyVehicle,
+                                         isAvailableForAnyOrder,
+                                         configuration);
+    phase.initialize();
+  }
+
+  @Test
+  public void reserveOrderReachedEarlierByBusyVehicle() {
+    mockCosts(busyVehicle, busyVehicleEnd, 5);
+    mockCosts(idleVehicle, idleVehiclePosition, 100);
+    when(router.getRoute(busyVehicle, busyVehicleEnd, freeOrder))
+        .thenReturn(Optional.of(List.of(driveOrder(busyVehicleEnd, 5))));
+
+    phase.run();
+
+    assertThat(orderReservationPool.findReservations(busyVehicle.getReference()),
+               contains(freeOrder.getReference()));
+  }
+
+  @Test
+  public void leaveOrderReachedEarlierByIdleVehicle() {
+    mockCosts(busyVehicle, busyVehicleEnd, 5);
+    mockCosts(idleVehicle, idleVehiclePosition, 10);
+
+    phase.run();
+
+    assertThat(orderReservationPool.isReserved(freeOrder.getReference()), is(false));
+  }
+
+  @Test
+  public void releaseReservationsWhenPlanningAgain() {
+    mockCosts(busyVehicle, busyVehicleEnd, 5);
+    mockCosts(idleVehicle, idleVehiclePosition, 100);
+    when(router.getRoute(busyVehicle, busyVehicleEnd, freeOrder))
+        .thenReturn(Optional.of(List.of(driveOrder(busyVehicleEnd, 5))));
+    phase.run();
+
+    mockCosts(idleVehicle, idleVehiclePosition, 1);
+    phase.run();
+
+    assertThat(orderReservationPool.findReservations(busyVehicle.getReference()), is(empty()));
+  }
+
+  @Test
+  public void computeRoutesOnlyForChainedOrders() {
+    TransportOrder otherOrder = new TransportOrder("otherOrder",
+                                                   List.of(driveOrder(busyVehicleEnd, 0)));
+    when(objectService.fetchObjects(eq(TransportOrder.class), any()))
+        .thenAnswer(invocation -> filter(Set.of(freeOrder, otherOrder),
+                                         invocation.getArgument(1)));
+    mockCosts(busyVehicle, busyVehicleEnd, 5);
+    mockCosts(idleVehicle, idleVehiclePosition, 100);
+    when(router.getRoute(eq(busyVehicle), eq(busyVehicleEnd), any(TransportOrder.class)))
+        .thenReturn(Optional.of(List.of(driveOrder(busyVehicleEnd, 5))));
+
+    phase.run();
+
+    // Costs are computed once per vehicle and source point, a route only for the chained order.
+    verify(router, times(1)).getCosts(eq(busyVehicle), eq(Set.of(busyVehicleEnd)), any());
+    verify(router, times(1)).getCosts(eq(idleVehicle), eq(Set.of(idleVehiclePosition)), any());
+    verify(router, times(1))
+        .getRoute(eq(busyVehicle), eq(busyVehicleEnd), any(TransportOrder.class));
+    verify(router, never()).getRoute(eq(idleVehicle), any(Point.class), any(TransportOrder.class));
+  }
+
+  private void mockCosts(Vehicle vehicle, Point sourcePoint, long costs) {
+    when(router.getCosts(eq(vehicle), eq(Set.of(sourcePoint)), any()))
+        .thenReturn(Map.of(sourcePoint, Map.of(accessPoint, costs)));
+  }
+
+  private DriveOrder driveOrder(Point destinationPoint, long costs) {
+    return new DriveOrder(new DriveOrder.Destination(location.getReference()))
+        .withRoute(new Route(List.of(new Route.Step(null,
+                                                    null,
+                                                    destinationPoint,
+                                                    Vehicle.Orientation.FORWARD,
+                                                    0)),
+                             costs));
+  }
+
+  private <T> Set<T> filter(Set<T> objects, Predicate<T> predicate) {
+    return objects.stream().filter(predicate).collect(Collectors.toSet());
+  }
+}
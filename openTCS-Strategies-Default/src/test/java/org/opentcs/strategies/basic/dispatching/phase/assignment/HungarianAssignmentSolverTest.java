@@ -0,0 +1,137 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.dispatching.phase.assignment;
+
+import java.util.Random;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import org.junit.jupiter.api.Test;
+import static org.opentcs.strategies.basic.dispatching.phase.assignment.HungarianAssignmentSolver.UNASSIGNED;
+
+/**
+ */
+public class HungarianAssignmentSolverTest {
+
+  @Test
+  public void findAssignmentWithMinimalTotalCosts() {
+    // Assigning greedily row by row would result in total costs of 1 + 7 + 9 = 17.
+    long[][] costs = {
+      {1, 2, 3},
+      {2, 4, 7},
+      {3, 6, 9}
+    };
+
+    int[] result = HungarianAssignmentSolver.solve(costs);
+
+    assertThat(result, is(new int[]{2, 1, 0}));
+    assertThat(totalCosts(costs, result), is(10L));
+  }
+
+  @Test
+  public void assignEveryRowIfThereAreMoreColumns() {
+    long[][] costs = {
+      {5, 1, 9, 9},
+      {1, 2, 9, 9}
+    };
+
+    assertThat(HungarianAssignmentSolver.solve(costs), is(new int[]{1, 0}));
+  }
+
+  @Test
+  public void leaveRowsUnassignedIfThereAreMoreRows() {
+    long[][] costs = {
+      {5, 8},
+      {1, 2},
+      {9, 1}
+    };
+
+    assertThat(HungarianAssignmentSolver.solve(costs), is(new int[]{UNASSIGNED, 0, 1}));
+  }
+
+  @Test
+  public void handleEmptyMatrix() {
+    assertThat(HungarianAssignmentSolver.solve(new long[0][0]), is(new int[0]));
+    assertThat(HungarianAssignmentSolver.solve(new long[2][0]),
+               is(new int[]{UNASSIGNED, UNASSIGNED}));
+  }
+
+  @Test
+  public void matchBruteForceResultsForRandomMatrices() {
+    Random random = new Random(42);
+    for (int run = 0; run < 50; run++) {
+      int rowCount = 1 + random.nextInt(5);
+      int columnCount = 1 + random.nextInt(5);
+      long[][] costs = new long[rowCount][columnCount];
+      for (int row = 0; row < rowCount; row++) {
+        for (int column = 0; column < columnCount; column++) {
+          costs[row][column] = random.nextInt(100);
+        }
+      }
+
+      int[] result = HungarianAssignmentSolver.solve(costs);
+
+      assertThat(totalCosts(costs, result),
+                 is(bruteForceMinimum(costs, 0, new boolean[columnCount])));
+    }
+  }
+
+  @Test
+  public void solveLargeMatrixQuickly() {
+    Random random = new Random(42);
+    long[][] costs = new long[200][1000];
+    for (long[] row : costs) {
+      for (int column = 0; column < row.length; column++) {
+        row[column] = random.nextInt(1000000);
+      }
+    }
+
+    long timeBefore = System.currentTimeMillis();
+    HungarianAssignmentSolver.solve(costs);
+
+    assertThat(System.currentTimeMillis() - timeBefore, is(lessThan(5000L)));
+  }
+
+  private long totalCosts(long[][] costs, int[] assignment) {
+    long result = 0;
+    for (int row = 0; row < assignment.length; row++) {
+      if (assignment[row] != UNASSIGNED) {
+        result += costs[row][assignment[row]];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the minimal costs for assigning min(rows, columns) pairs, starting at the given row.
+   */
+  private long bruteForceMinimum(long[][] costs, int row, boolean[] usedColumns) {
+    int remainingColumns = 0;
+    for (boolean used : usedColumns) {
+      remainingColumns += used ? 0 : 1;
+    }
+    if (row == costs.length || remainingColumns == 0) {
+      return 0;
+    }
+
+    long result = Long.MAX_VALUE;
+    // Rows may only be skipped if there are more remaining rows than columns.
+    if (costs.length - row > remainingColumns) {
+      result = bruteForceMinimum(costs, row + 1, usedColumns);
+    }
+    for (int column = 0; column < usedColumns.length; column++) {
+      if (!usedColumns[column]) {
+        usedColumns[column] = true;
+        result = Math.min(result,
+                          costs[row][column] + bruteForceMinimum(costs, row + 1, usedColumns));
+        usedColumns[column] = false;
+      }
+    }
+    return result;
+  }
+}
@@ -19,6 +19,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -42,6 +44,9 @@ public class DefaultParkingPositionSupplierTest {
   public void setUp() {
     plantModelService = mock(InternalPlantModelService.class);
     router = mock(Router.class);
+    when(router.getCosts(any(Vehicle.class), anySet(), anySet())).thenCallRealMethod();
+    when(router.getCostsToClosest(any(Vehicle.class), any(Point.class), anySet(), anyInt()))
+        .thenCallRealMethod();
     vehicle = new Vehicle("vehicle");
     supplier = new DefaultParkingPositionSupplier(plantModelService, router);
   }
@@ -17,6 +17,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
@@ -40,6 +42,9 @@ public class PrioritizedParkingPositionSupplierTest {
   public void setUp() {
     plantModelService = mock(InternalPlantModelService.class);
     router = mock(Router.class);
+    when(router.getCosts(any(Vehicle.class), anySet(), anySet())).thenCallRealMethod();
+    when(router.getCostsToClosest(any(Vehicle.class), any(Point.class), anySet(), anyInt()))
+        .thenCallRealMethod();
     priorityFunction = new ParkingPositionToPriorityFunction();
     supplier = new PrioritizedParkingPositionSupplier(plantModelService, router, priorityFunction);
   }
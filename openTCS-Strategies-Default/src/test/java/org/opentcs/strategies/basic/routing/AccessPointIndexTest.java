@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.order.DriveOrder.Destination;
+
+/**
+ */
+public class AccessPointIndexTest {
+
+  private TCSObjectService objectService;
+  private Point pointPlain;
+  private Point pointWithOwnOperations;
+  private Point pointNotHalting;
+  private Location location;
+  private AccessPointIndex index;
+
+  @BeforeEach
+  public void setUp() {
+    objectService = mock(TCSObjectService.class);
+    pointPlain = new Point("plain").withType(Point.Type.HALT_POSITION);
+    pointWithOwnOperations = new Point("ownOperations").withType(Point.Type.HALT_POSITION);
+    pointNotHalting = new Point("notHalting").withType(Point.Type.REPORT_POSITION);
+
+    LocationType locationType = new LocationType("type").withAllowedOperations(List.of("load"));
+    location = new Location("location", locationType.getReference());
+    location = location.withAttachedLinks(Set.of(
+        new Location.Link(location.getReference(), pointPlain.getReference()),
+        new Location.Link(location.getReference(), pointWithOwnOperations.getReference())
+            .withAllowedOperations(Set.of("unload")),
+        new Location.Link(location.getReference(), pointNotHalting.getReference())
+    ));
+
+    when(objectService.fetchObject(Location.class, location.getName())).thenReturn(location);
+    when(objectService.fetchObjects(Location.class)).thenReturn(Set.of(location));
+    when(objectService.fetchObject(LocationType.class, locationType.getReference()))
+        .thenReturn(locationType);
+    for (Point point : List.of(pointPlain, pointWithOwnOperations, pointNotHalting)) {
+      when(objectService.fetchObject(Point.class, point.getReference())).thenReturn(point);
+    }
+
+    index = new AccessPointIndex(objectService);
+  }
+
+  @Test
+  public void applyOperationsOfLinksAndLocationType() {
+    assertThat(index.getAccessPoints(location.getReference(), "load"), is(Set.of(pointPlain)));
+    assertThat(index.getAccessPoints(location.getReference(), "unload"),
+               is(Set.of(pointWithOwnOperations)));
+    assertThat(index.getAccessPoints(location.getReference(), Destination.OP_NOP),
+               is(Set.of(pointPlain, pointWithOwnOperations)));
+    assertThat(index.getAccessPoints(location.getReference(), "park"), is(empty()));
+  }
+
+  @Test
+  public void includeOnlyLocationsWhoseTypesAllowOperation() {
+    assertThat(index.getLocationsAllowingOperation("load"),
+               is(Map.of(location, Set.of(pointPlain))));
+    assertThat(index.getLocationsAllowingOperation("unload").isEmpty(), is(true));
+  }
+
+  @Test
+  public void fetchModelDataOnlyOnceUntilCleared() {
+    index.getAccessPoints(location.getReference(), "load");
+    index.getAccessPoints(location.getReference(), "unload");
+    index.getLocationsAllowingOperation("load");
+    verify(objectService, times(1)).fetchObject(Point.class, pointPlain.getReference());
+
+    index.clear();
+    index.getAccessPoints(location.getReference(), "load");
+    verify(objectService, times(2)).fetchObject(Point.class, pointPlain.getReference());
+  }
+}
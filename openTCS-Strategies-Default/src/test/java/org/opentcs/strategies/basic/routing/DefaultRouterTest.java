@@ -7,25 +7,53 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.anEmptyMap;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import org.mockito.ArgumentCaptor;
 import org.mockito.invocation.InvocationOnMock;
 import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.routing.GroupMapper;
 import org.opentcs.components.kernel.services.TCSObjectService;
 import org.opentcs.data.TCSObject;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.routing.edgeevaluator.EdgeEvaluatorCongestion;
 
 /**
  * Test cases for the {@link DefaultRouter}.
@@ -62,6 +90,16 @@ public class DefaultRouterTest {
    */
   private DefaultRouterConfiguration configuration;
 
+  /**
+   * The congestion edge evaluator.
+   */
+  private EdgeEvaluatorCongestion congestionEvaluator;
+
+  /**
+   * The kernel executor.
+   */
+  private ScheduledExecutorService kernelExecutor;
+
   @BeforeEach
   public void setUp() {
     objectService = mock(TCSObjectService.class);
@@ -74,9 +112,16 @@ public class DefaultRouterTest {
     routingGroupMapper = new DefaultRoutingGroupMapper();
     configuration = mock(DefaultRouterConfiguration.class);
     when(configuration.routeToCurrentPosition()).thenReturn(false);
+    congestionEvaluator = mock(EdgeEvaluatorCongestion.class);
+    kernelExecutor = mock(ScheduledExecutorService.class);
     router = spy(createRouter());
   }
 
+  @AfterEach
+  public void tearDown() {
+    router.terminate();
+  }
+
   @Test
   public void shouldUseDefaultRoutingGroup() {
     Point sourcePoint = new Point("Some source point");
@@ -129,6 +174,418 @@ public class DefaultRouterTest {
     verify(builder, times(15)).createPointRouter(any());
   }
 
+  @Test
+  public void computePointRoutersForAllRoutingGroupsOnInitialization() {
+    Point sourcePoint = new Point("Some source point");
+    Point destinationPoint = new Point("Some destination point");
+    Vehicle vehicle1 = createVehicle("Vehicle-001", 1);
+    Vehicle vehicle2 = createVehicle("Vehicle-002", 2);
+
+    router.initialize();
+    verify(builder, times(2)).createPointRouter(any());
+
+    router.getCosts(vehicle1, sourcePoint, destinationPoint);
+    router.getCosts(vehicle2, sourcePoint, destinationPoint);
+    verify(builder, times(2)).createPointRouter(any());
+  }
+
+  @Test
+  public void keepUsingPreviousPointRouterUntilNewOneIsComputed()
+      throws InterruptedException {
+    Point sourcePoint = new Point("Some source point");
+    Point destinationPoint = new Point("Some destination point");
+    Vehicle vehicle = createVehicle("Vehicle-001", 1);
+
+    PointRouter oldPointRouter = mock(PointRouter.class);
+    when(oldPointRouter.getCosts(sourcePoint, destinationPoint)).thenReturn(1L);
+    PointRouter newPointRouter = mock(PointRouter.class);
+    when(newPointRouter.getCosts(sourcePoint, destinationPoint)).thenReturn(2L);
+    CountDownLatch computationLatch = new CountDownLatch(1);
+    when(builder.createPointRouter(any()))
+        .thenReturn(oldPointRouter)
+        .then(invocation -> {
+          computationLatch.await();
+          return newPointRouter;
+        });
+
+    router.initialize();
+    Thread topologyUpdate = new Thread(router::topologyChanged);
+    topologyUpdate.start();
+    verify(builder, timeout(1000).times(2)).createPointRouter(any());
+
+    // While the new point router is being computed, the previous one is still used.
+    assertThat(router.getCosts(vehicle, sourcePoint, destinationPoint), is(1L));
+
+    // Once the topology update is done, the new point router is used.
+    computationLatch.countDown();
+    topologyUpdate.join(1000);
+    assertFalse(topologyUpdate.isAlive());
+    assertThat(router.getCosts(vehicle, sourcePoint, destinationPoint), is(2L));
+  }
+
+  @Test
+  public void reflectSelectedRoutes() {
+    Vehicle vehicle1 = createVehicle("Vehicle-001", 1);
+    Vehicle vehicle2 = createVehicle("Vehicle-002", 1);
+    List<DriveOrder> driveOrders = List.of(mock(DriveOrder.class));
+
+    router.initialize();
+    router.selectRoute(vehicle1, driveOrders);
+    router.selectRoute(vehicle2, driveOrders);
+    assertThat(router.getSelectedRoutes(), is(aMapWithSize(2)));
+
+    router.selectRoute(vehicle1, null);
+    assertThat(router.getSelectedRoutes(), is(aMapWithSize(1)));
+    assertThat(router.getSelectedRoutes(), hasEntry(vehicle2, driveOrders));
+
+    router.terminate();
+    assertThat(router.getSelectedRoutes(), is(anEmptyMap()));
+  }
+
+  @Test
+  public void computeCheapestCombinationOfDestinationPoints() {
+    Vehicle vehicle = createVehicle("Vehicle-001", 1);
+    Point sourcePoint = new Point("S");
+    Point pointA1 = new Point("A1");
+    Point pointA2 = new Point("A2");
+    Point pointB1 = new Point("B1");
+    Point pointB2 = new Point("B2");
+    Location locationA = createLocation("A", pointA1, pointA2);
+    Location locationB = createLocation("B", pointB1, pointB2);
+
+    // Travelling to the cheapest access point of the first location first would result in
+    // higher costs for the whole route.
+    Map<String, Long> costs = new HashMap<>();
+    costs.put("S-A1", 1L);
+    costs.put("S-A2", 5L);
+    costs.put("A1-B1", 10L);
+    costs.put("A1-B2", 10L);
+    costs.put("A2-B1", 1L);
+    costs.put("A2-B2", 20L);
+    PointRouter pointRouter = createPointRouter(costs);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+
+    TransportOrder order = new TransportOrder(
+        "some-order",
+        List.of(new DriveOrder(new DriveOrder.Destination(locationA.getReference())
+            .withOperation(DriveOrder.Destination.OP_NOP)),
+                new DriveOrder(new DriveOrder.Destination(locationB.getReference())
+                    .withOperation(DriveOrder.Destination.OP_NOP)))
+    );
+
+    router.initialize();
+    Optional<List<DriveOrder>> result = router.getRoute(vehicle, sourcePoint, order);
+
+    assertThat(result.isPresent(), is(true));
+    assertThat(result.get().get(0).getRoute().getFinalDestinationPoint(), is(pointA2));
+    assertThat(result.get().get(1).getRoute().getFinalDestinationPoint(), is(pointB1));
+    // Route steps are only computed for the cheapest combination of destination points.
+    verify(pointRouter).getRouteSteps(sourcePoint, pointA2);
+    verify(pointRouter).getRouteSteps(pointA2, pointB1);
+    verify(pointRouter, never()).getRouteSteps(sourcePoint, pointA1);
+  }
+
+  @Test
+  public void returnEmptyRouteIfDestinationPointsAreUnreachable() {
+    Vehicle vehicle = createVehicle("Vehicle-001", 1);
+    Point sourcePoint = new Point("S");
+    Point pointA1 = new Point("A1");
+    Point pointB1 = new Point("B1");
+    Location locationA = createLocation("A", pointA1);
+    Location locationB = createLocation("B", pointB1);
+
+    Map<String, Long> costs = new HashMap<>();
+    costs.put("S-A1", 1L);
+    PointRouter pointRouter = createPointRouter(costs);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+
+    TransportOrder order = new TransportOrder(
+        "some-order",
+        List.of(new DriveOrder(new DriveOrder.Destination(locationA.getReference())
+            .withOperation(DriveOrder.Destination.OP_NOP)),
+                new DriveOrder(new DriveOrder.Destination(locationB.getReference())
+                    .withOperation(DriveOrder.Destination.OP_NOP)))
+    );
+
+    router.initialize();
+
+    assertThat(router.getRoute(vehicle, sourcePoint, order).isPresent(), is(false));
+    assertThat(router.checkRoutability(order), is(Set.of()));
+    verify(pointRouter, never()).getRouteSteps(any(), any());
+  }
+
+  @Test
+  public void considerVehiclesOfRoutingGroupsWithRouteAsRoutable() {
+    Vehicle vehicle = createVehicle("Vehicle-001", 1);
+    Point pointA1 = new Point("A1");
+    Point pointB1 = new Point("B1");
+    Location locationA = createLocation("A", pointA1);
+    Location locationB = createLocation("B", pointB1);
+
+    Map<String, Long> costs = new HashMap<>();
+    costs.put("A1-B1", 1L);
+    PointRouter pointRouter = createPointRouter(costs);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+
+    TransportOrder order = new TransportOrder(
+        "some-order",
+        List.of(new DriveOrder(new DriveOrder.Destination(locationA.getReference())
+            .withOperation(DriveOrder.Destination.OP_NOP)),
+                new DriveOrder(new DriveOrder.Destination(locationB.getReference())
+                    .withOperation(DriveOrder.Destination.OP_NOP)))
+    );
+
+    router.initialize();
+
+    assertThat(router.checkRoutability(order), contains(vehicle));
+  }
+
+  @Test
+  public void computeCostMatrixWithOneLookupPerSourcePoint() {
+    Vehicle vehicle = createVehicle("Vehicle-001", 1);
+    Point pointA = new Point("A");
+    Point pointB = new Point("B");
+    Point pointC = new Point("C");
+
+    Map<String, Long> costs = new HashMap<>();
+    costs.put("A-C", 5L);
+    costs.put("B-C", 7L);
+    PointRouter pointRouter = createPointRouter(costs);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+
+    router.initialize();
+    Map<Point, Map<Point, Long>> result = router.getCosts(vehicle,
+                                                          Set.of(pointA, pointB),
+                                                          Set.of(pointB, pointC));
+
+    assertThat(result, is(aMapWithSize(2)));
+    assertThat(result.get(pointA), hasEntry(pointB, PointRouter.INFINITE_COSTS));
+    assertThat(result.get(pointA), hasEntry(pointC, 5L));
+    assertThat(result.get(pointB), hasEntry(pointB, 0L));
+    assertThat(result.get(pointB), hasEntry(pointC, 7L));
+    verify(pointRouter).getCosts(pointA, Set.of(pointB, pointC));
+    verify(pointRouter).getCosts(pointB, Set.of(pointB, pointC));
+  }
+
+  @Test
+  public void updateCostsOfPathsAffectedByCongestion()
+      throws InterruptedException {
+    Vehicle vehicle = createVehicle("Vehicle-001", 1);
+    Point pointA = new Point("A");
+    Point pointB = new Point("B");
+    Path pathAB = new Path("A-->B", pointA.getReference(), pointB.getReference());
+    PointRouter oldPointRouter = mock(PointRouter.class);
+    PointRouter newPointRouter = mock(PointRouter.class);
+    when(newPointRouter.getCosts(pointA, pointB)).thenReturn(1234L);
+    enableCongestionEvaluator(Set.of(pathAB), Set.of(pointB.getName()));
+    when(builder.createPointRouter(any())).thenReturn(oldPointRouter);
+    when(builder.updatePointRouter(oldPointRouter, vehicle, Set.of(pathAB)))
+        .thenReturn(newPointRouter);
+
+    router.initialize();
+    runCongestionUpdate();
+
+    verify(builder, timeout(1000)).updatePointRouter(oldPointRouter, vehicle, Set.of(pathAB));
+    long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(1);
+    while (router.getCosts(vehicle, pointA, pointB) != 1234L
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(router.getCosts(vehicle, pointA, pointB), is(1234L));
+  }
+
+  @Test
+  public void usePointRouterPerRoutingGroupWithCongestionEvaluator() {
+    Point sourcePoint = new Point("Some source point");
+    Point destinationPoint = new Point("Some destination point");
+    Vehicle vehicle1 = createVehicle("Vehicle-001", 1);
+    Vehicle vehicle2 = createVehicle("Vehicle-002", 1);
+    enableCongestionEvaluator(Set.of(), Set.of());
+
+    router.initialize();
+    router.getCosts(vehicle1, sourcePoint, destinationPoint);
+    router.getCosts(vehicle2, sourcePoint, destinationPoint);
+
+    verify(builder, times(1)).createPointRouter(any());
+  }
+
+  @Test
+  public void excludeOwnPenaltiesPerQueryWithCongestionEvaluator() {
+    Point sourcePoint = new Point("Some source point");
+    Point destinationPoint = new Point("Some destination point");
+    Vehicle vehicle = createVehicle("Vehicle-001", 1);
+    enableCongestionEvaluator(Set.of(), Set.of());
+    when(congestionEvaluator.getOwnPenalties(vehicle))
+        .thenReturn(Map.of(sourcePoint.getName(), 100L, destinationPoint.getName(), 100L));
+    PointRouter pointRouter = mock(PointRouter.class);
+    PointRouter reducedPointRouter = mock(PointRouter.class);
+    when(pointRouter.withReducedWeights(any())).thenReturn(reducedPointRouter);
+    when(reducedPointRouter.getCosts(sourcePoint, destinationPoint)).thenReturn(42L);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+
+    router.initialize();
+
+    assertThat(router.getCosts(vehicle, sourcePoint, destinationPoint), is(42L));
+    verify(pointRouter, never()).getCosts(any(Point.class), any(Point.class));
+  }
+
+  @Test
+  public void ignoreOwnPenaltyForSourcePointWithCongestionEvaluator() {
+    Point sourcePoint = new Point("Some source point");
+    Point destinationPoint = new Point("Some destination point");
+    Vehicle vehicle = createVehicle("Vehicle-001", 1);
+    enableCongestionEvaluator(Set.of(), Set.of());
+    when(congestionEvaluator.getOwnPenalties(vehicle))
+        .thenReturn(Map.of(sourcePoint.getName(), 100L));
+    PointRouter pointRouter = mock(PointRouter.class);
+    when(pointRouter.getCosts(sourcePoint, destinationPoint)).thenReturn(42L);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+
+    router.initialize();
+
+    assertThat(router.getCosts(vehicle, sourcePoint, destinationPoint), is(42L));
+    verify(pointRouter, never()).withReducedWeights(any());
+  }
+
+  @Test
+  public void returnCachedRouteForRepeatedQueries() {
+    when(configuration.routeCacheCapacity()).thenReturn(100L);
+    router = createRouter();
+    Vehicle vehicle1 = createVehicle("Vehicle-001", 1);
+    Vehicle vehicle2 = createVehicle("Vehicle-002", 1);
+    Point pointA = new Point("A");
+    Point pointB = new Point("B");
+
+    Map<String, Long> costs = new HashMap<>();
+    costs.put("A-B", 5L);
+    PointRouter pointRouter = createPointRouter(costs);
+    when(builder.createPointRouter(any())).thenReturn(pointRouter);
+
+    router.initialize();
+    Optional<Route> route1 = router.getRoute(vehicle1, pointA, pointB);
+    Optional<Route> route2 = router.getRoute(vehicle2, pointA, pointB);
+
+    assertThat(route1.isPresent(), is(true));
+    assertThat(route2, is(route1));
+    verify(pointRouter, times(1)).getRouteSteps(pointA, pointB);
+  }
+
+  @Test
+  public void discardCachedRoutesOnTopologyChange()
+      throws InterruptedException {
+    when(configuration.routeCacheCapacity()).thenReturn(100L);
+    router = createRouter();
+    Vehicle vehicle = createVehicle("Vehicle-001", 1);
+    Point pointA = new Point("A");
+    Point pointB = new Point("B");
+
+    Map<String, Long> costs = new HashMap<>();
+    costs.put("A-B", 5L);
+    PointRouter oldPointRouter = createPointRouter(costs);
+    PointRouter newPointRouter = createPointRouter(costs);
+    when(builder.createPointRouter(any()))
+        .thenReturn(oldPointRouter)
+        .thenReturn(newPointRouter);
+
+    router.initialize();
+    router.getRoute(vehicle, pointA, pointB);
+    router.topologyChanged();
+    router.getRoute(vehicle, pointA, pointB);
+
+    verify(oldPointRouter, times(1)).getRouteSteps(pointA, pointB);
+    verify(newPointRouter, times(1)).getRouteSteps(pointA, pointB);
+  }
+
+  /**
+   * Enables the congestion evaluator and re-creates the router accordingly.
+   *
+   * @param paths The paths known to the object service.
+   * @param changedResources The names of the resources the congestion evaluator reports as changed.
+   */
+  private void enableCongestionEvaluator(Set<Path> paths, Set<String> changedResources) {
+    when(congestionEvaluator.isEnabled()).thenReturn(true);
+    when(congestionEvaluator.getRefreshInterval()).thenReturn(1000L);
+    when(congestionEvaluator.updateOccupancy()).thenReturn(changedResources);
+    when(objectService.fetchObjects(eq(Path.class), any())).then(invocation -> {
+      Predicate<Path> predicate = invocation.getArgument(1);
+      Set<Path> result = new HashSet<>();
+      for (Path path : paths) {
+        if (predicate.test(path)) {
+          result.add(path);
+        }
+      }
+      return result;
+    });
+    router = createRouter();
+  }
+
+  /**
+   * Runs the congestion update task the router scheduled on initialization.
+   */
+  private void runCongestionUpdate() {
+    ArgumentCaptor<Runnable> taskCaptor = ArgumentCaptor.forClass(Runnable.class);
+    verify(kernelExecutor).scheduleWithFixedDelay(taskCaptor.capture(),
+                                                  eq(1000L),
+                                                  eq(1000L),
+                                                  eq(TimeUnit.MILLISECONDS));
+    taskCaptor.getValue().run();
+  }
+
+  /**
+   * Creates a location with the given access points and registers it with the object service.
+   *
+   * @param name The name of the location.
+   * @param accessPoints The location's access points.
+   * @return The location.
+   */
+  private Location createLocation(String name, Point... accessPoints) {
+    LocationType locationType = new LocationType(name + "-type");
+    Location location = new Location(name, locationType.getReference());
+    Set<Location.Link> links = new HashSet<>();
+    for (Point accessPoint : accessPoints) {
+      links.add(new Location.Link(location.getReference(), accessPoint.getReference()));
+      when(objectService.fetchObject(Point.class, accessPoint.getReference()))
+          .thenReturn(accessPoint);
+    }
+    location = location.withAttachedLinks(links);
+
+    when(objectService.fetchObject(Location.class, name)).thenReturn(location);
+    when(objectService.fetchObject(LocationType.class, locationType.getReference()))
+        .thenReturn(locationType);
+
+    return location;
+  }
+
+  /**
+   * Creates a point router providing the given costs.
+   *
+   * @param costs The costs for travelling between points, mapped by "source-destination".
+   * Costs between identical points are zero, all others are infinite.
+   * @return The point router.
+   */
+  private PointRouter createPointRouter(Map<String, Long> costs) {
+    PointRouter pointRouter = mock(PointRouter.class);
+    when(pointRouter.getCosts(any(Point.class), any(Point.class))).then(invocation -> {
+      Point src = invocation.getArgument(0);
+      Point dest = invocation.getArgument(1);
+      if (src.equals(dest)) {
+        return 0L;
+      }
+      return costs.getOrDefault(src.getName() + "-" + dest.getName(), PointRouter.INFINITE_COSTS);
+    });
+    when(pointRouter.getCosts(any(Point.class), anySet())).thenCallRealMethod();
+    when(pointRouter.getRouteSteps(any(Point.class), any(Point.class))).then(invocation -> {
+      List<Route.Step> steps = new ArrayList<>();
+      steps.add(new Route.Step(null,
+                               invocation.getArgument(0),
+                               invocation.getArgument(1),
+                               Vehicle.Orientation.FORWARD,
+                               0));
+      return steps;
+    });
+    return pointRouter;
+  }
+
   /**
    * Creates a vehicle with a unique id, the given name and the given routing group.
    * If the routing group is negative no property will be added.
@@ -157,7 +614,12 @@ public class DefaultRouterTest {
   private Router createRouter() {
     when(builder.createPointRouter(any())).thenReturn(mock(PointRouter.class));
 
-    return new DefaultRouter(objectService, builder, routingGroupMapper, configuration);
+    return new DefaultRouter(objectService,
+                             builder,
+                             routingGroupMapper,
+                             congestionEvaluator,
+                             kernelExecutor,
+                             configuration);
   }
 
   /**
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+
+/**
+ */
+public class RouteCacheTest {
+
+  private Point pointA;
+  private Point pointB;
+  private Point pointC;
+  private PointRouter pointRouter;
+
+  @BeforeEach
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pointC = new Point("C");
+    pointRouter = mock(PointRouter.class);
+  }
+
+  @Test
+  public void returnCachedRouteForSamePointRouterOnly() {
+    RouteCache cache = new RouteCache(10);
+    Route route = createRoute(5, pointA, pointB);
+
+    cache.put("group", pointRouter, pointA, pointB, route);
+
+    assertThat(cache.get("group", pointRouter, pointA, pointB), is(sameInstance(route)));
+    assertThat(cache.get("otherGroup", pointRouter, pointA, pointB), is(nullValue()));
+    assertThat(cache.get("group", mock(PointRouter.class), pointA, pointB), is(nullValue()));
+    // The route computed with the other point router is not kept.
+    assertThat(cache.getRouteCount(), is(0));
+    assertThat(cache.getHitCount(), is(1L));
+    assertThat(cache.getMissCount(), is(2L));
+    assertThat(cache.getHitRate(), is(closeTo(1.0 / 3, 0.001)));
+  }
+
+  @Test
+  public void evictLeastRecentlyUsedRoutesByNumberOfSteps() {
+    RouteCache cache = new RouteCache(5);
+    cache.put("group", pointRouter, pointA, pointB, createRoute(2, pointA, pointB));
+    cache.put("group", pointRouter, pointB, pointC, createRoute(2, pointB, pointC));
+    cache.get("group", pointRouter, pointA, pointB);
+
+    cache.put("group", pointRouter, pointA, pointC, createRoute(2, pointA, pointC));
+
+    assertThat(cache.getRouteCount(), is(2));
+    assertThat(cache.get("group", pointRouter, pointB, pointC), is(nullValue()));
+    assertThat(cache.get("group", pointRouter, pointA, pointB) == null, is(false));
+    assertThat(cache.get("group", pointRouter, pointA, pointC) == null, is(false));
+  }
+
+  @Test
+  public void evictRoutesInBatchesBelowCapacity() {
+    RouteCache cache = new RouteCache(100);
+    for (int i = 0; i < 11; i++) {
+      Point point = new Point("P" + i);
+      cache.put("group", pointRouter, pointA, point, createRoute(10, pointA, point));
+    }
+
+    // The size is reduced to 90% of the capacity, evicting the two routes put first.
+    assertThat(cache.getRouteCount(), is(9));
+    assertThat(cache.get("group", pointRouter, pointA, new Point("P1")), is(nullValue()));
+    assertThat(cache.get("group", pointRouter, pointA, new Point("P2")) == null, is(false));
+  }
+
+  @Test
+  public void stayWithinCapacityWithConcurrentAccess()
+      throws Exception {
+    RouteCache cache = new RouteCache(100);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 4; thread++) {
+        int offset = thread * 1000;
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 1000; i++) {
+            Point point = new Point("P" + (offset + i % 50));
+            cache.put("group", pointRouter, pointA, point, createRoute(5, pointA, point));
+            cache.get("group", pointRouter, pointA, point);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    }
+    finally {
+      executor.shutdown();
+    }
+
+    cache.put("group", pointRouter, pointB, pointC, createRoute(5, pointB, pointC));
+    assertThat(cache.getRouteCount() * 5, is(lessThanOrEqualTo(100)));
+  }
+
+  @Test
+  public void transferOnlyUnaffectedRoutesToUpdatedPointRouter() {
+    RouteCache cache = new RouteCache(100);
+    Route routeAB = createRoute(2, pointA, pointB);
+    Route routeAC = createRoute(3, pointA, pointC);
+    Route routeBC = createRoute(4, pointB, pointC);
+    cache.put("group", pointRouter, pointA, pointB, routeAB);
+    cache.put("group", pointRouter, pointA, pointC, routeAC);
+    cache.put("group", pointRouter, pointB, pointC, routeBC);
+
+    PointRouter updatedPointRouter = mock(PointRouter.class);
+    // A cheaper route from B to C exists after the update.
+    when(updatedPointRouter.getCosts(eq(pointA), eq(Set.of(pointB))))
+        .thenReturn(Map.of(pointB, routeAB.getCosts()));
+    when(updatedPointRouter.getCosts(eq(pointB), eq(Set.of(pointC))))
+        .thenReturn(Map.of(pointC, routeBC.getCosts() - 1));
+
+    int removedCount = cache.transfer("group",
+                                      pointRouter,
+                                      updatedPointRouter,
+                                      Set.of(routeAC.getSteps().get(0).getPath().getName()));
+
+    assertThat(removedCount, is(2));
+    assertThat(cache.get("group", updatedPointRouter, pointA, pointB), is(sameInstance(routeAB)));
+    assertThat(cache.get("group", updatedPointRouter, pointA, pointC), is(nullValue()));
+    assertThat(cache.get("group", updatedPointRouter, pointB, pointC), is(nullValue()));
+  }
+
+  private Route createRoute(int stepCount, Point srcPoint, Point destPoint) {
+    List<Route.Step> steps = new ArrayList<>();
+    for (int i = 0; i < stepCount; i++) {
+      Path path = new Path(srcPoint.getName() + "-" + destPoint.getName() + "-" + i,
+                           srcPoint.getReference(),
+                           destPoint.getReference());
+      steps.add(new Route.Step(path, srcPoint, destPoint, Vehicle.Orientation.FORWARD, i));
+    }
+    return new Route(steps, stepCount * 10);
+  }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.edgeevaluator;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.routing.Edge;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+
+/**
+ */
+public class EdgeEvaluatorCongestionTest {
+
+  private Point pointA;
+  private Point pointB;
+  private Path pathAB;
+  private Vehicle vehicle;
+  private Vehicle otherVehicle;
+
+  private Scheduler scheduler;
+  private TCSObjectService objectService;
+  private Map<String, Set<TCSResource<?>>> allocations;
+
+  private EdgeEvaluatorCongestion edgeEvaluator;
+
+  @BeforeEach
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pathAB = new Path("A<->B", pointA.getReference(), pointB.getReference());
+    vehicle = new Vehicle("someVehicle");
+    otherVehicle = new Vehicle("otherVehicle");
+
+    CongestionConfiguration configuration = mock(CongestionConfiguration.class);
+    when(configuration.allocatedResourcePenalty()).thenReturn(100L);
+    when(configuration.claimedResourcePenalty()).thenReturn(10L);
+    scheduler = mock(Scheduler.class);
+    allocations = new HashMap<>();
+    when(scheduler.getAllocations()).thenReturn(allocations);
+    objectService = mock(TCSObjectService.class);
+    when(objectService.fetchObjects(Vehicle.class)).thenReturn(Set.of(vehicle, otherVehicle));
+
+    edgeEvaluator = new EdgeEvaluatorCongestion(configuration,
+                                                mock(ShortestPathConfiguration.class),
+                                                scheduler,
+                                                objectService);
+  }
+
+  @Test
+  public void penalizeNothingWithoutOccupancy() {
+    assertThat(edgeEvaluator.updateOccupancy(), is(empty()));
+    assertThat(edgeEvaluator.computeWeight(new Edge(pathAB, false), vehicle), is(0.0));
+  }
+
+  @Test
+  public void penalizeAllocatedPathAndTargetPoint() {
+    allocations.put(otherVehicle.getName(), Set.of(pathAB, pointB));
+
+    assertThat(edgeEvaluator.updateOccupancy(),
+               containsInAnyOrder(pathAB.getName(), pointB.getName()));
+    assertThat(edgeEvaluator.computeWeight(new Edge(pathAB, false), vehicle), is(200.0));
+    assertThat(edgeEvaluator.computeWeight(new Edge(pathAB, true), vehicle), is(100.0));
+  }
+
+  @Test
+  public void penalizeClaimedResourcesLessThanAllocatedOnes() {
+    Vehicle claimingVehicle = otherVehicle.withClaimedResources(
+        List.of(Set.of(pathAB.getReference(), pointB.getReference()))
+    );
+    when(objectService.fetchObjects(Vehicle.class)).thenReturn(Set.of(vehicle, claimingVehicle));
+    allocations.put(otherVehicle.getName(), Set.of(pointB));
+
+    edgeEvaluator.updateOccupancy();
+
+    assertThat(edgeEvaluator.computeWeight(new Edge(pathAB, false), vehicle), is(110.0));
+  }
+
+  @Test
+  public void penalizeResourcesOccupiedByAnyVehicle() {
+    Vehicle claimingVehicle = vehicle.withClaimedResources(List.of(Set.of(pathAB.getReference())));
+    when(objectService.fetchObjects(Vehicle.class))
+        .thenReturn(Set.of(claimingVehicle, otherVehicle));
+    allocations.put(vehicle.getName(), Set.of(pointB));
+
+    edgeEvaluator.updateOccupancy();
+
+    assertThat(edgeEvaluator.computeWeight(new Edge(pathAB, false), vehicle), is(110.0));
+    assertThat(edgeEvaluator.computeWeight(new Edge(pathAB, false), otherVehicle), is(110.0));
+  }
+
+  @Test
+  public void provideWeightCausedOnlyByVehicleItself() {
+    Vehicle claimingVehicle = vehicle.withClaimedResources(List.of(Set.of(pathAB.getReference())));
+    when(objectService.fetchObjects(Vehicle.class))
+        .thenReturn(Set.of(claimingVehicle, otherVehicle));
+    allocations.put(vehicle.getName(), Set.of(pointB));
+    allocations.put(otherVehicle.getName(), Set.of(pointA));
+
+    edgeEvaluator.updateOccupancy();
+
+    Map<String, Long> ownPenalties = edgeEvaluator.getOwnPenalties(vehicle);
+    assertThat(ownPenalties, is(Map.of(pathAB.getName(), 10L, pointB.getName(), 100L)));
+    assertThat(edgeEvaluator.computeOwnWeight(new Edge(pathAB, false), ownPenalties), is(110.0));
+    assertThat(edgeEvaluator.computeOwnWeight(new Edge(pathAB, true), ownPenalties), is(10.0));
+    assertThat(edgeEvaluator.getOwnPenalties(otherVehicle), is(Map.of(pointA.getName(), 100L)));
+  }
+
+  @Test
+  public void provideNoOwnPenaltiesForResourcesAlsoOccupiedByOtherVehicles() {
+    allocations.put(vehicle.getName(), Set.of(pointB));
+    allocations.put(otherVehicle.getName(), Set.of(pointB));
+
+    edgeEvaluator.updateOccupancy();
+
+    assertThat(edgeEvaluator.getOwnPenalties(vehicle), is(Map.of()));
+  }
+
+  @Test
+  public void reportResourcesWithIncreasedHighestPenaltyAsChanged() {
+    Vehicle claimingVehicle = vehicle.withClaimedResources(List.of(Set.of(pointB.getReference())));
+    when(objectService.fetchObjects(Vehicle.class))
+        .thenReturn(Set.of(claimingVehicle, otherVehicle));
+    edgeEvaluator.updateOccupancy();
+
+    allocations.put(otherVehicle.getName(), Set.of(pointB));
+    assertThat(edgeEvaluator.updateOccupancy(), containsInAnyOrder(pointB.getName()));
+  }
+
+  @Test
+  public void doNotReportResourcesWithUnchangedHighestPenaltyAsChanged() {
+    allocations.put(vehicle.getName(), Set.of(pointB));
+    edgeEvaluator.updateOccupancy();
+
+    allocations.put(otherVehicle.getName(), Set.of(pointB));
+    assertThat(edgeEvaluator.updateOccupancy(), is(empty()));
+  }
+
+  @Test
+  public void reportOnlyResourcesWithChangedPenalties() {
+    allocations.put(vehicle.getName(), Set.of(pathAB, pointB));
+    edgeEvaluator.updateOccupancy();
+
+    allocations.put(vehicle.getName(), Set.of(pointB));
+    assertThat(edgeEvaluator.updateOccupancy(), containsInAnyOrder(pathAB.getName()));
+    assertThat(edgeEvaluator.updateOccupancy(), is(empty()));
+  }
+}
@@ -14,6 +14,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -199,4 +200,30 @@ public class DefaultModelGraphMapperTest {
     verify(evaluator).onGraphComputationEnd(vehicle);
   }
 
+  @Test
+  public void updateWeightsOfEdgesOfGivenPathsOnly() {
+    when(configuration.algorithm()).thenReturn(ShortestPathConfiguration.Algorithm.DIJKSTRA);
+    when(evaluator.computeWeight(any(Edge.class), any(Vehicle.class))).thenReturn(1.0);
+
+    Graph<String, Edge> graph
+        = mapper.translateModel(new HashSet<>(Arrays.asList(pointA, pointB, pointC, pointD)),
+                                new HashSet<>(Arrays.asList(pathAB, pathBC, pathAD)),
+                                vehicle);
+
+    when(evaluator.computeWeight(any(Edge.class), any(Vehicle.class))).thenReturn(5.0);
+    Graph<String, Edge> updatedGraph
+        = mapper.updateGraph(graph, new HashSet<>(Arrays.asList(pathAD)), vehicle);
+
+    for (Edge edge : updatedGraph.edgeSet()) {
+      if (edge.getPath().equals(pathAD)) {
+        assertEquals(5.0, updatedGraph.getEdgeWeight(edge));
+      }
+      else {
+        assertEquals(1.0, updatedGraph.getEdgeWeight(edge));
+      }
+      // The original graph is not modified.
+      assertEquals(1.0, graph.getEdgeWeight(edge));
+    }
+    assertEquals(graph.edgeSet(), updatedGraph.edgeSet());
+  }
 }
@@ -10,6 +10,7 @@ package org.opentcs.strategies.basic.routing.jgrapht;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.MatcherAssert.assertThat;
@@ -101,4 +102,112 @@ public class ShortestPathPointRouterTest {
     assertThat(steps, is(not(empty())));
   }
 
+  @Test
+  public void returnCostsForAllDestinationsFromSingleSource() {
+    Map<Point, Long> costs
+        = pointRouter.getCosts(pointA, new HashSet<>(Arrays.asList(pointA, pointB, pointC)));
+
+    assertEquals(3, costs.size());
+    assertEquals(0, costs.get(pointA));
+    assertEquals(PointRouter.INFINITE_COSTS, costs.get(pointB));
+    assertEquals(1234, costs.get(pointC));
+  }
+
+  @Test
+  public void returnCostsForAllDestinationsFromSingleSourceUsingGraphSearch() {
+    Graph<String, Edge> graph = new DirectedWeightedMultigraph<>(Edge.class);
+    graph.addVertex(pointA.getName());
+    graph.addVertex(pointB.getName());
+    graph.addVertex(pointC.getName());
+    graph.addEdge(pointA.getName(), pointC.getName(), edgeAC);
+    graph.setEdgeWeight(edgeAC, 1234);
+    pointRouter = new ShortestPathPointRouter(new DijkstraShortestPath<>(graph),
+                                              graph,
+                                              new HashSet<>(Arrays.asList(pointA, pointB, pointC)));
+
+    Map<Point, Long> costs
+        = pointRouter.getCosts(pointA, new HashSet<>(Arrays.asList(pointA, pointB, pointC)));
+
+    assertEquals(3, costs.size());
+    assertEquals(0, costs.get(pointA));
+    assertEquals(PointRouter.INFINITE_COSTS, costs.get(pointB));
+    assertEquals(1234, costs.get(pointC));
+  }
+
+  @Test
+  public void returnCostsForClosestDestinationsOnlyUsingGraphSearch() {
+    Path pathAB = new Path("A-->B", pointA.getReference(), pointB.getReference());
+    Edge edgeAB = new Edge(pathAB, false);
+    Graph<String, Edge> graph = new DirectedWeightedMultigraph<>(Edge.class);
+    graph.addVertex(pointA.getName());
+    graph.addVertex(pointB.getName());
+    graph.addVertex(pointC.getName());
+    graph.addEdge(pointA.getName(), pointB.getName(), edgeAB);
+    graph.setEdgeWeight(edgeAB, 100);
+    graph.addEdge(pointA.getName(), pointC.getName(), edgeAC);
+    graph.setEdgeWeight(edgeAC, 1234);
+    pointRouter = new ShortestPathPointRouter(new DijkstraShortestPath<>(graph),
+                                              graph,
+                                              new HashSet<>(Arrays.asList(pointA, pointB, pointC)));
+
+    Map<Point, Long> costs
+        = pointRouter.getCostsToClosest(pointA, new HashSet<>(Arrays.asList(pointB, pointC)), 1);
+
+    assertEquals(1, costs.size());
+    assertEquals(100, costs.get(pointB));
+  }
+
+  @Test
+  public void omitUnreachableDestinationsFromClosestDestinations() {
+    Map<Point, Long> costs
+        = pointRouter.getCostsToClosest(pointA, new HashSet<>(Arrays.asList(pointB, pointC)), 2);
+
+    assertEquals(1, costs.size());
+    assertEquals(1234, costs.get(pointC));
+  }
+
+  @Test
+  public void computeRoutesWithReducedWeightsWithoutModifyingOriginalRouter() {
+    Path pathAB = new Path("A-->B", pointA.getReference(), pointB.getReference());
+    Path pathBC = new Path("B-->C", pointB.getReference(), pointC.getReference());
+    Edge edgeAB = new Edge(pathAB, false);
+    Edge edgeBC = new Edge(pathBC, false);
+    Graph<String, Edge> graph = new DirectedWeightedMultigraph<>(Edge.class);
+    graph.addVertex(pointA.getName());
+    graph.addVertex(pointB.getName());
+    graph.addVertex(pointC.getName());
+    graph.addEdge(pointA.getName(), pointB.getName(), edgeAB);
+    graph.setEdgeWeight(edgeAB, 100);
+    graph.addEdge(pointB.getName(), pointC.getName(), edgeBC);
+    graph.setEdgeWeight(edgeBC, 100);
+    graph.addEdge(pointA.getName(), pointC.getName(), edgeAC);
+    graph.setEdgeWeight(edgeAC, 1234);
+    pointRouter = new ShortestPathPointRouter(new DijkstraShortestPath<>(graph),
+                                              graph,
+                                              new HashSet<>(Arrays.asList(pointA, pointB, pointC)));
+
+    PointRouter reducedRouter
+        = pointRouter.withReducedWeights(edge -> edge.equals(edgeAC) ? 1200.0 : 0.0);
+
+    assertEquals(34, reducedRouter.getCosts(pointA.getReference(), pointC.getReference()));
+    assertEquals(1, reducedRouter.getRouteSteps(pointA, pointC).size());
+    assertEquals(200, pointRouter.getCosts(pointA.getReference(), pointC.getReference()));
+    assertEquals(2, pointRouter.getRouteSteps(pointA, pointC).size());
+  }
+
+  @Test
+  public void neverReduceWeightsBelowZero() {
+    Graph<String, Edge> graph = new DirectedWeightedMultigraph<>(Edge.class);
+    graph.addVertex(pointA.getName());
+    graph.addVertex(pointC.getName());
+    graph.addEdge(pointA.getName(), pointC.getName(), edgeAC);
+    graph.setEdgeWeight(edgeAC, 1234);
+    pointRouter = new ShortestPathPointRouter(new DijkstraShortestPath<>(graph),
+                                              graph,
+                                              new HashSet<>(Arrays.asList(pointA, pointC)));
+
+    PointRouter reducedRouter = pointRouter.withReducedWeights(edge -> 5000.0);
+
+    assertEquals(0, reducedRouter.getCosts(pointA.getReference(), pointC.getReference()));
+  }
 }
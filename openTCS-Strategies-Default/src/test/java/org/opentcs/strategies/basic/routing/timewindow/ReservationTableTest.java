@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.List;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.Test;
+
+/**
+ */
+public class ReservationTableTest {
+
+  @Test
+  public void reportConflictsWithOtherVehiclesOnly() {
+    ReservationTable table = ReservationTable.EMPTY
+        .withReservations("vehicle1", List.of(new Reservation("A", "vehicle1", 100, 200)))
+        .withReservations("vehicle2", List.of(new Reservation("A", "vehicle2", 300, 400)));
+
+    assertThat(table.getConflictEnd("A", "vehicle3", 0, 100), is(ReservationTable.NO_CONFLICT));
+    assertThat(table.getConflictEnd("A", "vehicle3", 150, 350), is(400L));
+    assertThat(table.getConflictEnd("A", "vehicle3", 200, 300), is(ReservationTable.NO_CONFLICT));
+    assertThat(table.getConflictEnd("A", "vehicle1", 150, 250), is(ReservationTable.NO_CONFLICT));
+    assertThat(table.getConflictEnd("B", "vehicle3", 0, 1000), is(ReservationTable.NO_CONFLICT));
+  }
+
+  @Test
+  public void replaceReservationsOfVehicle() {
+    ReservationTable table = ReservationTable.EMPTY
+        .withReservations("vehicle1", List.of(new Reservation("A", "vehicle1", 100, 200)))
+        .withReservations("vehicle1", List.of(new Reservation("B", "vehicle1", 100, 200)));
+
+    assertThat(table.getConflictEnd("A", "vehicle2", 0, 1000), is(ReservationTable.NO_CONFLICT));
+    assertThat(table.getConflictEnd("B", "vehicle2", 0, 1000), is(200L));
+    assertThat(table.getReservations("vehicle1"), hasSize(1));
+  }
+}
@@ -0,0 +1,281 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import org.junit.jupiter.api.BeforeEach;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.junit.jupiter.api.Test;
+import org.opentcs.components.kernel.routing.Edge;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+
+/**
+ */
+public class SpaceTimePlannerTest {
+
+  private Point pointA;
+  private Point pointB;
+  private Point pointC;
+  private Point pointD;
+  private Path pathAB;
+  private Path pathBD;
+  private Path pathAC;
+  private Path pathCD;
+  private Vehicle vehicle;
+
+  private Graph<String, Edge> graph;
+  private SpaceTimePlanner planner;
+
+  @BeforeEach
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pointC = new Point("C");
+    pointD = new Point("D");
+    pathAB = createPath(pointA, pointB, 1000);
+    pathBD = createPath(pointB, pointD, 1000);
+    pathAC = createPath(pointA, pointC, 2000);
+    pathCD = createPath(pointC, pointD, 2000);
+    vehicle = new Vehicle("someVehicle")
+        .withMaxVelocity(1000)
+        .withMaxReverseVelocity(1000);
+
+    graph = new DirectedWeightedMultigraph<>(Edge.class);
+    for (Point point : List.of(pointA, pointB, pointC, pointD)) {
+      graph.addVertex(point.getName());
+    }
+    for (Path path : List.of(pathAB, pathBD, pathAC, pathCD)) {
+      addEdge(path, false);
+      addEdge(path, true);
+    }
+
+    planner = new SpaceTimePlanner(List.of(pointA, pointB, pointC, pointD), 0, 10000);
+  }
+
+  @Test
+  public void planFastestRouteWithoutReservations() {
+    Optional<Route> route
+        = planner.planRoute(vehicle, graph, pointA, pointD, 0, ReservationTable.EMPTY, true);
+
+    assertThat(route.isPresent(), is(true));
+    assertThat(pathNames(route.get()), contains("A --- B", "B --- D"));
+    assertThat(route.get().getCosts(), is(2000L));
+  }
+
+  @Test
+  public void avoidPathReservedByOtherVehicle() {
+    ReservationTable table = ReservationTable.EMPTY.withReservations(
+        "otherVehicle",
+        List.of(new Reservation("B --- D", "otherVehicle", 0, 20000))
+    );
+
+    Optional<Route> route = planner.planRoute(vehicle, graph, pointA, pointD, 0, table, true);
+
+    assertThat(route.isPresent(), is(true));
+    assertThat(pathNames(route.get()), contains("A --- C", "C --- D"));
+    assertThat(route.get().getCosts(), is(4000L));
+  }
+
+  @Test
+  public void waitForShortReservationToPass() {
+    ReservationTable table = ReservationTable.EMPTY.withReservations(
+        "otherVehicle",
+        List.of(new Reservation("B --- D", "otherVehicle", 0, 1500))
+    );
+
+    Optional<Route> route = planner.planRoute(vehicle, graph, pointA, pointD, 0, table, true);
+
+    assertThat(route.isPresent(), is(true));
+    assertThat(pathNames(route.get()), contains("A --- B", "B --- D"));
+    assertThat(
+        planner.traverseRoute(vehicle, route.get().getSteps(), 0, table, true, new ArrayList<>()),
+        is(2500L)
+    );
+  }
+
+  @Test
+  public void ignorePathsNotInGraph() {
+    graph.removeEdge(graph.getEdge(pointB.getName(), pointD.getName()));
+
+    Optional<Route> route
+        = planner.planRoute(vehicle, graph, pointA, pointD, 0, ReservationTable.EMPTY, true);
+
+    assertThat(route.isPresent(), is(true));
+    assertThat(pathNames(route.get()), contains("A --- C", "C --- D"));
+  }
+
+  @Test
+  public void useEdgeWeightsAsCosts() {
+    graph.setEdgeWeight(graph.getEdge(pointA.getName(), pointB.getName()), 42);
+    graph.setEdgeWeight(graph.getEdge(pointB.getName(), pointD.getName()), 58);
+
+    Optional<Route> route
+        = planner.planRoute(vehicle, graph, pointA, pointD, 0, ReservationTable.EMPTY, true);
+
+    assertThat(route.isPresent(), is(true));
+    assertThat(pathNames(route.get()), contains("A --- B", "B --- D"));
+    assertThat(route.get().getCosts(), is(100L));
+  }
+
+  @Test
+  public void travelInReverseDirection() {
+    Optional<Route> route
+        = planner.planRoute(vehicle, graph, pointD, pointA, 0, ReservationTable.EMPTY, true);
+
+    assertThat(route.isPresent(), is(true));
+    assertThat(pathNames(route.get()), contains("B --- D", "A --- B"));
+    assertThat(route.get().getSteps().get(0).getSourcePoint(), is(pointD));
+    assertThat(route.get().getSteps().get(0).getVehicleOrientation(),
+               is(Vehicle.Orientation.BACKWARD));
+  }
+
+  @Test
+  public void ignoreOwnReservations() {
+    ReservationTable table = ReservationTable.EMPTY.withReservations(
+        vehicle.getName(),
+        List.of(new Reservation("B --- D", vehicle.getName(), 0, 20000))
+    );
+
+    Optional<Route> route = planner.planRoute(vehicle, graph, pointA, pointD, 0, table, true);
+
+    assertThat(route.isPresent(), is(true));
+    assertThat(route.get().getCosts(), is(2000L));
+  }
+
+  @Test
+  public void failIfDestinationIsReservedPermanently() {
+    ReservationTable table = ReservationTable.EMPTY.withReservations(
+        "otherVehicle",
+        List.of(new Reservation("D", "otherVehicle", 0, Long.MAX_VALUE))
+    );
+
+    assertThat(planner.planRoute(vehicle, graph, pointA, pointD, 0, table, true).isPresent(),
+               is(false));
+  }
+
+  @Test
+  public void reserveResourcesAlongRoute() {
+    Route route = planner
+        .planRoute(vehicle, graph, pointA, pointD, 0, ReservationTable.EMPTY, true)
+        .get();
+    List<Reservation> reservations = new ArrayList<>();
+
+    long arrival = planner.traverseRoute(vehicle,
+                                         route.getSteps(),
+                                         0,
+                                         ReservationTable.EMPTY,
+                                         true,
+                                         reservations);
+
+    assertThat(arrival, is(2000L));
+    assertThat(reservations.stream().map(Reservation::getResourceName).collect(Collectors.toList()),
+               contains("A", "A --- B", "B", "B --- D", "D"));
+    assertThat(reservations.get(3).getStart(), is(1000L));
+    assertThat(reservations.get(3).getEnd(), is(2000L));
+    assertThat(reservations.get(4).getEnd(), is(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void planRoutesForHundredVehiclesWithinTenMillisecondsEach() {
+    // A grid of 20 x 20 points with paths of 1 m between neighbouring points.
+    int gridSize = 20;
+    List<Point> points = new ArrayList<>();
+    graph = new DirectedWeightedMultigraph<>(Edge.class);
+    for (int i = 0; i < gridSize * gridSize; i++) {
+      points.add(new Point("P" + i));
+      graph.addVertex(points.get(i).getName());
+    }
+    for (int i = 0; i < gridSize * gridSize; i++) {
+      if (i % gridSize < gridSize - 1) {
+        Path path = createPath(points.get(i), points.get(i + 1), 1000);
+        addEdge(path, false);
+        addEdge(path, true);
+      }
+      if (i + gridSize < gridSize * gridSize) {
+        Path path = createPath(points.get(i), points.get(i + gridSize), 1000);
+        addEdge(path, false);
+        addEdge(path, true);
+      }
+    }
+    planner = new SpaceTimePlanner(points, 500, 10000);
+
+    // Warm up, then plan and reserve routes for 100 vehicles, one after the other.
+    for (int i = 0; i < 100; i++) {
+      planner.planRoute(vehicle,
+                        graph,
+                        points.get(0),
+                        points.get(points.size() - 1),
+                        0,
+                        ReservationTable.EMPTY,
+                        true);
+    }
+    ReservationTable table = ReservationTable.EMPTY;
+    long planningTime = 0;
+    int plannedRoutes = 0;
+    for (int i = 0; i < 100; i++) {
+      Vehicle curVehicle = new Vehicle("vehicle" + i)
+          .withMaxVelocity(1000)
+          .withMaxReverseVelocity(1000);
+      Point sourcePoint = points.get(i * 4);
+      Point destinationPoint = points.get((i * 4 + 202) % points.size());
+
+      long timeBefore = System.nanoTime();
+      Optional<Route> route
+          = planner.planRoute(curVehicle, graph, sourcePoint, destinationPoint, 0, table, true);
+      planningTime += System.nanoTime() - timeBefore;
+
+      if (route.isPresent()) {
+        plannedRoutes++;
+        List<Reservation> reservations = new ArrayList<>();
+        planner.traverseRoute(curVehicle, route.get().getSteps(), 0, table, true, reservations);
+        table = table.withReservations(curVehicle.getName(), reservations);
+      }
+    }
+
+    assertThat(plannedRoutes, is(100));
+    assertThat(planningTime / 100, is(lessThan(TimeUnit.MILLISECONDS.toNanos(10))));
+  }
+
+  private void addEdge(Path path, boolean reverse) {
+    Edge edge = new Edge(path, reverse);
+    if (reverse) {
+      graph.addEdge(path.getDestinationPoint().getName(), path.getSourcePoint().getName(), edge);
+    }
+    else {
+      graph.addEdge(path.getSourcePoint().getName(), path.getDestinationPoint().getName(), edge);
+    }
+    graph.setEdgeWeight(edge, path.getLength());
+  }
+
+  private Path createPath(Point srcPoint, Point destPoint, long length) {
+    return new Path(srcPoint.getName() + " --- " + destPoint.getName(),
+                    srcPoint.getReference(),
+                    destPoint.getReference())
+        .withLength(length)
+        .withMaxVelocity(1000)
+        .withMaxReverseVelocity(1000);
+  }
+
+  private List<String> pathNames(Route route) {
+    return route.getSteps().stream()
+        .map(step -> step.getPath().getName())
+        .collect(Collectors.toList());
+  }
+}
@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.DefaultRouter;
+import org.opentcs.util.event.EventSource;
+
+/**
+ * Unit tests for {@link TimeWindowRouter}.
+ */
+public class TimeWindowRouterTest {
+
+  private Point pointA;
+  private Point pointB;
+  private Point pointC;
+  private Path pathAB;
+  private Path pathBC;
+  private Vehicle vehicle;
+  private TCSObjectService objectService;
+  private TimeWindowRouter router;
+
+  @BeforeEach
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pointC = new Point("C");
+    pathAB = createPath(pointA, pointB);
+    pathBC = createPath(pointB, pointC);
+    vehicle = new Vehicle("vehicle").withCurrentPosition(pointA.getReference());
+
+    objectService = mock(TCSObjectService.class);
+    when(objectService.fetchObjects(Point.class)).thenReturn(Set.of(pointA, pointB, pointC));
+    for (Point point : List.of(pointA, pointB, pointC)) {
+      when(objectService.fetchObject(Point.class, point.getReference())).thenReturn(point);
+    }
+    when(objectService.fetchObject(Vehicle.class, vehicle.getReference())).thenReturn(vehicle);
+
+    TimeWindowRoutingConfiguration configuration = mock(TimeWindowRoutingConfiguration.class);
+    when(configuration.maxWaitingTime()).thenReturn(10000L);
+
+    router = new TimeWindowRouter(objectService,
+                                  mock(DefaultRouter.class),
+                                  configuration,
+                                  mock(EventSource.class));
+    router.initialize();
+  }
+
+  @Test
+  public void reserveResourcesAlongSelectedRoute() {
+    router.selectRoute(vehicle, List.of(driveOrderToC()));
+
+    assertThat(reservedResources(), contains("A", "A --- B", "B", "B --- C", "C"));
+  }
+
+  @Test
+  public void reanchorReservationsWhenVehicleReportsPositionOnRoute() {
+    router.selectRoute(vehicle, List.of(driveOrderToC()));
+    long timeBefore = System.currentTimeMillis();
+
+    router.onEvent(positionChange(pointB));
+
+    assertThat(reservedResources(), contains("B", "B --- C", "C"));
+    assertThat(router.getReservationTable().getReservations(vehicle.getName()).get(0).getStart(),
+               is(greaterThanOrEqualTo(timeBefore)));
+  }
+
+  @Test
+  public void keepReservingFinalDestinationAfterArrival() {
+    router.selectRoute(vehicle, List.of(driveOrderToC()));
+
+    router.onEvent(positionChange(pointB));
+    router.onEvent(positionChange(pointC));
+
+    assertThat(reservedResources(), contains("C"));
+    assertThat(router.getReservationTable().getReservations(vehicle.getName()).get(0).getEnd(),
+               is(Long.MAX_VALUE));
+  }
+
+  @Test
+  public void keepReservationsWhenVehicleReportsPositionNotOnRoute() {
+    router.selectRoute(vehicle, List.of(driveOrderToC()));
+
+    router.onEvent(positionChange(new Point("X")));
+
+    assertThat(reservedResources(), contains("A", "A --- B", "B", "B --- C", "C"));
+  }
+
+  private TCSObjectEvent positionChange(Point position) {
+    when(objectService.fetchObject(Point.class, position.getReference())).thenReturn(position);
+    Vehicle previousState = vehicle;
+    vehicle = vehicle.withCurrentPosition(position.getReference());
+    return new TCSObjectEvent(vehicle, previousState, TCSObjectEvent.Type.OBJECT_MODIFIED);
+  }
+
+  private List<String> reservedResources() {
+    return router.getReservationTable().getReservations(vehicle.getName()).stream()
+        .map(Reservation::getResourceName)
+        .collect(Collectors.toList());
+  }
+
+  private DriveOrder driveOrderToC() {
+    return new DriveOrder(new DriveOrder.Destination(pointC.getReference()))
+        .withRoute(new Route(
+            List.of(new Route.Step(pathAB, pointA, pointB, Vehicle.Orientation.FORWARD, 0),
+                    new Route.Step(pathBC, pointB, pointC, Vehicle.Orientation.FORWARD, 1)),
+            2000
+        ));
+  }
+
+  private Path createPath(Point srcPoint, Point destPoint) {
+    return new Path(srcPoint.getName() + " --- " + destPoint.getName(),
+                    srcPoint.getReference(),
+                    destPoint.getReference())
+        .withLength(1000)
+        .withMaxVelocity(1000)
+        .withMaxReverseVelocity(1000);
+  }
+}
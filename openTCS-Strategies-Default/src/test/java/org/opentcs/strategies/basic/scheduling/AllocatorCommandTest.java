@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.List;
+import java.util.Set;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import org.junit.jupiter.api.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Unit tests for {@link AllocatorCommand}.
+ */
+public class AllocatorCommandTest {
+
+  @Test
+  public void keepCreationTimeWhenSkippingResourceSets()
+      throws InterruptedException {
+    Scheduler.Client client = mock(Scheduler.Client.class);
+    when(client.getId()).thenReturn("client");
+    Scheduler.Client otherClient = mock(Scheduler.Client.class);
+    when(otherClient.getId()).thenReturn("otherClient");
+    Set<TCSResource<?>> resourcesA = Set.of(new Point("A"));
+    Set<TCSResource<?>> resourcesB = Set.of(new Point("B"));
+
+    AllocatorCommand.Allocate original
+        = new AllocatorCommand.Allocate(client, List.of(resourcesA, resourcesB));
+    Thread.sleep(5);
+    AllocatorCommand.Allocate younger = new AllocatorCommand.Allocate(otherClient, resourcesB);
+    AllocatorCommand.Allocate remainder = original.skip(1);
+
+    assertThat(remainder.getResources(), is(resourcesB));
+    assertThat(remainder.getCreationTime(), is(original.getCreationTime()));
+    assertThat(remainder.compareTo(younger), is(lessThan(0)));
+  }
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.InOrder;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Unit tests for {@link AllocatorTask}.
+ */
+public class AllocatorTaskTest {
+
+  private Set<TCSResource<?>> resourcesA;
+  private Set<TCSResource<?>> resourcesB;
+  private Set<TCSResource<?>> resourcesC;
+  private ReservationPool reservationPool;
+  private DeferredAllocations deferredAllocations;
+  private Scheduler.Module allocationAdvisor;
+  private Scheduler.Client client;
+  private ScheduledExecutorService kernelExecutor;
+  private AllocatorTask allocatorTask;
+
+  @BeforeEach
+  public void setUp() {
+    resourcesA = Set.of(new Point("A"));
+    resourcesB = Set.of(new Point("B"));
+    resourcesC = Set.of(new Point("C"));
+    reservationPool = new ReservationPool();
+    InternalPlantModelService plantModelService = mock(InternalPlantModelService.class);
+    when(plantModelService.expandResources(any())).thenReturn(Set.of());
+    deferredAllocations = new DeferredAllocations(plantModelService);
+    allocationAdvisor = mock(Scheduler.Module.class);
+    when(allocationAdvisor.mayAllocate(any(), any())).thenReturn(true);
+    when(allocationAdvisor.hasPreparedAllocation(any(), any())).thenReturn(true);
+    client = mock(Scheduler.Client.class);
+    when(client.getId()).thenReturn("client");
+    when(client.allocationSuccessful(any())).thenReturn(true);
+    kernelExecutor = mock(ScheduledExecutorService.class);
+    allocatorTask = new AllocatorTask(reservationPool,
+                                      deferredAllocations,
+                                      allocationAdvisor,
+                                      kernelExecutor,
+                                      new Object(),
+                                      new ResourceContentionRecorder(() -> 0L));
+  }
+
+  @Test
+  public void allocateResourceSequenceAtOnce() {
+    reservationPool.setClaim(client, List.of(resourcesA, resourcesB, resourcesC));
+
+    allocatorTask.submit(new AllocatorCommand.Allocate(client, List.of(resourcesA, resourcesB)));
+    allocatorTask.run();
+
+    InOrder inOrder = inOrder(client);
+    inOrder.verify(client).allocationSuccessful(resourcesA);
+    inOrder.verify(client).allocationSuccessful(resourcesB);
+    assertThat(reservationPool.getClaim(client), is(List.of(resourcesC)));
+    assertThat(deferredAllocations.size(), is(0));
+  }
+
+  @Test
+  public void deferRemainderOfResourceSequenceNotAvailable() {
+    Scheduler.Client otherClient = mock(Scheduler.Client.class);
+    reservationPool.allocate(otherClient, resourcesB);
+    reservationPool.setClaim(client, List.of(resourcesA, resourcesB, resourcesC));
+
+    allocatorTask.submit(new AllocatorCommand.Allocate(client,
+                                                       List.of(resourcesA, resourcesB, resourcesC)));
+    allocatorTask.run();
+
+    verify(client).allocationSuccessful(resourcesA);
+    verify(client, never()).allocationSuccessful(resourcesB);
+    assertThat(reservationPool.getClaim(client), is(List.of(resourcesB, resourcesC)));
+    assertThat(deferredAllocations.removeWaitingFor(resourcesB).get(0).getResourceSequence(),
+               is(List.of(resourcesB, resourcesC)));
+  }
+
+  @Test
+  public void processCommandsSubmittedBeforeCycleInOneCycle() {
+    reservationPool.setClaim(client, List.of(resourcesA, resourcesB));
+
+    allocatorTask.submit(new AllocatorCommand.Allocate(client, resourcesA));
+    allocatorTask.submit(new AllocatorCommand.Allocate(client, resourcesB));
+    allocatorTask.run();
+
+    verify(kernelExecutor, times(1)).submit(allocatorTask);
+    verify(client).allocationSuccessful(resourcesA);
+    verify(client).allocationSuccessful(resourcesB);
+  }
+
+  @Test
+  public void retryDeferredAllocationOnceForMultipleReleases() {
+    Scheduler.Client otherClient = mock(Scheduler.Client.class);
+    reservationPool.allocate(otherClient, resourcesA);
+    reservationPool.setClaim(client, List.of(resourcesA));
+    allocatorTask.submit(new AllocatorCommand.Allocate(client, resourcesA));
+    allocatorTask.run();
+    verify(client, never()).allocationSuccessful(resourcesA);
+
+    reservationPool.free(otherClient, resourcesA);
+    allocatorTask.submit(new AllocatorCommand.AllocationsReleased(otherClient, resourcesA));
+    allocatorTask.submit(new AllocatorCommand.RetryAllocates(otherClient));
+    allocatorTask.run();
+    allocatorTask.run();
+
+    verify(client, times(1)).allocationSuccessful(resourcesA);
+    assertThat(deferredAllocations.size(), is(0));
+  }
+
+  @Test
+  public void retryAllocationsRefusedByModuleOnlyForGivenClient() {
+    Scheduler.Client otherClient = mock(Scheduler.Client.class);
+    when(otherClient.getId()).thenReturn("otherClient");
+    when(allocationAdvisor.mayAllocate(any(), any())).thenReturn(false);
+    reservationPool.setClaim(client, List.of(resourcesA));
+    reservationPool.setClaim(otherClient, List.of(resourcesB));
+    allocatorTask.submit(new AllocatorCommand.Allocate(client, resourcesA));
+    allocatorTask.submit(new AllocatorCommand.Allocate(otherClient, resourcesB));
+    allocatorTask.run();
+    assertThat(deferredAllocations.size(), is(2));
+
+    when(allocationAdvisor.mayAllocate(any(), any())).thenReturn(true);
+    allocatorTask.submit(new AllocatorCommand.RetryClientAllocates(client));
+    allocatorTask.run();
+    allocatorTask.run();
+
+    verify(client).allocationSuccessful(resourcesA);
+    verify(otherClient, never()).allocationSuccessful(any());
+    assertThat(deferredAllocations.size(), is(1));
+  }
+
+  @Test
+  public void keepProcessingCommandsAfterClientCallbackThrowsException() {
+    Scheduler.Client otherClient = mock(Scheduler.Client.class);
+    when(otherClient.getId()).thenReturn("otherClient");
+    when(otherClient.allocationSuccessful(any())).thenReturn(true);
+    when(client.allocationSuccessful(any()))
+        .thenThrow(new IllegalStateException("Expected exception"));
+    reservationPool.setClaim(client, List.of(resourcesA));
+    reservationPool.setClaim(otherClient, List.of(resourcesB, resourcesC));
+
+    allocatorTask.submit(new AllocatorCommand.Allocate(client, resourcesA));
+    allocatorTask.submit(new AllocatorCommand.Allocate(otherClient, resourcesB));
+    allocatorTask.run();
+
+    verify(otherClient).allocationSuccessful(resourcesB);
+
+    // A new cycle is scheduled for commands submitted afterwards.
+    allocatorTask.submit(new AllocatorCommand.Allocate(otherClient, resourcesC));
+    verify(kernelExecutor, times(2)).submit(allocatorTask);
+    allocatorTask.run();
+
+    verify(otherClient).allocationSuccessful(resourcesC);
+  }
+
+  @Test
+  public void dropPendingAllocationsOfClient() {
+    reservationPool.setClaim(client, List.of(resourcesA));
+
+    allocatorTask.submit(new AllocatorCommand.Allocate(client, resourcesA));
+    allocatorTask.removePendingAllocations(client);
+    allocatorTask.run();
+
+    verify(client, never()).allocationSuccessful(any());
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.DispatcherService;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockHandling;
+import org.opentcs.strategies.basic.scheduling.modules.DeadlockAvoidanceModule;
+import org.opentcs.util.event.SimpleEventBus;
+
+/**
+ * Unit tests for {@link DefaultScheduler}.
+ */
+public class DefaultSchedulerTest {
+
+  private Set<TCSResource<?>> resourcesA;
+  private Set<TCSResource<?>> resourcesB;
+  private Set<TCSResource<?>> resourcesC;
+  private Set<TCSResource<?>> resourcesD;
+  private Scheduler.Client client;
+  private Scheduler.Client otherClient;
+  private DefaultScheduler scheduler;
+
+  @BeforeEach
+  public void setUp() {
+    resourcesA = Set.of(new Point("A"));
+    resourcesB = Set.of(new Point("B"));
+    resourcesC = Set.of(new Point("C"));
+    resourcesD = Set.of(new Point("D"));
+    client = createClient("client");
+    otherClient = createClient("otherClient");
+
+    InternalPlantModelService plantModelService = mock(InternalPlantModelService.class);
+    when(plantModelService.expandResources(any())).thenReturn(Set.of());
+    DefaultSchedulerConfiguration configuration = mock(DefaultSchedulerConfiguration.class);
+    when(configuration.deadlockHandling()).thenReturn(DeadlockHandling.AVOID);
+    when(configuration.contentionStatisticsWindow()).thenReturn(60000L);
+    // Execute scheduling tasks immediately.
+    ScheduledExecutorService kernelExecutor = mock(ScheduledExecutorService.class);
+    doAnswer(invocation -> {
+      ((Runnable) invocation.getArgument(0)).run();
+      return null;
+    }).when(kernelExecutor).submit(any(Runnable.class));
+    Object globalSyncObject = new Object();
+
+    DeadlockAvoidanceModule deadlockAvoidanceModule
+        = new DeadlockAvoidanceModule(mock(TCSObjectService.class),
+                                      () -> mock(DispatcherService.class),
+                                      () -> scheduler,
+                                      globalSyncObject,
+                                      configuration);
+    scheduler = new DefaultScheduler(new AllocationAdvisor(Set.of(deadlockAvoidanceModule)),
+                                     new ReservationPool(),
+                                     plantModelService,
+                                     kernelExecutor,
+                                     new SimpleEventBus(),
+                                     globalSyncObject,
+                                     configuration);
+    scheduler.initialize();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    scheduler.terminate();
+  }
+
+  @Test
+  public void grantAllocationRefusedByDeadlockAvoidanceOnceCycleIsResolved()
+      throws Exception {
+    scheduler.allocateNow(client, resourcesA);
+    scheduler.claim(client, List.of(resourcesB, resourcesC));
+    scheduler.allocateNow(otherClient, resourcesC);
+    scheduler.claim(otherClient, List.of(resourcesA));
+
+    // With B allocated, the client would wait for C, held by the other client waiting for A.
+    scheduler.allocate(client, resourcesB);
+    verify(client, never()).allocationSuccessful(any());
+
+    // The other client no longer waits for resources held by the client, e.g. after rerouting.
+    // No resources are released, though.
+    scheduler.claim(otherClient, List.of(resourcesD));
+
+    verify(client).allocationSuccessful(resourcesB);
+  }
+
+  private Scheduler.Client createClient(String id) {
+    Scheduler.Client result = mock(Scheduler.Client.class);
+    when(result.getId()).thenReturn(id);
+    when(result.allocationSuccessful(any())).thenReturn(true);
+    return result;
+  }
+}
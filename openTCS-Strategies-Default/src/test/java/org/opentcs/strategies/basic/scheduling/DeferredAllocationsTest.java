@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Set;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Unit tests for {@link DeferredAllocations}.
+ */
+public class DeferredAllocationsTest {
+
+  private Point pointA;
+  private Point pointB;
+  private Point pointInBlockWithB;
+  private InternalPlantModelService plantModelService;
+  private DeferredAllocations deferredAllocations;
+
+  @BeforeEach
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    pointInBlockWithB = new Point("inBlockWithB");
+    plantModelService = mock(InternalPlantModelService.class);
+    when(plantModelService.expandResources(any())).thenReturn(Set.of());
+    when(plantModelService.expandResources(Set.of(pointB.getReference())))
+        .thenReturn(Set.of(pointB, pointInBlockWithB));
+    deferredAllocations = new DeferredAllocations(plantModelService);
+  }
+
+  @Test
+  public void retryOnlyAllocationsWaitingForReleasedResources() {
+    AllocatorCommand.Allocate allocateA = new AllocatorCommand.Allocate(client("a"), Set.of(pointA));
+    AllocatorCommand.Allocate allocateB = new AllocatorCommand.Allocate(client("b"), Set.of(pointB));
+    deferredAllocations.add(allocateA);
+    deferredAllocations.add(allocateB);
+
+    assertThat(deferredAllocations.removeWaitingFor(Set.of(pointA)), contains(allocateA));
+    assertThat(deferredAllocations.removeWaitingFor(Set.of(pointA)), is(empty()));
+    assertThat(deferredAllocations.size(), is(1));
+  }
+
+  @Test
+  public void retryAllocationsWaitingForMembersOfSameBlock() {
+    AllocatorCommand.Allocate allocateB = new AllocatorCommand.Allocate(client("b"), Set.of(pointB));
+    deferredAllocations.add(allocateB);
+
+    assertThat(deferredAllocations.removeWaitingFor(Set.<TCSResource<?>>of(pointInBlockWithB)),
+               contains(allocateB));
+  }
+
+  @Test
+  public void retryAllocationsInOrderOfAge() {
+    AllocatorCommand.Allocate olderAllocate
+        = new AllocatorCommand.Allocate(client("a"), Set.of(pointA));
+    AllocatorCommand.Allocate newerAllocate
+        = new AllocatorCommand.Allocate(client("b"), Set.of(pointA, pointB));
+    deferredAllocations.add(newerAllocate);
+    deferredAllocations.add(olderAllocate);
+
+    assertThat(deferredAllocations.removeWaitingFor(Set.of(pointA)),
+               contains(olderAllocate, newerAllocate));
+  }
+
+  @Test
+  public void retryOnlyAllocationsOfGivenClient() {
+    Scheduler.Client client = client("a");
+    AllocatorCommand.Allocate allocateA = new AllocatorCommand.Allocate(client, Set.of(pointA));
+    AllocatorCommand.Allocate allocateB = new AllocatorCommand.Allocate(client("b"), Set.of(pointB));
+    deferredAllocations.add(allocateA);
+    deferredAllocations.add(allocateB);
+
+    assertThat(deferredAllocations.removeWaitingOf(client), contains(allocateA));
+    assertThat(deferredAllocations.removeAll(), contains(allocateB));
+  }
+
+  @Test
+  public void forgetAllocationsOfClient() {
+    Scheduler.Client client = client("a");
+    deferredAllocations.add(new AllocatorCommand.Allocate(client, Set.of(pointA)));
+
+    deferredAllocations.removeAllOf(client);
+
+    assertThat(deferredAllocations.removeAll(), is(empty()));
+  }
+
+  private Scheduler.Client client(String id) {
+    Scheduler.Client client = mock(Scheduler.Client.class);
+    when(client.getId()).thenReturn(id);
+    return client;
+  }
+}
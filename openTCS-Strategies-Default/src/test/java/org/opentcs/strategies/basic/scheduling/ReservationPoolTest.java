@@ -101,7 +101,7 @@ public class ReservationPoolTest {
 
   @Test
   public void allocatedResourcesIsEmptyAfterClear() {
-    reservationPool.getReservationEntry(new Point("point1")).allocate(client);
+    reservationPool.allocate(client, Set.of(new Point("point1")));
     reservationPool.clear();
 
     assertThat(reservationPool.allocatedResources(client), is(empty()));
@@ -109,7 +109,7 @@ public class ReservationPoolTest {
 
   @Test
   public void reflectAllocatedResources() {
-    reservationPool.getReservationEntry(new Point("point1")).allocate(client);
+    reservationPool.allocate(client, Set.of(new Point("point1")));
 
     assertThat(reservationPool.allocatedResources(client), hasSize(1));
     assertThat(reservationPool.getAllocations(), is(aMapWithSize(1)));
@@ -117,13 +117,28 @@ public class ReservationPoolTest {
 
   @Test
   public void allocatedResourcesIsEmptyAfterFreeAll() {
-    reservationPool.getReservationEntry(new Point("point1")).allocate(client);
+    reservationPool.allocate(client, Set.of(new Point("point1")));
     reservationPool.freeAll(client);
 
     assertThat(reservationPool.allocatedResources(client), is(empty()));
     assertThat(reservationPool.getAllocations(), is(anEmptyMap()));
   }
 
+  @Test
+  public void keepResourcesAllocatedUntilFreedAsOftenAsAllocated() {
+    Set<TCSResource<?>> resources = Set.of(new Point("point1"));
+    reservationPool.allocate(client, resources);
+    reservationPool.allocate(client, resources);
+
+    reservationPool.free(client, resources);
+    assertThat(reservationPool.allocatedResources(client), hasSize(1));
+
+    reservationPool.free(client, resources);
+    assertThat(reservationPool.allocatedResources(client), is(empty()));
+    assertThat(reservationPool.getAllocations(), is(anEmptyMap()));
+    assertThat(reservationPool.getReservationEntry(new Point("point1")).isFree(), is(true));
+  }
+
   /**
    * A dummy client for cases in which we need to provide a client but do not have a real one.
    */
@@ -0,0 +1,95 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.List;
+import java.util.Set;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.opentcs.access.ResourceContentionStatistics;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Unit tests for {@link ResourceContentionRecorder}.
+ */
+public class ResourceContentionRecorderTest {
+
+  private Point pointA;
+  private Point pointB;
+  private long now;
+  private ResourceContentionRecorder recorder;
+
+  @BeforeEach
+  public void setUp() {
+    pointA = new Point("A");
+    pointB = new Point("B");
+    now = 0;
+    recorder = new ResourceContentionRecorder(() -> now);
+    recorder.reset(List.of(pointA, pointB), 1200);
+  }
+
+  @Test
+  public void recordOccupancyUntilFreed() {
+    recorder.resourcesAllocated(Set.<TCSResource<?>>of(pointA));
+    now = 50;
+    recorder.resourcesFreed(Set.<TCSResource<?>>of(pointA));
+    now = 80;
+
+    ResourceContentionStatistics statistics = recorder.getStatistics();
+
+    assertThat(statistics.getEntries(), hasSize(1));
+    assertThat(statistics.getEntries().get(0).getResource(), is(pointA.getReference()));
+    assertThat(statistics.getEntries().get(0).getOccupancyTime(), is(50L));
+  }
+
+  @Test
+  public void includeOngoingOccupancy() {
+    recorder.resourcesAllocated(Set.<TCSResource<?>>of(pointA));
+    now = 250;
+
+    assertThat(recorder.getStatistics().getEntries().get(0).getOccupancyTime(), is(250L));
+  }
+
+  @Test
+  public void recordWaitingTimeAndDeferrals() {
+    recorder.allocationDeferred(Set.<TCSResource<?>>of(pointB));
+    recorder.allocationDeferred(Set.<TCSResource<?>>of(pointB));
+    now = 30;
+    recorder.allocationGranted(Set.<TCSResource<?>>of(pointB), 10);
+
+    ResourceContentionStatistics.Entry entry = recorder.getStatistics().getEntries().get(0);
+    assertThat(entry.getResource(), is(pointB.getReference()));
+    assertThat(entry.getWaitingTime(), is(20L));
+    assertThat(entry.getDeferralCount(), is(2));
+  }
+
+  @Test
+  public void forgetValuesOutsideWindow() {
+    recorder.allocationDeferred(Set.<TCSResource<?>>of(pointA));
+    recorder.resourcesAllocated(Set.<TCSResource<?>>of(pointB));
+    now = 100;
+    recorder.resourcesFreed(Set.<TCSResource<?>>of(pointB));
+    now = 1300;
+
+    assertThat(recorder.getStatistics().getEntries(), is(empty()));
+  }
+
+  @Test
+  public void limitOngoingOccupancyToWindow() {
+    recorder.resourcesAllocated(Set.<TCSResource<?>>of(pointA));
+    now = 10050;
+
+    // The window covers the eleven buckets completed recently and the current one.
+    assertThat(recorder.getStatistics().getEntries().get(0).getOccupancyTime(), is(1150L));
+  }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling.modules;
+
+import java.util.List;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.DispatcherService;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.ReroutingType;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockHandling;
+
+/**
+ * Unit tests for {@link DeadlockAvoidanceModule}.
+ */
+public class DeadlockAvoidanceModuleTest {
+
+  private Set<TCSResource<?>> resourcesA;
+  private Set<TCSResource<?>> resourcesB;
+  private Set<TCSResource<?>> resourcesC;
+  private Set<TCSResource<?>> resourcesD;
+  private Vehicle vehicle;
+  private Scheduler.Client client;
+  private Scheduler.Client otherClient;
+  private TCSObjectService objectService;
+  private DispatcherService dispatcherService;
+  private Scheduler scheduler;
+  private DefaultSchedulerConfiguration configuration;
+  private DeadlockAvoidanceModule module;
+
+  @BeforeEach
+  public void setUp() {
+    resourcesA = Set.of(new Point("A"));
+    resourcesB = Set.of(new Point("B"));
+    resourcesC = Set.of(new Point("C"));
+    resourcesD = Set.of(new Point("D"));
+    vehicle = new Vehicle("vehicle");
+    client = new SampleClient(vehicle.getName());
+    otherClient = new SampleClient("otherVehicle");
+    objectService = mock(TCSObjectService.class);
+    when(objectService.fetchObject(Vehicle.class, vehicle.getName())).thenReturn(vehicle);
+    dispatcherService = mock(DispatcherService.class);
+    scheduler = mock(Scheduler.class);
+    configuration = mock(DefaultSchedulerConfiguration.class);
+    when(configuration.deadlockHandling()).thenReturn(DeadlockHandling.AVOID);
+    module = new DeadlockAvoidanceModule(objectService,
+                                         () -> dispatcherService,
+                                         () -> scheduler,
+                                         new Object(),
+                                         configuration);
+    module.initialize();
+  }
+
+  @Test
+  public void allowAllocationNotLeadingToCycle() {
+    module.setAllocationState(client, resourcesA, List.of(resourcesB, resourcesC));
+    module.setAllocationState(otherClient, resourcesD, List.of(resourcesA));
+
+    assertTrue(module.mayAllocate(client, resourcesB));
+  }
+
+  @Test
+  public void refuseAllocationLeadingToCycle() {
+    module.setAllocationState(client, resourcesA, List.of(resourcesB, resourcesC));
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesA));
+
+    assertFalse(module.mayAllocate(client, resourcesB));
+    verify(dispatcherService, never()).reroute(any(), any());
+  }
+
+  @Test
+  public void refuseAllocationLeadingToCycleViaResourcesRequested() {
+    module.setAllocationState(client, resourcesA, List.of(resourcesB, resourcesC));
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesB));
+
+    assertFalse(module.mayAllocate(client, resourcesB));
+  }
+
+  @Test
+  public void allowAllocationAfterResourcesReleased() {
+    module.setAllocationState(client, resourcesA, List.of(resourcesB, resourcesC));
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesA));
+
+    module.allocationReleased(otherClient, resourcesC);
+
+    assertTrue(module.mayAllocate(client, resourcesB));
+  }
+
+  @Test
+  public void requestRetryOfRefusedAllocationOnceCycleIsResolved() {
+    module.setAllocationState(client, resourcesA, List.of(resourcesB, resourcesC));
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesA));
+    assertFalse(module.mayAllocate(client, resourcesB));
+
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesD));
+
+    verify(scheduler).retryAllocations(module, client);
+  }
+
+  @Test
+  public void doNotRequestRetryOfRefusedAllocationWhileCycleRemains() {
+    Scheduler.Client thirdClient = new SampleClient("thirdVehicle");
+    module.setAllocationState(client, resourcesA, List.of(resourcesB, resourcesC));
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesA));
+    assertFalse(module.mayAllocate(client, resourcesB));
+
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesA, resourcesD));
+    module.setAllocationState(thirdClient, resourcesD, List.of());
+
+    verify(scheduler, never()).retryAllocations(any(), any());
+  }
+
+  @Test
+  public void considerResourcesPreparedWithinSequence() {
+    module.setAllocationState(client, Set.of(), List.of(resourcesA, resourcesB, resourcesC));
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesA));
+
+    assertTrue(module.mayAllocate(client, resourcesA));
+    module.prepareAllocation(client, resourcesA);
+
+    assertFalse(module.mayAllocate(client, resourcesB));
+  }
+
+  @Test
+  public void rerouteVehicleOnceUntilAllocationStateChanges() {
+    when(configuration.deadlockHandling()).thenReturn(DeadlockHandling.AVOID_AND_REROUTE);
+    module.setAllocationState(client, resourcesA, List.of(resourcesB, resourcesC));
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesA));
+
+    assertFalse(module.mayAllocate(client, resourcesB));
+    assertFalse(module.mayAllocate(client, resourcesB));
+    verify(dispatcherService, times(1)).reroute(vehicle.getReference(), ReroutingType.REGULAR);
+  }
+
+  @Test
+  public void ignoreCyclesIfDisabled() {
+    when(configuration.deadlockHandling()).thenReturn(DeadlockHandling.NONE);
+    module.setAllocationState(client, resourcesA, List.of(resourcesB, resourcesC));
+    module.setAllocationState(otherClient, resourcesC, List.of(resourcesA));
+
+    assertTrue(module.mayAllocate(client, resourcesB));
+  }
+
+  private class SampleClient
+      implements Scheduler.Client {
+
+    private final String id;
+
+    SampleClient(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public boolean allocationSuccessful(Set<TCSResource<?>> resources) {
+      return true;
+    }
+
+    @Override
+    public void allocationFailed(Set<TCSResource<?>> resources) {
+    }
+  }
+}